@@ -0,0 +1,144 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares the JSON result of a benchmark run ({@code -rf json}) with a baseline recorded the same way and prints a
+ * report of the differences of the primary scores and, if available, of the normalized allocation rate
+ * ({@code -prof gc}).
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <current.json> [threshold-percent]}. The process exits with
+ * {@code 1}, if any score regressed by more than the threshold, which defaults to {@value #DEFAULT_THRESHOLD}
+ * percent.
+ *
+ * @author Anatole Tresch
+ */
+public final class BaselineComparison {
+
+    /**
+     * The default regression threshold, in percent.
+     */
+    static final double DEFAULT_THRESHOLD = 10.0;
+
+    private static final String ALLOC_RATE_NORM = "\u00b7gc.alloc.rate.norm";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        Map<String, JsonObject> baseline = read(args[0]);
+        Map<String, JsonObject> current = read(args[1]);
+        int regressions = 0;
+        System.out.println(String.format("%-70s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Delta"));
+        for (Map.Entry<String, JsonObject> entry : current.entrySet()) {
+            JsonObject base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.println(String.format("%-70s %14s %14s %9s", entry.getKey(), "-",
+                        format(score(entry.getValue().getAsJsonObject("primaryMetric"))), "new"));
+                continue;
+            }
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").getAsString());
+            if (report(entry.getKey(), base.getAsJsonObject("primaryMetric"),
+                    entry.getValue().getAsJsonObject("primaryMetric"), higherIsBetter, threshold)) {
+                regressions++;
+            }
+            JsonObject baseAlloc = secondaryMetric(base, ALLOC_RATE_NORM);
+            JsonObject currentAlloc = secondaryMetric(entry.getValue(), ALLOC_RATE_NORM);
+            if (baseAlloc != null && currentAlloc != null
+                    && report(entry.getKey() + " [alloc B/op]", baseAlloc, currentAlloc, false, threshold)) {
+                regressions++;
+            }
+        }
+        for (Map.Entry<String, JsonObject> entry : baseline.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                System.out.println(String.format("%-70s %14s %14s %9s", entry.getKey(),
+                        format(score(entry.getValue().getAsJsonObject("primaryMetric"))), "-", "missing"));
+            }
+        }
+        System.out.println(regressions + " regression(s) above " + threshold + "%.");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints a line of the report. Against a zero baseline, e.g. an allocation free benchmark, the relative delta is
+     * infinite, so any change in the worse direction is reported as a regression.
+     *
+     * @return true, if the score regressed by more than the threshold.
+     */
+    private static boolean report(String name, JsonObject baseline, JsonObject current, boolean higherIsBetter,
+                                  double threshold) {
+        double base = score(baseline);
+        double value = score(current);
+        double delta;
+        if (base == 0.0) {
+            delta = value == 0.0 ? 0.0 : Math.copySign(Double.POSITIVE_INFINITY, value);
+        } else {
+            delta = (value - base) * 100.0 / base;
+        }
+        boolean regression = higherIsBetter ? delta < -threshold : delta > threshold;
+        System.out.println(String.format("%-70s %14s %14s %+8.1f%%%s", name, format(base), format(value), delta,
+                regression ? "  REGRESSION" : ""));
+        return regression;
+    }
+
+    private static double score(JsonObject metric) {
+        return metric.get("score").getAsDouble();
+    }
+
+    private static String format(double score) {
+        return String.format("%.3f", score);
+    }
+
+    private static JsonObject secondaryMetric(JsonObject result, String name) {
+        JsonObject metrics = result.getAsJsonObject("secondaryMetrics");
+        return metrics == null ? null : metrics.getAsJsonObject(name);
+    }
+
+    /**
+     * Reads a JMH JSON result, keyed by benchmark, mode and parameters.
+     */
+    private static Map<String, JsonObject> read(String file) throws IOException {
+        Map<String, JsonObject> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            JsonArray array = new JsonParser().parse(reader).getAsJsonArray();
+            for (JsonElement element : array) {
+                JsonObject result = element.getAsJsonObject();
+                String key = result.get("benchmark").getAsString() + " (" + result.get("mode").getAsString() + ')';
+                JsonElement params = result.get("params");
+                if (params != null && !params.isJsonNull()) {
+                    key += ' ' + params.toString();
+                }
+                results.put(key, Objects.requireNonNull(result));
+            }
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import javax.money.convert.ConversionQuery;
+import javax.money.convert.ConversionQueryBuilder;
+import javax.money.convert.CurrencyConversion;
+import javax.money.convert.ExchangeRate;
+import javax.money.convert.ExchangeRateProvider;
+import javax.money.convert.MonetaryConversions;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lookups of {@link MonetaryConversions}, backed by the
+ * {@code TestMonetaryConversionsSingletonSpi}.
+ *
+ * @author Anatole Tresch
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    private CurrencyUnit base;
+    private CurrencyUnit term;
+    private ConversionQuery query;
+    private ExchangeRateProvider provider;
+
+    @Setup
+    public void setup() {
+        base = TestCurrency.of("CHF");
+        term = TestCurrency.of("EUR");
+        query = ConversionQueryBuilder.of().setBaseCurrency(base).setTermCurrency(term).build();
+        provider = MonetaryConversions.getExchangeRateProvider();
+    }
+
+    @Benchmark
+    public CurrencyConversion getConversion() {
+        return MonetaryConversions.getConversion(term);
+    }
+
+    @Benchmark
+    public CurrencyConversion getConversionByQuery() {
+        return MonetaryConversions.getConversion(query);
+    }
+
+    @Benchmark
+    public ExchangeRateProvider getExchangeRateProvider() {
+        return MonetaryConversions.getExchangeRateProvider();
+    }
+
+    @Benchmark
+    public boolean isConversionAvailable() {
+        return MonetaryConversions.isConversionAvailable(term);
+    }
+
+    @Benchmark
+    public ExchangeRate getExchangeRate() {
+        return provider.getExchangeRate(base, term);
+    }
+}
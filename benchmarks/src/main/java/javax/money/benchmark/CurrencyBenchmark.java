@@ -0,0 +1,64 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.money.CurrencyQuery;
+import javax.money.CurrencyQueryBuilder;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import java.util.Locale;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the currency lookups of {@link Monetary}, backed by the {@code TestCurrencyProvider}.
+ *
+ * @author Anatole Tresch
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurrencyBenchmark {
+
+    private CurrencyQuery codeQuery;
+    private CurrencyQuery countryQuery;
+
+    @Setup
+    public void setup() {
+        codeQuery = CurrencyQueryBuilder.of().setCurrencyCodes("test1").build();
+        countryQuery = CurrencyQueryBuilder.of().setCountries(new Locale("", "TEST1L")).build();
+        // resolve the SPIs outside of the measurement
+        Monetary.getCurrency("test1");
+    }
+
+    @Benchmark
+    public CurrencyUnit getCurrencyByCode() {
+        return Monetary.getCurrency("test1");
+    }
+
+    @Benchmark
+    public boolean isCurrencyAvailable() {
+        return Monetary.isCurrencyAvailable("test1");
+    }
+
+    @Benchmark
+    public Collection<CurrencyUnit> getCurrenciesByCodeQuery() {
+        return Monetary.getCurrencies(codeQuery);
+    }
+
+    @Benchmark
+    public Collection<CurrencyUnit> getCurrenciesByCountryQuery() {
+        return Monetary.getCurrencies(countryQuery);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.money.format.AmountFormatQuery;
+import javax.money.format.AmountFormatQueryBuilder;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lookups of {@link MonetaryFormats}, backed by the {@code TestAmountFormatProvider}.
+ *
+ * @author Anatole Tresch
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    private AmountFormatQuery query;
+
+    @Setup
+    public void setup() {
+        query = AmountFormatQueryBuilder.of(Locale.ENGLISH).build();
+        MonetaryFormats.getAmountFormat(Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public MonetaryAmountFormat getAmountFormatByLocale() {
+        return MonetaryFormats.getAmountFormat(Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public MonetaryAmountFormat getAmountFormatByQuery() {
+        return MonetaryFormats.getAmountFormat(query);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return MonetaryFormats.isAvailable(Locale.ENGLISH);
+    }
+}
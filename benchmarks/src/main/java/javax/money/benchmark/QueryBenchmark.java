@@ -0,0 +1,102 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.money.CurrencyQuery;
+import javax.money.CurrencyQueryBuilder;
+import javax.money.CurrencyUnit;
+import javax.money.RoundingQuery;
+import javax.money.RoundingQueryBuilder;
+import javax.money.TestCurrency;
+import javax.money.convert.ConversionContext;
+import javax.money.convert.ConversionContextBuilder;
+import javax.money.convert.ConversionQuery;
+import javax.money.convert.ConversionQueryBuilder;
+import javax.money.convert.RateType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of building queries and contexts and of their equality and hashing, as used by caches keyed by
+ * queries.
+ *
+ * @author Anatole Tresch
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    private CurrencyUnit base;
+    private CurrencyUnit term;
+    private ConversionQuery conversionQuery;
+    private ConversionQuery equalConversionQuery;
+    private ConversionContext conversionContext;
+    private ConversionContext equalConversionContext;
+
+    @Setup
+    public void setup() {
+        base = TestCurrency.of("CHF");
+        term = TestCurrency.of("EUR");
+        conversionQuery = buildConversionQuery();
+        equalConversionQuery = buildConversionQuery();
+        conversionContext = buildConversionContext();
+        equalConversionContext = buildConversionContext();
+    }
+
+    @Benchmark
+    public CurrencyQuery buildCurrencyQuery() {
+        return CurrencyQueryBuilder.of().setCurrencyCodes("test1").build();
+    }
+
+    @Benchmark
+    public RoundingQuery buildRoundingQuery() {
+        return RoundingQueryBuilder.of().setCurrency(base).setScale(2).build();
+    }
+
+    @Benchmark
+    public ConversionQuery buildConversionQuery() {
+        return ConversionQueryBuilder.of().setBaseCurrency(base).setTermCurrency(term)
+                .setRateTypes(RateType.DEFERRED).setProviderNames("test").build();
+    }
+
+    @Benchmark
+    public ConversionContext buildConversionContext() {
+        return ConversionContextBuilder.of().setProviderName("test").setRateType(RateType.DEFERRED).build();
+    }
+
+    @Benchmark
+    public boolean conversionQueryEquals() {
+        return conversionQuery.equals(equalConversionQuery);
+    }
+
+    @Benchmark
+    public int conversionQueryHashCode() {
+        return conversionQuery.hashCode();
+    }
+
+    @Benchmark
+    public boolean conversionContextEquals() {
+        return conversionContext.equals(equalConversionContext);
+    }
+
+    @Benchmark
+    public int conversionContextHashCode() {
+        return conversionContext.hashCode();
+    }
+
+    @Benchmark
+    public CurrencyUnit conversionQueryGetBaseCurrency() {
+        return conversionQuery.getBaseCurrency();
+    }
+}
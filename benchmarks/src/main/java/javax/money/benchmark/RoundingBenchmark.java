@@ -0,0 +1,74 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.money.CurrencyUnit;
+import javax.money.DummyAmount;
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryContextBuilder;
+import javax.money.MonetaryRounding;
+import javax.money.RoundingQuery;
+import javax.money.RoundingQueryBuilder;
+import javax.money.TestCurrency;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the rounding lookups of {@link Monetary}, backed by the {@code TestRoundingProvider}.
+ *
+ * @author Anatole Tresch
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundingBenchmark {
+
+    private CurrencyUnit currency;
+    private RoundingQuery query;
+    private MonetaryRounding rounding;
+    private MonetaryAmount amount;
+
+    @Setup
+    public void setup() {
+        currency = TestCurrency.of("CHF");
+        query = RoundingQueryBuilder.of().setCurrency(currency).setScale(2).build();
+        rounding = Monetary.getRounding(currency);
+        amount = new DummyAmount(1, MonetaryContextBuilder.of().build());
+    }
+
+    @Benchmark
+    public MonetaryRounding getRoundingByCurrency() {
+        return Monetary.getRounding(currency);
+    }
+
+    @Benchmark
+    public MonetaryRounding getRoundingByName() {
+        return Monetary.getRounding("custom1");
+    }
+
+    @Benchmark
+    public MonetaryRounding getRoundingByQuery() {
+        return Monetary.getRounding(query);
+    }
+
+    @Benchmark
+    public MonetaryAmount applyRounding() {
+        return rounding.apply(amount);
+    }
+
+    @Benchmark
+    public MonetaryAmount lookupAndApplyRounding() {
+        return Monetary.getRounding(currency).apply(amount);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor generating the {@code javax.money.spi.ServiceRegistry} used by
+ * {@code javax.money.spi.Bootstrap} instead of scanning the classpath with the JDK {@link java.util.ServiceLoader}.
+ * <p>
+ * The processor reads the {@code META-INF/services} entries of the Money and Currency SPIs from the resources of
+ * the current compilation and generates the class {@value #REGISTRY_CLASS}, which references the registered
+ * services by constructor references. {@code Bootstrap} looks up this class by its name. Services are ordered by
+ * their {@code Priority} annotation, if present, and their simple class name, the same way the default
+ * {@code ServiceProvider} orders them. At runtime the SPI types listed by the registry are served from the registry
+ * alone, so the {@code META-INF/services} entries read must list all services of these types, including those of
+ * other modules. The processor should therefore be run in the module that declares the services of the application,
+ * e.g. its assembly module. SPI types without an entry are still loaded by the {@link java.util.ServiceLoader}.
+ *
+ * @author Anatole Tresch
+ */
+@SupportedAnnotationTypes("*")
+public class ServiceRegistryProcessor extends AbstractProcessor {
+
+    /**
+     * The name of the generated class, must match {@code javax.money.spi.ServiceRegistry#GENERATED_REGISTRY_CLASS}.
+     */
+    static final String REGISTRY_CLASS = "org.javamoney.generated.MonetaryServiceRegistry";
+
+    /**
+     * The service types covered.
+     */
+    static final List<String> SERVICE_TYPES = Collections.unmodifiableList(Arrays.asList(
+            "javax.money.spi.ServiceProvider",
+            "javax.money.spi.CurrencyProviderSpi",
+            "javax.money.spi.MonetaryAmountFactoryProviderSpi",
+            "javax.money.spi.MonetaryAmountFormatProviderSpi",
+            "javax.money.spi.MonetaryAmountsSingletonQuerySpi",
+            "javax.money.spi.MonetaryAmountsSingletonSpi",
+            "javax.money.spi.MonetaryConversionsSingletonSpi",
+            "javax.money.spi.MonetaryCurrenciesSingletonSpi",
+            "javax.money.spi.MonetaryFormatsSingletonSpi",
+            "javax.money.spi.MonetaryRoundingsSingletonSpi",
+            "javax.money.spi.RoundingProviderSpi",
+            "javax.money.convert.ExchangeRateProvider"));
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || roundEnv.processingOver()) {
+            return false;
+        }
+        generated = true;
+        Map<String, List<TypeElement>> services = new LinkedHashMap<>();
+        for (String serviceType : SERVICE_TYPES) {
+            List<String> implementations = readServiceFile(serviceType);
+            if (implementations != null) {
+                services.put(serviceType, resolve(serviceType, implementations));
+            }
+        }
+        if (!services.isEmpty()) {
+            writeRegistry(services);
+        }
+        return false;
+    }
+
+    /**
+     * Reads the {@code META-INF/services} entry of the given service type.
+     *
+     * @param serviceType the service type.
+     * @return the implementation class names, or {@code null}, if there is no such entry.
+     */
+    private List<String> readServiceFile(String serviceType) {
+        String resourceName = "META-INF/services/" + serviceType;
+        for (StandardLocation location : Arrays.asList(StandardLocation.CLASS_OUTPUT, StandardLocation.SOURCE_PATH)) {
+            FileObject resource;
+            try {
+                resource = processingEnv.getFiler().getResource(location, "", resourceName);
+            } catch (IOException | IllegalArgumentException e) {
+                continue;
+            }
+            try (Reader reader = resource.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                List<String> implementations = new ArrayList<>();
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    String name = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                    if (!name.isEmpty() && !implementations.contains(name)) {
+                        implementations.add(name);
+                    }
+                }
+                return implementations;
+            } catch (IOException e) {
+                // resource does not exist in this location
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves and orders the implementation classes registered for a service type.
+     *
+     * @param serviceType     the service type.
+     * @param implementations the implementation class names.
+     * @return the implementation types, the most significant first.
+     */
+    private List<TypeElement> resolve(String serviceType, List<String> implementations) {
+        List<TypeElement> types = new ArrayList<>();
+        for (String implementation : implementations) {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(implementation.replace('$', '.'));
+            if (type == null) {
+                error("Service " + implementation + " registered for " + serviceType + " not found.", null);
+            } else if (!isInstantiable(type)) {
+                error("Service " + implementation + " registered for " + serviceType
+                        + " must be a public, non abstract class with a public no-args constructor.", type);
+            } else {
+                types.add(type);
+            }
+        }
+        types.sort(Comparator.<TypeElement>comparingInt(ServiceRegistryProcessor::getPriority).reversed()
+                .thenComparing(type -> type.getSimpleName().toString()));
+        return types;
+    }
+
+    /**
+     * Checks if the given type can be instantiated by a constructor reference.
+     *
+     * @param type the type.
+     * @return true, if the type is a public, non abstract class with a public no-args constructor.
+     */
+    private static boolean isInstantiable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || !type.getModifiers().contains(Modifier.PUBLIC)
+                || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        Element nested = type;
+        for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement()) {
+            if (!nested.getModifiers().contains(Modifier.STATIC) || !enclosing.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            nested = enclosing;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the value of an annotation named {@code Priority} on the given type.
+     *
+     * @param type the type.
+     * @return the priority declared, or {@code 0}.
+     */
+    private static int getPriority(TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().getSimpleName().contentEquals("Priority")) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                        : annotation.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")
+                            && entry.getValue().getValue() instanceof Integer) {
+                        return (Integer) entry.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Generates the registry class.
+     *
+     * @param services the services, per service type.
+     */
+    private void writeRegistry(Map<String, List<TypeElement>> services) {
+        int split = REGISTRY_CLASS.lastIndexOf('.');
+        try (Writer writer = processingEnv.getFiler().createSourceFile(REGISTRY_CLASS).openWriter();
+             PrintWriter out = new PrintWriter(writer)) {
+            out.println("package " + REGISTRY_CLASS.substring(0, split) + ';');
+            out.println();
+            out.println("import java.util.*;");
+            out.println("import java.util.function.Supplier;");
+            out.println();
+            out.println("/**");
+            out.println(" * Registry of the monetary services, generated by " + getClass().getName() + '.');
+            out.println(" */");
+            out.println("public final class " + REGISTRY_CLASS.substring(split + 1)
+                    + " implements javax.money.spi.ServiceRegistry {");
+            out.println();
+            out.println("    private static final Map<Class<?>, List<Supplier<?>>> SERVICES = new HashMap<>();");
+            out.println();
+            out.println("    static {");
+            for (Map.Entry<String, List<TypeElement>> entry : services.entrySet()) {
+                out.print("        SERVICES.put(" + entry.getKey() + ".class, ");
+                if (entry.getValue().isEmpty()) {
+                    out.println("Collections.emptyList());");
+                    continue;
+                }
+                out.println("Collections.unmodifiableList(Arrays.<Supplier<?>>asList(");
+                for (Iterator<TypeElement> types = entry.getValue().iterator(); types.hasNext(); ) {
+                    out.println("                " + types.next().getQualifiedName() + "::new"
+                            + (types.hasNext() ? "," : ")));"));
+                }
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public List<Supplier<?>> getServiceFactories(Class<?> serviceType) {");
+            out.println("        return SERVICES.get(serviceType);");
+            out.println("    }");
+            out.println();
+            out.println("}");
+        } catch (IOException e) {
+            error("Failed to generate " + REGISTRY_CLASS + ": " + e, null);
+        }
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
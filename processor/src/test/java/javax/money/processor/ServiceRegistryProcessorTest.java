@@ -0,0 +1,174 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.processor;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link ServiceRegistryProcessor}, running the processor on sources and service entries written to a
+ * temporary directory. The generated registry is attributed against the money-api on the test class path.
+ */
+public class ServiceRegistryProcessorTest {
+
+    private static final String CURRENCY_PROVIDER_SPI = "javax.money.spi.CurrencyProviderSpi";
+
+    private Path root;
+    private Path sources;
+    private Path classes;
+    private Path generated;
+    private final List<File> sourceFiles = new ArrayList<>();
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @BeforeMethod
+    public void createDirectories() throws IOException {
+        root = Files.createTempDirectory("registry");
+        sources = Files.createDirectories(root.resolve("src"));
+        classes = Files.createDirectories(root.resolve("classes"));
+        generated = Files.createDirectories(root.resolve("generated"));
+        sourceFiles.clear();
+    }
+
+    @AfterMethod
+    public void deleteDirectories() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private void addSource(String className, String source) throws IOException {
+        Path file = sources.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+        sourceFiles.add(file.toFile());
+    }
+
+    private void addServiceEntry(String serviceType, String... implementations) throws IOException {
+        Path file = classes.resolve("META-INF/services/" + serviceType);
+        Files.createDirectories(file.getParent());
+        List<String> lines = new ArrayList<>();
+        lines.add("# services");
+        lines.addAll(Arrays.asList(implementations));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private boolean process() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path"), "-d",
+                            classes.toString(), "-s", generated.toString()), null,
+                    fileManager.getJavaFileObjectsFromFiles(sourceFiles));
+            task.setProcessors(Collections.singletonList(new ServiceRegistryProcessor()));
+            return task.call();
+        }
+    }
+
+    private Path getRegistrySource() {
+        return generated.resolve(ServiceRegistryProcessor.REGISTRY_CLASS.replace('.', '/') + ".java");
+    }
+
+    private String getErrors() {
+        StringBuilder b = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                b.append(diagnostic.getMessage(null)).append('\n');
+            }
+        }
+        return b.toString();
+    }
+
+    private void addProviders() throws IOException {
+        addSource("test.Priority", "package test; public @interface Priority { int value(); }");
+        addSource("test.LowProvider", "package test; public class LowProvider {}");
+        addSource("test.HighProvider", "package test; @Priority(10) public class HighProvider {}");
+        addSource("test.Outer", "package test; public class Outer { public static class Nested {} }");
+    }
+
+    @Test
+    public void testGenerateRegistry() throws IOException {
+        addProviders();
+        addServiceEntry(CURRENCY_PROVIDER_SPI, "test.LowProvider", "test.Outer$Nested", "test.HighProvider");
+        assertTrue(process(), getErrors());
+        String registry = new String(Files.readAllBytes(getRegistrySource()), StandardCharsets.UTF_8);
+        assertTrue(registry.contains("SERVICES.put(" + CURRENCY_PROVIDER_SPI + ".class, "));
+        int high = registry.indexOf("test.HighProvider::new");
+        int low = registry.indexOf("test.LowProvider::new");
+        int nested = registry.indexOf("test.Outer.Nested::new");
+        assertTrue(high > 0 && low > high && nested > low, registry);
+        assertFalse(registry.contains("javax.money.spi.RoundingProviderSpi.class"));
+        assertFalse(Files.exists(classes.resolve("META-INF/services/javax.money.spi.ServiceRegistry")));
+    }
+
+    @Test
+    public void testGenerateRegistry_EmptyEntry() throws IOException {
+        addProviders();
+        addServiceEntry(CURRENCY_PROVIDER_SPI);
+        assertTrue(process(), getErrors());
+        String registry = new String(Files.readAllBytes(getRegistrySource()), StandardCharsets.UTF_8);
+        assertTrue(registry.contains("SERVICES.put(" + CURRENCY_PROVIDER_SPI + ".class, Collections.emptyList());"));
+    }
+
+    @Test
+    public void testNoServiceEntries() throws IOException {
+        addProviders();
+        assertTrue(process(), getErrors());
+        assertFalse(Files.exists(getRegistrySource()));
+    }
+
+    @Test
+    public void testServiceNotFound() throws IOException {
+        addProviders();
+        addServiceEntry(CURRENCY_PROVIDER_SPI, "test.MissingProvider");
+        assertFalse(process());
+        assertTrue(getErrors().contains("test.MissingProvider"), getErrors());
+    }
+
+    @Test
+    public void testServiceNotInstantiable() throws IOException {
+        addProviders();
+        addSource("test.HiddenProvider", "package test; public class HiddenProvider { private HiddenProvider() {} }");
+        addSource("test.AbstractProvider", "package test; public abstract class AbstractProvider {}");
+        addServiceEntry(CURRENCY_PROVIDER_SPI, "test.HiddenProvider", "test.AbstractProvider");
+        assertFalse(process());
+        String errors = getErrors();
+        assertTrue(errors.contains("Service test.HiddenProvider registered for " + CURRENCY_PROVIDER_SPI
+                + " must be a public"), errors);
+        assertTrue(errors.contains("Service test.AbstractProvider registered for " + CURRENCY_PROVIDER_SPI
+                + " must be a public"), errors);
+    }
+
+}
@@ -24,5 +24,6 @@ module java.money {
     uses javax.money.spi.MonetaryRoundingsSingletonSpi;
     uses javax.money.spi.RoundingProviderSpi;
     uses javax.money.spi.ServiceProvider;
+    uses javax.money.spi.ServiceRegistry;
     uses javax.money.convert.ExchangeRateProvider;
 }
\ No newline at end of file
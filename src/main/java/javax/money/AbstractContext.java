@@ -10,7 +10,13 @@
  */
 package javax.money;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -33,11 +39,22 @@ public abstract class AbstractContext implements Serializable {
 	 */
     protected static final String KEY_PROVIDER = "provider";
 
+    /**
+     * Typed key of the provider attribute.
+     */
+    private static final ContextKey<String> PROVIDER = ContextKey.of(KEY_PROVIDER, String.class);
+
+
+    /**
+     * The serialized form, a {@link HashMap} named {@code data} containing all values.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("data", Map.class)};
 
     /**
-     * The data map containing all values.
+     * The immutable data map containing all values. Final, so contexts are safely published without
+     * synchronization; it is only assigned by reflection on deserialization, see {@link DataField}.
      */
-    final Map<String, Object> data = new HashMap<>();
+    final transient ContextData data;
 
     /**
      * Private constructor, used by {@link AbstractContextBuilder}.
@@ -45,7 +62,51 @@ public abstract class AbstractContext implements Serializable {
      * @param builder the Builder.
      */
 	protected AbstractContext(AbstractContextBuilder<?, ?> builder) {
-        data.putAll(builder.data);
+        data = ContextData.of(builder.data);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("data", new HashMap<>(data));
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Map<String, Object> serialized = (Map<String, Object>) fields.get("data", null);
+        DataField.set(this, serialized == null ? ContextData.EMPTY : ContextData.of(serialized));
+    }
+
+    /**
+     * Holder of the reflective access to the final {@link #data} field, which is assigned once in
+     * {@link #readObject(ObjectInputStream)}. As for final fields set by the default deserialization, the field is
+     * frozen after the assignment, so deserialized contexts keep the final field semantics.
+     */
+    private static final class DataField {
+
+        private static final Field FIELD;
+
+        static {
+            try {
+                FIELD = AbstractContext.class.getDeclaredField("data");
+                FIELD.setAccessible(true);
+            } catch (NoSuchFieldException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private DataField() {
+        }
+
+        static void set(AbstractContext context, ContextData data) throws InvalidObjectException {
+            try {
+                FIELD.set(context, data);
+            } catch (IllegalAccessException e) {
+                InvalidObjectException ex = new InvalidObjectException("Cannot deserialize context data.");
+                ex.initCause(e);
+                throw ex;
+            }
+        }
     }
 
     /**
@@ -86,6 +147,21 @@ public abstract class AbstractContext implements Serializable {
         return null;
     }
 
+    /**
+     * Access an attribute by its typed key. Well known attributes, such as the provider name, are accessed directly.
+     *
+     * @param key the attribute's key, not {@code null}
+     * @return the attribute value, or {@code null}, if no such attribute exists or its value is not of the key's
+     * type.
+     */
+    public <T> T get(ContextKey<T> key) {
+        Object value = this.data.get(key);
+        if (key.getType().isInstance(value)) {
+            return (T) value;
+        }
+        return null;
+    }
+
     /**
      * Access an attribute, hereby using the class name as key.
      *
@@ -164,7 +240,7 @@ public abstract class AbstractContext implements Serializable {
      * @return the provider name, or null.
      */
     public String getProviderName() {
-        return getText(KEY_PROVIDER);
+        return get(PROVIDER);
     }
 
 
@@ -184,7 +260,8 @@ public abstract class AbstractContext implements Serializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(data);
+        // same value as Objects.hash(data), without allocating; the data hash code is evaluated once.
+        return 31 + data.hashCode();
     }
 
     /*
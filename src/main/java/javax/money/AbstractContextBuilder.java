@@ -179,6 +179,18 @@ public abstract class AbstractContextBuilder<B extends AbstractContextBuilder, C
         return (B) this;
     }
 
+    /**
+     * Sets an attribute by its typed key.
+     *
+     * @param key   the attribute's key, not {@code null}
+     * @param value the attribute value, not null.
+     * @return this Builder, for chaining
+     */
+    public <T> B set(ContextKey<T> key, T value) {
+        data.put(key.getName(), Objects.requireNonNull(value));
+        return (B) this;
+    }
+
     /**
      * Sets the provider.
      *
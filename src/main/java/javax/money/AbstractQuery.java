@@ -10,6 +10,9 @@
  */
 package javax.money;
 
+import java.time.Instant;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.Collections;
 import java.util.List;
 
@@ -38,6 +41,9 @@ public abstract class AbstractQuery extends AbstractContext {
      */
     protected static final String KEY_QUERY_TARGET_TYPE = "Query.targetType";
 
+    @SuppressWarnings("rawtypes")
+    private static final ContextKey<List> PROVIDERS_KEY = ContextKey.of(KEY_QUERY_PROVIDERS, List.class);
+
 
     /**
      * Constructor, using a builder.
@@ -58,7 +64,7 @@ public abstract class AbstractQuery extends AbstractContext {
      */
     public List<String> getProviderNames() {
 
-        @SuppressWarnings("unchecked") List<String> result = get(KEY_QUERY_PROVIDERS, List.class);
+        @SuppressWarnings("unchecked") List<String> result = get(PROVIDERS_KEY);
         if (result == null) {
             return Collections.emptyList();
         }
@@ -75,4 +81,44 @@ public abstract class AbstractQuery extends AbstractContext {
         return get(KEY_QUERY_TARGET_TYPE, Class.class);
     }
 
+    /**
+     * Get the point in time targeted by this query, e.g. the date of a historic exchange rate. A timestamp set as
+     * milliseconds since the epoch is returned as {@link Instant}.
+     *
+     * @return the timestamp, or {@code null}, if not set.
+     */
+    public TemporalAccessor getTimestamp() {
+        Object value = get(KEY_QUERY_TIMESTAMP, Object.class);
+        if (value instanceof Long) {
+            return Instant.ofEpochMilli((Long) value);
+        }
+        if (value instanceof TemporalAccessor) {
+            return (TemporalAccessor) value;
+        }
+        return null;
+    }
+
+    /**
+     * Get the point in time targeted by this query in milliseconds since the epoch. A timestamp set as date,
+     * without time and offset, is evaluated as start of the day in UTC.
+     *
+     * @return the timestamp, or {@code null}, if not set or not convertible to an instant.
+     */
+    public Long getTimestampMillis() {
+        Object value = get(KEY_QUERY_TIMESTAMP, Object.class);
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        if (value instanceof TemporalAccessor) {
+            TemporalAccessor timestamp = (TemporalAccessor) value;
+            if (timestamp.isSupported(ChronoField.INSTANT_SECONDS)) {
+                return Instant.from(timestamp).toEpochMilli();
+            }
+            if (timestamp.isSupported(ChronoField.EPOCH_DAY)) {
+                return timestamp.getLong(ChronoField.EPOCH_DAY) * 86_400_000L;
+            }
+        }
+        return null;
+    }
+
 }
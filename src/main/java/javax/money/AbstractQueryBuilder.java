@@ -8,6 +8,7 @@
  */
 package javax.money;
 
+import java.time.temporal.TemporalAccessor;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -93,6 +94,26 @@ public abstract class AbstractQueryBuilder<B extends javax.money.AbstractQueryBu
         return (B) this;
     }
 
+    /**
+     * Sets the point in time targeted, e.g. the date of a historic exchange rate.
+     *
+     * @param timestamp the timestamp, e.g. a {@link java.time.LocalDate} or {@link java.time.Instant}, not null.
+     * @return this query builder for chaining.
+     */
+    public B setTimestamp(TemporalAccessor timestamp) {
+        return set(AbstractQuery.KEY_QUERY_TIMESTAMP, Objects.requireNonNull(timestamp));
+    }
+
+    /**
+     * Sets the point in time targeted, in milliseconds since the epoch.
+     *
+     * @param timestamp the timestamp in milliseconds since the epoch.
+     * @return this query builder for chaining.
+     */
+    public B setTimestampMillis(long timestamp) {
+        return set(AbstractQuery.KEY_QUERY_TIMESTAMP, timestamp);
+    }
+
     /**
      * Creates a new {@link AbstractQuery} with the data from this Builder
      * instance.
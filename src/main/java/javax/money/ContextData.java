@@ -0,0 +1,210 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compact, immutable map holding the attributes of an {@link AbstractContext}. Contexts typically hold only a few
+ * entries, so keys and values are stored in two parallel arrays and looked up by a linear scan, comparing the
+ * (cached) key hash codes first. The map's hash code is evaluated once on creation. Additionally the array index of
+ * each well known attribute is stored in a slot table packed into a single {@code long}, so attributes accessed by
+ * a {@link ContextKey} with a slot are read without any lookup.
+ * <p>
+ * This class is immutable and thread-safe. All mutating operations throw an
+ * {@link UnsupportedOperationException}.
+ */
+final class ContextData extends AbstractMap<String, Object> {
+
+    /**
+     * The shared instance without any entries.
+     */
+    static final ContextData EMPTY = new ContextData(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int[] keyHashes;
+    private final int hashCode;
+    /**
+     * The slot table, 4 bits per slot: 0 if the attribute is not present, {@link #SLOT_BY_NAME} if it must be
+     * looked up by name, the attribute's index plus one otherwise.
+     */
+    private final long slotIndexes;
+    private static final int SLOT_BY_NAME = 0xF;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    private ContextData(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.keyHashes = new int[keys.length];
+        int hash = 0;
+        long slots = 0L;
+        for (int i = 0; i < keys.length; i++) {
+            keyHashes[i] = keys[i].hashCode();
+            hash += keyHashes[i] ^ Objects.hashCode(values[i]);
+            int slot = ContextKey.slotOf(keys[i]);
+            if (slot >= 0) {
+                slots |= (long) Math.min(i + 1, SLOT_BY_NAME) << (slot << 2);
+            }
+        }
+        this.hashCode = hash;
+        this.slotIndexes = slots;
+    }
+
+    /**
+     * Creates a new instance holding a copy of the given entries.
+     *
+     * @param data the entries, not null.
+     * @return the new instance, never null.
+     */
+    static ContextData of(Map<String, Object> data) {
+        if (data.isEmpty()) {
+            return EMPTY;
+        }
+        String[] keys = new String[data.size()];
+        Object[] values = new Object[keys.length];
+        int i = 0;
+        for (Entry<String, Object> en : data.entrySet()) {
+            keys[i] = en.getKey();
+            values[i] = en.getValue();
+            i++;
+        }
+        return new ContextData(keys, values);
+    }
+
+    /**
+     * Evaluates the index of the given key.
+     *
+     * @param key the key
+     * @return the index, or -1.
+     */
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        for (int i = 0; i < keys.length; i++) {
+            if (keyHashes[i] == hash && (keys[i] == key || keys[i].equals(key))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Access an attribute by its typed key, using the key's slot if possible.
+     *
+     * @param key the key, not null.
+     * @return the attribute value, or null.
+     */
+    Object get(ContextKey<?> key) {
+        int slot = key.slot;
+        if (slot >= 0) {
+            int index = (int) (slotIndexes >>> (slot << 2)) & SLOT_BY_NAME;
+            if (index == 0) {
+                return null;
+            }
+            if (index != SLOT_BY_NAME) {
+                return values[index - 1];
+            }
+        }
+        return get(key.getName());
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Set<Entry<String, Object>> result = entrySet;
+        if (result == null) {
+            result = new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (index >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> en = new SimpleImmutableEntry<>(keys[index], values[index]);
+                            index++;
+                            return en;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+            entrySet = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof ContextData) {
+            ContextData other = (ContextData) o;
+            if (hashCode != other.hashCode || keys.length != other.keys.length) {
+                return false;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                int index = other.indexOf(keys[i]);
+                if (index < 0 || !Objects.equals(values[i], other.values[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+}
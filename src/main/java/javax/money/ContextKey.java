@@ -0,0 +1,164 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A typed key of an attribute of an {@link AbstractContext}, combining the attribute's name with its type. Typed
+ * keys can be used with {@link AbstractContext#get(ContextKey)} and
+ * {@link AbstractContextBuilder#set(ContextKey, Object)} instead of passing the attribute's name and type
+ * separately.
+ * <p>
+ * The well known attributes of the API, such as the provider name, rate type, base and term currency, precision and
+ * scale, are assigned a fixed slot, so contexts can access them without looking up the attribute by its name.
+ * Keys of any other (e.g. use case specific) attributes are supported as well, they are looked up by name.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @param <T> the attribute type.
+ */
+public final class ContextKey<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The names of the well known attributes, in order of their slots.
+     */
+    private static final String[] WELL_KNOWN_NAMES = {
+            AbstractContext.KEY_PROVIDER,
+            "javax.money.convert.RateType",
+            "Query.baseCurrency",
+            "Query.termCurrency",
+            "javax.money.CurrencyUnit",
+            "precision",
+            "maxScale",
+            "fixedScale",
+            MonetaryContext.AMOUNT_TYPE,
+            AbstractQuery.KEY_QUERY_PROVIDERS,
+            RoundingQuery.KEY_QUERY_ROUNDING_NAME,
+            RoundingQuery.KEY_QUERY_SCALE,
+            "Query.rateTypes",
+            "rateTypes",
+    };
+
+    /**
+     * The maximal number of slots, limited by the slot table of {@link ContextData}.
+     */
+    static final int MAX_SLOTS = 16;
+
+    /**
+     * The slots of the well known attributes, by name.
+     */
+    private static final Map<String, Integer> SLOTS = new HashMap<>();
+
+    static {
+        if (WELL_KNOWN_NAMES.length > MAX_SLOTS) {
+            throw new IllegalStateException("Too many well known context attributes.");
+        }
+        for (int i = 0; i < WELL_KNOWN_NAMES.length; i++) {
+            SLOTS.put(WELL_KNOWN_NAMES[i], i);
+        }
+    }
+
+    private final String name;
+    private final Class<T> type;
+    /**
+     * The attribute's slot, or -1, if the attribute is not well known.
+     */
+    final transient int slot;
+
+    private ContextKey(String name, Class<T> type) {
+        this.name = Objects.requireNonNull(name, "name required.");
+        this.type = Objects.requireNonNull(type, "type required.");
+        this.slot = slotOf(name);
+    }
+
+    /**
+     * Creates a new key.
+     *
+     * @param name the attribute's name, not {@code null}.
+     * @param type the attribute's type, not {@code null}.
+     * @param <T>  the attribute type.
+     * @return the key, never {@code null}.
+     */
+    public static <T> ContextKey<T> of(String name, Class<T> type) {
+        return new ContextKey<>(name, type);
+    }
+
+    /**
+     * Creates a new key, using the type's class name as attribute name, as done by
+     * {@link AbstractContext#get(Class)}.
+     *
+     * @param type the attribute's type, not {@code null}.
+     * @param <T>  the attribute type.
+     * @return the key, never {@code null}.
+     */
+    public static <T> ContextKey<T> of(Class<T> type) {
+        return new ContextKey<>(type.getName(), type);
+    }
+
+    /**
+     * Evaluates the slot of an attribute.
+     *
+     * @param name the attribute's name.
+     * @return the slot, or -1, if the attribute is not well known.
+     */
+    static int slotOf(String name) {
+        Integer slot = SLOTS.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Get the attribute's name.
+     *
+     * @return the name, never {@code null}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the attribute's type.
+     *
+     * @return the type, never {@code null}.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    private Object readResolve() {
+        return new ContextKey<>(name, type);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof ContextKey) {
+            ContextKey<?> other = (ContextKey<?>) o;
+            return name.equals(other.name) && type.equals(other.type);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type);
+    }
+
+    @Override
+    public String toString() {
+        return "ContextKey[" + name + ", type=" + type.getName() + ']';
+    }
+}
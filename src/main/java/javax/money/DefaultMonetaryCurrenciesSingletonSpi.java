@@ -16,10 +16,18 @@ import javax.money.spi.Bootstrap;
 import javax.money.spi.CurrencyProviderSpi;
 import javax.money.spi.MonetaryCurrenciesSingletonSpi;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,6 +35,11 @@ import java.util.logging.Logger;
  * Factory singleton for {@link CurrencyUnit} instances as provided by the
  * different registered {@link javax.money.spi.CurrencyProviderSpi} instances.
  * <p/>
+ * Lookups are answered from an index built from the registered providers: the currencies a provider returns for
+ * an empty {@link CurrencyQuery} are indexed by code, numeric code and provider name, lookups by a single code,
+ * numeric code or country not covered hereby are evaluated once and remembered. The index is rebuilt on
+ * {@link #refresh()}, and when the {@link javax.money.spi.ServiceProvider} is replaced.
+ * <p/>
  * This class is thread safe.
  *
  * @author Anatole Tresch
@@ -34,19 +47,138 @@ import java.util.logging.Logger;
  */
 final class DefaultMonetaryCurrenciesSingletonSpi implements MonetaryCurrenciesSingletonSpi {
 
+    /**
+     * Counts the replacements of the current {@link javax.money.spi.ServiceProvider}.
+     */
+    private static final AtomicInteger SERVICE_PROVIDER_GENERATION = new AtomicInteger();
+
+    static {
+        Bootstrap.addServiceProviderListener(SERVICE_PROVIDER_GENERATION::incrementAndGet);
+    }
+
+    /**
+     * The current index, lazily built.
+     */
+    private volatile CurrencyIndex index;
+
+    /**
+     * Access all currencies matching the given query. As before the index was introduced, a new, modifiable set is
+     * returned on each call, so callers may change it without affecting the index.
+     *
+     * @param query The currency query, not null.
+     * @return a set of all currencies found, never null.
+     */
     @Override
     public Set<CurrencyUnit> getCurrencies(CurrencyQuery query) {
-        Set<CurrencyUnit> result = new HashSet<>();
-        for (CurrencyProviderSpi spi : Bootstrap.getServices(CurrencyProviderSpi.class)) {
-            try {
-                result.addAll(spi.getCurrencies(query));
-            } catch (Exception e) {
-                Logger.getLogger(DefaultMonetaryCurrenciesSingletonSpi.class.getName())
-                        .log(Level.SEVERE, "Error loading currency provider names for " + spi.getClass().getName(),
-                                e);
-            }
+        return new HashSet<>(getIndex().getCurrencies(query));
+    }
+
+    /**
+     * Access a currency by its code. If no providers are passed, the currency is looked up directly in the index,
+     * without creating a {@link CurrencyQuery}.
+     *
+     * @param currencyCode the currency code, not {@code null}.
+     * @param providers    the (optional) specification of providers to consider.
+     * @return the corresponding {@link CurrencyUnit} instance.
+     * @throws UnknownCurrencyException if no such currency exists.
+     */
+    @Override
+    public CurrencyUnit getCurrency(String currencyCode, String... providers) {
+        if (providers.length == 0) {
+            return getIndex().getCurrency(Objects.requireNonNull(currencyCode, "Currency Code may not be null"));
         }
-        return result;
+        return MonetaryCurrenciesSingletonSpi.super.getCurrency(currencyCode, providers);
+    }
+
+    /**
+     * Access a currency by its code, without raising an exception on a miss. If no providers are passed, the currency
+     * is looked up directly in the index, without creating a {@link CurrencyQuery}.
+     *
+     * @param currencyCode the currency code, not {@code null}.
+     * @param providers    the (optional) specification of providers to consider.
+     * @return the corresponding {@link CurrencyUnit}, or an empty {@link Optional}.
+     */
+    @Override
+    public Optional<CurrencyUnit> findCurrency(String currencyCode, String... providers) {
+        if (providers.length == 0) {
+            return Optional.ofNullable(
+                    getIndex().findCurrency(Objects.requireNonNull(currencyCode, "Currency Code may not be null")));
+        }
+        return MonetaryCurrenciesSingletonSpi.super.findCurrency(currencyCode, providers);
+    }
+
+    /**
+     * Checks if a currency with the given code is available. If no providers are passed, the currency is looked up
+     * directly in the index, without creating a {@link CurrencyQuery}.
+     *
+     * @param code      the currency code, not {@code null}.
+     * @param providers the (optional) specification of providers to consider.
+     * @return {@code true} if {@link #getCurrency(String, String...)} would return a result for the given code.
+     */
+    @Override
+    public boolean isCurrencyAvailable(String code, String... providers) {
+        if (providers.length == 0 && code != null) {
+            return !getIndex().getCurrenciesByCode(code).isEmpty();
+        }
+        return MonetaryCurrenciesSingletonSpi.super.isCurrencyAvailable(code, providers);
+    }
+
+    /**
+     * Access a currency by country. If no providers are passed, the currencies are looked up directly in the index,
+     * without creating a {@link CurrencyQuery}.
+     *
+     * @param country   the country, not {@code null}.
+     * @param providers the (optional) specification of providers to consider.
+     * @return the corresponding {@link CurrencyUnit} instance.
+     * @throws MonetaryException if no or more than one currency is defined for the country.
+     */
+    @Override
+    public CurrencyUnit getCurrency(Locale country, String... providers) {
+        if (providers.length > 0) {
+            return MonetaryCurrenciesSingletonSpi.super.getCurrency(country, providers);
+        }
+        Set<CurrencyUnit> found = getIndex().getCurrenciesByCountry(
+                Objects.requireNonNull(country, "Country may not be null"));
+        if (found.isEmpty()) {
+            throw new MonetaryException("No currency unit found for locale: " + country);
+        }
+        if (found.size() > 1) {
+            throw new MonetaryException("Ambiguous CurrencyUnit for locale: " + country + ": " + found);
+        }
+        return found.iterator().next();
+    }
+
+    /**
+     * Access the currencies of a country. If no providers are passed, the currencies are looked up directly in the
+     * index, without creating a {@link CurrencyQuery}.
+     *
+     * @param locale    the country, not {@code null}.
+     * @param providers the (optional) specification of providers to consider.
+     * @return a new, modifiable set of the currencies found, never null.
+     */
+    @Override
+    public Set<CurrencyUnit> getCurrencies(Locale locale, String... providers) {
+        if (providers.length > 0) {
+            return MonetaryCurrenciesSingletonSpi.super.getCurrencies(locale, providers);
+        }
+        return new HashSet<>(getIndex().getCurrenciesByCountry(
+                Objects.requireNonNull(locale, "Country may not be null")));
+    }
+
+    /**
+     * Checks if a currency is defined for a country. If no providers are passed, the currencies are looked up
+     * directly in the index, without creating a {@link CurrencyQuery}.
+     *
+     * @param locale    the country, not {@code null}.
+     * @param providers the (optional) specification of providers to consider.
+     * @return {@code true} if {@link #getCurrencies(Locale, String...)} would return a non-empty result.
+     */
+    @Override
+    public boolean isCurrencyAvailable(Locale locale, String... providers) {
+        if (providers.length == 0 && locale != null) {
+            return !getIndex().getCurrenciesByCountry(locale).isEmpty();
+        }
+        return MonetaryCurrenciesSingletonSpi.super.isCurrencyAvailable(locale, providers);
     }
 
     /**
@@ -56,10 +188,7 @@ final class DefaultMonetaryCurrenciesSingletonSpi implements MonetaryCurrenciesS
      */
     @Override
     public List<String> getDefaultProviderChain() {
-        List<String> list = new ArrayList<>();
-        list.addAll(getProviderNames());
-        Collections.sort(list);
-        return list;
+        return getIndex().defaultProviderChain;
     }
 
     /**
@@ -69,17 +198,284 @@ final class DefaultMonetaryCurrenciesSingletonSpi implements MonetaryCurrenciesS
      */
     @Override
     public Set<String> getProviderNames() {
-        Set<String> result = new HashSet<>();
-        for (CurrencyProviderSpi spi : Bootstrap.getServices(CurrencyProviderSpi.class)) {
-            try {
-                result.add(spi.getProviderName());
-            } catch (Exception e) {
-                Logger.getLogger(DefaultMonetaryCurrenciesSingletonSpi.class.getName())
-                        .log(Level.SEVERE, "Error loading currency provider names for " + spi.getClass().getName(),
-                                e);
+        return getIndex().providerNames;
+    }
+
+    /**
+     * Drops the current index, so it is rebuilt from the currently registered
+     * {@link javax.money.spi.CurrencyProviderSpi} instances on next access.
+     */
+    public void refresh() {
+        this.index = null;
+    }
+
+    /**
+     * Access the current index, building it if necessary.
+     *
+     * @return the current index, never null.
+     */
+    private CurrencyIndex getIndex() {
+        CurrencyIndex current = this.index;
+        int generation = SERVICE_PROVIDER_GENERATION.get();
+        if (current == null || current.generation != generation) {
+            synchronized (this) {
+                current = this.index;
+                if (current == null || current.generation != generation) {
+                    current = new CurrencyIndex(generation, Bootstrap.getServices(CurrencyProviderSpi.class));
+                    this.index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Index of the currencies provided by a fixed set of {@link javax.money.spi.CurrencyProviderSpi} instances.
+     */
+    private static final class CurrencyIndex {
+
+        private static final Logger LOG = Logger.getLogger(DefaultMonetaryCurrenciesSingletonSpi.class.getName());
+
+        /**
+         * The generation of the {@link javax.money.spi.ServiceProvider} the providers were loaded from.
+         */
+        final int generation;
+        /**
+         * The providers indexed.
+         */
+        private final List<CurrencyProviderSpi> providers;
+        /**
+         * The provider names.
+         */
+        final Set<String> providerNames;
+        /**
+         * The provider names, sorted.
+         */
+        final List<String> defaultProviderChain;
+        /**
+         * All currencies returned for an empty query, per provider name.
+         */
+        private final Map<String, Set<CurrencyUnit>> unitsByProvider = new HashMap<>();
+        /**
+         * All currencies returned for an empty query.
+         */
+        private final Set<CurrencyUnit> allUnits;
+        /**
+         * Currencies by currency code.
+         */
+        private final Map<String, Set<CurrencyUnit>> unitsByCode = new ConcurrentHashMap<>();
+        /**
+         * The currency by currency code, for all codes, which are known to map to exactly one currency.
+         */
+        private final Map<String, CurrencyUnit> unitByCode = new ConcurrentHashMap<>();
+        /**
+         * Currencies by numeric currency code.
+         */
+        private final Map<Integer, Set<CurrencyUnit>> unitsByNumericCode = new ConcurrentHashMap<>();
+        /**
+         * Currencies by country.
+         */
+        private final Map<Locale, Set<CurrencyUnit>> unitsByCountry = new ConcurrentHashMap<>();
+
+        CurrencyIndex(int generation, Collection<CurrencyProviderSpi> providers) {
+            this.generation = generation;
+            this.providers = new ArrayList<>(providers);
+            Set<String> names = new HashSet<>();
+            Map<String, Set<CurrencyUnit>> byCode = new HashMap<>();
+            Map<Integer, Set<CurrencyUnit>> byNumericCode = new HashMap<>();
+            Set<CurrencyUnit> all = new HashSet<>();
+            CurrencyQuery allQuery = CurrencyQueryBuilder.of().build();
+            for (CurrencyProviderSpi spi : this.providers) {
+                String providerName;
+                try {
+                    providerName = spi.getProviderName();
+                } catch (Exception e) {
+                    LOG.log(Level.SEVERE, "Error loading currency provider names for " + spi.getClass().getName(), e);
+                    continue;
+                }
+                names.add(providerName);
+                Set<CurrencyUnit> units = new HashSet<>();
+                try {
+                    units.addAll(spi.getCurrencies(allQuery));
+                } catch (Exception e) {
+                    LOG.log(Level.SEVERE, "Error loading currencies from provider " + spi.getClass().getName(), e);
+                }
+                unitsByProvider.merge(providerName, units, (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+                for (CurrencyUnit unit : units) {
+                    byCode.computeIfAbsent(unit.getCurrencyCode(), k -> new HashSet<>()).add(unit);
+                    byNumericCode.computeIfAbsent(unit.getNumericCode(), k -> new HashSet<>()).add(unit);
+                }
+                all.addAll(units);
+            }
+            unitsByProvider.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+            byCode.forEach((k, v) -> {
+                unitsByCode.put(k, Collections.unmodifiableSet(v));
+                if (v.size() == 1) {
+                    unitByCode.put(k, v.iterator().next());
+                }
+            });
+            byNumericCode.forEach((k, v) -> unitsByNumericCode.put(k, Collections.unmodifiableSet(v)));
+            this.allUnits = Collections.unmodifiableSet(all);
+            this.providerNames = Collections.unmodifiableSet(names);
+            List<String> chain = new ArrayList<>(names);
+            Collections.sort(chain);
+            this.defaultProviderChain = Collections.unmodifiableList(chain);
+        }
+
+        /**
+         * Evaluates the query, using the index for queries selecting a single currency code, numeric code or
+         * country, or only a set of providers. All other queries are passed to all providers.
+         *
+         * @param query the query, not null.
+         * @return the currencies found, never null.
+         */
+        Set<CurrencyUnit> getCurrencies(CurrencyQuery query) {
+            int attributes = query.data.size();
+            List<String> queryProviders = query.getProviderNames();
+            if (query.data.containsKey(AbstractQuery.KEY_QUERY_PROVIDERS)) {
+                if (!queryProviders.isEmpty()) {
+                    return attributes == 1 ? getCurrenciesOfProviders(queryProviders) : queryProviders(query);
+                }
+                attributes--;
+            }
+            if (attributes == 0) {
+                return allUnits;
+            }
+            if (attributes == 1) {
+                Collection<String> codes = query.getCurrencyCodes();
+                if (codes.size() == 1) {
+                    return getCurrencies(unitsByCode, codes.iterator().next(), query);
+                }
+                Collection<Locale> countries = query.getCountries();
+                if (countries.size() == 1) {
+                    return getCurrencies(unitsByCountry, countries.iterator().next(), query);
+                }
+                Collection<Integer> numericCodes = query.getNumericCodes();
+                if (numericCodes.size() == 1) {
+                    return getCurrencies(unitsByNumericCode, numericCodes.iterator().next(), query);
+                }
+            }
+            return queryProviders(query);
+        }
+
+        /**
+         * Access the currency with the given code. Known codes are resolved by a single hash lookup.
+         *
+         * @param code the currency code, not null.
+         * @return the currency, never null.
+         * @throws UnknownCurrencyException if no such currency exists.
+         * @throws MonetaryException        if the code is ambiguous.
+         */
+        CurrencyUnit getCurrency(String code) {
+            CurrencyUnit unit = findCurrency(code);
+            if (unit == null) {
+                throw new UnknownCurrencyException(code);
+            }
+            return unit;
+        }
+
+        /**
+         * Access the currency with the given code. Known codes are resolved by a single hash lookup.
+         *
+         * @param code the currency code, not null.
+         * @return the currency, or null, if no such currency exists.
+         * @throws MonetaryException if the code is ambiguous.
+         */
+        CurrencyUnit findCurrency(String code) {
+            CurrencyUnit unit = unitByCode.get(code);
+            if (unit != null) {
+                return unit;
+            }
+            Set<CurrencyUnit> units = getCurrenciesByCode(code);
+            if (units.isEmpty()) {
+                return null;
+            }
+            if (units.size() > 1) {
+                throw new MonetaryException("Ambiguous CurrencyUnit for code: " + code + ": " + units);
+            }
+            unit = units.iterator().next();
+            unitByCode.putIfAbsent(code, unit);
+            return unit;
+        }
+
+        /**
+         * Access the currencies with the given code, evaluating and remembering them on a miss.
+         *
+         * @param code the currency code, not null.
+         * @return the currencies found, never null.
+         */
+        Set<CurrencyUnit> getCurrenciesByCode(String code) {
+            Set<CurrencyUnit> result = unitsByCode.get(code);
+            if (result != null) {
+                return result;
+            }
+            return getCurrencies(unitsByCode, code, CurrencyQueryBuilder.of().setCurrencyCodes(code).build());
+        }
+
+        /**
+         * Access the currencies of a country, evaluating and remembering them on a miss.
+         *
+         * @param country the country, not null.
+         * @return the currencies found, never null.
+         */
+        Set<CurrencyUnit> getCurrenciesByCountry(Locale country) {
+            Set<CurrencyUnit> result = unitsByCountry.get(country);
+            if (result != null) {
+                return result;
+            }
+            return getCurrencies(unitsByCountry, country, CurrencyQueryBuilder.of().setCountries(country).build());
+        }
+
+        /**
+         * Looks up the currencies for a key, evaluating and remembering them on a miss. Empty results are not
+         * remembered.
+         */
+        private <K> Set<CurrencyUnit> getCurrencies(Map<K, Set<CurrencyUnit>> index, K key, CurrencyQuery query) {
+            if (key == null) {
+                return queryProviders(query);
+            }
+            Set<CurrencyUnit> result = index.get(key);
+            if (result != null) {
+                return result;
+            }
+            result = queryProviders(query);
+            if (!result.isEmpty()) {
+                Set<CurrencyUnit> prev = index.putIfAbsent(key, Collections.unmodifiableSet(result));
+                return prev != null ? prev : index.get(key);
+            }
+            return result;
+        }
+
+        private Set<CurrencyUnit> getCurrenciesOfProviders(List<String> providerNames) {
+            if (providerNames.size() == 1) {
+                Set<CurrencyUnit> units = unitsByProvider.get(providerNames.get(0));
+                return units == null ? Collections.emptySet() : units;
+            }
+            Set<CurrencyUnit> result = new HashSet<>();
+            for (String providerName : providerNames) {
+                Set<CurrencyUnit> units = unitsByProvider.get(providerName);
+                if (units != null) {
+                    result.addAll(units);
+                }
+            }
+            return result;
+        }
+
+        private Set<CurrencyUnit> queryProviders(CurrencyQuery query) {
+            Set<CurrencyUnit> result = new HashSet<>();
+            for (CurrencyProviderSpi spi : providers) {
+                try {
+                    result.addAll(spi.getCurrencies(query));
+                } catch (Exception e) {
+                    LOG.log(Level.SEVERE, "Error loading currency provider names for " + spi.getClass().getName(),
+                            e);
+                }
             }
+            return result;
         }
-        return result;
     }
 
 }
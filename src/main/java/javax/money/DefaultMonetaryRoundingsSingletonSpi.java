@@ -19,9 +19,15 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,6 +35,11 @@ import java.util.logging.Logger;
  * This class models the accessor for rounding instances, modeled as
  * {@link javax.money.MonetaryOperator}.
  * <p>
+ * The roundings returned for a {@link RoundingQuery} are remembered in a bounded cache, keyed by the query with its
+ * provider names resolved to the providers effectively used. The cache, as well as the registered
+ * {@link RoundingProviderSpi} instances, are dropped on {@link #refresh()} and whenever the current
+ * {@link javax.money.spi.ServiceProvider} is replaced.
+ * <p>
  * This class is thread-safe.
  *
  * @author Anatole Tresch
@@ -42,6 +53,40 @@ public final class DefaultMonetaryRoundingsSingletonSpi implements MonetaryRound
      */
     private static final MonetaryRounding DEFAULT_ROUNDING = new DefaultCurrencyRounding();
 
+    /**
+     * The maximal number of queries, for which the roundings are cached.
+     */
+    private static final int MAX_CACHED_QUERIES = 1024;
+
+    /**
+     * Counts the replacements of the current {@link javax.money.spi.ServiceProvider}.
+     */
+    private static final AtomicInteger SERVICE_PROVIDER_GENERATION = new AtomicInteger();
+
+    /**
+     * The maximal number of currencies, for which {@link #DEFAULT_ROUNDING} caches the rounding to delegate to.
+     */
+    private static final int MAX_CACHED_CURRENCIES = 1024;
+
+    /**
+     * The roundings {@link #DEFAULT_ROUNDING} delegates to, per currency. Replaced as a whole, so roundings
+     * resolved concurrently from a previous {@link javax.money.spi.ServiceProvider} are never cached in the
+     * current map.
+     */
+    private static volatile Map<CurrencyUnit, MonetaryRounding> currencyRoundings = new ConcurrentHashMap<>();
+
+    static {
+        Bootstrap.addServiceProviderListener(() -> {
+            SERVICE_PROVIDER_GENERATION.incrementAndGet();
+            currencyRoundings = new ConcurrentHashMap<>();
+        });
+    }
+
+    /**
+     * The current providers and cache, lazily loaded.
+     */
+    private volatile RoundingProviders roundingProviders;
+
     /**
      * Creates an rounding instance using {@link java.math.RoundingMode#UP} rounding.
      *
@@ -65,31 +110,31 @@ public final class DefaultMonetaryRoundingsSingletonSpi implements MonetaryRound
 
 
     /**
-     * Query all roundings matching the given {@link RoundingQuery}.
+     * Query all roundings matching the given {@link RoundingQuery}. Results are cached, so the
+     * {@link RoundingProviderSpi} instances are only asked once for equal queries.
      *
      * @param query the rounding query, not null.
      * @return the collection found, not null.
      */
     @Override
     public Collection<MonetaryRounding> getRoundings(RoundingQuery query) {
-        List<MonetaryRounding> result = new ArrayList<>();
-        Collection<String> providerNames = query.getProviderNames();
+        RoundingProviders providers = getRoundingProviders();
+        List<String> providerNames = query.getProviderNames();
         if (providerNames == null || providerNames.isEmpty()) {
-            providerNames = getDefaultProviderChain();
+            providerNames = providers.defaultProviderChain;
         }
-        for (String providerName : providerNames) {
-            Bootstrap.getServices(RoundingProviderSpi.class).stream()
-                    .filter(prov -> providerName.equals(prov.getProviderName())).forEach(prov -> {
-                try {
-                    MonetaryRounding r = prov.getRounding(query);
-                    if (r != null) {
-                        result.add(r);
-                    }
-                } catch (Exception e) {
-                    Logger.getLogger(DefaultMonetaryRoundingsSingletonSpi.class.getName())
-                            .log(Level.SEVERE, "Error loading RoundingProviderSpi from provider: " + prov, e);
+        RoundingKey key = new RoundingKey(providerNames, query);
+        Collection<MonetaryRounding> result = providers.roundings.get(key);
+        if (result == null) {
+            result = Collections.unmodifiableList(providers.evaluateRoundings(providerNames, query));
+            if (providers.roundings.size() >= MAX_CACHED_QUERIES) {
+                Iterator<RoundingKey> keys = providers.roundings.keySet().iterator();
+                if (keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
                 }
-            });
+            }
+            providers.roundings.putIfAbsent(key, result);
         }
         return result;
     }
@@ -101,16 +146,7 @@ public final class DefaultMonetaryRoundingsSingletonSpi implements MonetaryRound
      */
     @Override
     public Set<String> getProviderNames() {
-        Set<String> result = new HashSet<>();
-        for (RoundingProviderSpi prov : Bootstrap.getServices(RoundingProviderSpi.class)) {
-            try {
-                result.add(prov.getProviderName());
-            } catch (Exception e) {
-                Logger.getLogger(Monetary.class.getName())
-                        .log(Level.SEVERE, "Error loading RoundingProviderSpi from provider: " + prov, e);
-            }
-        }
-        return result;
+        return getRoundingProviders().providerNames;
     }
 
     /**
@@ -120,10 +156,36 @@ public final class DefaultMonetaryRoundingsSingletonSpi implements MonetaryRound
      */
     @Override
     public List<String> getDefaultProviderChain() {
-        List<String> result = new ArrayList<>();
-        result.addAll(Monetary.getRoundingProviderNames());
-        Collections.sort(result);
-        return result;
+        return getRoundingProviders().defaultProviderChain;
+    }
+
+    /**
+     * Drops the cached roundings and providers, so they are reloaded from the currently registered
+     * {@link RoundingProviderSpi} instances on next access.
+     */
+    public void refresh() {
+        this.roundingProviders = null;
+        currencyRoundings = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Access the current providers, loading them if necessary.
+     *
+     * @return the current providers, never null.
+     */
+    private RoundingProviders getRoundingProviders() {
+        RoundingProviders current = this.roundingProviders;
+        int generation = SERVICE_PROVIDER_GENERATION.get();
+        if (current == null || current.generation != generation) {
+            synchronized (this) {
+                current = this.roundingProviders;
+                if (current == null || current.generation != generation) {
+                    current = new RoundingProviders(generation, Bootstrap.getServices(RoundingProviderSpi.class));
+                    this.roundingProviders = current;
+                }
+            }
+        }
+        return current;
     }
 
     /**
@@ -155,9 +217,132 @@ public final class DefaultMonetaryRoundingsSingletonSpi implements MonetaryRound
         return result;
     }
 
+    /**
+     * The {@link RoundingProviderSpi} instances registered for a {@link javax.money.spi.ServiceProvider}, together
+     * with the roundings cached.
+     */
+    private static final class RoundingProviders {
+        /**
+         * The generation of the {@link javax.money.spi.ServiceProvider}, the providers were loaded from.
+         */
+        final int generation;
+        /**
+         * The providers, by provider name.
+         */
+        final Map<String, List<RoundingProviderSpi>> providersByName = new HashMap<>();
+        /**
+         * The names of all providers.
+         */
+        final Set<String> providerNames;
+        /**
+         * The provider names ordered, used when no providers are passed explicitly.
+         */
+        final List<String> defaultProviderChain;
+        /**
+         * The roundings cached.
+         */
+        final Map<RoundingKey, Collection<MonetaryRounding>> roundings = new ConcurrentHashMap<>();
+
+        RoundingProviders(int generation, Collection<RoundingProviderSpi> providers) {
+            this.generation = generation;
+            for (RoundingProviderSpi prov : providers) {
+                try {
+                    providersByName.computeIfAbsent(prov.getProviderName(), n -> new ArrayList<>()).add(prov);
+                } catch (Exception e) {
+                    Logger.getLogger(Monetary.class.getName())
+                            .log(Level.SEVERE, "Error loading RoundingProviderSpi from provider: " + prov, e);
+                }
+            }
+            this.providerNames = Collections.unmodifiableSet(new HashSet<>(providersByName.keySet()));
+            List<String> chain = new ArrayList<>(providerNames);
+            Collections.sort(chain);
+            this.defaultProviderChain = Collections.unmodifiableList(chain);
+        }
+
+        /**
+         * Evaluates the roundings for the given query by asking the providers.
+         *
+         * @param providerNames the provider names, in order.
+         * @param query         the rounding query, not null.
+         * @return the roundings found, never null.
+         */
+        List<MonetaryRounding> evaluateRoundings(List<String> providerNames, RoundingQuery query) {
+            List<MonetaryRounding> result = new ArrayList<>();
+            for (String providerName : providerNames) {
+                for (RoundingProviderSpi prov : providersByName.getOrDefault(providerName, Collections.emptyList())) {
+                    try {
+                        MonetaryRounding r = prov.getRounding(query);
+                        if (r != null) {
+                            result.add(r);
+                        }
+                    } catch (Exception e) {
+                        Logger.getLogger(DefaultMonetaryRoundingsSingletonSpi.class.getName())
+                                .log(Level.SEVERE, "Error loading RoundingProviderSpi from provider: " + prov, e);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Cache key of a {@link RoundingQuery}, normalized to the providers effectively used: queries without explicit
+     * providers are equal to queries asking for the default provider chain.
+     */
+    private static final class RoundingKey {
+        private final List<String> providerNames;
+        private final Map<String, Object> attributes;
+        private final int hashCode;
+
+        RoundingKey(List<String> providerNames, RoundingQuery query) {
+            this.providerNames = providerNames;
+            this.attributes = query.data;
+            Object providers = attributes.get(AbstractQuery.KEY_QUERY_PROVIDERS);
+            int attributesHash = attributes.hashCode();
+            if (providers != null) {
+                attributesHash -= AbstractQuery.KEY_QUERY_PROVIDERS.hashCode() ^ providers.hashCode();
+            }
+            this.hashCode = 31 * providerNames.hashCode() + attributesHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RoundingKey)) {
+                return false;
+            }
+            RoundingKey other = (RoundingKey) o;
+            return hashCode == other.hashCode && providerNames.equals(other.providerNames)
+                    && containsIgnoringProviders(attributes, other.attributes)
+                    && containsIgnoringProviders(other.attributes, attributes);
+        }
+
+        /**
+         * Checks if all attributes of {@code a}, except the providers, are contained in {@code b}.
+         */
+        private static boolean containsIgnoringProviders(Map<String, Object> a, Map<String, Object> b) {
+            for (Map.Entry<String, Object> en : a.entrySet()) {
+                if (!AbstractQuery.KEY_QUERY_PROVIDERS.equals(en.getKey())
+                        && !Objects.equals(en.getValue(), b.get(en.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     /**
      * Default Rounding that rounds a {@link MonetaryAmount} based on the
-     * amount's {@link CurrencyUnit}.
+     * amount's {@link CurrencyUnit}. The rounding resolved for a currency is
+     * remembered, so subsequent applies for the same currency do not resolve
+     * it again.
      *
      * @author Anatole Tresch
      */
@@ -169,7 +354,15 @@ public final class DefaultMonetaryRoundingsSingletonSpi implements MonetaryRound
 
         @Override
         public MonetaryAmount apply(MonetaryAmount amount) {
-            MonetaryRounding r = Monetary.getRounding(amount.getCurrency());
+            CurrencyUnit currency = amount.getCurrency();
+            Map<CurrencyUnit, MonetaryRounding> roundings = currencyRoundings;
+            MonetaryRounding r = currency == null ? null : roundings.get(currency);
+            if (r == null) {
+                r = Monetary.getRounding(currency);
+                if (currency != null && roundings.size() < MAX_CACHED_CURRENCIES) {
+                    roundings.putIfAbsent(currency, r);
+                }
+            }
             return r.apply(amount);
         }
 
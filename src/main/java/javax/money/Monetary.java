@@ -34,10 +34,85 @@ import java.util.logging.Logger;
  * @author Anatole Tresch
  */
 public final class Monetary {
+    /**
+     * The SPI instances currently in use, resolved once from the current {@link javax.money.spi.ServiceProvider}.
+     * The instance is dropped whenever {@link Bootstrap#init(ServiceProvider)} replaces the
+     * {@link javax.money.spi.ServiceProvider}, so the SPIs are resolved again on next access.
+     */
+    private static volatile MonetarySpis monetarySpis;
+    /**
+     * Empty provider array, passed when no providers were specified.
+     */
+    private static final String[] NO_PROVIDERS = new String[0];
+    /**
+     * The lock used for resolving the SPIs.
+     */
+    private static final Object LOCK = new Object();
+
+    static {
+        Bootstrap.addServiceProviderListener(Monetary::resetSpis);
+    }
+
+    /**
+     * Access the SPIs currently in use, resolving them if necessary.
+     *
+     * @return the current SPIs, never null.
+     */
+    private static MonetarySpis spis() {
+        MonetarySpis spis = monetarySpis;
+        if (spis == null) {
+            synchronized (LOCK) {
+                spis = monetarySpis;
+                if (spis == null) {
+                    spis = new MonetarySpis();
+                    monetarySpis = spis;
+                }
+            }
+        }
+        return spis;
+    }
+
+    /**
+     * Drops the SPIs currently in use, called when the {@link javax.money.spi.ServiceProvider} was replaced.
+     */
+    private static void resetSpis() {
+        synchronized (LOCK) {
+            monetarySpis = null;
+        }
+    }
+
     /**
      * The used {@link javax.money.spi.MonetaryCurrenciesSingletonSpi} instance.
      */
     private static MonetaryCurrenciesSingletonSpi MONETARY_CURRENCIES_SINGLETON_SPI() {
+        return spis().currenciesSpi;
+    }
+
+    /**
+     * The used {@link javax.money.spi.MonetaryAmountsSingletonSpi} instance.
+     */
+    private static MonetaryAmountsSingletonSpi monetaryAmountsSingletonSpi() {
+        return spis().amountsSpi;
+    }
+
+    /**
+     * The used {@link javax.money.spi.MonetaryAmountsSingletonSpi} instance.
+     */
+    private static MonetaryAmountsSingletonQuerySpi monetaryAmountsSingletonQuerySpi() {
+        return spis().amountsQuerySpi;
+    }
+
+    /**
+     * The used {@link javax.money.spi.MonetaryCurrenciesSingletonSpi} instance.
+     */
+    private static MonetaryRoundingsSingletonSpi monetaryRoundingsSingletonSpi() {
+        return spis().roundingsSpi;
+    }
+
+    /**
+     * Loads the {@link javax.money.spi.MonetaryCurrenciesSingletonSpi} instance to be used.
+     */
+    private static MonetaryCurrenciesSingletonSpi loadMonetaryCurrenciesSingletonSpi() {
         try {
             return Optional.ofNullable(Bootstrap
                     .getService(MonetaryCurrenciesSingletonSpi.class)).orElseGet(
@@ -50,9 +125,9 @@ public final class Monetary {
     }
 
     /**
-     * The used {@link javax.money.spi.MonetaryAmountsSingletonSpi} instance.
+     * Loads the {@link javax.money.spi.MonetaryAmountsSingletonSpi} instance to be used.
      */
-    private static MonetaryAmountsSingletonSpi monetaryAmountsSingletonSpi() {
+    private static MonetaryAmountsSingletonSpi loadMonetaryAmountsSingletonSpi() {
         try {
             return Bootstrap.getService(MonetaryAmountsSingletonSpi.class);
         } catch (Exception e) {
@@ -63,9 +138,9 @@ public final class Monetary {
     }
 
     /**
-     * The used {@link javax.money.spi.MonetaryAmountsSingletonSpi} instance.
+     * Loads the {@link javax.money.spi.MonetaryAmountsSingletonQuerySpi} instance to be used.
      */
-    private static MonetaryAmountsSingletonQuerySpi monetaryAmountsSingletonQuerySpi() {
+    private static MonetaryAmountsSingletonQuerySpi loadMonetaryAmountsSingletonQuerySpi() {
         try {
             return Bootstrap.getService(MonetaryAmountsSingletonQuerySpi.class);
         } catch (Exception e) {
@@ -78,9 +153,9 @@ public final class Monetary {
     }
 
     /**
-     * The used {@link javax.money.spi.MonetaryCurrenciesSingletonSpi} instance.
+     * Loads the {@link javax.money.spi.MonetaryRoundingsSingletonSpi} instance to be used.
      */
-    private static MonetaryRoundingsSingletonSpi monetaryRoundingsSingletonSpi() {
+    private static MonetaryRoundingsSingletonSpi loadMonetaryRoundingsSingletonSpi() {
         try {
             return Optional.ofNullable(Bootstrap
                     .getService(MonetaryRoundingsSingletonSpi.class))
@@ -92,6 +167,16 @@ public final class Monetary {
         }
     }
 
+    /**
+     * Immutable holder of the SPI instances resolved from the current {@link javax.money.spi.ServiceProvider}.
+     */
+    private static final class MonetarySpis {
+        final MonetaryCurrenciesSingletonSpi currenciesSpi = loadMonetaryCurrenciesSingletonSpi();
+        final MonetaryRoundingsSingletonSpi roundingsSpi = loadMonetaryRoundingsSingletonSpi();
+        final MonetaryAmountsSingletonSpi amountsSpi = loadMonetaryAmountsSingletonSpi();
+        final MonetaryAmountsSingletonQuerySpi amountsQuerySpi = loadMonetaryAmountsSingletonQuerySpi();
+    }
+
     /**
      * Required for deserialization only.
      */
@@ -369,6 +454,24 @@ public final class Monetary {
                 .isAvailable(query);
     }
 
+    /**
+     * Access a new instance based on the currency code, using the default provider chain. Currencies are
+     * available as provided by {@link CurrencyProviderSpi} instances registered
+     * with the {@link javax.money.spi.Bootstrap}.
+     *
+     * @param currencyCode the ISO currency code, not {@code null}.
+     * @return the corresponding {@link CurrencyUnit} instance.
+     * @throws UnknownCurrencyException if no such currency exists.
+     * @see #getCurrency(String, String...)
+     */
+    public static CurrencyUnit getCurrency(String currencyCode) {
+        MonetaryCurrenciesSingletonSpi spi = MONETARY_CURRENCIES_SINGLETON_SPI();
+        if (spi == null) {
+            throw new MonetaryException("No MonetaryCurrenciesSingletonSpi loaded, check your system setup.");
+        }
+        return spi.getCurrency(currencyCode, NO_PROVIDERS);
+    }
+
     /**
      * Access a new instance based on the currency code. Currencies are
      * available as provided by {@link CurrencyProviderSpi} instances registered
@@ -385,6 +488,37 @@ public final class Monetary {
                 .getCurrency(currencyCode, providers);
     }
 
+    /**
+     * Access a currency based on the currency code, without raising an exception, if no such currency exists. Use
+     * this method instead of {@link #getCurrency(String, String...)} when resolving codes of untrusted input,
+     * where unknown codes are expected rather than exceptional.
+     *
+     * @param currencyCode the ISO currency code, not {@code null}.
+     * @param providers    the (optional) specification of providers to consider.
+     * @return the corresponding {@link CurrencyUnit}, or an empty {@link Optional}, if no such currency exists.
+     * @throws MonetaryException if the code is ambiguous, or no currency SPI is loaded.
+     */
+    public static Optional<CurrencyUnit> findCurrency(String currencyCode, String... providers) {
+        return Optional.ofNullable(MONETARY_CURRENCIES_SINGLETON_SPI()).orElseThrow(
+                () -> new MonetaryException("No MonetaryCurrenciesSingletonSpi loaded, check your system setup."))
+                .findCurrency(currencyCode, providers);
+    }
+
+    /**
+     * Access a currency based on the {@link Locale}, without raising an exception, if no such currency exists.
+     *
+     * @param locale    the target {@link Locale}, typically representing an ISO
+     *                  country, not {@code null}.
+     * @param providers the (optional) specification of providers to consider.
+     * @return the corresponding {@link CurrencyUnit}, or an empty {@link Optional}, if no such currency exists.
+     * @throws MonetaryException if the currency is ambiguous, or no currency SPI is loaded.
+     */
+    public static Optional<CurrencyUnit> findCurrency(Locale locale, String... providers) {
+        return Optional.ofNullable(MONETARY_CURRENCIES_SINGLETON_SPI()).orElseThrow(
+                () -> new MonetaryException("No MonetaryCurrenciesSingletonSpi loaded, check your system setup."))
+                .findCurrency(locale, providers);
+    }
+
     /**
      * Access a new instance based on the {@link Locale}. Currencies are
      * available as provided by {@link CurrencyProviderSpi} instances registered
@@ -419,6 +553,19 @@ public final class Monetary {
                 .getCurrencies(locale, providers);
     }
 
+    /**
+     * Allows to check if a {@link CurrencyUnit} instance is defined using the default provider chain, i.e.
+     * accessible from {@link Monetary#getCurrency(String)}.
+     *
+     * @param code the currency code, not {@code null}.
+     * @return {@code true} if {@link Monetary#getCurrency(String)} would return a result for the given code.
+     * @see #isCurrencyAvailable(String, String...)
+     */
+    public static boolean isCurrencyAvailable(String code) {
+        MonetaryCurrenciesSingletonSpi spi = MONETARY_CURRENCIES_SINGLETON_SPI();
+        return Objects.nonNull(spi) && spi.isCurrencyAvailable(code, NO_PROVIDERS);
+    }
+
     /**
      * Allows to check if a {@link CurrencyUnit} instance is defined, i.e.
      * accessible from {@link Monetary#getCurrency(String, String...)}.
@@ -429,7 +576,8 @@ public final class Monetary {
      * would return a result for the given code.
      */
     public static boolean isCurrencyAvailable(String code, String... providers) {
-        return Objects.nonNull(MONETARY_CURRENCIES_SINGLETON_SPI()) && MONETARY_CURRENCIES_SINGLETON_SPI().isCurrencyAvailable(code, providers);
+        MonetaryCurrenciesSingletonSpi spi = MONETARY_CURRENCIES_SINGLETON_SPI();
+        return Objects.nonNull(spi) && spi.isCurrencyAvailable(code, providers);
     }
 
     /**
@@ -442,7 +590,8 @@ public final class Monetary {
      * result containing a currency with the given code.
      */
     public static boolean isCurrencyAvailable(Locale locale, String... providers) {
-        return Objects.nonNull(MONETARY_CURRENCIES_SINGLETON_SPI()) && MONETARY_CURRENCIES_SINGLETON_SPI().isCurrencyAvailable(locale, providers);
+        MonetaryCurrenciesSingletonSpi spi = MONETARY_CURRENCIES_SINGLETON_SPI();
+        return Objects.nonNull(spi) && spi.isCurrencyAvailable(locale, providers);
     }
 
     /**
@@ -50,6 +50,12 @@ public final class MonetaryContext extends AbstractContext implements Serializab
      */
     private static final String MAX_SCALE = "maxScale";
 
+    private static final ContextKey<Integer> PRECISION_KEY = ContextKey.of(PRECISION, Integer.class);
+    private static final ContextKey<Boolean> FIXED_SCALE_KEY = ContextKey.of(FIXED_SCALE, Boolean.class);
+    private static final ContextKey<Integer> MAX_SCALE_KEY = ContextKey.of(MAX_SCALE, Integer.class);
+    @SuppressWarnings("rawtypes")
+    private static final ContextKey<Class> AMOUNT_TYPE_KEY = ContextKey.of(AMOUNT_TYPE, Class.class);
+
     /**
      * Constructor, used from the Builder.
      *
@@ -66,7 +72,7 @@ public final class MonetaryContext extends AbstractContext implements Serializab
      * setting
      */
     public int getPrecision() {
-        Integer val = getInt(PRECISION);
+        Integer val = get(PRECISION_KEY);
         if (val == null) {
             return 0;
         }
@@ -79,7 +85,7 @@ public final class MonetaryContext extends AbstractContext implements Serializab
      * @return {@code true} if {@code minScale == maxScale}.
      */
     public boolean isFixedScale() {
-        Boolean val = getBoolean(FIXED_SCALE);
+        Boolean val = get(FIXED_SCALE_KEY);
         if (val == null) {
             return false;
         }
@@ -94,7 +100,7 @@ public final class MonetaryContext extends AbstractContext implements Serializab
      * @return the maximal scale supported, always {@code >= -1}
      */
     public int getMaxScale() {
-        Integer val = getInt(MAX_SCALE);
+        Integer val = get(MAX_SCALE_KEY);
         if (val == null) {
             return -1;
         }
@@ -108,7 +114,7 @@ public final class MonetaryContext extends AbstractContext implements Serializab
      * @see MonetaryAmount#getContext()
      */
     public Class<? extends MonetaryAmount> getAmountType() {
-        Class<?> clazz = get(AMOUNT_TYPE, Class.class);
+        Class<?> clazz = get(AMOUNT_TYPE_KEY);
         return clazz.asSubclass(MonetaryAmount.class);
     }
 
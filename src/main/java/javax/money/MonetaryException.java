@@ -25,6 +25,13 @@ public class MonetaryException extends RuntimeException {
 	 */
 	private static final long serialVersionUID = -9039026008242959369L;
 
+	/**
+	 * Flag, if the exceptions signalling an expected miss, such as {@link UnknownCurrencyException} and
+	 * {@code javax.money.convert.CurrencyConversionException}, capture a stack trace. Initialized from the
+	 * system property {@code javax.money.stacklessExceptions}.
+	 */
+	private static volatile boolean stackTraceEnabled = !Boolean.getBoolean("javax.money.stacklessExceptions");
+
 	/**
      * Creates an instance.
      * 
@@ -49,4 +56,26 @@ public class MonetaryException extends RuntimeException {
 	public MonetaryException(String message, Throwable cause) {
 		super(message, cause);
 	}
+
+	/**
+	 * Checks if the exceptions signalling an expected miss, such as {@link UnknownCurrencyException} and
+	 * {@code javax.money.convert.CurrencyConversionException}, capture a stack trace. By default they do, unless
+	 * the system property {@code javax.money.stacklessExceptions} is set to {@code true}.
+	 *
+	 * @return {@code true}, if stack traces are captured.
+	 */
+	public static boolean isStackTraceEnabled() {
+		return stackTraceEnabled;
+	}
+
+	/**
+	 * Enables or disables capturing stack traces of the exceptions signalling an expected miss. Disabling them
+	 * makes creating such exceptions considerably cheaper, at the price of less helpful diagnostics.
+	 *
+	 * @param enabled
+	 *            {@code true} to capture stack traces.
+	 */
+	public static void setStackTraceEnabled(boolean enabled) {
+		stackTraceEnabled = enabled;
+	}
 }
@@ -36,6 +36,8 @@ public final class RoundingContext extends AbstractContext implements Serializab
      */
     static final String KEY_ROUNDING_NAME = "roundingName";
 
+    private static final ContextKey<CurrencyUnit> CURRENCY_KEY = ContextKey.of(CurrencyUnit.class);
+
     /**
      * Constructor, used from the {@link javax.money.RoundingContextBuilder}.
      *
@@ -60,7 +62,7 @@ public final class RoundingContext extends AbstractContext implements Serializab
      * @return the target CurrencyUnit, or null.
      */
     public CurrencyUnit getCurrency() {
-        return get(CurrencyUnit.class);
+        return get(CURRENCY_KEY);
     }
 
     /**
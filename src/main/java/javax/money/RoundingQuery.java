@@ -38,6 +38,10 @@ public final class RoundingQuery extends AbstractQuery implements CurrencySuppli
      */
     static final String KEY_QUERY_SCALE = "Query.scale";
 
+    private static final ContextKey<String> ROUNDING_NAME_KEY = ContextKey.of(KEY_QUERY_ROUNDING_NAME, String.class);
+    private static final ContextKey<Integer> SCALE_KEY = ContextKey.of(KEY_QUERY_SCALE, Integer.class);
+    private static final ContextKey<CurrencyUnit> CURRENCY_KEY = ContextKey.of(CurrencyUnit.class);
+
     /**
      * Constructor, used from the {@link javax.money.RoundingQueryBuilder}.
      *
@@ -57,7 +61,7 @@ public final class RoundingQuery extends AbstractQuery implements CurrencySuppli
      * @return the rounding id  or null.
      */
     public String getRoundingName() {
-        return getText(KEY_QUERY_ROUNDING_NAME);
+        return get(ROUNDING_NAME_KEY);
     }
 
     /**
@@ -67,7 +71,7 @@ public final class RoundingQuery extends AbstractQuery implements CurrencySuppli
      * @return the target scale or null.
      */
     public Integer getScale() {
-        return getInt(KEY_QUERY_SCALE);
+        return get(SCALE_KEY);
     }
 
     /**
@@ -80,7 +84,7 @@ public final class RoundingQuery extends AbstractQuery implements CurrencySuppli
      */
     @Override
 	public CurrencyUnit getCurrency() {
-        return get(CurrencyUnit.class);
+        return get(CURRENCY_KEY);
     }
 
     /**
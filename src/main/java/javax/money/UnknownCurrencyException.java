@@ -12,7 +12,9 @@ import java.util.Locale;
 import java.util.Objects;
 
 /**
- * Exception thrown when a currency code cannot be resolved into a {@link CurrencyUnit}.
+ * Exception thrown when a currency code cannot be resolved into a {@link CurrencyUnit}. No stack trace is captured,
+ * if disabled by {@link MonetaryException#setStackTraceEnabled(boolean)}.
+ * Use {@link Monetary#findCurrency(String, String...)} to resolve untrusted codes without any exception.
  * 
  * @author Werner Keil
  * @author Anatole Tresch
@@ -76,6 +78,16 @@ public class UnknownCurrencyException extends MonetaryException {
 		return locale;
 	}
 
+	/**
+	 * Captures the stack trace only if enabled, see {@link MonetaryException#isStackTraceEnabled()}.
+	 *
+	 * @return this exception.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return isStackTraceEnabled() ? super.fillInStackTrace() : this;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
@@ -0,0 +1,679 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ExchangeRateProvider} trying a chain of providers, like the default provider chain of
+ * {@link MonetaryConversions}, in an order adapted to their observed behaviour. For each provider the latency and
+ * the ratio of lookups returning a rate are tracked as exponentially weighted moving averages; the providers are
+ * tried in the order of their expected cost per rate found, i.e. their latency divided by their hit ratio.
+ * Providers not yet sampled {@link Builder#setMinimumSamples(int) often enough} are tried first, keeping their
+ * declared order. A number of leading providers can be {@link Builder#setPinnedCount(int) pinned}, so they are
+ * always tried first in their declared order, e.g. an authoritative in-house source.
+ * <p>
+ * Each provider is guarded by a circuit breaker: lookups are answered by
+ * {@link ExchangeRateProvider#getExchangeRate(ConversionQuery)}, unless
+ * {@link ExchangeRateProvider#isAvailable(ConversionQuery)} tells the rate is not available. A rate not available
+ * or a {@link CurrencyConversionException} without cause counts as a miss, any other exception, including a
+ * {@link CurrencyConversionException} wrapping e.g. an I/O error or a timeout, as a failure. After
+ * {@link Builder#setFailureThreshold(int) a number of} consecutive failures the provider is skipped for
+ * {@link Builder#setOpenDuration(Duration) a while}; then a single lookup is let through as a probe, closing the
+ * circuit again on success, or keeping it open for another period on failure. A probe not completing within the
+ * open duration is abandoned, letting another probe through. So a failing provider does not add its timeout to
+ * every conversion.
+ * <p>
+ * The statistics of all providers are counted lock-free and can be accessed by {@link #getStatistics()} for
+ * monitoring. Instances are created using {@link #builder(ProviderContext)}, e.g.
+ * <pre><code>
+ * ExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("ADAPTIVE"))
+ *     .addProviders(spi.getExchangeRateProviders(chain.toArray(new String[0])))
+ *     .setFailureThreshold(3)
+ *     .build();
+ * </code></pre>
+ * This class is thread-safe, if the providers used are.
+ */
+public final class AdaptiveExchangeRateProvider implements ExchangeRateProvider {
+
+    /**
+     * The default number of samples required, before a provider is ordered by its statistics.
+     */
+    public static final int DEFAULT_MINIMUM_SAMPLES = 20;
+
+    /**
+     * The default number of consecutive failures opening the circuit of a provider.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The default time a circuit stays open, in seconds.
+     */
+    public static final long DEFAULT_OPEN_SECONDS = 30;
+
+    /**
+     * The weight of a new sample in the moving averages.
+     */
+    private static final double ALPHA = 0.2;
+
+    /**
+     * The minimal hit ratio assumed, so providers always missing are ordered by their latency as well.
+     */
+    private static final double MIN_HIT_RATIO = 0.01;
+
+    /**
+     * The number of requests after which the order is evaluated again.
+     */
+    private static final int REORDER_INTERVAL = 32;
+
+    /**
+     * The state of the circuit breaker of a provider.
+     */
+    public enum CircuitState {
+        /**
+         * The provider is used.
+         */
+        CLOSED,
+        /**
+         * The provider is skipped after consecutive failures.
+         */
+        OPEN,
+        /**
+         * The provider is skipped, except for a single probing lookup.
+         */
+        HALF_OPEN
+    }
+
+    private final ProviderContext context;
+    private final Entry[] entries;
+    private final int pinnedCount;
+    private final int minimumSamples;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final boolean adaptive;
+    private final Clock clock;
+    private final AtomicLong requests = new AtomicLong();
+    /**
+     * The current order, as indexes into {@link #entries}.
+     */
+    private volatile int[] order;
+
+    private AdaptiveExchangeRateProvider(Builder builder) {
+        this.context = builder.context;
+        this.entries = new Entry[builder.providers.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry(builder.providers.get(i));
+        }
+        this.pinnedCount = Math.min(builder.pinnedCount, entries.length);
+        this.minimumSamples = builder.minimumSamples;
+        this.failureThreshold = builder.failureThreshold;
+        this.openMillis = builder.openMillis;
+        this.adaptive = builder.adaptive;
+        this.clock = builder.clock;
+        int[] initial = new int[entries.length];
+        for (int i = 0; i < initial.length; i++) {
+            initial[i] = i;
+        }
+        this.order = initial;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param context the context of the provider to be built, not {@code null}.
+     * @return the new builder, never {@code null}.
+     */
+    public static Builder builder(ProviderContext context) {
+        return new Builder(context);
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the providers of the chain.
+     *
+     * @return the providers, in declared order, never {@code null}.
+     */
+    public List<ExchangeRateProvider> getProviders() {
+        List<ExchangeRateProvider> providers = new ArrayList<>(entries.length);
+        for (Entry entry : entries) {
+            providers.add(entry.provider);
+        }
+        return Collections.unmodifiableList(providers);
+    }
+
+    /**
+     * Get the providers in the order they are currently tried, including providers currently skipped.
+     *
+     * @return the providers, in current order, never {@code null}.
+     */
+    public List<ExchangeRateProvider> getCurrentOrder() {
+        List<ExchangeRateProvider> providers = new ArrayList<>(entries.length);
+        for (int index : order) {
+            providers.add(entries[index].provider);
+        }
+        return Collections.unmodifiableList(providers);
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        long now = clock.millis();
+        for (int index : order) {
+            Entry entry = entries[index];
+            if (entry.getState(now) == CircuitState.CLOSED) {
+                try {
+                    if (entry.provider.isAvailable(conversionQuery)) {
+                        return true;
+                    }
+                } catch (RuntimeException e) {
+                    // not available from this provider
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        return lookup(Objects.requireNonNull(conversionQuery), true);
+    }
+
+    /**
+     * Looks up a rate without raising an exception, if no provider returns a rate.
+     */
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+        return Optional.ofNullable(lookup(Objects.requireNonNull(conversionQuery), false));
+    }
+
+    /**
+     * Tries the providers in the current order, skipping providers with an open circuit.
+     *
+     * @param query       the query.
+     * @param throwOnMiss whether a miss raises an exception.
+     * @return the rate of the first provider returning one, or null on a miss, if no exception is raised.
+     */
+    private ExchangeRate lookup(ConversionQuery query, boolean throwOnMiss) {
+        RuntimeException failure = null;
+        for (int index : nextOrder()) {
+            Entry entry = entries[index];
+            if (!entry.allowRequest(clock.millis())) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                ExchangeRate rate = entry.provider.isAvailable(query) ? entry.provider.getExchangeRate(query) : null;
+                entry.recordSuccess(rate != null, System.nanoTime() - start);
+                if (rate != null) {
+                    return rate;
+                }
+            } catch (RuntimeException e) {
+                if (LookupFailures.isMiss(e)) {
+                    entry.recordSuccess(false, System.nanoTime() - start);
+                } else {
+                    entry.recordFailure(System.nanoTime() - start, clock.millis());
+                    failure = e;
+                }
+            }
+        }
+        if (!throwOnMiss) {
+            return null;
+        }
+        CurrencyUnit base = query.getBaseCurrency();
+        CurrencyUnit term = query.getCurrency();
+        if (failure != null) {
+            throw new CurrencyConversionException(base, term, getConversionContext(query),
+                    "No provider returned a rate.", failure);
+        }
+        throw new CurrencyConversionException(base, term, getConversionContext(query));
+    }
+
+    private ConversionContext getConversionContext(ConversionQuery query) {
+        Set<RateType> rateTypes = query.getRateTypes();
+        return ConversionContext.from(context, rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY);
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    /**
+     * Counts a request and accesses the order to be used, evaluating it again every {@link #REORDER_INTERVAL}
+     * requests.
+     *
+     * @return the order, as indexes into {@link #entries}.
+     */
+    private int[] nextOrder() {
+        if (adaptive && requests.incrementAndGet() % REORDER_INTERVAL == 0) {
+            reorder();
+        }
+        return order;
+    }
+
+    /**
+     * Evaluates the order of the providers: the pinned providers first, then the providers not sampled often enough
+     * in declared order, then the others by their expected cost per rate found.
+     */
+    private void reorder() {
+        Integer[] rest = new Integer[entries.length - pinnedCount];
+        double[] scores = new double[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            scores[i] = entries[i].getScore();
+        }
+        for (int i = 0; i < rest.length; i++) {
+            rest[i] = pinnedCount + i;
+        }
+        Arrays.sort(rest, (a, b) -> Double.compare(scores[a], scores[b]));
+        int[] newOrder = new int[entries.length];
+        for (int i = 0; i < pinnedCount; i++) {
+            newOrder[i] = i;
+        }
+        for (int i = 0; i < rest.length; i++) {
+            newOrder[pinnedCount + i] = rest[i];
+        }
+        this.order = newOrder;
+    }
+
+    /**
+     * Access the statistics of all providers.
+     *
+     * @return snapshots of the statistics of each provider, in declared order, never {@code null}.
+     */
+    public List<ProviderStatistics> getStatistics() {
+        long now = clock.millis();
+        List<ProviderStatistics> result = new ArrayList<>(entries.length);
+        for (Entry entry : entries) {
+            result.add(entry.getStatistics(now));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveExchangeRateProvider [context=" + context + ", statistics=" + getStatistics() + ']';
+    }
+
+    /**
+     * A provider of the chain with its statistics and circuit breaker.
+     */
+    private final class Entry {
+
+        private final ExchangeRateProvider provider;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+        /**
+         * The moving average of the latency in nanoseconds, as double bits.
+         */
+        private final AtomicLong latency = new AtomicLong(Double.doubleToLongBits(0.0));
+        /**
+         * The moving average of the hit ratio, as double bits.
+         */
+        private final AtomicLong hitRatio = new AtomicLong(Double.doubleToLongBits(1.0));
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        /**
+         * The time the probe in flight was let through, or -1, if no probe is in flight.
+         */
+        private final AtomicLong probeStartedAt = new AtomicLong(-1L);
+        /**
+         * The time the circuit was opened, or -1, if it is closed.
+         */
+        private volatile long openedAt = -1L;
+
+        Entry(ExchangeRateProvider provider) {
+            this.provider = provider;
+        }
+
+        CircuitState getState(long now) {
+            long opened = openedAt;
+            if (opened < 0) {
+                return CircuitState.CLOSED;
+            }
+            return now - opened < openMillis ? CircuitState.OPEN : CircuitState.HALF_OPEN;
+        }
+
+        /**
+         * Checks if a lookup may be performed, letting a single probe pass, if the circuit is half open. A probe in
+         * flight for longer than the open duration is abandoned, so a probe never returning does not keep the
+         * circuit from closing forever.
+         */
+        boolean allowRequest(long now) {
+            CircuitState state = getState(now);
+            if (state == CircuitState.CLOSED) {
+                return true;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                long started = probeStartedAt.get();
+                if ((started < 0 || now - started >= openMillis) && probeStartedAt.compareAndSet(started, now)) {
+                    return true;
+                }
+            }
+            rejections.increment();
+            return false;
+        }
+
+        void recordSuccess(boolean hit, long nanos) {
+            (hit ? hits : misses).increment();
+            update(latency, nanos);
+            update(hitRatio, hit ? 1.0 : 0.0);
+            consecutiveFailures.set(0);
+            if (openedAt >= 0) {
+                openedAt = -1L;
+            }
+            probeStartedAt.set(-1L);
+        }
+
+        void recordFailure(long nanos, long now) {
+            failures.increment();
+            update(latency, nanos);
+            update(hitRatio, 0.0);
+            if (probeStartedAt.getAndSet(-1L) >= 0) {
+                openedAt = now;
+            } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openedAt = now;
+            }
+        }
+
+        private void update(AtomicLong average, double sample) {
+            long current;
+            long next;
+            do {
+                current = average.get();
+                double value = Double.longBitsToDouble(current);
+                next = Double.doubleToLongBits(value + ALPHA * (sample - value));
+            } while (!average.compareAndSet(current, next));
+        }
+
+        /**
+         * Evaluates the expected cost per rate found, zero if not sampled often enough.
+         */
+        double getScore() {
+            if (hits.sum() + misses.sum() + failures.sum() < minimumSamples) {
+                return 0.0;
+            }
+            return (Double.longBitsToDouble(latency.get()) + 1.0)
+                    / Math.max(MIN_HIT_RATIO, Double.longBitsToDouble(hitRatio.get()));
+        }
+
+        ProviderStatistics getStatistics(long now) {
+            return new ProviderStatistics(provider.getContext().getProviderName(), hits.sum(), misses.sum(),
+                    failures.sum(), rejections.sum(), Double.longBitsToDouble(latency.get()),
+                    Double.longBitsToDouble(hitRatio.get()), getState(now));
+        }
+    }
+
+    /**
+     * Snapshot of the statistics of a provider of an {@link AdaptiveExchangeRateProvider}.
+     * <p>
+     * This class is immutable and thread-safe.
+     */
+    public static final class ProviderStatistics {
+
+        private final String providerName;
+        private final long hitCount;
+        private final long missCount;
+        private final long failureCount;
+        private final long rejectionCount;
+        private final double averageLatencyNanos;
+        private final double averageHitRatio;
+        private final CircuitState state;
+
+        private ProviderStatistics(String providerName, long hitCount, long missCount, long failureCount,
+                                   long rejectionCount, double averageLatencyNanos, double averageHitRatio,
+                                   CircuitState state) {
+            this.providerName = providerName;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.failureCount = failureCount;
+            this.rejectionCount = rejectionCount;
+            this.averageLatencyNanos = averageLatencyNanos;
+            this.averageHitRatio = averageHitRatio;
+            this.state = state;
+        }
+
+        /**
+         * Get the name of the provider.
+         *
+         * @return the provider name.
+         */
+        public String getProviderName() {
+            return providerName;
+        }
+
+        /**
+         * Get the number of lookups returning a rate.
+         *
+         * @return the number of hits.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Get the number of lookups returning no rate.
+         *
+         * @return the number of misses.
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Get the number of lookups failing with an exception.
+         *
+         * @return the number of failures.
+         */
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        /**
+         * Get the number of lookups skipped, because the circuit was open.
+         *
+         * @return the number of rejections.
+         */
+        public long getRejectionCount() {
+            return rejectionCount;
+        }
+
+        /**
+         * Get the moving average of the lookup latency.
+         *
+         * @return the average latency in nanoseconds.
+         */
+        public double getAverageLatencyNanos() {
+            return averageLatencyNanos;
+        }
+
+        /**
+         * Get the moving average of the ratio of lookups returning a rate.
+         *
+         * @return the hit ratio, between {@code 0} and {@code 1}.
+         */
+        public double getAverageHitRatio() {
+            return averageHitRatio;
+        }
+
+        /**
+         * Get the state of the provider's circuit breaker.
+         *
+         * @return the state, never {@code null}.
+         */
+        public CircuitState getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return "ProviderStatistics [provider=" + providerName + ", hits=" + hitCount + ", misses=" + missCount
+                    + ", failures=" + failureCount + ", rejections=" + rejectionCount + ", latencyNanos="
+                    + (long) averageLatencyNanos + ", hitRatio=" + averageHitRatio + ", state=" + state + ']';
+        }
+    }
+
+    /**
+     * Builder of an {@link AdaptiveExchangeRateProvider}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+
+        private final ProviderContext context;
+        private final List<ExchangeRateProvider> providers = new ArrayList<>();
+        private int pinnedCount;
+        private int minimumSamples = DEFAULT_MINIMUM_SAMPLES;
+        private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private long openMillis = DEFAULT_OPEN_SECONDS * 1000L;
+        private boolean adaptive = true;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(ProviderContext context) {
+            this.context = Objects.requireNonNull(context, "Context required.");
+        }
+
+        /**
+         * Adds providers to the chain, in declared order.
+         *
+         * @param providers the providers, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addProviders(ExchangeRateProvider... providers) {
+            return addProviders(Arrays.asList(providers));
+        }
+
+        /**
+         * Adds providers to the chain, in declared order.
+         *
+         * @param providers the providers, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addProviders(Iterable<? extends ExchangeRateProvider> providers) {
+            for (ExchangeRateProvider provider : providers) {
+                this.providers.add(Objects.requireNonNull(provider, "Provider required."));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the number of leading providers, that are always tried first in their declared order.
+         *
+         * @param pinnedCount the number of pinned providers, not negative.
+         * @return this builder, for chaining.
+         */
+        public Builder setPinnedCount(int pinnedCount) {
+            if (pinnedCount < 0) {
+                throw new IllegalArgumentException("Pinned count must not be negative: " + pinnedCount);
+            }
+            this.pinnedCount = pinnedCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of lookups required, before a provider is ordered by its statistics.
+         *
+         * @param minimumSamples the number of samples, not negative.
+         * @return this builder, for chaining.
+         */
+        public Builder setMinimumSamples(int minimumSamples) {
+            if (minimumSamples < 0) {
+                throw new IllegalArgumentException("Minimum samples must not be negative: " + minimumSamples);
+            }
+            this.minimumSamples = minimumSamples;
+            return this;
+        }
+
+        /**
+         * Sets if the providers are reordered by their statistics. If disabled, the providers are always tried in
+         * declared order, only skipping providers with an open circuit.
+         *
+         * @param adaptive {@code true} to reorder the providers.
+         * @return this builder, for chaining.
+         */
+        public Builder setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive failures opening the circuit of a provider.
+         *
+         * @param failureThreshold the number of failures, greater than zero.
+         * @return this builder, for chaining.
+         */
+        public Builder setFailureThreshold(int failureThreshold) {
+            if (failureThreshold <= 0) {
+                throw new IllegalArgumentException("Failure threshold must be positive: " + failureThreshold);
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the time the circuit of a failing provider stays open, before a probing lookup is let through.
+         *
+         * @param openDuration the duration, positive.
+         * @return this builder, for chaining.
+         */
+        public Builder setOpenDuration(Duration openDuration) {
+            Objects.requireNonNull(openDuration, "Open duration required.");
+            if (openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("Open duration must be positive: " + openDuration);
+            }
+            try {
+                this.openMillis = Math.max(1L, openDuration.toMillis());
+            } catch (ArithmeticException e) {
+                this.openMillis = Long.MAX_VALUE;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the clock used for evaluating the state of the circuit breakers.
+         *
+         * @param clock the clock, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder setClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock required.");
+            return this;
+        }
+
+        /**
+         * Creates the adaptive provider.
+         *
+         * @return the new adaptive provider, never {@code null}.
+         * @throws IllegalStateException if no provider was added.
+         */
+        public AdaptiveExchangeRateProvider build() {
+            if (providers.isEmpty()) {
+                throw new IllegalStateException("At least one provider required.");
+            }
+            return new AdaptiveExchangeRateProvider(this);
+        }
+    }
+
+}
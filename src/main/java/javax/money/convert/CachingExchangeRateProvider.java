@@ -0,0 +1,463 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator of an {@link ExchangeRateProvider}, caching the rates returned by the provider decorated. Rates are
+ * cached by the {@link ConversionQuery} passed, i.e. by its base and term currency, its rate types, its
+ * timestamp and any other query attribute, for a time to live depending on the {@link RateType} of the rate
+ * returned. By default {@link RateType#HISTORIC} rates are cached forever, {@link RateType#REALTIME} rates for
+ * {@value #DEFAULT_REALTIME_TTL_SECONDS} seconds and all other rates for {@value #DEFAULT_TTL_SECONDS} seconds.
+ * Rates are only cached forever for queries with a timestamp: a query without a timestamp targets the latest rate,
+ * e.g. the latest historic fixing, so such rates are cached for {@value #DEFAULT_TTL_SECONDS} seconds instead.
+ * <p>
+ * The cache is bounded: when it is full, expired entries, or arbitrary entries, if none expired, are evicted. The
+ * hits, misses and evictions are counted and can be accessed by {@link #getStatistics()}. Failed lookups are not
+ * cached.
+ * <p>
+ * The {@link CurrencyConversion} instances returned evaluate their rates from this instance, so they benefit from
+ * the cache as well.
+ * <p>
+ * Instances are created using {@link #of(ExchangeRateProvider)} or {@link #builder(ExchangeRateProvider)}, e.g.
+ * <pre><code>
+ * ExchangeRateProvider provider = CachingExchangeRateProvider.builder(remoteProvider)
+ *     .setTimeToLive(RateType.DEFERRED, Duration.ofMinutes(15))
+ *     .setMaximumSize(50_000)
+ *     .build();
+ * </code></pre>
+ * This class is thread-safe.
+ *
+ * @author Anatole Tresch
+ */
+public final class CachingExchangeRateProvider implements ExchangeRateProvider {
+
+    /**
+     * The default time to live of {@link RateType#REALTIME} rates, in seconds.
+     */
+    public static final long DEFAULT_REALTIME_TTL_SECONDS = 5;
+
+    /**
+     * The default time to live of all rates other than {@link RateType#HISTORIC} and {@link RateType#REALTIME}, in
+     * seconds.
+     */
+    public static final long DEFAULT_TTL_SECONDS = 60;
+
+    /**
+     * The default maximal number of cached rates.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * The maximal number of entries scanned for an expired entry when evicting.
+     */
+    private static final int EVICTION_SCAN = 16;
+
+    private final ExchangeRateProvider delegate;
+    /**
+     * The time to live per rate type, in milliseconds; {@link Long#MAX_VALUE} stands for forever.
+     */
+    private final Map<RateType, Long> timeToLive;
+    private final int maximumSize;
+    private final Clock clock;
+    private final Map<ConversionQuery, CachedRate> rates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private CachingExchangeRateProvider(Builder builder) {
+        this.delegate = builder.delegate;
+        this.timeToLive = new EnumMap<>(builder.timeToLive);
+        this.maximumSize = builder.maximumSize;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Creates a new caching provider, using the default times to live and size.
+     *
+     * @param delegate the provider to be decorated, not {@code null}.
+     * @return the new caching provider, never {@code null}.
+     */
+    public static CachingExchangeRateProvider of(ExchangeRateProvider delegate) {
+        return builder(delegate).build();
+    }
+
+    /**
+     * Creates a new builder of a caching provider.
+     *
+     * @param delegate the provider to be decorated, not {@code null}.
+     * @return the new builder, never {@code null}.
+     */
+    public static Builder builder(ExchangeRateProvider delegate) {
+        return new Builder(delegate);
+    }
+
+    /**
+     * Access the provider decorated.
+     *
+     * @return the provider decorated, never {@code null}.
+     */
+    public ExchangeRateProvider getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return delegate.getContext();
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        return delegate.isAvailable(conversionQuery);
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        long now = clock.millis();
+        ExchangeRate cached = getCached(conversionQuery, now);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        ExchangeRate rate = delegate.getExchangeRate(conversionQuery);
+        cache(conversionQuery, rate, now);
+        return rate;
+    }
+
+    /**
+     * Cached rates are returned directly. On a miss the rate is looked up by
+     * {@link ExchangeRateProvider#findExchangeRate(ConversionQuery)} of the provider decorated, so a rate not
+     * available does not raise any exception.
+     */
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        long now = clock.millis();
+        ExchangeRate cached = getCached(conversionQuery, now);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<ExchangeRate> rate = delegate.findExchangeRate(conversionQuery);
+        rate.ifPresent(r -> cache(conversionQuery, r, now));
+        return rate;
+    }
+
+    /**
+     * Cached rates are returned as completed futures, without any thread switch. On a miss the rate is fetched by
+     * {@link ExchangeRateProvider#getExchangeRateAsync(ConversionQuery)} of the provider decorated.
+     */
+    @Override
+    public CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        long now = clock.millis();
+        ExchangeRate cached = getCached(conversionQuery, now);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        misses.increment();
+        return delegate.getExchangeRateAsync(conversionQuery).thenApply(rate -> {
+            cache(conversionQuery, rate, now);
+            return rate;
+        });
+    }
+
+    /**
+     * Access a cached rate, removing it, if expired.
+     *
+     * @param query the query.
+     * @param now   the current time in milliseconds.
+     * @return the rate, or null on a miss.
+     */
+    private ExchangeRate getCached(ConversionQuery query, long now) {
+        CachedRate cached = rates.get(query);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                hits.increment();
+                return cached.rate;
+            }
+            if (rates.remove(query, cached)) {
+                evictions.increment();
+            }
+        }
+        return null;
+    }
+
+    private void cache(ConversionQuery query, ExchangeRate rate, long now) {
+        if (rate != null) {
+            long ttl = getTimeToLive(rate, query);
+            if (ttl > 0) {
+                if (rates.size() >= maximumSize) {
+                    evict(now);
+                }
+                rates.put(query, new CachedRate(rate, ttl == Long.MAX_VALUE || now > Long.MAX_VALUE - ttl
+                        ? Long.MAX_VALUE : now + ttl));
+            }
+        }
+    }
+
+    /**
+     * Returns the publisher of the provider decorated, rates pushed are not cached.
+     */
+    @Override
+    public Optional<RateFlow.Publisher<ExchangeRate>> getRatePublisher(ConversionQuery conversionQuery) {
+        return delegate.getRatePublisher(conversionQuery);
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    /**
+     * Evaluates the time to live of a rate, based on the rate type of the rate or else of the query. Rates of
+     * queries without a timestamp are not cached forever, since they target the latest rate.
+     *
+     * @param rate  the rate.
+     * @param query the query.
+     * @return the time to live in milliseconds.
+     */
+    private long getTimeToLive(ExchangeRate rate, ConversionQuery query) {
+        RateType rateType = rate.getContext() == null ? null : rate.getContext().getRateType();
+        if (rateType == null) {
+            Set<RateType> rateTypes = query.getRateTypes();
+            rateType = rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY;
+        }
+        long ttl = timeToLive.get(rateType);
+        if (ttl == Long.MAX_VALUE && query.getTimestamp() == null) {
+            return DEFAULT_TTL_SECONDS * 1000L;
+        }
+        return ttl;
+    }
+
+    /**
+     * Evicts an expired entry, if one is found within the first entries, or else an arbitrary entry.
+     *
+     * @param now the current time.
+     */
+    private void evict(long now) {
+        Iterator<Map.Entry<ConversionQuery, CachedRate>> entries = rates.entrySet().iterator();
+        Map.Entry<ConversionQuery, CachedRate> victim = null;
+        for (int i = 0; i < EVICTION_SCAN && entries.hasNext(); i++) {
+            Map.Entry<ConversionQuery, CachedRate> entry = entries.next();
+            if (victim == null || entry.getValue().expiresAt <= now) {
+                victim = entry;
+                if (entry.getValue().expiresAt <= now) {
+                    break;
+                }
+            }
+        }
+        if (victim != null && rates.remove(victim.getKey(), victim.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drops all cached rates. The statistics are not reset.
+     */
+    public void clear() {
+        rates.clear();
+    }
+
+    /**
+     * Access the statistics of this cache.
+     *
+     * @return a snapshot of the current statistics, never {@code null}.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), rates.size());
+    }
+
+    @Override
+    public String toString() {
+        return "CachingExchangeRateProvider [delegate=" + delegate + ", timeToLive=" + timeToLive + ", maximumSize="
+                + maximumSize + ", " + getStatistics() + ']';
+    }
+
+    /**
+     * A cached rate.
+     */
+    private static final class CachedRate {
+        private final ExchangeRate rate;
+        private final long expiresAt;
+
+        CachedRate(ExchangeRate rate, long expiresAt) {
+            this.rate = rate;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Snapshot of the statistics of a {@link CachingExchangeRateProvider}.
+     * <p>
+     * This class is immutable and thread-safe.
+     */
+    public static final class Statistics {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int size;
+
+        private Statistics(long hitCount, long missCount, long evictionCount, int size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+        }
+
+        /**
+         * Get the number of rates returned from the cache.
+         *
+         * @return the number of hits.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Get the number of rates requested from the provider decorated.
+         *
+         * @return the number of misses.
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Get the number of rates evicted, because they expired or the cache was full.
+         *
+         * @return the number of evictions.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Get the number of rates currently cached.
+         *
+         * @return the cache size.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Get the ratio of hits to all requests.
+         *
+         * @return the hit ratio, or {@code 0}, if no rate was requested yet.
+         */
+        public double getHitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics [hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                    + ", size=" + size + ']';
+        }
+    }
+
+    /**
+     * Builder of a {@link CachingExchangeRateProvider}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+
+        private final ExchangeRateProvider delegate;
+        private final Map<RateType, Long> timeToLive = new EnumMap<>(RateType.class);
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(ExchangeRateProvider delegate) {
+            this.delegate = Objects.requireNonNull(delegate, "Provider to be cached required.");
+            for (RateType rateType : RateType.values()) {
+                timeToLive.put(rateType, DEFAULT_TTL_SECONDS * 1000L);
+            }
+            timeToLive.put(RateType.HISTORIC, Long.MAX_VALUE);
+            timeToLive.put(RateType.REALTIME, DEFAULT_REALTIME_TTL_SECONDS * 1000L);
+        }
+
+        /**
+         * Sets the time to live of rates of the given type. Rates are cached forever if the duration is
+         * {@link ChronoUnit#FOREVER}'s duration or exceeds the range of milliseconds, and not cached at all if it
+         * is zero. Rates of queries without a timestamp are never cached forever, they are cached for
+         * {@value #DEFAULT_TTL_SECONDS} seconds instead.
+         *
+         * @param rateType   the rate type, not {@code null}.
+         * @param timeToLive the time to live, not negative.
+         * @return this builder, for chaining.
+         */
+        public Builder setTimeToLive(RateType rateType, Duration timeToLive) {
+            Objects.requireNonNull(rateType, "Rate type required.");
+            Objects.requireNonNull(timeToLive, "Time to live required.");
+            if (timeToLive.isNegative()) {
+                throw new IllegalArgumentException("Time to live must not be negative: " + timeToLive);
+            }
+            long millis;
+            try {
+                millis = timeToLive.toMillis();
+            } catch (ArithmeticException e) {
+                millis = Long.MAX_VALUE;
+            }
+            this.timeToLive.put(rateType, millis);
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of cached rates.
+         *
+         * @param maximumSize the maximal size, greater than zero.
+         * @return this builder, for chaining.
+         */
+        public Builder setMaximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the clock used for evaluating the expiry of cached rates.
+         *
+         * @param clock the clock, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder setClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock required.");
+            return this;
+        }
+
+        /**
+         * Creates the caching provider.
+         *
+         * @return the new caching provider, never {@code null}.
+         */
+        public CachingExchangeRateProvider build() {
+            return new CachingExchangeRateProvider(this);
+        }
+    }
+
+}
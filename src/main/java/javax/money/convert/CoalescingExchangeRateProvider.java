@@ -0,0 +1,332 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator of an {@link ExchangeRateProvider}, coalescing concurrent lookups of the same {@link ConversionQuery}
+ * into a single call of the provider decorated (single flight). The first thread requesting a rate performs the
+ * lookup, all threads requesting an equal query while it is in flight wait for its result instead of calling the
+ * provider themselves. This protects slow or remote rate sources from a burst of identical requests, e.g. after
+ * a cache expired on a hot currency pair. Typically a coalescing provider is placed between a
+ * {@link CachingExchangeRateProvider} and a remote provider.
+ * <p>
+ * Waiting threads give up after a configurable timeout, raising a {@link CurrencyConversionException}. If the
+ * lookup in flight fails, each waiting thread raises a {@link CurrencyConversionException} of its own, with the
+ * failure of the lookup as cause, by default; alternatively waiting threads can retry the lookup once themselves.
+ * Nothing is cached: as soon as a lookup completes, the next request calls the provider decorated again.
+ * <p>
+ * Instances are created using {@link #of(ExchangeRateProvider)} or {@link #builder(ExchangeRateProvider)}, e.g.
+ * <pre><code>
+ * ExchangeRateProvider provider = CachingExchangeRateProvider.of(
+ *     CoalescingExchangeRateProvider.builder(remoteProvider).setTimeout(Duration.ofSeconds(5)).build());
+ * </code></pre>
+ * This class is thread-safe.
+ */
+public final class CoalescingExchangeRateProvider implements ExchangeRateProvider {
+
+    /**
+     * The default time waiting threads wait for a lookup in flight, in seconds.
+     */
+    public static final long DEFAULT_TIMEOUT_SECONDS = 30;
+
+    private final ExchangeRateProvider delegate;
+    /**
+     * The timeout in milliseconds; {@link Long#MAX_VALUE} stands for waiting forever.
+     */
+    private final long timeout;
+    private final boolean shareFailures;
+    private final ConcurrentHashMap<ConversionQuery, CompletableFuture<ExchangeRate>> inFlight =
+            new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private CoalescingExchangeRateProvider(Builder builder) {
+        this.delegate = builder.delegate;
+        this.timeout = builder.timeout;
+        this.shareFailures = builder.shareFailures;
+    }
+
+    /**
+     * Creates a new coalescing provider, using the default timeout and sharing failures.
+     *
+     * @param delegate the provider to be decorated, not {@code null}.
+     * @return the new coalescing provider, never {@code null}.
+     */
+    public static CoalescingExchangeRateProvider of(ExchangeRateProvider delegate) {
+        return builder(delegate).build();
+    }
+
+    /**
+     * Creates a new builder of a coalescing provider.
+     *
+     * @param delegate the provider to be decorated, not {@code null}.
+     * @return the new builder, never {@code null}.
+     */
+    public static Builder builder(ExchangeRateProvider delegate) {
+        return new Builder(delegate);
+    }
+
+    /**
+     * Access the provider decorated.
+     *
+     * @return the provider decorated, never {@code null}.
+     */
+    public ExchangeRateProvider getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return delegate.getContext();
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        return delegate.isAvailable(conversionQuery);
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        return getExchangeRate(Objects.requireNonNull(conversionQuery), !shareFailures);
+    }
+
+    private ExchangeRate getExchangeRate(ConversionQuery query, boolean retry) {
+        CompletableFuture<ExchangeRate> future = new CompletableFuture<>();
+        CompletableFuture<ExchangeRate> existing = inFlight.putIfAbsent(query, future);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return await(query, existing);
+            } catch (CurrencyConversionException e) {
+                if (retry && existing.isCompletedExceptionally()) {
+                    inFlight.remove(query, existing);
+                    return getExchangeRate(query, false);
+                }
+                throw e;
+            }
+        }
+        lookups.increment();
+        try {
+            ExchangeRate rate = delegate.getExchangeRate(query);
+            future.complete(rate);
+            return rate;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(query, future);
+        }
+    }
+
+    /**
+     * Waits for the result of a lookup in flight.
+     *
+     * @param query  the query.
+     * @param future the lookup in flight.
+     * @return the rate.
+     */
+    private ExchangeRate await(ConversionQuery query, CompletableFuture<ExchangeRate> future) {
+        try {
+            return timeout == Long.MAX_VALUE ? future.get() : future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw sharedFailure(query, unwrap(e.getCause()));
+        } catch (TimeoutException e) {
+            throw new CurrencyConversionException(query.getBaseCurrency(), query.getCurrency(),
+                    getConversionContext(query), "Timed out after " + timeout + "ms waiting for rate lookup.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CurrencyConversionException(query.getBaseCurrency(), query.getCurrency(),
+                    getConversionContext(query), "Interrupted waiting for rate lookup.", e);
+        }
+    }
+
+    /**
+     * Creates the exception raised by a caller waiting for a failed lookup in flight. The failure of the lookup is
+     * never rethrown itself, as it is shared by all callers waiting, but belongs to the caller performing the lookup.
+     */
+    private CurrencyConversionException sharedFailure(ConversionQuery query, Throwable cause) {
+        return new CurrencyConversionException(query.getBaseCurrency(), query.getCurrency(),
+                getConversionContext(query), "Rate lookup failed: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Coalesces asynchronous lookups the same way as synchronous ones, a single
+     * {@link ExchangeRateProvider#getExchangeRateAsync(ConversionQuery)} of the provider decorated is in flight per
+     * query, and failures are shared or retried the same way. The timeout does not apply, callers can bound the
+     * future returned themselves.
+     */
+    @Override
+    public CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery conversionQuery) {
+        return getExchangeRateAsync(Objects.requireNonNull(conversionQuery), !shareFailures);
+    }
+
+    private CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery query, boolean retry) {
+        CompletableFuture<ExchangeRate> future = new CompletableFuture<>();
+        CompletableFuture<ExchangeRate> existing = inFlight.putIfAbsent(query, future);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.handle((rate, e) -> {
+                if (e == null) {
+                    return CompletableFuture.completedFuture(rate);
+                }
+                if (retry) {
+                    inFlight.remove(query, existing);
+                    return getExchangeRateAsync(query, false);
+                }
+                CompletableFuture<ExchangeRate> failed = new CompletableFuture<>();
+                failed.completeExceptionally(sharedFailure(query, unwrap(e)));
+                return failed;
+            }).thenCompose(result -> result);
+        }
+        lookups.increment();
+        try {
+            delegate.getExchangeRateAsync(query).whenComplete((rate, e) -> {
+                inFlight.remove(query, future);
+                if (e != null) {
+                    future.completeExceptionally(unwrap(e));
+                } else {
+                    future.complete(rate);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(query, future);
+            future.completeExceptionally(e);
+        }
+        return future.thenApply(rate -> rate);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Returns the publisher of the provider decorated, rates pushed are not coalesced.
+     */
+    @Override
+    public Optional<RateFlow.Publisher<ExchangeRate>> getRatePublisher(ConversionQuery conversionQuery) {
+        return delegate.getRatePublisher(conversionQuery);
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    private ConversionContext getConversionContext(ConversionQuery query) {
+        Set<RateType> rateTypes = query.getRateTypes();
+        return ConversionContext.from(delegate.getContext(),
+                rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY);
+    }
+
+    /**
+     * Get the number of lookups performed by the provider decorated.
+     *
+     * @return the number of lookups.
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Get the number of requests served by joining a lookup in flight, rather than calling the provider decorated.
+     *
+     * @return the number of coalesced requests.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Get the number of lookups currently in flight.
+     *
+     * @return the number of lookups in flight.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingExchangeRateProvider [delegate=" + delegate + ", timeout=" + timeout + ", shareFailures="
+                + shareFailures + ", lookups=" + getLookupCount() + ", coalesced=" + getCoalescedCount() + ']';
+    }
+
+    /**
+     * Builder of a {@link CoalescingExchangeRateProvider}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+
+        private final ExchangeRateProvider delegate;
+        private long timeout = DEFAULT_TIMEOUT_SECONDS * 1000L;
+        private boolean shareFailures = true;
+
+        private Builder(ExchangeRateProvider delegate) {
+            this.delegate = Objects.requireNonNull(delegate, "Provider to be decorated required.");
+        }
+
+        /**
+         * Sets the time threads wait for a lookup in flight. Threads wait forever if the duration is
+         * {@link ChronoUnit#FOREVER}'s duration or exceeds the range of milliseconds.
+         *
+         * @param timeout the timeout, positive.
+         * @return this builder, for chaining.
+         */
+        public Builder setTimeout(Duration timeout) {
+            Objects.requireNonNull(timeout, "Timeout required.");
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+            }
+            try {
+                this.timeout = Math.max(1L, timeout.toMillis());
+            } catch (ArithmeticException e) {
+                this.timeout = Long.MAX_VALUE;
+            }
+            return this;
+        }
+
+        /**
+         * Sets if the failure of a lookup in flight is shared with all threads waiting for it (the default), each
+         * raising a {@link CurrencyConversionException} with the failure as cause, or if each waiting thread
+         * retries the lookup once, again coalesced with the other waiting threads. This applies to synchronous and
+         * asynchronous lookups alike.
+         *
+         * @param shareFailures {@code true} to share failures with waiting threads.
+         * @return this builder, for chaining.
+         */
+        public Builder setShareFailures(boolean shareFailures) {
+            this.shareFailures = shareFailures;
+            return this;
+        }
+
+        /**
+         * Creates the coalescing provider.
+         *
+         * @return the new coalescing provider, never {@code null}.
+         */
+        public CoalescingExchangeRateProvider build() {
+            return new CoalescingExchangeRateProvider(this);
+        }
+    }
+
+}
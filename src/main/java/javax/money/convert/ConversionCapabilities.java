@@ -0,0 +1,292 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Index of the currency pairs an {@link ExchangeRateProvider} supports, declared on its {@link ProviderContext} by
+ * {@link ProviderContextBuilder#setCapabilities(ConversionCapabilities)}. Availability checks, such as
+ * {@link ExchangeRateProvider#isAvailable(ConversionQuery)} and
+ * {@link javax.money.spi.MonetaryConversionsSingletonSpi#isConversionAvailable(ConversionQuery)}, are answered from
+ * the index, without creating conversions or evaluating rates, and without throwing exceptions for unsupported
+ * pairs.
+ * <p>
+ * Each currency is assigned an ordinal, the currencies supported as base and as term currency, and the pairs
+ * supported are held as bit sets over the ordinals. The capabilities declare the pairs a provider can serve at all,
+ * a pair supported may still be unavailable at a given time, e.g. before its first rate was published.
+ * <pre><code>
+ * ProviderContext context = ProviderContextBuilder.of("ECB", RateType.DEFERRED)
+ *     .setCapabilities(ConversionCapabilities.builder().addPairs(eur, ecbCurrencies).build())
+ *     .build();
+ * </code></pre>
+ * Currencies are identified by their currency code.
+ * <p>
+ * This class is immutable, serializable and thread-safe.
+ *
+ * @author Anatole Tresch
+ */
+public final class ConversionCapabilities implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] codes;
+    private final Map<String, Integer> ordinals;
+    private final BitSet bases;
+    private final BitSet terms;
+    /**
+     * The pairs supported, at index {@code base * n + term}, {@code null} if all pairs of the bases and terms are
+     * supported.
+     */
+    private final BitSet pairs;
+
+    private ConversionCapabilities(Builder builder) {
+        this.codes = builder.codes.toArray(new String[0]);
+        Map<String, Integer> ordinalsByCode = new HashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            ordinalsByCode.put(codes[i], i);
+        }
+        this.ordinals = ordinalsByCode;
+        this.bases = new BitSet(codes.length);
+        this.terms = new BitSet(codes.length);
+        for (String code : builder.meshCodes) {
+            bases.set(ordinalsByCode.get(code));
+            terms.set(ordinalsByCode.get(code));
+        }
+        if (builder.pairs.isEmpty()) {
+            this.pairs = null;
+        } else {
+            BitSet pairSet = new BitSet(codes.length * codes.length);
+            for (String base : builder.meshCodes) {
+                for (String term : builder.meshCodes) {
+                    pairSet.set(ordinalsByCode.get(base) * codes.length + ordinalsByCode.get(term));
+                }
+            }
+            for (String[] pair : builder.pairs) {
+                int base = ordinalsByCode.get(pair[0]);
+                int term = ordinalsByCode.get(pair[1]);
+                bases.set(base);
+                terms.set(term);
+                pairSet.set(base * codes.length + term);
+            }
+            this.pairs = pairSet;
+        }
+    }
+
+    /**
+     * Creates capabilities supporting all pairs of the given currencies.
+     *
+     * @param currencies the currencies, not {@code null}.
+     * @return the capabilities, never {@code null}.
+     */
+    public static ConversionCapabilities of(Collection<? extends CurrencyUnit> currencies) {
+        return builder().addCurrencies(currencies).build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return the new builder, never {@code null}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the ordinal of a currency.
+     *
+     * @param currency the currency, not {@code null}.
+     * @return the ordinal, or {@code -1}, if the currency is not supported at all.
+     */
+    public int getOrdinal(CurrencyUnit currency) {
+        Integer ordinal = ordinals.get(currency.getCurrencyCode());
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Get the codes of all currencies supported as base or term currency.
+     *
+     * @return the currency codes, in the order of their ordinals, never {@code null}.
+     */
+    public List<String> getCurrencyCodes() {
+        return Collections.unmodifiableList(Arrays.asList(codes));
+    }
+
+    /**
+     * Checks if a currency is supported as base currency.
+     *
+     * @param base the base currency, not {@code null}.
+     * @return {@code true}, if at least one pair with the base currency is supported.
+     */
+    public boolean isSupportedBase(CurrencyUnit base) {
+        int ordinal = getOrdinal(base);
+        return ordinal >= 0 && bases.get(ordinal);
+    }
+
+    /**
+     * Checks if a currency is supported as term currency.
+     *
+     * @param term the term currency, not {@code null}.
+     * @return {@code true}, if at least one pair with the term currency is supported.
+     */
+    public boolean isSupportedTerm(CurrencyUnit term) {
+        int ordinal = getOrdinal(term);
+        return ordinal >= 0 && terms.get(ordinal);
+    }
+
+    /**
+     * Checks if a currency pair is supported.
+     *
+     * @param base the base currency, not {@code null}.
+     * @param term the term currency, not {@code null}.
+     * @return {@code true}, if the pair is supported.
+     */
+    public boolean isSupported(CurrencyUnit base, CurrencyUnit term) {
+        int baseOrdinal = getOrdinal(base);
+        int termOrdinal = getOrdinal(term);
+        if (baseOrdinal < 0 || termOrdinal < 0) {
+            return false;
+        }
+        if (pairs == null) {
+            return bases.get(baseOrdinal) && terms.get(termOrdinal);
+        }
+        return pairs.get(baseOrdinal * codes.length + termOrdinal);
+    }
+
+    /**
+     * Checks if the currencies of a query are supported: the pair, if the query has a base and a term currency,
+     * otherwise the base or term currency set.
+     *
+     * @param conversionQuery the query, not {@code null}.
+     * @return {@code true}, if supported, or if the query has no currencies.
+     */
+    public boolean isSupported(ConversionQuery conversionQuery) {
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base != null && term != null) {
+            return isSupported(base, term);
+        }
+        if (base != null) {
+            return isSupportedBase(base);
+        }
+        return term == null || isSupportedTerm(term);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof ConversionCapabilities) {
+            ConversionCapabilities other = (ConversionCapabilities) o;
+            return Arrays.equals(codes, other.codes) && bases.equals(other.bases) && terms.equals(other.terms)
+                    && Objects.equals(pairs, other.pairs);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(codes), bases, terms, pairs);
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionCapabilities [currencies=" + codes.length + ", pairs="
+                + (pairs == null ? bases.cardinality() * terms.cardinality() : pairs.cardinality()) + ']';
+    }
+
+    /**
+     * Builder of {@link ConversionCapabilities}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Set<String> codes = new LinkedHashSet<>();
+        private final Set<String> meshCodes = new LinkedHashSet<>();
+        private final List<String[]> pairs = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds currencies, supporting all pairs of the currencies added by this method.
+         *
+         * @param currencies the currencies, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addCurrencies(Collection<? extends CurrencyUnit> currencies) {
+            for (CurrencyUnit currency : currencies) {
+                String code = Objects.requireNonNull(currency, "Currencies must not contain null.").getCurrencyCode();
+                codes.add(code);
+                meshCodes.add(code);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a supported pair. The reversed pair is not affected.
+         *
+         * @param base the base currency, not {@code null}.
+         * @param term the term currency, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addPair(CurrencyUnit base, CurrencyUnit term) {
+            return addPair(Objects.requireNonNull(base, "Base currency required.").getCurrencyCode(),
+                    Objects.requireNonNull(term, "Term currency required.").getCurrencyCode());
+        }
+
+        /**
+         * Adds a supported pair by its currency codes.
+         */
+        Builder addPair(String baseCode, String termCode) {
+            codes.add(baseCode);
+            codes.add(termCode);
+            pairs.add(new String[]{baseCode, termCode});
+            return this;
+        }
+
+        /**
+         * Adds the pairs of a base currency with all the given term currencies.
+         *
+         * @param base  the base currency, not {@code null}.
+         * @param terms the term currencies, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addPairs(CurrencyUnit base, Collection<? extends CurrencyUnit> terms) {
+            for (CurrencyUnit term : terms) {
+                addPair(base, term);
+            }
+            return this;
+        }
+
+        /**
+         * Creates the capabilities.
+         *
+         * @return the new capabilities, never {@code null}.
+         */
+        public ConversionCapabilities build() {
+            return new ConversionCapabilities(this);
+        }
+    }
+
+}
@@ -9,6 +9,7 @@
 package javax.money.convert;
 
 import javax.money.AbstractContext;
+import javax.money.ContextKey;
 
 /**
  * This class models a context for which a {@link ExchangeRate} is valid. It allows to define
@@ -28,6 +29,8 @@ public final class ConversionContext extends AbstractContext {
 
     private static final long serialVersionUID = 2386546659786888877L;
 
+    private static final ContextKey<RateType> RATE_TYPE_KEY = ContextKey.of(RateType.class);
+
     /**
      * ConversionContext that queries any conversion available.
      */
@@ -69,7 +72,7 @@ public final class ConversionContext extends AbstractContext {
      * @return the deferred flag, or {code null}.
      */
     public RateType getRateType() {
-        return get(RateType.class);
+        return get(RATE_TYPE_KEY);
     }
 
 
@@ -81,7 +84,7 @@ public final class ConversionContext extends AbstractContext {
      * @return the provider, or {code null}.
      */
     public String getProviderName() {
-        return getText("provider");
+        return super.getProviderName();
     }
 
     /**
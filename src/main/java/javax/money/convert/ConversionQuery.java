@@ -8,6 +8,7 @@
 package javax.money.convert;
 
 import javax.money.AbstractQuery;
+import javax.money.ContextKey;
 import javax.money.CurrencySupplier;
 import javax.money.CurrencyUnit;
 import java.util.*;
@@ -41,6 +42,13 @@ public final class ConversionQuery extends AbstractQuery implements CurrencySupp
      */
     static final String KEY_RATE_TYPES = "Query.rateTypes";
 
+    private static final ContextKey<CurrencyUnit> BASE_CURRENCY_KEY =
+            ContextKey.of(KEY_BASE_CURRENCY, CurrencyUnit.class);
+    private static final ContextKey<CurrencyUnit> TERM_CURRENCY_KEY =
+            ContextKey.of(KEY_TERM_CURRENCY, CurrencyUnit.class);
+    @SuppressWarnings("rawtypes")
+    private static final ContextKey<Set> RATE_TYPES_KEY = ContextKey.of(KEY_RATE_TYPES, Set.class);
+
     /**
      * Constructor, used from the ConversionQueryBuilder.
      *
@@ -57,7 +65,7 @@ public final class ConversionQuery extends AbstractQuery implements CurrencySupp
      */
     @SuppressWarnings("unchecked")
     public Set<RateType> getRateTypes() {
-        Set<RateType> result = get(KEY_RATE_TYPES, Set.class);
+        Set<RateType> result = get(RATE_TYPES_KEY);
         if (result == null) {
             return Collections.emptySet();
         }
@@ -75,7 +83,7 @@ public final class ConversionQuery extends AbstractQuery implements CurrencySupp
      * @return the base CurrencyUnit, or null.
      */
     public CurrencyUnit getBaseCurrency() {
-        return get(KEY_BASE_CURRENCY, CurrencyUnit.class);
+        return get(BASE_CURRENCY_KEY);
     }
 
     /**
@@ -85,7 +93,7 @@ public final class ConversionQuery extends AbstractQuery implements CurrencySupp
      * @return the terminating CurrencyUnit, or null.
      */
     public CurrencyUnit getCurrency() {
-        return get(KEY_TERM_CURRENCY, CurrencyUnit.class);
+        return get(TERM_CURRENCY_KEY);
     }
 
     /**
@@ -0,0 +1,189 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.AbstractContextBuilder;
+import javax.money.ContextKey;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned view of the rates of an {@link ExchangeRateProvider}, obtained by
+ * {@link ExchangeRateProvider#snapshot()}. All {@link CurrencyConversion} instances created from a snapshot see the
+ * same rates, regardless of rate updates of the live provider, so a batch of conversions can be evaluated
+ * reproducibly, without any locking.
+ * <p>
+ * Every rate is pinned on its first access, i.e. subsequent requests of the same {@link ConversionQuery} return the
+ * same rate for the lifetime of the snapshot. There are two kinds of snapshots:
+ * <ul>
+ * <li>Point in time snapshots, created by {@link #of(ExchangeRateProvider, long, Instant)} from a view of all rates
+ * of a provider that does not change, e.g. by {@link MatrixExchangeRateProvider}. All their rates stem from the same
+ * provider state, identified by the snapshot's version and timestamp.</li>
+ * <li>Pinning snapshots, created by {@link #pinning(ExchangeRateProvider)}, the default of
+ * {@link ExchangeRateProvider#snapshot()}. They are <b>not</b> atomic: rates first accessed at different times can
+ * stem from different provider states. Hence they have no timestamp, their version only identifies the snapshot.
+ * They are mutable and meant to be short-lived, e.g. for a single batch: every distinct {@link ConversionQuery},
+ * including queries differing only in their timestamp, adds an entry that is kept for the lifetime of the snapshot.
+ * </li>
+ * </ul>
+ * The version and, for point in time snapshots, the timestamp are recorded in the {@link ProviderContext} of the
+ * snapshot, as well as in the {@link ConversionContext} of its rates and conversions, and can be accessed using
+ * {@link #VERSION} and {@link #TIMESTAMP}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Anatole Tresch
+ */
+public final class ConversionSnapshot implements ExchangeRateProvider {
+
+    /**
+     * The key of the snapshot version, set on the contexts of a snapshot and its rates.
+     */
+    public static final ContextKey<Long> VERSION = ContextKey.of("snapshot.version", Long.class);
+
+    /**
+     * The key of the snapshot timestamp, set on the contexts of a point in time snapshot and its rates.
+     */
+    public static final ContextKey<Instant> TIMESTAMP = ContextKey.of("snapshot.timestamp", Instant.class);
+
+    /**
+     * The versions of the snapshots of providers without versioning of their own.
+     */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final ExchangeRateProvider source;
+    private final long version;
+    private final Instant timestamp;
+    private final ProviderContext context;
+    private final Map<ConversionQuery, ExchangeRate> rates = new ConcurrentHashMap<>();
+
+    private ConversionSnapshot(ExchangeRateProvider source, long version, Instant timestamp) {
+        this.source = Objects.requireNonNull(source, "Source provider required.");
+        this.version = version;
+        this.timestamp = timestamp;
+        this.context = withSnapshot(source.getContext().toBuilder()).build();
+    }
+
+    /**
+     * Creates a pinning snapshot, pinning the rates of the given provider on first access. The snapshot is not
+     * atomic, rates first accessed at different times can stem from different states of the provider. The snapshot
+     * is assigned a new version, but no timestamp. It keeps every rate accessed, so it should be discarded once the
+     * conversions it was created for are done.
+     *
+     * @param provider the provider, not {@code null}.
+     * @return the new snapshot, never {@code null}.
+     */
+    public static ConversionSnapshot pinning(ExchangeRateProvider provider) {
+        return new ConversionSnapshot(provider, VERSIONS.incrementAndGet(), null);
+    }
+
+    /**
+     * Creates a point in time snapshot of a view of the rates of a provider.
+     *
+     * @param view      the provider providing the rates of the snapshot, which should not change, not
+     *                  {@code null}.
+     * @param version   the version of the rates.
+     * @param timestamp the time the rates were published, not {@code null}.
+     * @return the new snapshot, never {@code null}.
+     */
+    public static ConversionSnapshot of(ExchangeRateProvider view, long version, Instant timestamp) {
+        return new ConversionSnapshot(view, version, Objects.requireNonNull(timestamp, "Timestamp required."));
+    }
+
+    private <B extends AbstractContextBuilder<B, ?>> B withSnapshot(B builder) {
+        builder.set(VERSION, version);
+        if (timestamp != null) {
+            builder.set(TIMESTAMP, timestamp);
+        }
+        return builder;
+    }
+
+    /**
+     * Get the version of this snapshot.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the timestamp of this snapshot.
+     *
+     * @return the time the rates of a point in time snapshot were published, or {@code null} for a pinning
+     * snapshot.
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Checks if this is a point in time snapshot, whose rates all stem from the same provider state.
+     *
+     * @return {@code true} for a point in time snapshot, {@code false} for a pinning snapshot.
+     */
+    public boolean isPointInTime() {
+        return timestamp != null;
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        return rates.containsKey(conversionQuery) || source.isAvailable(conversionQuery);
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        ExchangeRate rate = rates.get(conversionQuery);
+        if (rate == null) {
+            ExchangeRate sourceRate = source.getExchangeRate(conversionQuery);
+            if (sourceRate == null) {
+                return null;
+            }
+            rate = new ConvertedExchangeRate(withSnapshot(sourceRate.getContext().toBuilder()).build(),
+                    sourceRate.getBaseCurrency(), sourceRate.getCurrency(), sourceRate.getFactor(),
+                    sourceRate.getExchangeRateChain());
+            ExchangeRate existing = rates.putIfAbsent(conversionQuery, rate);
+            if (existing != null) {
+                rate = existing;
+            }
+        }
+        return rate;
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    /**
+     * Returns this instance, since a snapshot does not change.
+     *
+     * @return this instance.
+     */
+    @Override
+    public ConversionSnapshot snapshot() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionSnapshot [provider=" + context.getProviderName() + ", version=" + version
+                + ", timestamp=" + timestamp + ']';
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import javax.money.NumberValue;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link ExchangeRate} created by the providers of this package, either a direct rate or a rate derived from a
+ * chain of rates.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class ConvertedExchangeRate implements ExchangeRate, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ConversionContext context;
+    private final CurrencyUnit baseCurrency;
+    private final CurrencyUnit termCurrency;
+    private final NumberValue factor;
+    /**
+     * The chain of a derived rate, empty for a direct rate.
+     */
+    private final List<ExchangeRate> chain;
+
+    /**
+     * Creates a new direct rate.
+     *
+     * @param context      the conversion context, not null.
+     * @param baseCurrency the base currency, not null.
+     * @param termCurrency the term currency, not null.
+     * @param factor       the factor, not null.
+     */
+    ConvertedExchangeRate(ConversionContext context, CurrencyUnit baseCurrency, CurrencyUnit termCurrency,
+                          NumberValue factor) {
+        this(context, baseCurrency, termCurrency, factor, Collections.emptyList());
+    }
+
+    /**
+     * Creates a new rate.
+     *
+     * @param context      the conversion context, not null.
+     * @param baseCurrency the base currency, not null.
+     * @param termCurrency the term currency, not null.
+     * @param factor       the factor, not null.
+     * @param chain        the rates this rate is derived from, empty for a direct rate.
+     */
+    ConvertedExchangeRate(ConversionContext context, CurrencyUnit baseCurrency, CurrencyUnit termCurrency,
+                          NumberValue factor, List<ExchangeRate> chain) {
+        this.context = Objects.requireNonNull(context, "context may not be null.");
+        this.baseCurrency = Objects.requireNonNull(baseCurrency, "baseCurrency may not be null.");
+        this.termCurrency = Objects.requireNonNull(termCurrency, "termCurrency may not be null.");
+        this.factor = Objects.requireNonNull(factor, "factor may not be null.");
+        this.chain = chain.size() > 1 ? Collections.unmodifiableList(new ArrayList<>(chain))
+                : Collections.emptyList();
+    }
+
+    @Override
+    public ConversionContext getContext() {
+        return context;
+    }
+
+    @Override
+    public CurrencyUnit getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    @Override
+    public CurrencyUnit getCurrency() {
+        return termCurrency;
+    }
+
+    @Override
+    public NumberValue getFactor() {
+        return factor;
+    }
+
+    @Override
+    public List<ExchangeRate> getExchangeRateChain() {
+        return chain.isEmpty() ? Collections.singletonList(this) : chain;
+    }
+
+    @Override
+    public boolean isDerived() {
+        return !chain.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof ConvertedExchangeRate) {
+            ConvertedExchangeRate other = (ConvertedExchangeRate) obj;
+            return baseCurrency.equals(other.baseCurrency) && termCurrency.equals(other.termCurrency)
+                    && context.equals(other.context) && factor.compareTo(other.factor) == 0
+                    && chain.equals(other.chain);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(baseCurrency, termCurrency, context,
+                factor.numberValue(BigDecimal.class).stripTrailingZeros(), chain);
+    }
+
+    @Override
+    public String toString() {
+        return "ExchangeRate [baseCurrency=" + baseCurrency + ", termCurrency=" + termCurrency + ", factor=" + factor
+                + ", conversionContext=" + context + ']';
+    }
+
+}
@@ -9,6 +9,13 @@
 package javax.money.convert;
 
 import javax.money.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This interface defines a {@link CurrencyConversion} that is converting a {@link MonetaryAmount} to another
@@ -32,6 +39,9 @@ import javax.money.*;
  * The terminating {@link CurrencyUnit} of this conversion instance can be
  * accessed from {@code getCurrency()}, inherited from {@code CurrencySupplier}.
  * <p>
+ * Large numbers of amounts can be converted in bulk using {@link #convertAll(Collection)} and
+ * {@link #convert(Stream)}, which evaluate the {@link ExchangeRate} only once per base currency.
+ * <p>
  * Instances of this class are required to be thread-safe, but it is not a
  * requirement that they are serializable. In a EE context they can be
  * implemented using contextual beans.
@@ -65,4 +75,80 @@ public interface CurrencyConversion extends MonetaryOperator, CurrencySupplier {
      */
     ExchangeRateProvider getExchangeRateProvider();
 
+    /**
+     * Converts an amount, without raising an exception, if no rate is available for the amount's currency. This
+     * variant is meant for callers expecting misses, e.g. when converting untrusted input.
+     * <p>
+     * By default {@link #apply(MonetaryAmount)} is called, mapping a {@link CurrencyConversionException} to an empty
+     * result. Conversions backed by an {@link ExchangeRateProvider} should override this method using
+     * {@link ExchangeRateProvider#findExchangeRate(ConversionQuery)}, so no exception is created at all.
+     *
+     * @param amount the amount to be converted, not {@code null}.
+     * @return the converted amount, or an empty {@link Optional}, if the amount can not be converted.
+     */
+    default Optional<MonetaryAmount> tryApply(MonetaryAmount amount) {
+        Objects.requireNonNull(amount, "Amount required.");
+        try {
+            return Optional.ofNullable(apply(amount));
+        } catch (CurrencyConversionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Converts an amount asynchronously, without blocking the calling thread while the rate is fetched or
+     * evaluated.
+     * <p>
+     * By default {@link #apply(MonetaryAmount)} is run on the executor configured by
+     * {@link MonetaryConversions#setAsyncExecutor(java.util.concurrent.Executor)}. Conversions backed by providers
+     * with a non blocking {@link ExchangeRateProvider#getExchangeRateAsync(ConversionQuery)} should override this
+     * method.
+     *
+     * @param amount the amount to be converted, not {@code null}.
+     * @return the future converted amount, completed exceptionally with a {@link CurrencyConversionException}, if
+     * the amount can not be converted, never {@code null}.
+     */
+    default CompletableFuture<MonetaryAmount> applyAsync(MonetaryAmount amount) {
+        Objects.requireNonNull(amount, "Amount required.");
+        return CompletableFuture.supplyAsync(() -> apply(amount), MonetaryConversions.getAsyncExecutor());
+    }
+
+    /**
+     * Converts all amounts given, with the same result as calling {@link #apply(MonetaryAmount)} for each amount.
+     * <p>
+     * By default {@link #apply(MonetaryAmount)} is called for each amount. Implementations may override this method
+     * to evaluate the {@link ExchangeRate} only once per base currency, as the conversions of the providers of this
+     * package do.
+     *
+     * @param amounts the amounts to be converted, not {@code null}.
+     * @return the converted amounts, in the order of the amounts given, never {@code null}.
+     * @throws CurrencyConversionException if an amount can not be converted.
+     */
+    default List<MonetaryAmount> convertAll(Collection<? extends MonetaryAmount> amounts) {
+        Objects.requireNonNull(amounts, "Amounts required.");
+        List<MonetaryAmount> result = new ArrayList<>(amounts.size());
+        for (MonetaryAmount amount : amounts) {
+            result.add(apply(amount));
+        }
+        return result;
+    }
+
+    /**
+     * Converts a stream of amounts, in the same way as {@link #convertAll(Collection)}. The stream returned is lazy
+     * and parallel, if the stream given is parallel, so large numbers of amounts can be converted using fork/join,
+     * e.g.
+     * <pre><code>
+     * List&lt;MonetaryAmount&gt; converted = conversion.convert(positions.parallelStream())
+     *     .collect(Collectors.toList());
+     * </code></pre>
+     *
+     * @param amounts the amounts to be converted, not {@code null}.
+     * @return the stream of the converted amounts, never {@code null}.
+     * @throws CurrencyConversionException on terminal operation, if an amount can not be converted.
+     */
+    default Stream<MonetaryAmount> convert(Stream<? extends MonetaryAmount> amounts) {
+        Objects.requireNonNull(amounts, "Amounts required.");
+        return amounts.map(this::apply);
+    }
+
 }
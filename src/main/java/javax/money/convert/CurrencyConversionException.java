@@ -15,7 +15,10 @@ import javax.money.MonetaryException;
 import java.util.Objects;
 
 /**
- * Exception thrown when a monetary conversion operation fails.
+ * Exception thrown when a monetary conversion operation fails. No stack trace is captured, if disabled by
+ * {@link MonetaryException#setStackTraceEnabled(boolean)}. Use
+ * {@link ExchangeRateProvider#findExchangeRate(ConversionQuery)} or {@link CurrencyConversion#tryApply} to handle
+ * expected misses without any exception.
  *
  * @author Werner Keil
  * @author Stephen Colebourne
@@ -131,6 +134,16 @@ public class CurrencyConversionException extends MonetaryException {
         return this.conversionContext;
     }
 
+    /**
+     * Captures the stack trace only if enabled, see {@link MonetaryException#isStackTraceEnabled()}.
+     *
+     * @return this exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
     /*
      * (non-Javadoc)
      *
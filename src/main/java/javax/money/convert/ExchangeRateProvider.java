@@ -12,6 +12,8 @@ package javax.money.convert;
 
 import javax.money.*;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This interface defines access to the exchange rates provided by a provider.
@@ -79,6 +81,11 @@ public interface ExchangeRateProvider{
      * Checks if an {@link ExchangeRate} between two {@link CurrencyUnit} is
      * available from this provider. This method should check, if a given rate
      * is <i>currently</i> defined.
+     * <p>
+     * By default only the provider names of the query and the {@link ConversionCapabilities} declared by the
+     * provider's context, if any, are checked, i.e. the default tells if the pair is served at all. Providers able
+     * to check cheaply, if a rate is currently defined, such as {@link MatrixExchangeRateProvider}, override this
+     * method accordingly.
      *
      * @param conversionQuery the required {@link ConversionQuery}, not {@code null}
      * @return {@code true}, if such an {@link ExchangeRate} is currently
@@ -87,8 +94,13 @@ public interface ExchangeRateProvider{
     default boolean isAvailable(ConversionQuery conversionQuery){
         Objects.requireNonNull(conversionQuery);
         try{
-            return conversionQuery.getProviderNames().isEmpty() ||
-                    conversionQuery.getProviderNames().contains(getContext().getProviderName());
+            ProviderContext context = getContext();
+            if(!conversionQuery.getProviderNames().isEmpty() &&
+                    !conversionQuery.getProviderNames().contains(context.getProviderName())){
+                return false;
+            }
+            ConversionCapabilities capabilities = context.getCapabilities();
+            return capabilities == null || capabilities.isSupported(conversionQuery);
         }
         catch(Exception e){
             return false;
@@ -112,6 +124,76 @@ public interface ExchangeRateProvider{
         return getExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(base).setTermCurrency(term).build());
     }
 
+    /**
+     * Access a {@link ExchangeRate} for the given query, without raising an exception, if no such rate is
+     * available. This variant is meant for callers expecting misses, e.g. when converting untrusted input.
+     * <p>
+     * By default {@link #isAvailable(ConversionQuery)} is checked first, then {@link #getExchangeRate(ConversionQuery)}
+     * is called, mapping a {@link CurrencyConversionException} to an empty result. Providers able to detect a miss
+     * cheaply should override this method, so no exception is created at all.
+     *
+     * @param conversionQuery the required {@link ConversionQuery}, not {@code null}
+     * @return the rate, or an empty {@link Optional}, if no such rate is available.
+     */
+    default Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery){
+        if(!isAvailable(conversionQuery)){
+            return Optional.empty();
+        }
+        try{
+            return Optional.ofNullable(getExchangeRate(conversionQuery));
+        }
+        catch(CurrencyConversionException e){
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Access a {@link ExchangeRate} using the given currencies, without raising an exception, if no such rate is
+     * available.
+     *
+     * @param base base {@link CurrencyUnit}, not {@code null}
+     * @param term term {@link CurrencyUnit}, not {@code null}
+     * @return the rate, or an empty {@link Optional}, if no such rate is available.
+     * @see #findExchangeRate(ConversionQuery)
+     */
+    default Optional<ExchangeRate> findExchangeRate(CurrencyUnit base, CurrencyUnit term){
+        Objects.requireNonNull(base, "Base Currency is null");
+        Objects.requireNonNull(term, "Term Currency is null");
+        return findExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(base).setTermCurrency(term).build());
+    }
+
+    /**
+     * Access a {@link ExchangeRate} asynchronously, without blocking the calling thread while the rate is fetched
+     * or evaluated.
+     * <p>
+     * By default {@link #getExchangeRate(ConversionQuery)} is run on the executor configured by
+     * {@link MonetaryConversions#setAsyncExecutor(java.util.concurrent.Executor)}. Providers able to fetch their
+     * rates without blocking, or holding them in memory, should override this method.
+     *
+     * @param conversionQuery the required {@link ConversionQuery}, not {@code null}
+     * @return the future rate, completed exceptionally with a {@link CurrencyConversionException}, if no such rate
+     * is available, never {@code null}.
+     */
+    default CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery conversionQuery){
+        Objects.requireNonNull(conversionQuery);
+        return CompletableFuture.supplyAsync(() -> getExchangeRate(conversionQuery),
+                MonetaryConversions.getAsyncExecutor());
+    }
+
+    /**
+     * Access a {@link ExchangeRate} using the given currencies asynchronously.
+     *
+     * @param base base {@link CurrencyUnit}, not {@code null}
+     * @param term term {@link CurrencyUnit}, not {@code null}
+     * @return the future rate, never {@code null}.
+     * @see #getExchangeRateAsync(ConversionQuery)
+     */
+    default CompletableFuture<ExchangeRate> getExchangeRateAsync(CurrencyUnit base, CurrencyUnit term){
+        Objects.requireNonNull(base, "Base Currency is null");
+        Objects.requireNonNull(term, "Term Currency is null");
+        return getExchangeRateAsync(ConversionQueryBuilder.of().setBaseCurrency(base).setTermCurrency(term).build());
+    }
+
     /**
      * Access a {@link CurrencyConversion} that can be applied as a
      * {@link MonetaryOperator} to an amount.
@@ -204,4 +286,37 @@ public interface ExchangeRateProvider{
         return getCurrencyConversion(Monetary.getCurrency(termCode));
     }
 
+    /**
+     * Access a publisher pushing the rates selected by the given query whenever they change, as an alternative to
+     * polling {@link #getExchangeRate(ConversionQuery)}. Typically the base and term currency of the query select a
+     * single pair, a query without currencies selects all pairs of the provider. Publishers support back pressure;
+     * subscribers not keeping up should receive only the latest rate of each pair.
+     * <p>
+     * Streaming is optional, by default no publisher is available.
+     *
+     * @param conversionQuery the {@link ConversionQuery} selecting the rates, not {@code null}
+     * @return the publisher, or empty, if this provider does not support streaming.
+     * @see LoopbackExchangeRateProvider
+     */
+    default Optional<RateFlow.Publisher<ExchangeRate>> getRatePublisher(ConversionQuery conversionQuery){
+        Objects.requireNonNull(conversionQuery);
+        return Optional.empty();
+    }
+
+    /**
+     * Access a versioned snapshot of the rates of this provider. All conversions created from the snapshot see the
+     * same rates, regardless of later rate updates of this provider.
+     * <p>
+     * By default a pinning snapshot is returned, see {@link ConversionSnapshot#pinning(ExchangeRateProvider)}: it
+     * pins each rate on its first access, so it is not atomic, has no timestamp and grows with every distinct query,
+     * hence it should be short-lived. Providers holding their rates in immutable structures should override this
+     * method, returning a point in time snapshot of all their rates.
+     *
+     * @return a new snapshot, never {@code null}.
+     * @see ConversionSnapshot
+     */
+    default ConversionSnapshot snapshot(){
+        return ConversionSnapshot.pinning(this);
+    }
+
 }
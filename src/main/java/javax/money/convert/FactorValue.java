@@ -0,0 +1,192 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.NumberValue;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * {@link NumberValue} of an exchange rate factor, backed by a {@link BigDecimal}, used by the rates created by the
+ * providers of this package.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class FactorValue extends NumberValue {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BigDecimal value;
+
+    private FactorValue(BigDecimal value) {
+        this.value = Objects.requireNonNull(value);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param value the factor, not null.
+     * @return the new instance.
+     */
+    static FactorValue of(BigDecimal value) {
+        return new FactorValue(value);
+    }
+
+    /**
+     * Creates a new instance, using the shortest decimal representation of the given factor.
+     *
+     * @param value the factor, a finite number.
+     * @return the new instance.
+     */
+    static FactorValue of(double value) {
+        return new FactorValue(BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Access the factor as {@link BigDecimal}.
+     *
+     * @return the factor, never null.
+     */
+    BigDecimal bigDecimalValue() {
+        return value;
+    }
+
+    @Override
+    public Class<?> getNumberType() {
+        return BigDecimal.class;
+    }
+
+    @Override
+    public int getPrecision() {
+        return value.precision();
+    }
+
+    @Override
+    public int getScale() {
+        return value.scale();
+    }
+
+    @Override
+    public int intValue() {
+        return value.intValue();
+    }
+
+    @Override
+    public int intValueExact() {
+        return value.intValueExact();
+    }
+
+    @Override
+    public long longValue() {
+        return value.longValue();
+    }
+
+    @Override
+    public long longValueExact() {
+        return value.longValueExact();
+    }
+
+    @Override
+    public float floatValue() {
+        return value.floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return value.doubleValue();
+    }
+
+    @Override
+    public double doubleValueExact() {
+        double result = value.doubleValue();
+        if (Double.isInfinite(result) || new BigDecimal(result).compareTo(value) != 0) {
+            throw new ArithmeticException("Not representable as double: " + value);
+        }
+        return result;
+    }
+
+    @Override
+    public <T extends Number> T numberValue(Class<T> numberType) {
+        return convert(numberType, false);
+    }
+
+    @Override
+    public <T extends Number> T numberValueExact(Class<T> numberType) {
+        return convert(numberType, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Number> T convert(Class<T> numberType, boolean exact) {
+        Objects.requireNonNull(numberType);
+        if (numberType == BigDecimal.class || numberType == Number.class) {
+            return (T) value;
+        }
+        if (numberType == BigInteger.class) {
+            return (T) (exact ? value.toBigIntegerExact() : value.toBigInteger());
+        }
+        if (numberType == Long.class) {
+            return (T) Long.valueOf(exact ? value.longValueExact() : value.longValue());
+        }
+        if (numberType == Integer.class) {
+            return (T) Integer.valueOf(exact ? value.intValueExact() : value.intValue());
+        }
+        if (numberType == Short.class) {
+            return (T) Short.valueOf(exact ? value.shortValueExact() : value.shortValue());
+        }
+        if (numberType == Byte.class) {
+            return (T) Byte.valueOf(exact ? value.byteValueExact() : value.byteValue());
+        }
+        if (numberType == Double.class) {
+            return (T) Double.valueOf(exact ? doubleValueExact() : value.doubleValue());
+        }
+        if (numberType == Float.class) {
+            float result = value.floatValue();
+            if (exact && (Float.isInfinite(result) || new BigDecimal(result).compareTo(value) != 0)) {
+                throw new ArithmeticException("Not representable as float: " + value);
+            }
+            return (T) Float.valueOf(result);
+        }
+        throw new IllegalArgumentException("Unsupported number type: " + numberType.getName());
+    }
+
+    @Override
+    public NumberValue round(MathContext mathContext) {
+        return new FactorValue(value.round(mathContext));
+    }
+
+    @Override
+    public long getAmountFractionNumerator() {
+        BigDecimal fraction = value.remainder(BigDecimal.ONE);
+        return fraction.scale() <= 0 ? 0L : fraction.movePointRight(fraction.scale()).longValueExact();
+    }
+
+    @Override
+    public long getAmountFractionDenominator() {
+        BigDecimal fraction = value.remainder(BigDecimal.ONE);
+        return fraction.scale() <= 0 ? 1L : BigDecimal.ONE.movePointRight(fraction.scale()).longValueExact();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof FactorValue && value.compareTo(((FactorValue) o).value) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.stripTrailingZeros().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+
+}
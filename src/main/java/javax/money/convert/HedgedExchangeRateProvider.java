@@ -0,0 +1,565 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link ExchangeRateProvider} resolving a chain of providers in parallel, rather than one after the other. The
+ * providers keep their priority: the rate returned is the one of the first provider in the chain returning a rate,
+ * but lower priority providers are queried concurrently, so a miss of a provider does not add its latency to the
+ * lookup. As soon as the result is decided, the lookups still running are cancelled.
+ * <p>
+ * With a {@link Builder#setHedgeDelay(Duration) hedge delay} the next provider is only queried, if the previous
+ * one did not answer within the delay, or as soon as it missed, so lower priority providers are not loaded with
+ * every request. Without delay, the default, all providers are queried at once.
+ * <p>
+ * If the {@link ConversionQuery} names providers of the chain, only these are queried, in the order named. A query
+ * naming no provider, or only this provider, queries all providers in declared order; a query naming only providers
+ * outside the chain misses. A {@link CurrencyConversionException} without cause raised by a provider counts as a
+ * miss, any other exception, including a {@link CurrencyConversionException} wrapping e.g. an I/O error, as a
+ * failure, which is reported as cause, if no provider returns a rate. The lookups run on the executor configured,
+ * by default on virtual threads, if supported by the Java runtime, or else on the executor of
+ * {@link MonetaryConversions#getAsyncExecutor()}. As lookups typically block on I/O, an executor with enough
+ * threads for all providers should be configured in the latter case.
+ * <p>
+ * Instances are created using {@link #builder(ProviderContext)}, e.g.
+ * <pre><code>
+ * ExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("HEDGED"))
+ *     .addProviders(primary, secondary)
+ *     .setHedgeDelay(Duration.ofMillis(50))
+ *     .build();
+ * </code></pre>
+ * This class is thread-safe, if the providers used are.
+ */
+public final class HedgedExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Logger LOG = Logger.getLogger(HedgedExchangeRateProvider.class.getName());
+
+    private final ProviderContext context;
+    private final List<ExchangeRateProvider> providers;
+    private final long hedgeDelayNanos;
+    private final Executor executor;
+
+    private HedgedExchangeRateProvider(Builder builder) {
+        this.context = builder.context;
+        this.providers = Collections.unmodifiableList(new ArrayList<>(builder.providers));
+        this.hedgeDelayNanos = builder.hedgeDelayNanos;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param context the context of the provider to be built, not {@code null}.
+     * @return the new builder, never {@code null}.
+     */
+    public static Builder builder(ProviderContext context) {
+        return new Builder(context);
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the providers of the chain.
+     *
+     * @return the providers, in order of precedence, never {@code null}.
+     */
+    public List<ExchangeRateProvider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Get the delay, after which the next provider is queried, if the previous one did not answer yet.
+     *
+     * @return the hedge delay, never {@code null}.
+     */
+    public Duration getHedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        for (ExchangeRateProvider provider : select(conversionQuery)) {
+            try {
+                if (provider.isAvailable(delegateQuery(conversionQuery, provider))) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                // not available from this provider
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        Resolution resolution = resolve(conversionQuery);
+        ExchangeRate rate = await(resolution);
+        if (rate == null) {
+            throw resolution.missed();
+        }
+        return rate;
+    }
+
+    /**
+     * Looks up a rate without raising an exception, if no provider returns a rate.
+     */
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        return Optional.ofNullable(await(resolve(conversionQuery)));
+    }
+
+    private Resolution resolve(ConversionQuery query) {
+        Resolution resolution = new Resolution(query, select(query));
+        if (resolution.chain.isEmpty()) {
+            resolution.decide();
+        } else {
+            resolution.start(0);
+        }
+        return resolution;
+    }
+
+    /**
+     * Waits for the result of a resolution.
+     *
+     * @return the rate, or null, if no provider returned a rate.
+     */
+    private ExchangeRate await(Resolution resolution) {
+        try {
+            return resolution.result.get();
+        } catch (ExecutionException e) {
+            throw new CurrencyConversionException(resolution.query.getBaseCurrency(),
+                    resolution.query.getCurrency(), getConversionContext(resolution.query), "Rate lookup failed.",
+                    e.getCause());
+        } catch (InterruptedException e) {
+            resolution.cancel();
+            Thread.currentThread().interrupt();
+            throw new CurrencyConversionException(resolution.query.getBaseCurrency(),
+                    resolution.query.getCurrency(), getConversionContext(resolution.query),
+                    "Interrupted waiting for rate lookup.", e);
+        }
+    }
+
+    /**
+     * Resolves the chain without blocking the calling thread. Cancelling the future returned cancels the lookups
+     * still running.
+     */
+    @Override
+    public CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        Resolution resolution = resolve(conversionQuery);
+        CompletableFuture<ExchangeRate> future = resolution.result.thenApply(rate -> {
+            if (rate == null) {
+                throw resolution.missed();
+            }
+            return rate;
+        });
+        future.whenComplete((rate, e) -> {
+            if (future.isCancelled()) {
+                resolution.cancel();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    /**
+     * Selects the providers to be queried: the providers named by the query in the order named, or all providers,
+     * if the query names no provider or only this provider.
+     */
+    private List<ExchangeRateProvider> select(ConversionQuery query) {
+        List<String> names = query.getProviderNames();
+        if (names.isEmpty()) {
+            return providers;
+        }
+        List<ExchangeRateProvider> selected = new ArrayList<>();
+        for (String name : names) {
+            for (ExchangeRateProvider provider : providers) {
+                if (name.equals(provider.getContext().getProviderName())) {
+                    selected.add(provider);
+                }
+            }
+        }
+        if (selected.isEmpty() && names.contains(context.getProviderName())) {
+            return providers;
+        }
+        return selected;
+    }
+
+    /**
+     * Narrows a query naming providers to the given delegate, so delegates do not reject queries naming this
+     * provider or one of their siblings.
+     */
+    private static ConversionQuery delegateQuery(ConversionQuery query, ExchangeRateProvider provider) {
+        if (query.getProviderNames().isEmpty()) {
+            return query;
+        }
+        return query.toBuilder().setProviderName(provider.getContext().getProviderName()).build();
+    }
+
+    private ConversionContext getConversionContext(ConversionQuery query) {
+        Set<RateType> rateTypes = query.getRateTypes();
+        return ConversionContext.from(context, rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY);
+    }
+
+    private Executor getExecutor() {
+        if (executor != null) {
+            return executor;
+        }
+        Executor virtualThreads = VirtualThreads.EXECUTOR;
+        return virtualThreads != null ? virtualThreads : MonetaryConversions.getAsyncExecutor();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgedExchangeRateProvider [context=" + context + ", providers=" + providers.size()
+                + ", hedgeDelay=" + getHedgeDelay() + ']';
+    }
+
+    /**
+     * A single parallel resolution of the chain.
+     */
+    private final class Resolution {
+
+        private final ConversionQuery query;
+        private final List<ExchangeRateProvider> chain;
+        /**
+         * The result, completed with the rate, or null, if no provider returned a rate.
+         */
+        private final CompletableFuture<ExchangeRate> result = new CompletableFuture<>();
+        /**
+         * The outcome per provider: null while pending, the rate on a hit, {@link Optional#empty()} on a miss, the
+         * exception on a failure.
+         */
+        private final Object[] outcomes;
+        /**
+         * The threads running the lookups, while running.
+         */
+        private final Thread[] running;
+        /**
+         * The scheduled starts of the lookups, while pending.
+         */
+        private final ScheduledFuture<?>[] hedges;
+        private int started;
+        private boolean done;
+        private volatile Throwable failure;
+
+        Resolution(ConversionQuery query, List<ExchangeRateProvider> chain) {
+            this.query = query;
+            this.chain = chain;
+            this.outcomes = new Object[chain.size()];
+            this.running = new Thread[chain.size()];
+            this.hedges = new ScheduledFuture<?>[chain.size()];
+        }
+
+        /**
+         * Starts the lookup of the given provider, if not yet started, scheduling the next one after the hedge
+         * delay.
+         */
+        void start(int index) {
+            ScheduledFuture<?> obsolete;
+            synchronized (this) {
+                if (done || index < started || index >= chain.size()) {
+                    return;
+                }
+                started = index + 1;
+                obsolete = hedges[index];
+                hedges[index] = null;
+            }
+            if (obsolete != null) {
+                // started before its delay elapsed, as the previous provider missed
+                obsolete.cancel(false);
+            }
+            try {
+                getExecutor().execute(() -> run(index));
+            } catch (RuntimeException e) {
+                complete(index, e);
+            }
+            if (hedgeDelayNanos == 0) {
+                start(index + 1);
+            } else if (index + 1 < chain.size()) {
+                ScheduledFuture<?> hedge = HedgeTimer.SCHEDULER.schedule(() -> start(index + 1), hedgeDelayNanos,
+                        TimeUnit.NANOSECONDS);
+                synchronized (this) {
+                    if (!done && started <= index + 1) {
+                        hedges[index + 1] = hedge;
+                        hedge = null;
+                    }
+                }
+                if (hedge != null) {
+                    hedge.cancel(false);
+                }
+            }
+        }
+
+        private void run(int index) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                running[index] = Thread.currentThread();
+            }
+            Object outcome;
+            try {
+                ExchangeRateProvider provider = chain.get(index);
+                ConversionQuery delegateQuery = delegateQuery(query, provider);
+                ExchangeRate rate = provider.isAvailable(delegateQuery) ? provider.getExchangeRate(delegateQuery)
+                        : null;
+                outcome = rate != null ? rate : Optional.empty();
+            } catch (RuntimeException e) {
+                outcome = LookupFailures.isMiss(e) ? Optional.empty() : e;
+            } finally {
+                synchronized (this) {
+                    running[index] = null;
+                }
+                // clear an interrupt of a cancellation, before the thread is reused
+                Thread.interrupted();
+            }
+            complete(index, outcome);
+        }
+
+        private void complete(int index, Object outcome) {
+            synchronized (this) {
+                outcomes[index] = outcome;
+            }
+            if (!(outcome instanceof ExchangeRate)) {
+                start(index + 1);
+            }
+            decide();
+        }
+
+        /**
+         * Completes the result with the rate of the first provider returning one, as soon as all providers of
+         * higher priority missed.
+         */
+        private void decide() {
+            Object decided = null;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                for (Object outcome : outcomes) {
+                    if (outcome == null) {
+                        return;
+                    }
+                    if (outcome instanceof ExchangeRate) {
+                        decided = outcome;
+                        break;
+                    }
+                    if (outcome instanceof Throwable) {
+                        failure = (Throwable) outcome;
+                    }
+                }
+                done = true;
+                interruptRunning();
+                cancelHedges();
+            }
+            result.complete((ExchangeRate) decided);
+        }
+
+        /**
+         * Creates the exception signalling that no provider returned a rate, with the failure of a provider, if any,
+         * as cause.
+         */
+        CurrencyConversionException missed() {
+            if (failure != null) {
+                return new CurrencyConversionException(query.getBaseCurrency(), query.getCurrency(),
+                        getConversionContext(query), "No provider returned a rate.", failure);
+            }
+            return new CurrencyConversionException(query.getBaseCurrency(), query.getCurrency(),
+                    getConversionContext(query));
+        }
+
+        /**
+         * Cancels the lookups still running and not yet started.
+         */
+        synchronized void cancel() {
+            done = true;
+            interruptRunning();
+            cancelHedges();
+        }
+
+        private void interruptRunning() {
+            for (Thread thread : running) {
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        private void cancelHedges() {
+            for (int i = 0; i < hedges.length; i++) {
+                if (hedges[i] != null) {
+                    hedges[i].cancel(false);
+                    hedges[i] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Holder of the executor running each task on a new virtual thread, if supported by the Java runtime.
+     */
+    private static final class VirtualThreads {
+
+        static final Executor EXECUTOR = create();
+
+        private static Executor create() {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) factory.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.log(Level.FINEST, "Virtual threads not supported, using async executor.", e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Get the number of hedged lookups scheduled and not yet started or cancelled, of all instances.
+     *
+     * @return the number of scheduled lookups.
+     */
+    static int getScheduledCount() {
+        return HedgeTimer.SCHEDULER.getQueue().size();
+    }
+
+    /**
+     * Holder of the scheduler starting hedged lookups after their delay. Cancelled starts are removed at once, so
+     * they do not retain their resolution until their delay elapsed.
+     */
+    private static final class HedgeTimer {
+
+        static final ScheduledThreadPoolExecutor SCHEDULER = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "javax.money.convert.HedgedExchangeRateProvider");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    /**
+     * Builder of a {@link HedgedExchangeRateProvider}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+
+        private final ProviderContext context;
+        private final List<ExchangeRateProvider> providers = new ArrayList<>();
+        private long hedgeDelayNanos;
+        private Executor executor;
+
+        private Builder(ProviderContext context) {
+            this.context = Objects.requireNonNull(context, "Context required.");
+        }
+
+        /**
+         * Adds providers to the chain, in order of precedence.
+         *
+         * @param providers the providers, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addProviders(ExchangeRateProvider... providers) {
+            return addProviders(Arrays.asList(providers));
+        }
+
+        /**
+         * Adds providers to the chain, in order of precedence.
+         *
+         * @param providers the providers, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addProviders(Iterable<? extends ExchangeRateProvider> providers) {
+            for (ExchangeRateProvider provider : providers) {
+                this.providers.add(Objects.requireNonNull(provider, "Provider required."));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the delay, after which the next provider is queried, if the previous one did not answer yet. Zero,
+         * the default, queries all providers at once.
+         *
+         * @param hedgeDelay the delay, not negative.
+         * @return this builder, for chaining.
+         */
+        public Builder setHedgeDelay(Duration hedgeDelay) {
+            Objects.requireNonNull(hedgeDelay, "Hedge delay required.");
+            if (hedgeDelay.isNegative()) {
+                throw new IllegalArgumentException("Hedge delay must not be negative: " + hedgeDelay);
+            }
+            try {
+                this.hedgeDelayNanos = hedgeDelay.toNanos();
+            } catch (ArithmeticException e) {
+                this.hedgeDelayNanos = Long.MAX_VALUE;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the executor running the lookups. By default virtual threads are used, if supported by the Java
+         * runtime, or else the executor of {@link MonetaryConversions#getAsyncExecutor()}.
+         *
+         * @param executor the executor, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "Executor required.");
+            return this;
+        }
+
+        /**
+         * Creates the hedged provider.
+         *
+         * @return the new hedged provider, never {@code null}.
+         * @throws IllegalStateException if no provider was added.
+         */
+        public HedgedExchangeRateProvider build() {
+            if (providers.isEmpty()) {
+                throw new IllegalStateException("At least one provider required.");
+            }
+            return new HedgedExchangeRateProvider(this);
+        }
+    }
+
+}
@@ -0,0 +1,456 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.ContextKey;
+import javax.money.CurrencyUnit;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ExchangeRateProvider} serving historic rates from per currency pair time series of daily fixings. Each
+ * series holds the fixing dates as epoch days and the factors in two parallel primitive arrays, sorted by date, so
+ * years of daily rates of a pair take a few kilobytes, and a rate at a given date is looked up by binary search.
+ * <p>
+ * The date is taken from the timestamp of the {@link ConversionQuery}, see
+ * {@link javax.money.AbstractQueryBuilder#setTimestamp(TemporalAccessor)}: timestamps with a date, such as
+ * {@link LocalDate}, {@link java.time.ZonedDateTime} or {@link java.time.OffsetDateTime}, are evaluated at their
+ * local date, in their own zone or offset, other instants, such as {@link java.time.Instant} or timestamps set in
+ * milliseconds, in UTC. Timestamps without date, such as {@link java.time.LocalTime} or
+ * {@link java.time.YearMonth}, are not served. Queries without timestamp are served with the latest fixing.
+ * Dates without fixing are resolved according to the {@link LookupPolicy} of the provider:
+ * <pre><code>
+ * HistoricExchangeRateProvider provider = HistoricExchangeRateProvider.of(
+ *     ProviderContext.of("ECB-HIST", RateType.HISTORIC), LookupPolicy.PREVIOUS);
+ * provider.addFixing(eur, chf, LocalDate.of(2015, 1, 14), 1.2010);
+ * ExchangeRate rate = provider.getExchangeRate(ConversionQueryBuilder.of()
+ *     .setBaseCurrency(eur).setTermCurrency(chf).setTimestamp(LocalDate.of(2015, 1, 15)).build());
+ * </code></pre>
+ * The date of the fixing a rate was evaluated from is recorded in its {@link ConversionContext}, see
+ * {@link #FIXING_DATE}. New fixings are appended incrementally as they arrive, appending a fixing after the last
+ * fixing of a series is amortized constant time, inserting or correcting an earlier fixing copies the series.
+ * <p>
+ * Currencies are identified by their currency code. The rates provided are of the rate type of the
+ * {@link ProviderContext}, if it declares exactly one, or else of {@link RateType#ANY}; queries for other rate types
+ * are not served.
+ * <p>
+ * This class is thread-safe. Lookups are not blocked by concurrent appends.
+ *
+ * @author Anatole Tresch
+ */
+public final class HistoricExchangeRateProvider implements ExchangeRateProvider {
+
+    /**
+     * The key of the date of the fixing a rate was evaluated from, set on the context of the rates provided. For
+     * interpolated rates this is the date queried.
+     */
+    public static final ContextKey<LocalDate> FIXING_DATE = ContextKey.of("historic.fixingDate", LocalDate.class);
+
+    /**
+     * The policy of resolving a date without fixing.
+     */
+    public enum LookupPolicy {
+        /**
+         * Only dates with a fixing are available.
+         */
+        EXACT,
+        /**
+         * The latest fixing before the date queried is used, e.g. the fixing of the previous business day.
+         */
+        PREVIOUS,
+        /**
+         * The factor is interpolated linearly between the fixings before and after the date queried. Dates after
+         * the last fixing use the last fixing.
+         */
+        INTERPOLATE
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ProviderContext context;
+    private final RateType rateType;
+    private final ConversionContext conversionContext;
+    private final LookupPolicy policy;
+    /**
+     * The series by base and term currency code.
+     */
+    private final Map<String, Map<String, Series>> series = new ConcurrentHashMap<>();
+
+    private HistoricExchangeRateProvider(ProviderContext context, LookupPolicy policy) {
+        this.context = Objects.requireNonNull(context, "Provider context required.");
+        this.policy = Objects.requireNonNull(policy, "Lookup policy required.");
+        Set<RateType> rateTypes = context.getRateTypes();
+        this.rateType = rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY;
+        this.conversionContext = ConversionContext.from(context, rateType);
+    }
+
+    /**
+     * Creates a new provider without any fixings, serving only the dates with a fixing.
+     *
+     * @param context the provider's context, not {@code null}.
+     * @return the new provider, never {@code null}.
+     */
+    public static HistoricExchangeRateProvider of(ProviderContext context) {
+        return new HistoricExchangeRateProvider(context, LookupPolicy.EXACT);
+    }
+
+    /**
+     * Creates a new provider without any fixings.
+     *
+     * @param context the provider's context, not {@code null}.
+     * @param policy  the policy of resolving dates without fixing, not {@code null}.
+     * @return the new provider, never {@code null}.
+     */
+    public static HistoricExchangeRateProvider of(ProviderContext context, LookupPolicy policy) {
+        return new HistoricExchangeRateProvider(context, policy);
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the policy of resolving dates without fixing.
+     *
+     * @return the policy, never {@code null}.
+     */
+    public LookupPolicy getLookupPolicy() {
+        return policy;
+    }
+
+    /**
+     * Adds the fixing of a currency pair at a date, replacing an existing fixing of the pair at the same date. The
+     * reversed pair is not affected.
+     *
+     * @param base   the base currency, not {@code null}.
+     * @param term   the term currency, not {@code null}.
+     * @param date   the fixing date, not {@code null}.
+     * @param factor the factor, a positive finite number.
+     * @return this provider, for chaining.
+     * @throws IllegalArgumentException if the factor is invalid.
+     */
+    public HistoricExchangeRateProvider addFixing(CurrencyUnit base, CurrencyUnit term, LocalDate date,
+                                                  double factor) {
+        Objects.requireNonNull(date, "Date required.");
+        checkFactor(factor);
+        getOrCreateSeries(base, term).add(Math.toIntExact(date.toEpochDay()), factor);
+        return this;
+    }
+
+    /**
+     * Adds the fixings of a currency pair, replacing existing fixings of the pair at the same dates. This is the
+     * efficient way of loading a series, e.g. from an archive.
+     *
+     * @param base      the base currency, not {@code null}.
+     * @param term      the term currency, not {@code null}.
+     * @param epochDays the fixing dates as epoch days, see {@link LocalDate#toEpochDay()}, not {@code null}.
+     * @param factors   the factors, positive finite numbers, in the order of the dates, not {@code null}.
+     * @return this provider, for chaining.
+     * @throws IllegalArgumentException if the array lengths do not match, or a factor is invalid.
+     */
+    public HistoricExchangeRateProvider addFixings(CurrencyUnit base, CurrencyUnit term, int[] epochDays,
+                                                   double[] factors) {
+        if (epochDays.length != factors.length) {
+            throw new IllegalArgumentException("Expected " + epochDays.length + " factors, but was "
+                    + factors.length);
+        }
+        for (double factor : factors) {
+            checkFactor(factor);
+        }
+        getOrCreateSeries(base, term).addAll(epochDays, factors);
+        return this;
+    }
+
+    private static void checkFactor(double factor) {
+        if (!(factor > 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Invalid factor: " + factor);
+        }
+    }
+
+    /**
+     * Get the number of fixings of a currency pair.
+     *
+     * @param base the base currency, not {@code null}.
+     * @param term the term currency, not {@code null}.
+     * @return the number of fixings, {@code 0} if the pair is unknown.
+     */
+    public int getFixingCount(CurrencyUnit base, CurrencyUnit term) {
+        Series pairSeries = getSeries(base, term);
+        return pairSeries == null ? 0 : pairSeries.fixings.size;
+    }
+
+    /**
+     * Access the factor of a currency pair at a date, according to the lookup policy of this provider.
+     *
+     * @param base the base currency, not {@code null}.
+     * @param term the term currency, not {@code null}.
+     * @param date the date, not {@code null}.
+     * @return the factor, or {@link Double#NaN}, if not available.
+     */
+    public double getFactor(CurrencyUnit base, CurrencyUnit term, LocalDate date) {
+        Series pairSeries = getSeries(base, term);
+        if (pairSeries == null) {
+            return Double.NaN;
+        }
+        Fixings fixings = pairSeries.fixings;
+        long epochDay = date.toEpochDay();
+        int index = RateLookups.find(fixings, epochDay, policy);
+        return index < 0 ? Double.NaN : RateLookups.getFactor(fixings, index, epochDay, policy);
+    }
+
+    private Series getSeries(CurrencyUnit base, CurrencyUnit term) {
+        Map<String, Series> byTerm = series.get(base.getCurrencyCode());
+        return byTerm == null ? null : byTerm.get(term.getCurrencyCode());
+    }
+
+    private Series getOrCreateSeries(CurrencyUnit base, CurrencyUnit term) {
+        Objects.requireNonNull(base, "Base currency required.");
+        Objects.requireNonNull(term, "Term currency required.");
+        return series.computeIfAbsent(base.getCurrencyCode(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(term.getCurrencyCode(), k -> new Series(base, term));
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null || !RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            return false;
+        }
+        Series pairSeries = getSeries(base, term);
+        if (pairSeries == null) {
+            return false;
+        }
+        Fixings fixings = pairSeries.fixings;
+        Long epochDay = RateLookups.getEpochDay(conversionQuery);
+        if (epochDay == null) {
+            return fixings.size > 0;
+        }
+        return epochDay != RateLookups.UNDATED && RateLookups.find(fixings, epochDay, policy) >= 0;
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Base and term currency are required.");
+        }
+        if (!RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Unsupported rate types: " + conversionQuery.getRateTypes());
+        }
+        ExchangeRate rate = findRate(getSeries(base, term), conversionQuery);
+        if (rate == null) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "No fixing available at " + conversionQuery.getTimestamp());
+        }
+        return rate;
+    }
+
+    /**
+     * Looks up a rate without creating any exception on a miss.
+     */
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null || !RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findRate(getSeries(base, term), conversionQuery));
+    }
+
+    /**
+     * Evaluates the rate of a pair's series targeted by a query.
+     *
+     * @return the rate, or null, if no fixing matches.
+     */
+    private ExchangeRate findRate(Series pairSeries, ConversionQuery conversionQuery) {
+        if (pairSeries == null) {
+            return null;
+        }
+        Fixings fixings = pairSeries.fixings;
+        Long epochDay = RateLookups.getEpochDay(conversionQuery);
+        if (epochDay == null) {
+            return fixings.size > 0
+                    ? pairSeries.createRate(fixings.days[fixings.size - 1], fixings.factors[fixings.size - 1])
+                    : null;
+        }
+        if (epochDay == RateLookups.UNDATED) {
+            return null;
+        }
+        int index = RateLookups.find(fixings, epochDay, policy);
+        if (index < 0) {
+            return null;
+        }
+        if (RateLookups.isInterpolated(fixings, index, epochDay, policy)) {
+            return pairSeries.createRate(epochDay, RateLookups.getFactor(fixings, index, epochDay, policy));
+        }
+        return pairSeries.createRate(fixings.days[index], fixings.factors[index]);
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    @Override
+    public String toString() {
+        return "HistoricExchangeRateProvider [context=" + context + ", policy=" + policy + ']';
+    }
+
+    /**
+     * The time series of a currency pair. Appends are serialized, the fixings are replaced on each change, so
+     * readers always see a consistent, sorted series without locking.
+     */
+    private final class Series {
+
+        private final CurrencyUnit base;
+        private final CurrencyUnit term;
+        private volatile Fixings fixings = new Fixings(new int[0], new double[0], 0);
+
+        Series(CurrencyUnit base, CurrencyUnit term) {
+            this.base = base;
+            this.term = term;
+        }
+
+        synchronized void add(int epochDay, double factor) {
+            Fixings current = fixings;
+            int size = current.size;
+            if (size > 0 && current.days[size - 1] >= epochDay) {
+                fixings = current.insert(epochDay, factor);
+                return;
+            }
+            int[] days = current.days;
+            double[] factors = current.factors;
+            if (size == days.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+                days = Arrays.copyOf(days, capacity);
+                factors = Arrays.copyOf(factors, capacity);
+            }
+            // slots beyond the current size are not visible to readers, so they can be written in place
+            days[size] = epochDay;
+            factors[size] = factor;
+            fixings = new Fixings(days, factors, size + 1);
+        }
+
+        synchronized void addAll(int[] epochDays, double[] newFactors) {
+            Fixings current = fixings;
+            int[] days = Arrays.copyOf(current.days, current.size + epochDays.length);
+            double[] factors = Arrays.copyOf(current.factors, days.length);
+            System.arraycopy(epochDays, 0, days, current.size, epochDays.length);
+            System.arraycopy(newFactors, 0, factors, current.size, epochDays.length);
+            fixings = isAscending(days, current.size == 0 ? 0 : current.size - 1) ? new Fixings(days, factors,
+                    days.length) : Fixings.sorted(days, factors);
+        }
+
+        private boolean isAscending(int[] days, int from) {
+            for (int i = from + 1; i < days.length; i++) {
+                if (days[i - 1] >= days[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        ExchangeRate createRate(long epochDay, double factor) {
+            ConversionContext rateContext = conversionContext.toBuilder()
+                    .set(FIXING_DATE, LocalDate.ofEpochDay(epochDay)).build();
+            return new ConvertedExchangeRate(rateContext, base, term, FactorValue.of(factor));
+        }
+    }
+
+    /**
+     * An immutable, sorted view of the fixings of a pair. The arrays may be larger than the size, and shared with
+     * later views of the same series, but the entries up to the size are never changed.
+     */
+    private static final class Fixings implements RateLookups.FixingSeries {
+
+        private final int[] days;
+        private final double[] factors;
+        private final int size;
+
+        Fixings(int[] days, double[] factors, int size) {
+            this.days = days;
+            this.factors = factors;
+            this.size = size;
+        }
+
+        /**
+         * Creates new fixings from unsorted arrays, the last entry of a date wins.
+         */
+        static Fixings sorted(int[] days, double[] factors) {
+            Integer[] order = new Integer[days.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            // stable sort, so later entries of the same date follow earlier ones
+            Arrays.sort(order, (a, b) -> Integer.compare(days[a], days[b]));
+            int[] sortedDays = new int[days.length];
+            double[] sortedFactors = new double[days.length];
+            int size = 0;
+            for (Integer index : order) {
+                if (size > 0 && sortedDays[size - 1] == days[index]) {
+                    size--;
+                }
+                sortedDays[size] = days[index];
+                sortedFactors[size] = factors[index];
+                size++;
+            }
+            return new Fixings(sortedDays, sortedFactors, size);
+        }
+
+        Fixings insert(int epochDay, double factor) {
+            int index = Arrays.binarySearch(days, 0, size, epochDay);
+            if (index >= 0) {
+                double[] newFactors = Arrays.copyOf(factors, factors.length);
+                newFactors[index] = factor;
+                return new Fixings(days, newFactors, size);
+            }
+            int insertion = -index - 1;
+            int[] newDays = new int[size + 1];
+            double[] newFactors = new double[size + 1];
+            System.arraycopy(days, 0, newDays, 0, insertion);
+            System.arraycopy(factors, 0, newFactors, 0, insertion);
+            newDays[insertion] = epochDay;
+            newFactors[insertion] = factor;
+            System.arraycopy(days, insertion, newDays, insertion + 1, size - insertion);
+            System.arraycopy(factors, insertion, newFactors, insertion + 1, size - insertion);
+            return new Fixings(newDays, newFactors, size + 1);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int day(int index) {
+            return days[index];
+        }
+
+        @Override
+        public double factor(int index) {
+            return factors[index];
+        }
+    }
+
+}
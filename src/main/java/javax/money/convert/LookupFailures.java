@@ -0,0 +1,39 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+/**
+ * Helper shared by the providers of this package delegating to other providers, classifying the exceptions raised
+ * by a lookup of a delegate. A delegate signals a miss by a {@link CurrencyConversionException}, but providers
+ * accessing remote sources typically wrap their I/O errors or timeouts in a {@link CurrencyConversionException} as
+ * well, with the original exception as cause.
+ *
+ * @author Anatole Tresch
+ */
+final class LookupFailures {
+
+    /**
+     * Private singletons constructor.
+     */
+    private LookupFailures() {
+    }
+
+    /**
+     * Checks if an exception raised by {@link ExchangeRateProvider#getExchangeRate(ConversionQuery)} signals a
+     * miss, i.e. the provider has no rate for the query.
+     *
+     * @param e the exception raised.
+     * @return true for a {@link CurrencyConversionException} without cause, false for any other exception, which
+     * is a failure of the provider.
+     */
+    static boolean isMiss(Throwable e) {
+        return e instanceof CurrencyConversionException && e.getCause() == null;
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory {@link ExchangeRateProvider}, serving the rates published to it, both by pull, returning the latest
+ * rate of each pair, and by push, through the publishers returned by {@link #getRatePublisher(ConversionQuery)}.
+ * Rates are published by {@link #publish(ExchangeRate)}, e.g. by a feed handler, or by tests:
+ * <pre><code>
+ * LoopbackExchangeRateProvider provider = LoopbackExchangeRateProvider.of(
+ *     ProviderContext.of("FEED", RateType.REALTIME));
+ * provider.getRatePublisher(ConversionQueryBuilder.of().setBaseCurrency(eur).build())
+ *     .ifPresent(publisher -&gt; publisher.subscribe(subscriber));
+ * provider.publish(rate);
+ * </code></pre>
+ * Subscriptions are conflated: rates not yet requested by a subscriber are held per currency pair, a newer rate of
+ * the same pair replacing the older one, so slow subscribers receive only the latest rate of each pair, and the
+ * publisher never buffers more than one rate per pair and subscriber. New subscribers first receive the latest rates
+ * of the pairs selected, as far as requested. Rates are delivered on the thread publishing the rate, requesting
+ * rates or subscribing, without any executor, but never before {@code onSubscribe} has returned. A subscriber
+ * throwing an exception from a signal is cancelled, the other subscribers are not affected.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Anatole Tresch
+ */
+public final class LoopbackExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Logger LOG = Logger.getLogger(LoopbackExchangeRateProvider.class.getName());
+
+    private final ProviderContext context;
+    private final ConversionContext conversionContext;
+    /**
+     * The latest rate by pair key.
+     */
+    private final Map<String, ExchangeRate> latest = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<RateSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean completed;
+
+    private LoopbackExchangeRateProvider(ProviderContext context) {
+        this.context = Objects.requireNonNull(context, "Provider context required.");
+        Set<RateType> rateTypes = context.getRateTypes();
+        this.conversionContext = ConversionContext.from(context,
+                rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY);
+    }
+
+    /**
+     * Creates a new provider without any rates.
+     *
+     * @param context the provider's context, not {@code null}.
+     * @return the new provider, never {@code null}.
+     */
+    public static LoopbackExchangeRateProvider of(ProviderContext context) {
+        return new LoopbackExchangeRateProvider(context);
+    }
+
+    private static String pairKey(CurrencyUnit base, CurrencyUnit term) {
+        return base.getCurrencyCode() + '/' + term.getCurrencyCode();
+    }
+
+    /**
+     * Publishes a rate, replacing the latest rate of its pair, and delivers it to all subscribers selecting the
+     * pair.
+     *
+     * @param rate the rate, not {@code null}.
+     * @throws IllegalStateException if the provider was completed.
+     */
+    public void publish(ExchangeRate rate) {
+        Objects.requireNonNull(rate, "Rate required.");
+        if (completed) {
+            throw new IllegalStateException("Provider completed.");
+        }
+        String key = pairKey(rate.getBaseCurrency(), rate.getCurrency());
+        latest.put(key, rate);
+        for (RateSubscription subscription : subscriptions) {
+            if (subscription.matches(rate)) {
+                subscription.offer(key, rate);
+            }
+        }
+    }
+
+    /**
+     * Completes all subscriptions, after delivering the rates pending. No further rates can be published, the
+     * latest rates are still served by pull.
+     */
+    public void complete() {
+        completed = true;
+        for (RateSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Get the number of active subscriptions.
+     *
+     * @return the number of subscriptions.
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        return conversionQuery.getBaseCurrency() != null && conversionQuery.getCurrency() != null
+                && latest.containsKey(pairKey(conversionQuery.getBaseCurrency(), conversionQuery.getCurrency()));
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Base and term currency are required.");
+        }
+        ExchangeRate rate = latest.get(pairKey(base, term));
+        if (rate == null) {
+            throw new CurrencyConversionException(base, term, conversionContext);
+        }
+        return rate;
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    /**
+     * Access a publisher of the rates selected by the query: the base and term currency, if set, select the pairs,
+     * so a query without currencies selects all pairs. The rate types, if set, select the rate types of the rates'
+     * contexts.
+     *
+     * @param conversionQuery the query, not {@code null}.
+     * @return the publisher, never empty.
+     */
+    @Override
+    public Optional<RateFlow.Publisher<ExchangeRate>> getRatePublisher(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        return Optional.of(subscriber -> subscribe(conversionQuery, subscriber));
+    }
+
+    private void subscribe(ConversionQuery query, RateFlow.Subscriber<? super ExchangeRate> subscriber) {
+        RateSubscription subscription = new RateSubscription(query,
+                Objects.requireNonNull(subscriber, "Subscriber required."));
+        subscriptions.add(subscription);
+        for (Map.Entry<String, ExchangeRate> en : latest.entrySet()) {
+            if (subscription.matches(en.getValue())) {
+                subscription.replay(en.getKey(), en.getValue());
+            }
+        }
+        subscriber.onSubscribe(subscription);
+        subscription.subscribed();
+        if (completed) {
+            subscription.complete();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LoopbackExchangeRateProvider [context=" + context + ", pairs=" + latest.size() + ", subscriptions="
+                + subscriptions.size() + ']';
+    }
+
+    /**
+     * A conflating subscription. All state is guarded by the subscription's monitor, the subscriber is signalled
+     * outside of it by a single draining thread at a time.
+     */
+    private final class RateSubscription implements RateFlow.Subscription {
+
+        private final CurrencyUnit base;
+        private final CurrencyUnit term;
+        private final Set<RateType> rateTypes;
+        private final RateFlow.Subscriber<? super ExchangeRate> subscriber;
+        /**
+         * The rates not yet delivered, at most one per pair, in order of their first arrival.
+         */
+        private final Map<String, ExchangeRate> pending = new LinkedHashMap<>();
+        private long requested;
+        /**
+         * Whether {@code onSubscribe} has returned, no signals are delivered before.
+         */
+        private boolean subscribed;
+        private boolean draining;
+        private boolean completing;
+        private Throwable error;
+        private boolean done;
+
+        RateSubscription(ConversionQuery query, RateFlow.Subscriber<? super ExchangeRate> subscriber) {
+            this.base = query.getBaseCurrency();
+            this.term = query.getCurrency();
+            this.rateTypes = query.getRateTypes();
+            this.subscriber = subscriber;
+        }
+
+        boolean matches(ExchangeRate rate) {
+            return (base == null || base.equals(rate.getBaseCurrency()))
+                    && (term == null || term.equals(rate.getCurrency()))
+                    && (rateTypes.isEmpty() || rate.getContext() != null
+                    && rateTypes.contains(rate.getContext().getRateType()));
+        }
+
+        void offer(String key, ExchangeRate rate) {
+            enqueue(key, rate);
+            drain();
+        }
+
+        synchronized void enqueue(String key, ExchangeRate rate) {
+            if (!done) {
+                // replaces the pending rate of the pair, keeping its position
+                pending.put(key, rate);
+            }
+        }
+
+        /**
+         * Enqueues a latest rate read when subscribing. Nothing is delivered before the subscriber was signalled
+         * by {@code onSubscribe}, so a rate already pending for the pair was offered by a concurrent publish after
+         * the subscription was registered, and is at least as recent as the rate read.
+         */
+        synchronized void replay(String key, ExchangeRate rate) {
+            if (!done) {
+                pending.putIfAbsent(key, rate);
+            }
+        }
+
+        /**
+         * Marks the subscriber as signalled by {@code onSubscribe}, delivering the signals held back until then.
+         */
+        void subscribed() {
+            synchronized (this) {
+                subscribed = true;
+            }
+            drain();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Non-positive request: " + n);
+                    pending.clear();
+                } else {
+                    requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                pending.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Delivers the pending signals, unless another thread does already, or the subscriber was not yet signalled
+         * by {@code onSubscribe}. A subscriber throwing from a signal is cancelled, the exception is logged, but not
+         * propagated to the thread publishing or completing.
+         */
+        private void drain() {
+            synchronized (this) {
+                if (draining || !subscribed) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                ExchangeRate next = null;
+                Throwable failure = null;
+                boolean complete = false;
+                synchronized (this) {
+                    if (done) {
+                        draining = false;
+                        return;
+                    }
+                    if (error != null) {
+                        failure = error;
+                        done = true;
+                    } else if (requested > 0 && !pending.isEmpty()) {
+                        Iterator<ExchangeRate> rates = pending.values().iterator();
+                        next = rates.next();
+                        rates.remove();
+                        if (requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                    } else if (completing && pending.isEmpty()) {
+                        complete = true;
+                        done = true;
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (next != null) {
+                        subscriber.onNext(next);
+                    } else {
+                        subscriptions.remove(this);
+                        if (failure != null) {
+                            subscriber.onError(failure);
+                        } else if (complete) {
+                            subscriber.onComplete();
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "Subscriber failed, cancelling subscription: " + subscriber, e);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+
+}
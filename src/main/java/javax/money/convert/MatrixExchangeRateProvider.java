@@ -0,0 +1,470 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link ExchangeRateProvider} for a closed set of currencies, holding the factors of all currency pairs in a dense
+ * matrix. Each currency is assigned an ordinal on creation, the factors are stored in a primitive {@code double}
+ * array indexed by the ordinals of the base and term currency. {@link ExchangeRate} instances are created lazily,
+ * on first access of a pair, and reused until the matrix is replaced.
+ * <p>
+ * The matrix is replaced as a whole using {@link #newMatrix()}, so readers always see a consistent set of factors.
+ * Each matrix published is assigned a new version, {@link #snapshot()} returns a view of the current matrix, which is
+ * not affected by later replacements:
+ * <pre><code>
+ * MatrixExchangeRateProvider provider = MatrixExchangeRateProvider.of(
+ *     ProviderContext.of("ECB", RateType.DEFERRED), currencies);
+ * provider.newMatrix()
+ *     .setFactor(chf, eur, 0.93)
+ *     .setFactor(eur, chf, 1.075)
+ *     .publish();
+ * </code></pre>
+ * Pairs without a factor are not available, except for the identical currencies, which have a factor of
+ * {@code 1}. Factors are held as {@code double}, the factor of a rate is the shortest decimal representation of the
+ * {@code double} value. Hot loops, e.g. repricing large portfolios, may resolve the ordinals of their currencies
+ * once by {@link #getOrdinal(CurrencyUnit)} and access the factors by {@link #getFactor(int, int)}.
+ * <p>
+ * Currencies are identified by their currency code. Unless the {@link ProviderContext} passed declares
+ * {@link ConversionCapabilities}, the context of the provider declares all pairs of its currencies as supported.
+ * The rates provided are of the rate type of the
+ * {@link ProviderContext}, if it declares exactly one, or else of {@link RateType#ANY}; queries for other rate types
+ * are not served.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Anatole Tresch
+ */
+public final class MatrixExchangeRateProvider implements ExchangeRateProvider {
+
+    private final ProviderContext context;
+    private final RateType rateType;
+    private final ConversionContext conversionContext;
+    private final CurrencyUnit[] currencies;
+    private final Map<String, Integer> ordinals;
+    private volatile Matrix matrix;
+
+    private MatrixExchangeRateProvider(ProviderContext context, Collection<? extends CurrencyUnit> currencies) {
+        Objects.requireNonNull(context, "Provider context required.");
+        Set<RateType> rateTypes = context.getRateTypes();
+        this.rateType = rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY;
+        this.conversionContext = ConversionContext.from(context, rateType);
+        this.currencies = currencies.toArray(new CurrencyUnit[0]);
+        Map<String, Integer> ordinalsByCode = new HashMap<>();
+        for (int i = 0; i < this.currencies.length; i++) {
+            Objects.requireNonNull(this.currencies[i], "Currencies must not contain null.");
+            if (ordinalsByCode.put(this.currencies[i].getCurrencyCode(), i) != null) {
+                throw new IllegalArgumentException("Duplicate currency: " + this.currencies[i].getCurrencyCode());
+            }
+        }
+        this.ordinals = ordinalsByCode;
+        this.context = context.getCapabilities() != null ? context : context.toBuilder()
+                .setCapabilities(ConversionCapabilities.of(Arrays.asList(this.currencies))).build();
+        this.matrix = new Matrix(newFactors(this.currencies.length), 0L, Instant.now());
+    }
+
+    /**
+     * Creates a new provider without any factors set.
+     *
+     * @param context    the provider's context, not {@code null}.
+     * @param currencies the currencies supported, in the order of their ordinals, not {@code null}.
+     * @return the new provider, never {@code null}.
+     * @throws IllegalArgumentException if the currencies contain duplicate currency codes.
+     */
+    public static MatrixExchangeRateProvider of(ProviderContext context,
+                                                Collection<? extends CurrencyUnit> currencies) {
+        return new MatrixExchangeRateProvider(context, currencies);
+    }
+
+    /**
+     * Creates an empty factor array, with only the factors of the identical currencies set.
+     */
+    private static double[] newFactors(int size) {
+        double[] factors = new double[size * size];
+        Arrays.fill(factors, Double.NaN);
+        for (int i = 0; i < size; i++) {
+            factors[i * size + i] = 1.0;
+        }
+        return factors;
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the currencies supported.
+     *
+     * @return the currencies, in the order of their ordinals, never {@code null}.
+     */
+    public List<CurrencyUnit> getCurrencies() {
+        return Collections.unmodifiableList(Arrays.asList(currencies));
+    }
+
+    /**
+     * Get the ordinal of a currency.
+     *
+     * @param currency the currency, not {@code null}.
+     * @return the ordinal, or {@code -1}, if the currency is not supported.
+     */
+    public int getOrdinal(CurrencyUnit currency) {
+        Integer ordinal = ordinals.get(currency.getCurrencyCode());
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Access the current factor of a currency pair.
+     *
+     * @param baseOrdinal the ordinal of the base currency.
+     * @param termOrdinal the ordinal of the term currency.
+     * @return the factor, or {@link Double#NaN}, if the pair is not available.
+     * @throws IndexOutOfBoundsException if one of the ordinals is invalid.
+     */
+    public double getFactor(int baseOrdinal, int termOrdinal) {
+        return matrix.factors[index(baseOrdinal, termOrdinal)];
+    }
+
+    /**
+     * Access the current factor of a currency pair.
+     *
+     * @param base the base currency, not {@code null}.
+     * @param term the term currency, not {@code null}.
+     * @return the factor, or {@link Double#NaN}, if the pair is not available.
+     */
+    public double getFactor(CurrencyUnit base, CurrencyUnit term) {
+        return getFactor(matrix, base, term);
+    }
+
+    private double getFactor(Matrix current, CurrencyUnit base, CurrencyUnit term) {
+        int baseOrdinal = getOrdinal(base);
+        int termOrdinal = getOrdinal(term);
+        if (baseOrdinal < 0 || termOrdinal < 0) {
+            return Double.NaN;
+        }
+        return current.factors[baseOrdinal * currencies.length + termOrdinal];
+    }
+
+    /**
+     * Get the version of the current matrix, incremented on each {@link MatrixBuilder#publish()}.
+     *
+     * @return the version, {@code 0} before the first matrix was published.
+     */
+    public long getVersion() {
+        return matrix.version;
+    }
+
+    /**
+     * Access a snapshot of the current matrix, with the matrix' version and the time it was published.
+     *
+     * @return a new snapshot, never {@code null}.
+     */
+    @Override
+    public ConversionSnapshot snapshot() {
+        Matrix current = matrix;
+        return ConversionSnapshot.of(new MatrixView(current), current.version, current.timestamp);
+    }
+
+    private int index(int baseOrdinal, int termOrdinal) {
+        if (baseOrdinal < 0 || baseOrdinal >= currencies.length || termOrdinal < 0
+                || termOrdinal >= currencies.length) {
+            throw new IndexOutOfBoundsException("Invalid ordinals: " + baseOrdinal + ", " + termOrdinal);
+        }
+        return baseOrdinal * currencies.length + termOrdinal;
+    }
+
+    /**
+     * Creates a builder of a new matrix, replacing the current matrix on {@link MatrixBuilder#publish()}. The new
+     * matrix starts without any factors set.
+     *
+     * @return the new builder, never {@code null}.
+     */
+    public MatrixBuilder newMatrix() {
+        return new MatrixBuilder();
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        return isAvailable(matrix, conversionQuery);
+    }
+
+    private boolean isAvailable(Matrix current, ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        return conversionQuery.getBaseCurrency() != null && conversionQuery.getCurrency() != null
+                && RateLookups.isRateTypeSupported(rateType, conversionQuery) && !Double.isNaN(
+                getFactor(current, conversionQuery.getBaseCurrency(), conversionQuery.getCurrency()));
+    }
+
+    @Override
+    public boolean isAvailable(CurrencyUnit base, CurrencyUnit term) {
+        return !Double.isNaN(getFactor(Objects.requireNonNull(base), Objects.requireNonNull(term)));
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        return getExchangeRate(matrix, conversionQuery);
+    }
+
+    private ExchangeRate getExchangeRate(Matrix current, ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Base and term currency are required.");
+        }
+        if (!RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Unsupported rate types: " + conversionQuery.getRateTypes());
+        }
+        return getExchangeRate(current, base, term);
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(CurrencyUnit base, CurrencyUnit term) {
+        return getExchangeRate(matrix, base, term);
+    }
+
+    private ExchangeRate getExchangeRate(Matrix current, CurrencyUnit base, CurrencyUnit term) {
+        ExchangeRate rate = findRate(current, base, term);
+        if (rate == null) {
+            throw new CurrencyConversionException(base, term, conversionContext);
+        }
+        return rate;
+    }
+
+    /**
+     * Looks up a rate without creating any exception on a miss.
+     */
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+        return findExchangeRate(matrix, conversionQuery);
+    }
+
+    private Optional<ExchangeRate> findExchangeRate(Matrix current, ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null || !RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findRate(current, base, term));
+    }
+
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(CurrencyUnit base, CurrencyUnit term) {
+        return Optional.ofNullable(findRate(matrix, base, term));
+    }
+
+    private ExchangeRate findRate(Matrix current, CurrencyUnit base, CurrencyUnit term) {
+        Objects.requireNonNull(base, "Base Currency is null");
+        Objects.requireNonNull(term, "Term Currency is null");
+        int baseOrdinal = getOrdinal(base);
+        int termOrdinal = getOrdinal(term);
+        return baseOrdinal < 0 || termOrdinal < 0 ? null : current.getRate(baseOrdinal, termOrdinal);
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixExchangeRateProvider [context=" + context + ", currencies=" + currencies.length + ']';
+    }
+
+    /**
+     * The factors of all pairs and the rates created from them so far.
+     */
+    private final class Matrix {
+
+        private final double[] factors;
+        private final long version;
+        private final Instant timestamp;
+        /**
+         * The rates created lazily. Rates are immutable, so concurrent creation of the same rate is harmless.
+         */
+        private final ExchangeRate[] rates;
+
+        Matrix(double[] factors, long version, Instant timestamp) {
+            this.factors = factors;
+            this.version = version;
+            this.timestamp = timestamp;
+            this.rates = new ExchangeRate[factors.length];
+        }
+
+        ExchangeRate getRate(int baseOrdinal, int termOrdinal) {
+            int index = baseOrdinal * currencies.length + termOrdinal;
+            ExchangeRate rate = rates[index];
+            if (rate == null) {
+                double factor = factors[index];
+                if (Double.isNaN(factor)) {
+                    return null;
+                }
+                rate = new ConvertedExchangeRate(conversionContext, currencies[baseOrdinal],
+                        currencies[termOrdinal], FactorValue.of(factor));
+                rates[index] = rate;
+            }
+            return rate;
+        }
+    }
+
+    /**
+     * Provider of the rates of a single matrix, used by {@link #snapshot()}.
+     */
+    private final class MatrixView implements ExchangeRateProvider {
+
+        private final Matrix view;
+
+        MatrixView(Matrix view) {
+            this.view = view;
+        }
+
+        @Override
+        public ProviderContext getContext() {
+            return context;
+        }
+
+        @Override
+        public boolean isAvailable(ConversionQuery conversionQuery) {
+            return MatrixExchangeRateProvider.this.isAvailable(view, conversionQuery);
+        }
+
+        @Override
+        public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+            return MatrixExchangeRateProvider.this.getExchangeRate(view, conversionQuery);
+        }
+
+        @Override
+        public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+            return MatrixExchangeRateProvider.this.findExchangeRate(view, conversionQuery);
+        }
+
+        @Override
+        public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+            return new ProviderConversion(this, conversionQuery);
+        }
+    }
+
+    /**
+     * Builder of a new matrix of a {@link MatrixExchangeRateProvider}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public final class MatrixBuilder {
+
+        private double[] factors = newFactors(currencies.length);
+
+        private MatrixBuilder() {
+        }
+
+        /**
+         * Sets the factor of a currency pair. The factor of the reversed pair is not affected.
+         *
+         * @param base   the base currency, not {@code null}.
+         * @param term   the term currency, not {@code null}.
+         * @param factor the factor, a positive finite number, {@code 1} for identical currencies.
+         * @return this builder, for chaining.
+         * @throws IllegalArgumentException if a currency is not supported, or the factor is invalid.
+         */
+        public MatrixBuilder setFactor(CurrencyUnit base, CurrencyUnit term, double factor) {
+            int baseOrdinal = getOrdinal(Objects.requireNonNull(base));
+            int termOrdinal = getOrdinal(Objects.requireNonNull(term));
+            if (baseOrdinal < 0 || termOrdinal < 0) {
+                throw new IllegalArgumentException("Unsupported currency pair: " + base + '/' + term);
+            }
+            return setFactor(baseOrdinal, termOrdinal, factor);
+        }
+
+        /**
+         * Sets the factor of a currency pair. The factor of the reversed pair is not affected.
+         *
+         * @param baseOrdinal the ordinal of the base currency.
+         * @param termOrdinal the ordinal of the term currency.
+         * @param factor      the factor, a positive finite number, {@code 1} for identical currencies.
+         * @return this builder, for chaining.
+         * @throws IllegalArgumentException if the factor is invalid.
+         * @throws IndexOutOfBoundsException if one of the ordinals is invalid.
+         */
+        public MatrixBuilder setFactor(int baseOrdinal, int termOrdinal, double factor) {
+            checkPublished();
+            int index = index(baseOrdinal, termOrdinal);
+            if (!(factor > 0) || Double.isInfinite(factor)) {
+                throw new IllegalArgumentException("Invalid factor: " + factor);
+            }
+            if (baseOrdinal == termOrdinal && factor != 1) {
+                throw new IllegalArgumentException("Invalid factor for identical currencies: " + factor);
+            }
+            factors[index] = factor;
+            return this;
+        }
+
+        /**
+         * Sets the factors of all pairs.
+         *
+         * @param factors the factors, in row major order, i.e. the factor of the base currency with ordinal
+         *                {@code b} and the term currency with ordinal {@code t} at index {@code b * n + t}, where
+         *                {@code n} is the number of currencies. Unavailable pairs are {@link Double#NaN}. The
+         *                entries of identical currencies are ignored, their factor is always {@code 1}.
+         * @return this builder, for chaining.
+         * @throws IllegalArgumentException if the array length does not match, or a factor is invalid.
+         */
+        public MatrixBuilder setFactors(double[] factors) {
+            checkPublished();
+            if (factors.length != this.factors.length) {
+                throw new IllegalArgumentException("Expected " + this.factors.length + " factors, but was "
+                        + factors.length);
+            }
+            for (int i = 0; i < factors.length; i++) {
+                double factor = factors[i];
+                if (i % (currencies.length + 1) != 0 && !Double.isNaN(factor)
+                        && (!(factor > 0) || Double.isInfinite(factor))) {
+                    throw new IllegalArgumentException("Invalid factor: " + factor);
+                }
+            }
+            for (int i = 0; i < factors.length; i++) {
+                if (i % (currencies.length + 1) != 0) {
+                    this.factors[i] = factors[i];
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the current matrix of the provider with the matrix built, assigning it the next version. The
+         * builder can not be used afterwards.
+         */
+        public void publish() {
+            checkPublished();
+            synchronized (MatrixExchangeRateProvider.this) {
+                matrix = new Matrix(factors, matrix.version + 1, Instant.now());
+            }
+            factors = null;
+        }
+
+        private void checkPublished() {
+            if (factors == null) {
+                throw new IllegalStateException("Matrix already published.");
+            }
+        }
+    }
+
+}
@@ -14,10 +14,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 import javax.money.CurrencyUnit;
@@ -45,22 +51,109 @@ import javax.money.spi.MonetaryConversionsSingletonSpi;
  * This class is thread-safe. Hereby it is important to know that it delegates
  * to the registered {@link javax.money.spi.MonetaryConversionsSingletonSpi} SPI, which also is required
  * to be thread-safe.
+ * <p>
+ * The {@link CurrencyConversion} instances returned by {@link #getConversion(CurrencyUnit, String...)},
+ * {@link #getConversion(String, String...)} and {@link #getConversion(ConversionQuery)} are cached, keyed by the
+ * term currency, the provider chain and the rate types requested. The cache is dropped whenever
+ * {@link Bootstrap#init(javax.money.spi.ServiceProvider)} replaces the current
+ * {@link javax.money.spi.ServiceProvider}, and on {@link #refresh()}, e.g. after the providers registered with the
+ * current {@link javax.money.spi.MonetaryConversionsSingletonSpi} have changed.
  *
  * @author Anatole Tresch
  * @author Werner Keil
  */
 public final class MonetaryConversions{
 
+    /**
+     * The maximal number of cached {@link CurrencyConversion} instances.
+     */
+    private static final int MAX_CACHED_CONVERSIONS = 1024;
+
+    /**
+     * The SPI currently in use and the conversions resolved from it, dropped whenever the
+     * {@link javax.money.spi.ServiceProvider} is replaced.
+     */
+    private static volatile ConversionsCache conversionsCache;
+
+    /**
+     * The lock used for resolving the SPI.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * The executor running the default implementations of the asynchronous operations.
+     */
+    private static volatile Executor asyncExecutor = ForkJoinPool.commonPool();
+
+    static {
+        Bootstrap.addServiceProviderListener(MonetaryConversions::refresh);
+    }
+
     /**
      * The SPI currently active, use {@link ServiceLoader} to register an
      * alternate implementation.
      */
     private static MonetaryConversionsSingletonSpi getMonetaryConversionsSpi() {
-        return Optional.ofNullable(Bootstrap.getService(MonetaryConversionsSingletonSpi.class))
-                .orElseThrow(() -> new MonetaryException("No MonetaryConversionsSingletonSpi " +
-                        "loaded, " +
-                        "query functionality is not " +
-                        "available."));
+        return getConversionsCache().spi;
+    }
+
+    /**
+     * Access the SPI currently in use and its cached conversions, resolving the SPI if necessary.
+     *
+     * @return the current cache, never null.
+     */
+    private static ConversionsCache getConversionsCache() {
+        ConversionsCache cache = conversionsCache;
+        if (cache == null) {
+            synchronized (LOCK) {
+                cache = conversionsCache;
+                if (cache == null) {
+                    cache = new ConversionsCache(Optional.ofNullable(
+                            Bootstrap.getService(MonetaryConversionsSingletonSpi.class))
+                            .orElseThrow(() -> new MonetaryException("No MonetaryConversionsSingletonSpi " +
+                                    "loaded, " +
+                                    "query functionality is not " +
+                                    "available.")));
+                    conversionsCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Drops the cached {@link CurrencyConversion} instances, so they are resolved again from the current
+     * {@link javax.money.spi.MonetaryConversionsSingletonSpi} on next access. This method must be called, when the
+     * providers available have changed, without replacing the current {@link javax.money.spi.ServiceProvider}.
+     */
+    public static void refresh() {
+        synchronized (LOCK) {
+            conversionsCache = null;
+        }
+    }
+
+    /**
+     * Sets the executor running the default implementations of the asynchronous operations, such as
+     * {@link ExchangeRateProvider#getExchangeRateAsync(ConversionQuery)} and
+     * {@link CurrencyConversion#applyAsync(javax.money.MonetaryAmount)}. By default the common
+     * {@link ForkJoinPool} is used. Since the default implementations block while the rates are fetched, an executor
+     * able to run many blocking tasks, e.g. {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21 and later,
+     * is recommended for providers fetching their rates remotely.
+     *
+     * @param executor the executor, not {@code null}.
+     */
+    public static void setAsyncExecutor(Executor executor) {
+        asyncExecutor = Objects.requireNonNull(executor, "Executor required.");
+    }
+
+    /**
+     * Access the executor running the default implementations of the asynchronous operations.
+     *
+     * @return the executor, never {@code null}.
+     * @see #setAsyncExecutor(Executor)
+     */
+    public static Executor getAsyncExecutor() {
+        return asyncExecutor;
     }
 
     /**
@@ -81,13 +174,21 @@ public final class MonetaryConversions{
     public static CurrencyConversion getConversion(CurrencyUnit termCurrency, String... providers){
         Objects.requireNonNull(providers);
         Objects.requireNonNull(termCurrency);
-        if(providers.length == 0){
-            return getMonetaryConversionsSpi().getConversion(
-                    ConversionQueryBuilder.of().setTermCurrency(termCurrency).setProviderNames(getDefaultConversionProviderChain())
-                            .build());
+        ConversionsCache cache = getConversionsCache();
+        ConversionKey key = new ConversionKey(termCurrency, providers);
+        CurrencyConversion conversion = cache.conversions.get(key);
+        if (conversion == null) {
+            if(providers.length == 0){
+                conversion = cache.spi.getConversion(
+                        ConversionQueryBuilder.of().setTermCurrency(termCurrency).setProviderNames(getDefaultConversionProviderChain())
+                                .build());
+            } else {
+                conversion = cache.spi.getConversion(
+                        ConversionQueryBuilder.of().setTermCurrency(termCurrency).setProviderNames(providers).build());
+            }
+            cache.put(key, conversion);
         }
-        return getMonetaryConversionsSpi().getConversion(
-                ConversionQueryBuilder.of().setTermCurrency(termCurrency).setProviderNames(providers).build());
+        return conversion;
     }
 
     /**
@@ -114,7 +215,14 @@ public final class MonetaryConversions{
      * @throws IllegalArgumentException if the query defines {@link ExchangeRateProvider}s that are not available.
      */
     public static CurrencyConversion getConversion(ConversionQuery conversionQuery){
-        return getMonetaryConversionsSpi().getConversion(conversionQuery);
+        Objects.requireNonNull(conversionQuery);
+        ConversionsCache cache = getConversionsCache();
+        CurrencyConversion conversion = cache.conversions.get(conversionQuery);
+        if (conversion == null) {
+            conversion = cache.spi.getConversion(conversionQuery);
+            cache.put(conversionQuery, conversion);
+        }
+        return conversion;
     }
 
     /**
@@ -172,6 +280,42 @@ public final class MonetaryConversions{
                 .orElseThrow(() -> new MonetaryException("No such rate provider: " + Arrays.toString(providers)));
     }
 
+    /**
+     * Access an {@link ExchangeRateProvider} using the given providers as a provider chain, without raising an
+     * exception, if a provider is not available.
+     *
+     * @param providers the provider names, or none for the default provider chain.
+     * @return the exchange rate provider, or an empty {@link Optional}, if no such provider is available.
+     */
+    public static Optional<ExchangeRateProvider> findExchangeRateProvider(String... providers){
+        ConversionQueryBuilder builder = ConversionQueryBuilder.of();
+        if(providers.length == 0){
+            builder.setProviderNames(getDefaultConversionProviderChain());
+        } else {
+            builder.setProviderNames(providers);
+        }
+        return getMonetaryConversionsSpi().findExchangeRateProvider(builder.build());
+    }
+
+    /**
+     * Access an instance of {@link CurrencyConversion} for the given providers, without raising an exception, if
+     * the currency code is unknown or a provider is not available. This variant is meant for resolving codes of
+     * untrusted input.
+     *
+     * @param termCurrencyCode the terminating or target currency code, not {@code null}
+     * @param providers        Additional providers, for building a provider chain
+     * @return the conversion, or an empty {@link Optional}.
+     */
+    public static Optional<CurrencyConversion> findConversion(String termCurrencyCode, String... providers){
+        Objects.requireNonNull(termCurrencyCode, "Term currency code may not be null");
+        Optional<CurrencyUnit> termCurrency = Monetary.findCurrency(termCurrencyCode);
+        if(!termCurrency.isPresent() || !getMonetaryConversionsSpi().getProviderNames()
+                .containsAll(Arrays.asList(providers))){
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getConversion(termCurrency.get(), providers));
+    }
+
 	/**
 	 * Access an instance of {@link CurrencyConversion} using the
 	 * {@link ExchangeRateProviderSupplier}.
@@ -210,6 +354,20 @@ public final class MonetaryConversions{
                 .getExchangeRateProvider(conversionQuery);
     }
 
+    /**
+     * Access an {@link ExchangeRateProvider} asynchronously, without blocking the calling thread while the provider
+     * is resolved.
+     *
+     * @param conversionQuery the {@link javax.money.convert.ConversionQuery}, not null.
+     * @return the future exchange rate provider, completed exceptionally if no such {@link ExchangeRateProvider} is
+     * available.
+     * @see javax.money.spi.MonetaryConversionsSingletonSpi#getExchangeRateProviderAsync(ConversionQuery)
+     */
+    public static CompletableFuture<ExchangeRateProvider> getExchangeRateProviderAsync(
+            ConversionQuery conversionQuery){
+        return getMonetaryConversionsSpi().getExchangeRateProviderAsync(conversionQuery);
+    }
+
     /**
      * Checks if a {@link javax.money.convert.ExchangeRateProvider} is available for the given parameters.
      *
@@ -253,4 +411,73 @@ public final class MonetaryConversions{
         return defaultChain;
     }
 
+    /**
+     * The SPI in use and the conversions resolved from it. The conversions are keyed either by a
+     * {@link ConversionKey} or by the {@link ConversionQuery} passed.
+     */
+    private static final class ConversionsCache {
+
+        private final MonetaryConversionsSingletonSpi spi;
+        private final Map<Object, CurrencyConversion> conversions = new ConcurrentHashMap<>();
+
+        ConversionsCache(MonetaryConversionsSingletonSpi spi) {
+            this.spi = spi;
+        }
+
+        /**
+         * Caches a conversion, evicting an arbitrary entry if the cache is full.
+         *
+         * @param key        the key.
+         * @param conversion the conversion, not cached if null.
+         */
+        void put(Object key, CurrencyConversion conversion) {
+            if (conversion == null) {
+                return;
+            }
+            if (conversions.size() >= MAX_CACHED_CONVERSIONS) {
+                Iterator<Object> keys = conversions.keySet().iterator();
+                if (keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+            conversions.putIfAbsent(key, conversion);
+        }
+    }
+
+    /**
+     * Key of a conversion requested by term currency and provider chain, without building a
+     * {@link ConversionQuery}. An empty provider chain stands for the default provider chain.
+     */
+    private static final class ConversionKey {
+
+        private final CurrencyUnit termCurrency;
+        private final String[] providers;
+        private final int hashCode;
+
+        ConversionKey(CurrencyUnit termCurrency, String... providers) {
+            this.termCurrency = termCurrency;
+            this.providers = providers.clone();
+            this.hashCode = 31 * termCurrency.hashCode() + Arrays.hashCode(this.providers);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof ConversionKey) {
+                ConversionKey other = (ConversionKey) o;
+                return hashCode == other.hashCode && termCurrency.equals(other.termCurrency)
+                        && Arrays.equals(providers, other.providers);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
 }
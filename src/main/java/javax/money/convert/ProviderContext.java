@@ -12,6 +12,7 @@ import java.util.Collections;
 import java.util.Set;
 
 import javax.money.AbstractContext;
+import javax.money.ContextKey;
 
 /**
  * This class describes what kind of {@link javax.money.convert.ExchangeRate}s a {@link javax.money.convert
@@ -40,6 +41,11 @@ public final class ProviderContext extends AbstractContext {
      */
     static final String KEY_RATE_TYPES = "rateTypes";
 
+    @SuppressWarnings("rawtypes")
+    private static final ContextKey<Set> RATE_TYPES_KEY = ContextKey.of(KEY_RATE_TYPES, Set.class);
+
+    static final ContextKey<ConversionCapabilities> CAPABILITIES_KEY = ContextKey.of(ConversionCapabilities.class);
+
 
     /**
      * Private constructor, used by {@link ProviderContextBuilder}.
@@ -50,6 +56,16 @@ public final class ProviderContext extends AbstractContext {
         super(builder);
     }
 
+    /**
+     * Get the currency pairs supported by the provider, if declared.
+     *
+     * @return the capabilities, or {@code null}, if the provider does not declare its capabilities.
+     * @see ProviderContextBuilder#setCapabilities(ConversionCapabilities)
+     */
+    public ConversionCapabilities getCapabilities() {
+        return get(CAPABILITIES_KEY);
+    }
+
     /**
      * Get the deferred flag. Exchange rates can be deferred or real.time.
      *
@@ -57,7 +73,7 @@ public final class ProviderContext extends AbstractContext {
      */
     public Set<RateType> getRateTypes() {
         @SuppressWarnings("unchecked")
-        Set<RateType> rateSet = get(KEY_RATE_TYPES, Set.class);
+        Set<RateType> rateSet = get(RATE_TYPES_KEY);
         if (rateSet == null) {
             return Collections.emptySet();
         }
@@ -96,6 +96,17 @@ public final class ProviderContextBuilder extends AbstractContextBuilder<Provide
         return this;
     }
 
+    /**
+     * Declares the currency pairs supported by the provider, so availability checks can be answered without
+     * evaluating rates.
+     *
+     * @param capabilities the capabilities, not null.
+     * @return this, for chaining.
+     */
+    public ProviderContextBuilder setCapabilities(ConversionCapabilities capabilities) {
+        return set(ProviderContext.CAPABILITIES_KEY, Objects.requireNonNull(capabilities));
+    }
+
     /**
      * Creates a new {@link ProviderContext} with the data from this Builder
      * instance.
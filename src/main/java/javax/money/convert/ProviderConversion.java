@@ -0,0 +1,187 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * {@link CurrencyConversion} evaluating its rates from an {@link ExchangeRateProvider}, used by the providers of
+ * this package, whose conversions must be backed by the provider itself, not by the provider they decorate. Its
+ * bulk conversions evaluate the {@link ExchangeRate} only once per base currency.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class ProviderConversion implements CurrencyConversion {
+
+    private final ExchangeRateProvider provider;
+    private final ConversionQuery query;
+    private final CurrencyUnit termCurrency;
+    private final ConversionContext context;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param provider the provider, not null.
+     * @param query    the query, with the term currency set, not null.
+     */
+    ProviderConversion(ExchangeRateProvider provider, ConversionQuery query) {
+        this.provider = Objects.requireNonNull(provider);
+        this.query = Objects.requireNonNull(query);
+        this.termCurrency = Objects.requireNonNull(query.getCurrency(), "Terminating Currency is required.");
+        Set<RateType> rateTypes = query.getRateTypes();
+        this.context = ConversionContext.from(provider.getContext(),
+                rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY);
+    }
+
+    @Override
+    public CurrencyUnit getCurrency() {
+        return termCurrency;
+    }
+
+    @Override
+    public ConversionContext getContext() {
+        return context;
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(MonetaryAmount sourceAmount) {
+        return provider.getExchangeRate(query.toBuilder().setBaseCurrency(sourceAmount.getCurrency()).build());
+    }
+
+    @Override
+    public ExchangeRateProvider getExchangeRateProvider() {
+        return provider;
+    }
+
+    @Override
+    public MonetaryAmount apply(MonetaryAmount amount) {
+        Objects.requireNonNull(amount, "Amount required.");
+        if (termCurrency.equals(amount.getCurrency())) {
+            return amount;
+        }
+        return applyChecked(amount, getExchangeRate(amount));
+    }
+
+    /**
+     * Converts an amount using the provider's {@link ExchangeRateProvider#findExchangeRate(ConversionQuery)}, so no
+     * exception is created, if no rate is available.
+     */
+    @Override
+    public Optional<MonetaryAmount> tryApply(MonetaryAmount amount) {
+        Objects.requireNonNull(amount, "Amount required.");
+        if (termCurrency.equals(amount.getCurrency())) {
+            return Optional.of(amount);
+        }
+        return provider.findExchangeRate(query.toBuilder().setBaseCurrency(amount.getCurrency()).build())
+                .filter(rate -> isApplicable(amount, rate))
+                .map(rate -> applyRate(amount, rate));
+    }
+
+    /**
+     * Converts an amount using the provider's {@link ExchangeRateProvider#getExchangeRateAsync(ConversionQuery)},
+     * so no thread is blocked, if the provider supports non blocking access.
+     */
+    @Override
+    public CompletableFuture<MonetaryAmount> applyAsync(MonetaryAmount amount) {
+        Objects.requireNonNull(amount, "Amount required.");
+        if (termCurrency.equals(amount.getCurrency())) {
+            return CompletableFuture.completedFuture(amount);
+        }
+        return provider.getExchangeRateAsync(query.toBuilder().setBaseCurrency(amount.getCurrency()).build())
+                .thenApply(rate -> applyChecked(amount, rate));
+    }
+
+    private MonetaryAmount applyChecked(MonetaryAmount amount, ExchangeRate rate) {
+        if (rate == null || !isApplicable(amount, rate)) {
+            throw new CurrencyConversionException(amount.getCurrency(), termCurrency, context);
+        }
+        return applyRate(amount, rate);
+    }
+
+    /**
+     * Checks if a rate converts the amount's currency into the term currency of this conversion.
+     *
+     * @param amount the amount.
+     * @param rate   the rate.
+     * @return true, if base and term currency of the rate match.
+     */
+    private boolean isApplicable(MonetaryAmount amount, ExchangeRate rate) {
+        return amount.getCurrency().equals(rate.getBaseCurrency()) && termCurrency.equals(rate.getCurrency());
+    }
+
+    /**
+     * Converts all amounts given, evaluating the rate only once per base currency.
+     */
+    @Override
+    public List<MonetaryAmount> convertAll(Collection<? extends MonetaryAmount> amounts) {
+        Objects.requireNonNull(amounts, "Amounts required.");
+        Map<CurrencyUnit, ExchangeRate> rates = new HashMap<>();
+        List<MonetaryAmount> result = new ArrayList<>(amounts.size());
+        for (MonetaryAmount amount : amounts) {
+            result.add(convert(amount, rates));
+        }
+        return result;
+    }
+
+    /**
+     * Converts a stream of amounts, evaluating the rate only once per base currency.
+     */
+    @Override
+    public Stream<MonetaryAmount> convert(Stream<? extends MonetaryAmount> amounts) {
+        Objects.requireNonNull(amounts, "Amounts required.");
+        Map<CurrencyUnit, ExchangeRate> rates = new ConcurrentHashMap<>();
+        return amounts.map(amount -> convert(amount, rates));
+    }
+
+    /**
+     * Converts an amount of a bulk conversion, evaluating the rate of the amount's currency only once.
+     *
+     * @param amount the amount, not null.
+     * @param rates  the rates evaluated so far, by base currency.
+     * @return the converted amount.
+     */
+    private MonetaryAmount convert(MonetaryAmount amount, Map<CurrencyUnit, ExchangeRate> rates) {
+        Objects.requireNonNull(amount, "Amount required.");
+        CurrencyUnit currency = amount.getCurrency();
+        if (termCurrency.equals(currency)) {
+            return amount;
+        }
+        return applyChecked(amount, rates.computeIfAbsent(currency, c -> getExchangeRate(amount)));
+    }
+
+    /**
+     * Applies a rate to an amount, creating the converted amount with the amount's factory.
+     *
+     * @param amount the amount.
+     * @param rate   the rate.
+     * @return the converted amount.
+     */
+    private static MonetaryAmount applyRate(MonetaryAmount amount, ExchangeRate rate) {
+        return amount.getFactory().setCurrency(rate.getCurrency())
+                .setNumber(amount.multiply(rate.getFactor()).getNumber()).create();
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderConversion [provider=" + provider.getContext().getProviderName() + ", query=" + query + ']';
+    }
+
+}
@@ -0,0 +1,364 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link ExchangeRateProvider} serving historic rates directly from a memory mapped rate archive, as written by
+ * {@link RateArchiveWriter}. Opening an archive only reads its pair index, the fixings stay off-heap in the mapped
+ * file and are looked up by binary search on the mapped buffer, without copying or parsing any records.
+ * <p>
+ * Rates are resolved like by {@link HistoricExchangeRateProvider}: the date is taken from the timestamp of the
+ * {@link ConversionQuery}, dates without fixing are resolved according to the
+ * {@link HistoricExchangeRateProvider.LookupPolicy}, queries without timestamp are served with the latest fixing,
+ * and the date of the fixing used is recorded in the rate's context as
+ * {@link HistoricExchangeRateProvider#FIXING_DATE}.
+ * <p>
+ * The archive format is big endian, and consists of
+ * <ul>
+ * <li>a header of 16 bytes: the magic number {@code 0x4A4D5241} ("JMRA"), the format version ({@code 1}), the
+ * number of pairs, and a reserved {@code int},</li>
+ * <li>the pair index, 32 bytes per pair: the base and the term currency code, each as up to 8 ASCII characters
+ * padded with zeros, the offset of the pair's first record as {@code long}, the number of records as {@code int},
+ * and a reserved {@code int},</li>
+ * <li>the records, 12 bytes each: the fixing date as epoch day {@code int} and the factor as {@code double}. The
+ * records of a pair are contiguous, and sorted by date without duplicates.</li>
+ * </ul>
+ * Archives are limited to 2 GB. Unless the {@link ProviderContext} passed declares {@link ConversionCapabilities},
+ * the context of the provider declares the pairs of the archive as supported.
+ * <p>
+ * This class is thread-safe. The archive file must not be modified while mapped.
+ *
+ * @author Anatole Tresch
+ */
+public final class RateArchiveExchangeRateProvider implements ExchangeRateProvider {
+
+    static final int MAGIC = 0x4A4D5241;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int CODE_LENGTH = 8;
+    static final int INDEX_ENTRY_SIZE = 32;
+    static final int RECORD_SIZE = 12;
+
+    private final ProviderContext context;
+    private final RateType rateType;
+    private final ConversionContext conversionContext;
+    private final HistoricExchangeRateProvider.LookupPolicy policy;
+    private final ByteBuffer buffer;
+    /**
+     * The pairs by base and term currency code, never changed after opening.
+     */
+    private final Map<String, Map<String, Pair>> pairs;
+    private final int pairCount;
+
+    private RateArchiveExchangeRateProvider(ProviderContext context, HistoricExchangeRateProvider.LookupPolicy policy,
+                                            ByteBuffer buffer) throws IOException {
+        Objects.requireNonNull(context, "Provider context required.");
+        this.policy = Objects.requireNonNull(policy, "Lookup policy required.");
+        Set<RateType> rateTypes = context.getRateTypes();
+        this.rateType = rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY;
+        this.conversionContext = ConversionContext.from(context, rateType);
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a rate archive.");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported rate archive version: " + buffer.getInt(4));
+        }
+        this.pairCount = buffer.getInt(8);
+        if (pairCount < 0 || HEADER_SIZE + (long) pairCount * INDEX_ENTRY_SIZE > buffer.limit()) {
+            throw new IOException("Invalid rate archive, pair index exceeds file: " + pairCount);
+        }
+        this.pairs = readIndex();
+        if (context.getCapabilities() == null) {
+            ConversionCapabilities.Builder capabilities = ConversionCapabilities.builder();
+            for (Map.Entry<String, Map<String, Pair>> byBase : pairs.entrySet()) {
+                for (String term : byBase.getValue().keySet()) {
+                    capabilities.addPair(byBase.getKey(), term);
+                }
+            }
+            context = context.toBuilder().setCapabilities(capabilities.build()).build();
+        }
+        this.context = context;
+    }
+
+    /**
+     * Opens a rate archive, serving only the dates with a fixing.
+     *
+     * @param file    the archive file, not {@code null}.
+     * @param context the provider's context, not {@code null}.
+     * @return the new provider, never {@code null}.
+     * @throws IOException if the file can not be mapped, or is not a valid rate archive.
+     */
+    public static RateArchiveExchangeRateProvider open(Path file, ProviderContext context) throws IOException {
+        return open(file, context, HistoricExchangeRateProvider.LookupPolicy.EXACT);
+    }
+
+    /**
+     * Opens a rate archive.
+     *
+     * @param file    the archive file, not {@code null}.
+     * @param context the provider's context, not {@code null}.
+     * @param policy  the policy of resolving dates without fixing, not {@code null}.
+     * @return the new provider, never {@code null}.
+     * @throws IOException if the file can not be mapped, or is not a valid rate archive.
+     */
+    public static RateArchiveExchangeRateProvider open(Path file, ProviderContext context,
+                                                       HistoricExchangeRateProvider.LookupPolicy policy)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Rate archive exceeds 2 GB: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            return new RateArchiveExchangeRateProvider(context, policy,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    private Map<String, Map<String, Pair>> readIndex() throws IOException {
+        Map<String, Map<String, Pair>> index = new HashMap<>();
+        for (int i = 0; i < pairCount; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            String base = readCode(buffer, entry);
+            String term = readCode(buffer, entry + CODE_LENGTH);
+            long offset = buffer.getLong(entry + 2 * CODE_LENGTH);
+            int count = buffer.getInt(entry + 2 * CODE_LENGTH + 8);
+            if (offset < 0 || count < 0 || offset + (long) count * RECORD_SIZE > buffer.limit()) {
+                throw new IOException("Invalid rate archive, records of " + base + '/' + term + " exceed file.");
+            }
+            index.computeIfAbsent(base, k -> new HashMap<>()).put(term, new Pair((int) offset, count));
+        }
+        return index;
+    }
+
+    /**
+     * Reads a currency code of the pair index.
+     */
+    static String readCode(ByteBuffer buffer, int position) {
+        int length = 0;
+        while (length < CODE_LENGTH && buffer.get(position + length) != 0) {
+            length++;
+        }
+        byte[] code = new byte[length];
+        for (int i = 0; i < length; i++) {
+            code[i] = buffer.get(position + i);
+        }
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Access the mapped archive, used for reading all its fixings.
+     */
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the policy of resolving dates without fixing.
+     *
+     * @return the policy, never {@code null}.
+     */
+    public HistoricExchangeRateProvider.LookupPolicy getLookupPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the number of currency pairs in the archive.
+     *
+     * @return the number of pairs.
+     */
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * Get the number of fixings of a currency pair.
+     *
+     * @param base the base currency, not {@code null}.
+     * @param term the term currency, not {@code null}.
+     * @return the number of fixings, {@code 0} if the pair is unknown.
+     */
+    public int getFixingCount(CurrencyUnit base, CurrencyUnit term) {
+        Pair pair = getPair(base, term);
+        return pair == null ? 0 : pair.count;
+    }
+
+    /**
+     * Access the factor of a currency pair at a date, according to the lookup policy of this provider.
+     *
+     * @param base the base currency, not {@code null}.
+     * @param term the term currency, not {@code null}.
+     * @param date the date, not {@code null}.
+     * @return the factor, or {@link Double#NaN}, if not available.
+     */
+    public double getFactor(CurrencyUnit base, CurrencyUnit term, LocalDate date) {
+        Pair pair = getPair(base, term);
+        if (pair == null) {
+            return Double.NaN;
+        }
+        long epochDay = date.toEpochDay();
+        int index = RateLookups.find(pair, epochDay, policy);
+        return index < 0 ? Double.NaN : RateLookups.getFactor(pair, index, epochDay, policy);
+    }
+
+    private Pair getPair(CurrencyUnit base, CurrencyUnit term) {
+        Map<String, Pair> byTerm = pairs.get(base.getCurrencyCode());
+        return byTerm == null ? null : byTerm.get(term.getCurrencyCode());
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null || !RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            return false;
+        }
+        Pair pair = getPair(base, term);
+        if (pair == null) {
+            return false;
+        }
+        Long epochDay = RateLookups.getEpochDay(conversionQuery);
+        if (epochDay == null) {
+            return pair.count > 0;
+        }
+        return epochDay != RateLookups.UNDATED && RateLookups.find(pair, epochDay, policy) >= 0;
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Base and term currency are required.");
+        }
+        if (!RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "Unsupported rate types: " + conversionQuery.getRateTypes());
+        }
+        ExchangeRate rate = findRate(base, term, conversionQuery);
+        if (rate == null) {
+            throw new CurrencyConversionException(base, term, conversionContext,
+                    "No fixing available at " + conversionQuery.getTimestamp());
+        }
+        return rate;
+    }
+
+    /**
+     * Looks up a rate without creating any exception on a miss.
+     */
+    @Override
+    public Optional<ExchangeRate> findExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null || !RateLookups.isRateTypeSupported(rateType, conversionQuery)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findRate(base, term, conversionQuery));
+    }
+
+    /**
+     * Evaluates the rate of a pair targeted by a query.
+     *
+     * @return the rate, or null, if the pair is unknown or no fixing matches.
+     */
+    private ExchangeRate findRate(CurrencyUnit base, CurrencyUnit term, ConversionQuery conversionQuery) {
+        Pair pair = getPair(base, term);
+        if (pair == null) {
+            return null;
+        }
+        Long epochDay = RateLookups.getEpochDay(conversionQuery);
+        if (epochDay == null) {
+            return pair.count > 0
+                    ? createRate(base, term, pair.day(pair.count - 1), pair.factor(pair.count - 1))
+                    : null;
+        }
+        if (epochDay == RateLookups.UNDATED) {
+            return null;
+        }
+        int index = RateLookups.find(pair, epochDay, policy);
+        if (index < 0) {
+            return null;
+        }
+        if (RateLookups.isInterpolated(pair, index, epochDay, policy)) {
+            return createRate(base, term, epochDay, RateLookups.getFactor(pair, index, epochDay, policy));
+        }
+        return createRate(base, term, pair.day(index), pair.factor(index));
+    }
+
+    private ExchangeRate createRate(CurrencyUnit base, CurrencyUnit term, long epochDay, double factor) {
+        ConversionContext rateContext = conversionContext.toBuilder()
+                .set(HistoricExchangeRateProvider.FIXING_DATE, LocalDate.ofEpochDay(epochDay)).build();
+        return new ConvertedExchangeRate(rateContext, base, term, FactorValue.of(factor));
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    @Override
+    public String toString() {
+        return "RateArchiveExchangeRateProvider [context=" + context + ", pairs=" + pairCount + ", policy=" + policy
+                + ']';
+    }
+
+    /**
+     * The records of a pair in the mapped buffer. Only absolute reads are used, so the buffer is shared safely.
+     */
+    private final class Pair implements RateLookups.FixingSeries {
+
+        private final int offset;
+        private final int count;
+
+        Pair(int offset, int count) {
+            this.offset = offset;
+            this.count = count;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public int day(int index) {
+            return buffer.getInt(offset + index * RECORD_SIZE);
+        }
+
+        @Override
+        public double factor(int index) {
+            return buffer.getDouble(offset + index * RECORD_SIZE + 4);
+        }
+    }
+
+}
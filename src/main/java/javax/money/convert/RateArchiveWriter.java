@@ -0,0 +1,328 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Writer of rate archives, as read by {@link RateArchiveExchangeRateProvider}. Fixings are collected from CSV files,
+ * existing archives or added programmatically, and written sorted by currency pair and date, with duplicate dates
+ * of a pair compacted to the fixing added last. So an archive can be updated by reading it together with the new
+ * fixings and writing it again:
+ * <pre><code>
+ * RateArchiveWriter.of()
+ *     .readArchive(archive)
+ *     .readCsv(Paths.get("fixings-2015-01.csv"))
+ *     .write(archive);
+ * </code></pre>
+ * CSV lines have the format {@code date,base,term,factor}, e.g. {@code 2015-01-14,EUR,CHF,1.2010}, with the date
+ * in ISO format. Blank lines, lines starting with {@code #} and a header line starting with {@code date} are
+ * skipped.
+ * <p>
+ * This class is the tool to prepare archives, there is no separate command line entry point. Archives can be
+ * written from build scripts, or interactively, e.g. using {@code jshell} with the API on the class path.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Anatole Tresch
+ */
+public final class RateArchiveWriter {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The records by base and term currency code, sorted for a deterministic archive layout.
+     */
+    private final Map<String, Map<String, Records>> records = new TreeMap<>();
+
+    private RateArchiveWriter() {
+    }
+
+    /**
+     * Creates a new writer without any fixings.
+     *
+     * @return the new writer, never {@code null}.
+     */
+    public static RateArchiveWriter of() {
+        return new RateArchiveWriter();
+    }
+
+    /**
+     * Adds the fixing of a currency pair at a date. A fixing of the same pair and date added before is replaced.
+     *
+     * @param base   the base currency, not {@code null}.
+     * @param term   the term currency, not {@code null}.
+     * @param date   the fixing date, not {@code null}.
+     * @param factor the factor, a positive finite number.
+     * @return this writer, for chaining.
+     * @throws IllegalArgumentException if a currency code is longer than 8 ASCII characters, or the factor is
+     *                                  invalid.
+     */
+    public RateArchiveWriter addFixing(CurrencyUnit base, CurrencyUnit term, LocalDate date, double factor) {
+        return addFixing(base.getCurrencyCode(), term.getCurrencyCode(), date, factor);
+    }
+
+    /**
+     * Adds the fixing of a currency pair at a date. A fixing of the same pair and date added before is replaced.
+     *
+     * @param baseCode the base currency code, not {@code null}.
+     * @param termCode the term currency code, not {@code null}.
+     * @param date     the fixing date, not {@code null}.
+     * @param factor   the factor, a positive finite number.
+     * @return this writer, for chaining.
+     * @throws IllegalArgumentException if a currency code is longer than 8 ASCII characters, or the factor is
+     *                                  invalid.
+     */
+    public RateArchiveWriter addFixing(String baseCode, String termCode, LocalDate date, double factor) {
+        Objects.requireNonNull(date, "Date required.");
+        checkCode(baseCode);
+        checkCode(termCode);
+        if (!(factor > 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Invalid factor: " + factor);
+        }
+        records.computeIfAbsent(baseCode, k -> new TreeMap<>()).computeIfAbsent(termCode, k -> new Records())
+                .add(Math.toIntExact(date.toEpochDay()), factor);
+        return this;
+    }
+
+    private static void checkCode(String code) {
+        Objects.requireNonNull(code, "Currency code required.");
+        if (code.isEmpty() || code.length() > RateArchiveExchangeRateProvider.CODE_LENGTH
+                || !StandardCharsets.US_ASCII.newEncoder().canEncode(code) || code.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("Unsupported currency code: " + code);
+        }
+    }
+
+    /**
+     * Reads the fixings of a CSV file.
+     *
+     * @param file the CSV file, encoded in UTF-8, not {@code null}.
+     * @return this writer, for chaining.
+     * @throws IOException if the file can not be read, or contains an invalid line.
+     */
+    public RateArchiveWriter readCsv(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return readCsv(reader);
+        }
+    }
+
+    /**
+     * Reads CSV fixings. The reader is not closed.
+     *
+     * @param reader the reader, not {@code null}.
+     * @return this writer, for chaining.
+     * @throws IOException if the reader fails, or an invalid line is read.
+     */
+    public RateArchiveWriter readCsv(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader
+                : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields[0].trim().equalsIgnoreCase("date")) {
+                continue;
+            }
+            if (fields.length != 4) {
+                throw new IOException("Invalid line " + lineNumber + ", expected date,base,term,factor: " + line);
+            }
+            try {
+                addFixing(fields[1].trim(), fields[2].trim(), LocalDate.parse(fields[0].trim()),
+                        Double.parseDouble(fields[3].trim()));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IOException("Invalid line " + lineNumber + ": " + line, e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Reads all fixings of a rate archive, e.g. for adding fixings to an existing archive.
+     *
+     * @param file the archive file, not {@code null}.
+     * @return this writer, for chaining.
+     * @throws IOException if the file can not be read, or is not a valid rate archive.
+     */
+    public RateArchiveWriter readArchive(Path file) throws IOException {
+        RateArchiveExchangeRateProvider archive = RateArchiveExchangeRateProvider.open(file,
+                ProviderContext.of("archive"));
+        ByteBuffer buffer = archive.getBuffer();
+        for (int i = 0; i < archive.getPairCount(); i++) {
+            int entry = RateArchiveExchangeRateProvider.HEADER_SIZE
+                    + i * RateArchiveExchangeRateProvider.INDEX_ENTRY_SIZE;
+            String base = RateArchiveExchangeRateProvider.readCode(buffer, entry);
+            String term = RateArchiveExchangeRateProvider.readCode(buffer,
+                    entry + RateArchiveExchangeRateProvider.CODE_LENGTH);
+            int offset = (int) buffer.getLong(entry + 2 * RateArchiveExchangeRateProvider.CODE_LENGTH);
+            int count = buffer.getInt(entry + 2 * RateArchiveExchangeRateProvider.CODE_LENGTH + 8);
+            Records pairRecords = records.computeIfAbsent(base, k -> new TreeMap<>())
+                    .computeIfAbsent(term, k -> new Records());
+            for (int r = 0; r < count; r++) {
+                int position = offset + r * RateArchiveExchangeRateProvider.RECORD_SIZE;
+                pairRecords.add(buffer.getInt(position), buffer.getDouble(position + 4));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Get the number of currency pairs added.
+     *
+     * @return the number of pairs.
+     */
+    public int getPairCount() {
+        int count = 0;
+        for (Map<String, Records> byTerm : records.values()) {
+            count += byTerm.size();
+        }
+        return count;
+    }
+
+    /**
+     * Writes the archive. The archive is written to a temporary file first and then moved to the target, so
+     * providers still mapping a previous version of the archive are not affected.
+     *
+     * @param file the archive file, not {@code null}.
+     * @return the number of fixings written, after compaction of duplicate dates.
+     * @throws IOException if the archive can not be written.
+     */
+    public long write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        int pairCount = getPairCount();
+        long offset = RateArchiveExchangeRateProvider.HEADER_SIZE
+                + (long) pairCount * RateArchiveExchangeRateProvider.INDEX_ENTRY_SIZE;
+        for (Map<String, Records> byTerm : records.values()) {
+            for (Records pairRecords : byTerm.values()) {
+                pairRecords.compact();
+                offset += (long) pairRecords.size * RateArchiveExchangeRateProvider.RECORD_SIZE;
+            }
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Rate archive exceeds 2 GB: " + offset + " bytes.");
+        }
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        long fixings = 0;
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(RateArchiveExchangeRateProvider.MAGIC);
+                out.writeInt(RateArchiveExchangeRateProvider.FORMAT_VERSION);
+                out.writeInt(pairCount);
+                out.writeInt(0);
+                offset = RateArchiveExchangeRateProvider.HEADER_SIZE
+                        + (long) pairCount * RateArchiveExchangeRateProvider.INDEX_ENTRY_SIZE;
+                for (Map.Entry<String, Map<String, Records>> byBase : records.entrySet()) {
+                    for (Map.Entry<String, Records> byTerm : byBase.getValue().entrySet()) {
+                        writeCode(out, byBase.getKey());
+                        writeCode(out, byTerm.getKey());
+                        out.writeLong(offset);
+                        out.writeInt(byTerm.getValue().size);
+                        out.writeInt(0);
+                        offset += (long) byTerm.getValue().size * RateArchiveExchangeRateProvider.RECORD_SIZE;
+                    }
+                }
+                for (Map<String, Records> byTerm : records.values()) {
+                    for (Records pairRecords : byTerm.values()) {
+                        for (int i = 0; i < pairRecords.size; i++) {
+                            out.writeInt(pairRecords.days[i]);
+                            out.writeDouble(pairRecords.factors[i]);
+                        }
+                        fixings += pairRecords.size;
+                    }
+                }
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return fixings;
+    }
+
+    private static void writeCode(DataOutputStream out, String code) throws IOException {
+        byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes);
+        out.write(new byte[RateArchiveExchangeRateProvider.CODE_LENGTH - bytes.length]);
+    }
+
+    /**
+     * The records of a pair, in the order added until compacted.
+     */
+    private static final class Records {
+
+        private int[] days = new int[INITIAL_CAPACITY];
+        private double[] factors = new double[INITIAL_CAPACITY];
+        private int size;
+        private boolean compacted = true;
+
+        void add(int day, double factor) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size + (size >> 1));
+                factors = Arrays.copyOf(factors, days.length);
+            }
+            if (size > 0 && days[size - 1] >= day) {
+                compacted = false;
+            }
+            days[size] = day;
+            factors[size] = factor;
+            size++;
+        }
+
+        /**
+         * Sorts the records by date, keeping only the record added last of each date.
+         */
+        void compact() {
+            if (compacted) {
+                return;
+            }
+            // the date in the upper, the insertion order in the lower half, so equal dates keep their order
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) days[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            int[] sortedDays = new int[size];
+            double[] sortedFactors = new double[size];
+            int count = 0;
+            for (long key : keys) {
+                int day = (int) (key >> 32);
+                if (count > 0 && sortedDays[count - 1] == day) {
+                    count--;
+                }
+                sortedDays[count] = day;
+                sortedFactors[count] = factors[(int) key];
+                count++;
+            }
+            days = sortedDays;
+            factors = sortedFactors;
+            size = count;
+            compacted = true;
+        }
+    }
+
+}
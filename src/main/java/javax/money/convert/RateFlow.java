@@ -0,0 +1,100 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+/**
+ * Interfaces of push based streams of rates, as returned by
+ * {@link ExchangeRateProvider#getRatePublisher(ConversionQuery)}. The interfaces mirror
+ * {@code java.util.concurrent.Flow} of Java 9 (and the Reactive Streams specification) one to one, with the same
+ * methods and semantics, so they can be adapted to {@code Flow} or any Reactive Streams library by simple
+ * delegation, while this API still supports Java 8.
+ * <p>
+ * A {@link Subscriber} receives {@link Subscriber#onSubscribe(Subscription)} first, and then up to the number of
+ * items requested by {@link Subscription#request(long)} by {@link Subscriber#onNext(Object)}, followed by at most one
+ * of {@link Subscriber#onError(Throwable)} or {@link Subscriber#onComplete()}. All signals to a subscriber are
+ * serialized.
+ *
+ * @author Anatole Tresch
+ */
+public final class RateFlow {
+
+    private RateFlow() {
+    }
+
+    /**
+     * A producer of items received by subscribers, see {@code java.util.concurrent.Flow.Publisher}.
+     *
+     * @param <T> the item type.
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        /**
+         * Adds a subscriber, which first receives {@link Subscriber#onSubscribe(Subscription)}.
+         *
+         * @param subscriber the subscriber, not {@code null}.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items, see {@code java.util.concurrent.Flow.Subscriber}.
+     *
+     * @param <T> the item type.
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other signal of a new subscription.
+         *
+         * @param subscription the subscription, for requesting items and cancelling.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item requested.
+         *
+         * @param item the item.
+         */
+        void onNext(T item);
+
+        /**
+         * Called on an unrecoverable error, no other signals follow.
+         *
+         * @param throwable the error.
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when no further items will be published, no other signals follow.
+         */
+        void onComplete();
+    }
+
+    /**
+     * The link between a publisher and a subscriber, see {@code java.util.concurrent.Flow.Subscription}.
+     */
+    public interface Subscription {
+
+        /**
+         * Requests up to the given number of additional items. {@link Long#MAX_VALUE} requests an unbounded
+         * number of items.
+         *
+         * @param n the number of items, a positive number, otherwise the subscriber receives
+         *          {@link Subscriber#onError(Throwable)} with an {@link IllegalArgumentException}.
+         */
+        void request(long n);
+
+        /**
+         * Stops the delivery of items, possibly not immediately.
+         */
+        void cancel();
+    }
+
+}
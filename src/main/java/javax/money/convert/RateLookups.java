@@ -0,0 +1,140 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Set;
+
+/**
+ * Helper shared by the providers of this package serving rates of a single rate type from in memory structures:
+ * matching the rate types of a query, evaluating the date targeted by a query and resolving it in a sorted series
+ * of daily fixings according to a {@link HistoricExchangeRateProvider.LookupPolicy}.
+ *
+ * @author Anatole Tresch
+ */
+final class RateLookups {
+
+    /**
+     * The epoch day evaluated for timestamps without date, which match no fixing.
+     */
+    static final long UNDATED = Long.MIN_VALUE;
+
+    /**
+     * Private singletons constructor.
+     */
+    private RateLookups() {
+    }
+
+    /**
+     * Checks if a provider serving rates of the given rate type serves the rate types of a query.
+     *
+     * @param rateType        the rate type of the provider, {@link RateType#ANY} for rates of any type.
+     * @param conversionQuery the query.
+     * @return true, if the query has no rate types, or accepts the given rate type.
+     */
+    static boolean isRateTypeSupported(RateType rateType, ConversionQuery conversionQuery) {
+        Set<RateType> rateTypes = conversionQuery.getRateTypes();
+        return rateTypes.isEmpty() || rateTypes.contains(rateType) || rateTypes.contains(RateType.ANY)
+                || rateType == RateType.ANY;
+    }
+
+    /**
+     * Evaluates the epoch day targeted by a query. Timestamps with a date are evaluated at their local date, other
+     * instants in UTC.
+     *
+     * @return the epoch day, {@link #UNDATED}, if the timestamp of the query has no date, or null, if the query has
+     * no timestamp.
+     */
+    static Long getEpochDay(ConversionQuery conversionQuery) {
+        TemporalAccessor timestamp = conversionQuery.getTimestamp();
+        if (timestamp == null) {
+            return null;
+        }
+        if (timestamp.isSupported(ChronoField.EPOCH_DAY)) {
+            return timestamp.getLong(ChronoField.EPOCH_DAY);
+        }
+        Long millis = conversionQuery.getTimestampMillis();
+        return millis == null ? UNDATED : Math.floorDiv(millis, 86_400_000L);
+    }
+
+    /**
+     * Finds the fixing to be used for a date.
+     *
+     * @return the index of the fixing at or before the date, or -1, if not available.
+     */
+    static int find(FixingSeries series, long epochDay, HistoricExchangeRateProvider.LookupPolicy policy) {
+        int low = 0;
+        int high = series.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int day = series.day(mid);
+            if (day < epochDay) {
+                low = mid + 1;
+            } else if (day > epochDay) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        if (high < 0 || policy == HistoricExchangeRateProvider.LookupPolicy.EXACT) {
+            return -1;
+        }
+        return high;
+    }
+
+    /**
+     * Evaluates the factor at a date from the fixing found for it.
+     *
+     * @param index the index of the fixing found by {@link #find(FixingSeries, long,
+     *              HistoricExchangeRateProvider.LookupPolicy)}.
+     * @return the factor of the fixing, or the factor interpolated linearly between the fixing and the next fixing.
+     */
+    static double getFactor(FixingSeries series, int index, long epochDay,
+                            HistoricExchangeRateProvider.LookupPolicy policy) {
+        if (!isInterpolated(series, index, epochDay, policy)) {
+            return series.factor(index);
+        }
+        int day = series.day(index);
+        double factor = series.factor(index);
+        double weight = (double) (epochDay - day) / (series.day(index + 1) - day);
+        return factor + (series.factor(index + 1) - factor) * weight;
+    }
+
+    /**
+     * Checks if the factor at a date is interpolated from the fixing found for it.
+     */
+    static boolean isInterpolated(FixingSeries series, int index, long epochDay,
+                                  HistoricExchangeRateProvider.LookupPolicy policy) {
+        return policy == HistoricExchangeRateProvider.LookupPolicy.INTERPOLATE && series.day(index) != epochDay
+                && index + 1 < series.size();
+    }
+
+    /**
+     * A series of daily fixings of a pair, sorted by date without duplicates.
+     */
+    interface FixingSeries {
+
+        /**
+         * @return the number of fixings.
+         */
+        int size();
+
+        /**
+         * @return the date of the fixing at the index, as epoch day.
+         */
+        int day(int index);
+
+        /**
+         * @return the factor of the fixing at the index.
+         */
+        double factor(int index);
+    }
+
+}
@@ -0,0 +1,460 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ExchangeRateProvider} deriving cross rates from a list of providers, via configurable pivot currencies,
+ * e.g. if the providers only quote against USD. For each currency pair the shortest chain of rates is used: the
+ * direct rate, if available, or else the rates via one pivot currency, or else, if enabled, via two pivot
+ * currencies. Among chains of the same length the order of the pivot currencies decides, each rate of a chain is
+ * taken from the first provider that provides it. If no provider quotes a rate of a chain directly, the inverse
+ * quote is used, e.g. CHF/USD for USD/CHF, with the reciprocal factor rounded to {@link MathContext#DECIMAL64}.
+ * <p>
+ * The chain resolved is cached per currency pair and rate types, only the rates of the chain are evaluated again on
+ * subsequent requests. If one of these rates is no longer available, the chain is resolved again. Derived rates
+ * carry the full chain of the rates they were derived from, their factor is the product of the chain's factors,
+ * rounded to {@link MathContext#DECIMAL64}. Direct rates are returned as provided.
+ * <p>
+ * Instances are created using {@link #builder(ProviderContext)}, e.g.
+ * <pre><code>
+ * ExchangeRateProvider provider = TriangulatingExchangeRateProvider.builder(ProviderContext.of("CROSS"))
+ *     .addProviders(usdFeed)
+ *     .addPivots(usd, eur)
+ *     .build();
+ * </code></pre>
+ * This class is thread-safe, if the providers used are.
+ *
+ * @author Anatole Tresch
+ */
+public final class TriangulatingExchangeRateProvider implements ExchangeRateProvider {
+
+    /**
+     * The maximal number of currency pairs, for which the chain is cached.
+     */
+    private static final int MAX_CACHED_ROUTES = 4096;
+
+    private final ProviderContext context;
+    private final List<ExchangeRateProvider> providers;
+    private final List<CurrencyUnit> pivots;
+    private final boolean twoPivots;
+    private final Map<RouteKey, Route> routes = new ConcurrentHashMap<>();
+
+    private TriangulatingExchangeRateProvider(Builder builder) {
+        this.context = builder.context;
+        this.providers = Collections.unmodifiableList(new ArrayList<>(builder.providers));
+        this.pivots = Collections.unmodifiableList(new ArrayList<>(builder.pivots));
+        this.twoPivots = builder.twoPivots;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param context the context of the provider to be built, not {@code null}.
+     * @return the new builder, never {@code null}.
+     */
+    public static Builder builder(ProviderContext context) {
+        return new Builder(context);
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the providers the rates are taken from.
+     *
+     * @return the providers, in order of precedence, never {@code null}.
+     */
+    public List<ExchangeRateProvider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Get the pivot currencies.
+     *
+     * @return the pivot currencies, in order of precedence, never {@code null}.
+     */
+    public List<CurrencyUnit> getPivots() {
+        return pivots;
+    }
+
+    @Override
+    public boolean isAvailable(ConversionQuery conversionQuery) {
+        try {
+            return getExchangeRate(conversionQuery) != null;
+        } catch (CurrencyConversionException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        CurrencyUnit base = conversionQuery.getBaseCurrency();
+        CurrencyUnit term = conversionQuery.getCurrency();
+        if (base == null || term == null) {
+            throw new CurrencyConversionException(base, term, getConversionContext(conversionQuery),
+                    "Base and term currency are required.");
+        }
+        if (base.getCurrencyCode().equals(term.getCurrencyCode())) {
+            return new ConvertedExchangeRate(getConversionContext(conversionQuery), base, term,
+                    FactorValue.of(BigDecimal.ONE));
+        }
+        RouteKey key = new RouteKey(base.getCurrencyCode(), term.getCurrencyCode(), conversionQuery.getRateTypes());
+        Route route = routes.get(key);
+        if (route != null) {
+            List<ExchangeRate> rates = route.evaluate(conversionQuery);
+            if (rates != null) {
+                return toRate(conversionQuery, rates);
+            }
+            routes.remove(key, route);
+        }
+        Map<Leg, ExchangeRate> resolved = new HashMap<>();
+        for (List<CurrencyUnit> path : getPaths(base, term)) {
+            List<Leg> legs = new ArrayList<>(path.size() - 1);
+            List<ExchangeRate> rates = new ArrayList<>(path.size() - 1);
+            for (int i = 1; i < path.size(); i++) {
+                Leg leg = resolveLeg(path.get(i - 1), path.get(i), conversionQuery, resolved);
+                if (leg == null) {
+                    break;
+                }
+                legs.add(leg);
+                rates.add(resolved.get(leg));
+            }
+            if (legs.size() == path.size() - 1) {
+                if (routes.size() >= MAX_CACHED_ROUTES) {
+                    Iterator<RouteKey> keys = routes.keySet().iterator();
+                    if (keys.hasNext()) {
+                        keys.next();
+                        keys.remove();
+                    }
+                }
+                routes.put(key, new Route(legs));
+                return toRate(conversionQuery, rates);
+            }
+        }
+        throw new CurrencyConversionException(base, term, getConversionContext(conversionQuery));
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+        return new ProviderConversion(this, conversionQuery);
+    }
+
+    /**
+     * Drops the cached chains, e.g. after the pairs quoted by the providers have changed.
+     */
+    public void clear() {
+        routes.clear();
+    }
+
+    /**
+     * Evaluates the candidate paths from base to term currency, shortest first.
+     */
+    private List<List<CurrencyUnit>> getPaths(CurrencyUnit base, CurrencyUnit term) {
+        List<List<CurrencyUnit>> paths = new ArrayList<>();
+        paths.add(Arrays.asList(base, term));
+        for (CurrencyUnit pivot : pivots) {
+            if (isDistinct(pivot, base, term)) {
+                paths.add(Arrays.asList(base, pivot, term));
+            }
+        }
+        if (twoPivots) {
+            for (CurrencyUnit first : pivots) {
+                for (CurrencyUnit second : pivots) {
+                    if (first != second && isDistinct(first, base, term) && isDistinct(second, base, term)) {
+                        paths.add(Arrays.asList(base, first, second, term));
+                    }
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static boolean isDistinct(CurrencyUnit pivot, CurrencyUnit base, CurrencyUnit term) {
+        return !pivot.getCurrencyCode().equals(base.getCurrencyCode())
+                && !pivot.getCurrencyCode().equals(term.getCurrencyCode());
+    }
+
+    /**
+     * Resolves the first provider providing the rate of a single step of a path, preferring direct quotes over
+     * inverse ones.
+     *
+     * @param from     the base currency of the step.
+     * @param to       the term currency of the step.
+     * @param query    the original query.
+     * @param resolved the rates resolved so far, by leg, with failed steps mapped to a {@code null} rate.
+     * @return the leg, or {@code null}, if no provider provides the rate.
+     */
+    private Leg resolveLeg(CurrencyUnit from, CurrencyUnit to, ConversionQuery query,
+                           Map<Leg, ExchangeRate> resolved) {
+        Leg failed = new Leg(from, to, -1, false);
+        if (resolved.containsKey(failed)) {
+            return null;
+        }
+        for (int i = 0; i < providers.size() * 2; i++) {
+            Leg leg = new Leg(from, to, i % providers.size(), i >= providers.size());
+            if (resolved.containsKey(leg)) {
+                return leg;
+            }
+            ExchangeRate rate = leg.evaluate(query);
+            if (rate != null) {
+                resolved.put(leg, rate);
+                return leg;
+            }
+        }
+        resolved.put(failed, null);
+        return null;
+    }
+
+    /**
+     * Creates the rate to be returned from the rates of a chain.
+     */
+    private ExchangeRate toRate(ConversionQuery query, List<ExchangeRate> rates) {
+        if (rates.size() == 1) {
+            return rates.get(0);
+        }
+        BigDecimal factor = BigDecimal.ONE;
+        RateType rateType = null;
+        for (ExchangeRate rate : rates) {
+            factor = factor.multiply(rate.getFactor().numberValue(BigDecimal.class), MathContext.DECIMAL64);
+            RateType legType = rate.getContext().getRateType();
+            rateType = rateType == null || rateType == legType ? legType : RateType.ANY;
+        }
+        return new ConvertedExchangeRate(ConversionContext.from(context, rateType),
+                query.getBaseCurrency(), query.getCurrency(), FactorValue.of(factor), rates);
+    }
+
+    private ConversionContext getConversionContext(ConversionQuery query) {
+        Set<RateType> rateTypes = query.getRateTypes();
+        return ConversionContext.from(context, rateTypes.size() == 1 ? rateTypes.iterator().next() : RateType.ANY);
+    }
+
+    @Override
+    public String toString() {
+        return "TriangulatingExchangeRateProvider [context=" + context + ", providers=" + providers + ", pivots="
+                + pivots + ']';
+    }
+
+    /**
+     * Key of a cached chain.
+     */
+    private static final class RouteKey {
+        private final String base;
+        private final String term;
+        private final Set<RateType> rateTypes;
+
+        RouteKey(String base, String term, Set<RateType> rateTypes) {
+            this.base = base;
+            this.term = term;
+            this.rateTypes = rateTypes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof RouteKey) {
+                RouteKey other = (RouteKey) o;
+                return base.equals(other.base) && term.equals(other.term) && rateTypes.equals(other.rateTypes);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(base, term, rateTypes);
+        }
+    }
+
+    /**
+     * A resolved chain of legs.
+     */
+    private static final class Route {
+        private final List<Leg> legs;
+
+        Route(List<Leg> legs) {
+            this.legs = legs;
+        }
+
+        /**
+         * Evaluates the current rates of all legs.
+         *
+         * @return the rates, or {@code null}, if one of them is no longer available.
+         */
+        List<ExchangeRate> evaluate(ConversionQuery query) {
+            List<ExchangeRate> rates = new ArrayList<>(legs.size());
+            for (Leg leg : legs) {
+                ExchangeRate rate = leg.evaluate(query);
+                if (rate == null) {
+                    return null;
+                }
+                rates.add(rate);
+            }
+            return rates;
+        }
+    }
+
+    /**
+     * A single step of a chain, taken from the provider with the given index, either quoted directly or inverted
+     * from the quote of the reverse pair.
+     */
+    private final class Leg {
+        private final CurrencyUnit from;
+        private final CurrencyUnit to;
+        private final int provider;
+        private final boolean inverse;
+
+        Leg(CurrencyUnit from, CurrencyUnit to, int provider, boolean inverse) {
+            this.from = from;
+            this.to = to;
+            this.provider = provider;
+            this.inverse = inverse;
+        }
+
+        /**
+         * Evaluates the rate of this leg.
+         *
+         * @param query the original query, providing all attributes but the currencies and providers.
+         * @return the rate, or {@code null}, if the provider does not provide it.
+         */
+        ExchangeRate evaluate(ConversionQuery query) {
+            ExchangeRateProvider rateProvider = providers.get(provider);
+            ConversionQuery legQuery = query.toBuilder().setBaseCurrency(inverse ? to : from)
+                    .setTermCurrency(inverse ? from : to).setProviderName(rateProvider.getContext().getProviderName())
+                    .build();
+            ExchangeRate rate;
+            try {
+                rate = rateProvider.findExchangeRate(legQuery).orElse(null);
+            } catch (RuntimeException e) {
+                // provider failure, the leg is not available from this provider
+                return null;
+            }
+            return inverse && rate != null ? invert(rate) : rate;
+        }
+
+        /**
+         * Creates the rate of this leg from the quote of the reverse pair.
+         *
+         * @return the inverted rate, or {@code null}, if the factor is zero.
+         */
+        private ExchangeRate invert(ExchangeRate rate) {
+            BigDecimal factor = rate.getFactor().numberValue(BigDecimal.class);
+            if (factor.signum() == 0) {
+                return null;
+            }
+            return new ConvertedExchangeRate(rate.getContext(), from, to,
+                    FactorValue.of(BigDecimal.ONE.divide(factor, MathContext.DECIMAL64)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof Leg) {
+                Leg other = (Leg) o;
+                return provider == other.provider && inverse == other.inverse
+                        && from.getCurrencyCode().equals(other.from.getCurrencyCode())
+                        && to.getCurrencyCode().equals(other.to.getCurrencyCode());
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(from.getCurrencyCode(), to.getCurrencyCode(), provider, inverse);
+        }
+    }
+
+    /**
+     * Builder of a {@link TriangulatingExchangeRateProvider}.
+     * <p>
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+
+        private final ProviderContext context;
+        private final List<ExchangeRateProvider> providers = new ArrayList<>();
+        private final List<CurrencyUnit> pivots = new ArrayList<>();
+        private boolean twoPivots;
+
+        private Builder(ProviderContext context) {
+            this.context = Objects.requireNonNull(context, "Provider context required.");
+        }
+
+        /**
+         * Adds providers the rates are taken from, in order of precedence.
+         *
+         * @param providers the providers, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addProviders(ExchangeRateProvider... providers) {
+            for (ExchangeRateProvider provider : providers) {
+                this.providers.add(Objects.requireNonNull(provider, "Provider must not be null."));
+            }
+            return this;
+        }
+
+        /**
+         * Adds pivot currencies, in order of precedence.
+         *
+         * @param pivots the pivot currencies, not {@code null}.
+         * @return this builder, for chaining.
+         */
+        public Builder addPivots(CurrencyUnit... pivots) {
+            for (CurrencyUnit pivot : pivots) {
+                this.pivots.add(Objects.requireNonNull(pivot, "Pivot currency must not be null."));
+            }
+            return this;
+        }
+
+        /**
+         * Enables chains via two pivot currencies, e.g. CHF/USD, USD/EUR, EUR/JPY. By default chains contain at
+         * most one pivot currency.
+         *
+         * @param twoPivots true, to enable chains via two pivot currencies.
+         * @return this builder, for chaining.
+         */
+        public Builder setTwoPivotsEnabled(boolean twoPivots) {
+            this.twoPivots = twoPivots;
+            return this;
+        }
+
+        /**
+         * Creates the provider.
+         *
+         * @return the new provider, never {@code null}.
+         * @throws IllegalStateException if no provider was added.
+         */
+        public TriangulatingExchangeRateProvider build() {
+            if (providers.isEmpty()) {
+                throw new IllegalStateException("At least one provider is required.");
+            }
+            return new TriangulatingExchangeRateProvider(this);
+        }
+    }
+
+}
@@ -112,6 +112,34 @@ public final class MonetaryFormats {
                 .getAmountFormat(formatQuery);
     }
 
+    /**
+     * Access the {@link MonetaryAmountFormat} matching the given query, without raising an exception, if no such
+     * format is available.
+     *
+     * @param formatQuery The format query defining the requirements of the formatter.
+     * @return the corresponding {@link MonetaryAmountFormat}, or an empty {@link Optional}.
+     * @throws MonetaryException if no format SPI is loaded.
+     */
+    public static Optional<MonetaryAmountFormat> findAmountFormat(AmountFormatQuery formatQuery) {
+        return Optional.ofNullable(getMonetaryFormatsSpi()).orElseThrow(() -> new MonetaryException(
+                "No MonetaryFormatsSingletonSpi " + "loaded, query functionality is not available."))
+                .findAmountFormat(formatQuery);
+    }
+
+    /**
+     * Access the {@link MonetaryAmountFormat} for the given {@link Locale}, without raising an exception, if no such
+     * format is available.
+     *
+     * @param locale    the target {@link Locale}, not {@code null}.
+     * @param providers The providers to be queried, if not set the providers as defined by #getDefaultCurrencyProviderChain()
+     *                  are queried.
+     * @return the corresponding {@link MonetaryAmountFormat}, or an empty {@link Optional}.
+     * @throws MonetaryException if no format SPI is loaded.
+     */
+    public static Optional<MonetaryAmountFormat> findAmountFormat(Locale locale, String... providers) {
+        return findAmountFormat(AmountFormatQueryBuilder.of(locale).setProviderNames(providers).setLocale(locale).build());
+    }
+
     /**
      * Access all {@link MonetaryAmountFormat} instances that match the given a {@link AmountFormatQuery}.
      *
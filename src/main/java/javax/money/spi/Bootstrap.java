@@ -9,6 +9,8 @@
 package javax.money.spi;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -27,6 +29,10 @@ public final class Bootstrap {
      * The shared lock instance user.
      */
     private static final Object LOCK = new Object();
+    /**
+     * The listeners notified, when the {@link ServiceProvider} is replaced.
+     */
+    private static final List<Runnable> SERVICE_PROVIDER_LISTENERS = new CopyOnWriteArrayList<>();
 
     /**
      * Private singletons constructor.
@@ -35,20 +41,54 @@ public final class Bootstrap {
     }
 
     /**
-     * Load the {@link ServiceProvider} to be used.
+     * Load the {@link ServiceProvider} to be used. If multiple providers are registered, the one with the highest
+     * {@link ServiceProvider#getPriority()} is taken. If the {@link ServiceRegistry} generated at build time is
+     * present, the service types it lists are served from the registry alone, see {@link RegistryServiceProvider}.
      *
      * @return {@link ServiceProvider} to be used for loading the services.
      */
     private static ServiceProvider loadDefaultServiceProvider() {
+        ServiceRegistry registry = loadServiceRegistry(ServiceRegistry.GENERATED_REGISTRY_CLASS);
+        ServiceProvider defaultProvider = Objects.isNull(registry) ? new DefaultServiceProvider() :
+                new RegistryServiceProvider(registry);
+        ServiceProvider serviceProvider = null;
         try {
-            //noinspection LoopStatementThatDoesntLoop
-            for (ServiceProvider sp : ServiceLoader.load(ServiceProvider.class)) {
-                return sp;
+            for (ServiceProvider sp : defaultProvider.getServices(ServiceProvider.class)) {
+                if (Objects.isNull(serviceProvider) || sp.getPriority() > serviceProvider.getPriority()) {
+                    serviceProvider = sp;
+                }
             }
         } catch (Exception e) {
             Logger.getLogger(Bootstrap.class.getName()).info("No ServiceProvider loaded, using default.");
         }
-        return new DefaultServiceProvider();
+        return Objects.isNull(serviceProvider) ? defaultProvider : serviceProvider;
+    }
+
+    /**
+     * Load the {@link ServiceRegistry} generated at build time by its fixed class name, without scanning the
+     * classpath.
+     *
+     * @param registryClass the name of the registry class, see {@link ServiceRegistry#GENERATED_REGISTRY_CLASS}.
+     * @return the registry, or {@code null}, if no such class is present or it cannot be instantiated.
+     */
+    static ServiceRegistry loadServiceRegistry(String registryClass) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (Objects.isNull(classLoader)) {
+            classLoader = Bootstrap.class.getClassLoader();
+        }
+        try {
+            ServiceRegistry registry = ServiceRegistry.class.cast(
+                    Class.forName(registryClass, true, classLoader).getDeclaredConstructor().newInstance());
+            Logger.getLogger(Bootstrap.class.getName())
+                    .info("Money Bootstrap: using generated ServiceRegistry: " + registryClass);
+            return registry;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            Logger.getLogger(Bootstrap.class.getName())
+                    .log(Level.WARNING, "Money Bootstrap: failed to load generated ServiceRegistry.", e);
+            return null;
+        }
     }
 
     /**
@@ -59,18 +99,44 @@ public final class Bootstrap {
      */
     public static ServiceProvider init(ServiceProvider serviceProvider) {
         Objects.requireNonNull(serviceProvider);
+        ServiceProvider prevProvider;
         synchronized (LOCK) {
-            if (Objects.isNull(Bootstrap.serviceProviderDelegate)) {
-                Bootstrap.serviceProviderDelegate = serviceProvider;
+            prevProvider = Bootstrap.serviceProviderDelegate;
+            Bootstrap.serviceProviderDelegate = serviceProvider;
+            if (Objects.isNull(prevProvider)) {
                 Logger.getLogger(Bootstrap.class.getName())
                         .info("Money Bootstrap: new ServiceProvider set: " + serviceProvider.getClass().getName());
-                return null;
             } else {
-                ServiceProvider prevProvider = Bootstrap.serviceProviderDelegate;
-                Bootstrap.serviceProviderDelegate = serviceProvider;
                 Logger.getLogger(Bootstrap.class.getName())
                         .warning("Money Bootstrap: ServiceProvider replaced: " + serviceProvider.getClass().getName());
-                return prevProvider;
+            }
+        }
+        // called outside the lock, since listeners typically re-enter Bootstrap from their own locks.
+        fireServiceProviderChanged();
+        return prevProvider;
+    }
+
+    /**
+     * Registers a listener that is called each time the current {@link ServiceProvider} is replaced by calling
+     * {@link #init(ServiceProvider)}. Singleton accessors, such as {@link javax.money.Monetary}, use this
+     * mechanism to drop any SPI instances they have resolved from the previous {@link ServiceProvider}.
+     *
+     * @param listener the listener, not {@code null}.
+     */
+    public static void addServiceProviderListener(Runnable listener) {
+        SERVICE_PROVIDER_LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Notifies all registered listeners about a replaced {@link ServiceProvider}.
+     */
+    private static void fireServiceProviderChanged() {
+        for (Runnable listener : SERVICE_PROVIDER_LISTENERS) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                Logger.getLogger(Bootstrap.class.getName())
+                        .log(Level.WARNING, "Money Bootstrap: ServiceProvider listener failed: " + listener, e);
             }
         }
     }
@@ -103,18 +169,14 @@ public final class Bootstrap {
     }
 
     /**
-     * Delegate method for {@link ServiceProvider#getServices(Class)}.
+     * Delegate method for {@link ServiceProvider#getService(Class)}.
      *
      * @param serviceType the service type.
      * @return the service found, or {@code null}.
-     * @see ServiceProvider#getServices(Class)
+     * @see ServiceProvider#getService(Class)
      */
     public static <T> T getService(Class<T> serviceType) {
-        List<T> services = getServiceProvider().getServices(serviceType);
-		return services
-				.stream()
-                .findFirst()
-                .orElse(null);
+        return getServiceProvider().getService(serviceType);
     }
 
 }
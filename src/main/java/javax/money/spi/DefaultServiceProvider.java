@@ -15,7 +15,12 @@ import java.util.logging.Logger;
 
 /**
  * This class implements the (default) {@link ServiceProvider} interface and hereby uses the JDK
- * {@link ServiceLoader} to load the services required.
+ * {@link ServiceLoader} to load the services required. Services are ordered by the priority declared on their
+ * implementation class, see {@link ServicePriorities}.
+ * <p>
+ * This is the Java 8 variant, which has to instantiate all services of a type to determine their order. On Java 9
+ * and later the multi-release variant in {@code src/main/java9} is used instead, which inspects the service types
+ * using {@code ServiceLoader.Provider} and instantiates services only as far as they are actually requested.
  *
  * @author Anatole Tresch
  */
@@ -62,7 +67,7 @@ class DefaultServiceProvider implements ServiceProvider {
             for (T t : ServiceLoader.load(serviceType)) {
                 services.add(t);
             }
-            services.sort(Comparator.comparing(o -> o.getClass().getSimpleName()));
+            services.sort((o1, o2) -> ServicePriorities.SERVICE_TYPE_COMPARATOR.compare(o1.getClass(), o2.getClass()));
             @SuppressWarnings("unchecked")
             final List<T> previousServices = (List<T>) servicesLoaded.putIfAbsent(serviceType, (List<Object>) services);
             return Collections.unmodifiableList(previousServices != null ? previousServices : services);
@@ -9,6 +9,7 @@
 package javax.money.spi;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import javax.money.CurrencyUnit;
 import javax.money.MonetaryException;
@@ -72,6 +73,37 @@ public interface MonetaryConversionsSingletonSpi {
      */
     ExchangeRateProvider getExchangeRateProvider(ConversionQuery conversionQuery);
 
+    /**
+     * Access an instance of {@link ExchangeRateProvider} asynchronously, without blocking the calling thread while
+     * the providers are resolved. By default {@link #getExchangeRateProvider(ConversionQuery)} is run on the
+     * executor configured by {@link MonetaryConversions#setAsyncExecutor(java.util.concurrent.Executor)}.
+     *
+     * @param conversionQuery the {@link javax.money.convert.ConversionQuery} determining the type of conversion
+     *                        required, not null.
+     * @return the future {@link ExchangeRateProvider}, completed exceptionally with a {@link MonetaryException}, if
+     * a provider could not be found, never {@code null}.
+     */
+    default CompletableFuture<ExchangeRateProvider> getExchangeRateProviderAsync(ConversionQuery conversionQuery) {
+        Objects.requireNonNull(conversionQuery);
+        return CompletableFuture.supplyAsync(() -> getExchangeRateProvider(conversionQuery),
+                MonetaryConversions.getAsyncExecutor());
+    }
+
+    /**
+     * Access an {@link ExchangeRateProvider} for the given query, without raising an exception, if the query names
+     * providers not available.
+     *
+     * @param conversionQuery the {@link javax.money.convert.ConversionQuery} determining the type of conversion
+     *                        required, not null.
+     * @return the provider, or an empty {@link Optional}, if no such provider is available.
+     */
+    default Optional<ExchangeRateProvider> findExchangeRateProvider(ConversionQuery conversionQuery) {
+        if (!getProviderNames().containsAll(conversionQuery.getProviderNames())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getExchangeRateProvider(conversionQuery));
+    }
+
     /**
      * Allows to quickly check, if a {@link javax.money.convert.ExchangeRateProvider} is accessible for the given
      * {@link javax.money.convert.ConversionQuery}.
@@ -80,11 +112,15 @@ public interface MonetaryConversionsSingletonSpi {
      *                        required, not null.
      * @return {@code true}, if such a conversion is supported, meaning an according
      * {@link ExchangeRateProvider} can be
-     * accessed.
+     * accessed. Provider names not contained in {@link #getProviderNames()} are rejected without resolving any
+     * provider.
      * @see #getExchangeRateProvider(ConversionQuery)
      * @see #getExchangeRateProvider(String...)
      */
     default boolean isExchangeRateProviderAvailable(ConversionQuery conversionQuery) {
+        if (!getProviderNames().containsAll(conversionQuery.getProviderNames())) {
+            return false;
+        }
         try {
             return getExchangeRateProvider(conversionQuery) != null;
         } catch (Exception e) {
@@ -95,6 +131,14 @@ public interface MonetaryConversionsSingletonSpi {
     /**
      * Allows to quickly check, if a {@link javax.money.convert.CurrencyConversion} is accessible for the given
      * {@link javax.money.convert.ConversionQuery}.
+     * <p>
+     * This is a weaker check than {@link ExchangeRateProvider#isAvailable(ConversionQuery)}: it does not check, if
+     * a rate is <i>currently</i> defined, as the base currency of a conversion is only known when converting an
+     * amount. If the provider declares its {@link ConversionCapabilities}, the answer is evaluated from the
+     * capabilities, without creating a conversion, i.e. it tells if the currencies queried are declared as
+     * supported, see {@link ConversionCapabilities#isSupported(ConversionQuery)}. Converting an amount may still
+     * fail with a {@link javax.money.convert.CurrencyConversionException}, e.g. before the first rate of a pair
+     * declared was published.
      *
      * @param conversionQuery the {@link javax.money.convert.ConversionQuery} determining the type of conversion
      *                        required, not null.
@@ -105,7 +149,19 @@ public interface MonetaryConversionsSingletonSpi {
      * @see #getConversion(CurrencyUnit, String...)
      */
     default boolean isConversionAvailable(ConversionQuery conversionQuery) {
+        CurrencyUnit termCurrency = conversionQuery.getCurrency();
+        if (termCurrency == null || !getProviderNames().containsAll(conversionQuery.getProviderNames())) {
+            return false;
+        }
         try {
+            ExchangeRateProvider provider = getExchangeRateProvider(conversionQuery);
+            if (provider == null) {
+                return false;
+            }
+            ConversionCapabilities capabilities = provider.getContext().getCapabilities();
+            if (capabilities != null) {
+                return capabilities.isSupported(conversionQuery);
+            }
             return getConversion(conversionQuery) != null;
         } catch (Exception e) {
             return false;
@@ -102,6 +102,46 @@ public interface MonetaryCurrenciesSingletonSpi {
         return found.iterator().next();
     }
 
+    /**
+     * Access a currency by its code, without raising an exception, if no such currency exists. This variant is meant
+     * for resolving codes of untrusted input, where unknown codes are expected.
+     *
+     * @param currencyCode the ISO currency code, not {@code null}.
+     * @param providers    the (optional) specification of providers to consider. If not set (empty) the providers
+     *                     as defined by #getDefaultCurrencyProviderChain() should be used.
+     * @return the corresponding {@link javax.money.CurrencyUnit}, or an empty {@link Optional}, if no such currency
+     * exists.
+     * @throws javax.money.MonetaryException if the code is ambiguous.
+     */
+    default Optional<CurrencyUnit> findCurrency(String currencyCode, String... providers) {
+        Objects.requireNonNull(currencyCode, "Currency Code may not be null");
+        Collection<CurrencyUnit> found =
+                getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes(currencyCode).setProviderNames(providers).build());
+        if (found.size() > 1) {
+            throw new MonetaryException("Ambiguous CurrencyUnit for code: " + currencyCode + ": " + found);
+        }
+        return found.stream().findFirst();
+    }
+
+    /**
+     * Access a currency by its country, without raising an exception, if no such currency exists.
+     *
+     * @param country   the ISO currency's country, not {@code null}.
+     * @param providers the (optional) specification of providers to consider. If not set (empty) the providers
+     *                  as defined by #getDefaultCurrencyProviderChain() should be used.
+     * @return the corresponding {@link javax.money.CurrencyUnit}, or an empty {@link Optional}, if no such currency
+     * exists.
+     * @throws javax.money.MonetaryException if the country's currency is ambiguous.
+     */
+    default Optional<CurrencyUnit> findCurrency(Locale country, String... providers) {
+        Collection<CurrencyUnit> found =
+                getCurrencies(CurrencyQueryBuilder.of().setCountries(country).setProviderNames(providers).build());
+        if (found.size() > 1) {
+            throw new MonetaryException("Ambiguous CurrencyUnit for locale: " + country + ": " + found);
+        }
+        return found.stream().findFirst();
+    }
+
     /**
      * Provide access to all currently known currencies.
      *
@@ -73,6 +73,17 @@ public interface MonetaryFormatsSingletonSpi {
         return formats.iterator().next();
     }
 
+    /**
+     * Access the first {@link MonetaryAmountFormat} matching the given query, without raising an exception, if no
+     * such format is available.
+     *
+     * @param formatQuery The format query defining the requirements of the formatter.
+     * @return the corresponding {@link MonetaryAmountFormat}, or an empty {@link Optional}.
+     */
+    default Optional<MonetaryAmountFormat> findAmountFormat(AmountFormatQuery formatQuery) {
+        return getAmountFormats(formatQuery).stream().findFirst();
+    }
+
     /**
      * Checks if a {@link javax.money.format.MonetaryAmountFormat} is available given a {@link javax.money.format
      * .AmountFormatQuery}.
@@ -0,0 +1,98 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class implements the {@link ServiceProvider} interface based on the {@link ServiceRegistry} generated at
+ * build time. The service types covered by the registry are served from the registry alone, in the order it declares,
+ * without any {@link java.util.ServiceLoader} lookup. Services of types not covered by the registry are loaded by a
+ * {@link DefaultServiceProvider}.
+ *
+ * @author Anatole Tresch
+ */
+class RegistryServiceProvider implements ServiceProvider {
+    /** The registry used. */
+    private final ServiceRegistry registry;
+    /** The provider used for all types not covered by the registry. */
+    private final ServiceProvider fallbackProvider = new DefaultServiceProvider();
+    /** List of services loaded, per class. */
+    private final ConcurrentHashMap<Class<?>, List<Object>> servicesLoaded = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param registry the registry, not {@code null}.
+     */
+    RegistryServiceProvider(ServiceRegistry registry) {
+        this.registry = Objects.requireNonNull(registry);
+    }
+
+    @Override
+    public int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Loads and registers services.
+     *
+     * @param serviceType
+     *            The service type.
+     * @param <T>
+     *            the concrete type.
+     * @return the items found, never {@code null}.
+     */
+    @Override
+    public <T> List<T> getServices(final Class<T> serviceType) {
+        @SuppressWarnings("unchecked")
+        List<T> found = (List<T>) servicesLoaded.get(serviceType);
+        if (found != null) {
+            return found;
+        }
+        List<Supplier<?>> factories = registry.getServiceFactories(serviceType);
+        if (factories == null) {
+            return fallbackProvider.getServices(serviceType);
+        }
+        return loadServices(serviceType, factories);
+    }
+
+    /**
+     * Instantiates the services of the given factories and registers them.
+     *
+     * @param   serviceType  The service type.
+     * @param   factories    The factories.
+     * @param   <T>          the concrete type.
+     *
+     * @return  the items found, never {@code null}.
+     */
+    private <T> List<T> loadServices(final Class<T> serviceType, List<Supplier<?>> factories) {
+        List<T> services = new ArrayList<>(factories.size());
+        for (Supplier<?> factory : factories) {
+            try {
+                services.add(serviceType.cast(factory.get()));
+            } catch (Exception e) {
+                Logger.getLogger(RegistryServiceProvider.class.getName()).log(Level.WARNING,
+                        "Error loading service of type " + serviceType, e);
+            }
+        }
+        services = Collections.unmodifiableList(services);
+        @SuppressWarnings("unchecked")
+        final List<T> previousServices = (List<T>) servicesLoaded.putIfAbsent(serviceType, (List<Object>) services);
+        return previousServices != null ? previousServices : services;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.spi;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Helper that determines the precedence of service implementations loaded by the {@link DefaultServiceProvider}.
+ * A service implementation may declare its priority by an annotation named {@code Priority} with an {@code int}
+ * {@code value()}, e.g. {@code javax.annotation.Priority}. The annotation is evaluated on the implementation class
+ * only, so services can be ordered without being instantiated. Higher values take precedence, services without
+ * such an annotation have a priority of {@code 0}. Services with equal priority are ordered by their simple class
+ * name.
+ *
+ * @author Anatole Tresch
+ */
+final class ServicePriorities {
+
+    /**
+     * Comparator ordering service implementation classes, the most significant first.
+     */
+    static final Comparator<Class<?>> SERVICE_TYPE_COMPARATOR =
+            Comparator.<Class<?>>comparingInt(ServicePriorities::getPriority).reversed()
+                    .thenComparing(Class::getSimpleName);
+
+    /**
+     * Private singletons constructor.
+     */
+    private ServicePriorities() {
+    }
+
+    /**
+     * Evaluates the priority declared on the given service implementation class.
+     *
+     * @param serviceType the service implementation class, not {@code null}.
+     * @return the declared priority, or {@code 0}.
+     */
+    static int getPriority(Class<?> serviceType) {
+        for (Annotation annotation : serviceType.getAnnotations()) {
+            if ("Priority".equals(annotation.annotationType().getSimpleName())) {
+                try {
+                    Method value = annotation.annotationType().getMethod("value");
+                    Object priority = value.invoke(annotation);
+                    if (priority instanceof Integer) {
+                        return (Integer) priority;
+                    }
+                } catch (Exception e) {
+                    Logger.getLogger(ServicePriorities.class.getName())
+                            .log(Level.FINEST, "Cannot evaluate priority of " + serviceType.getName(), e);
+                }
+            }
+        }
+        return 0;
+    }
+
+}
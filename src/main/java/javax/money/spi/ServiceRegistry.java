@@ -0,0 +1,40 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.spi;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A static registry of service factories, typically generated at build time by the {@code money-api-processor}
+ * annotation processor from the {@code META-INF/services} entries of an application. The processor generates the
+ * class {@link #GENERATED_REGISTRY_CLASS}, which {@link Bootstrap} looks up by this name, without scanning the
+ * classpath. The service types listed by the registry are served from the registry alone, only the types it does not
+ * list are loaded by the JDK {@link java.util.ServiceLoader}. The registry determines the service order up front and
+ * instantiates its services by constructor references.
+ *
+ * @author Anatole Tresch
+ */
+public interface ServiceRegistry {
+
+    /**
+     * The name of the registry class generated by the {@code money-api-processor}.
+     */
+    String GENERATED_REGISTRY_CLASS = "org.javamoney.generated.MonetaryServiceRegistry";
+
+    /**
+     * Access the factories of the services registered for the given type, the most significant first.
+     *
+     * @param serviceType the service type.
+     * @return the factories registered, an empty list, if the type is covered by the registry, but no services are
+     * registered, or {@code null}, if the type is not covered by this registry.
+     */
+    List<Supplier<?>> getServiceFactories(Class<?> serviceType);
+
+}
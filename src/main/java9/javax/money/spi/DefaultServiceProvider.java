@@ -0,0 +1,195 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.spi;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * This class implements the (default) {@link ServiceProvider} interface and hereby uses the JDK
+ * {@link ServiceLoader} to load the services required.
+ * <p>
+ * This is the Java 9+ variant of the multi-release jar. The services available are ordered by the priority declared
+ * on their implementation type, see {@link ServicePriorities}, which is accessible from the
+ * {@link ServiceLoader.Provider} without instantiating the service. {@link #getService(Class)} hereby only
+ * instantiates the most significant service that can be loaded, whereas {@link #getServices(Class)} instantiates all
+ * services of the given type. If a subclass overrides {@link #getServices(Class)}, {@link #getService(Class)} returns
+ * the first element of its result instead, as on Java 8.
+ *
+ * @author Anatole Tresch
+ */
+class DefaultServiceProvider implements ServiceProvider {
+    /** List of services loaded, per class. */
+    private final ConcurrentHashMap<Class<?>, List<Object>> servicesLoaded = new ConcurrentHashMap<>();
+    /** The most significant service loaded, per class, if no full list was loaded so far. */
+    private final ConcurrentHashMap<Class<?>, Optional<Object>> serviceLoaded = new ConcurrentHashMap<>();
+    /** Whether {@link #getServices(Class)} is overridden, so {@link #getService(Class)} must delegate to it. */
+    private final boolean servicesOverridden = isServicesOverridden(getClass());
+
+    @Override
+    public int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Loads and registers services.
+     *
+     * @param serviceType
+     *            The service type.
+     * @param <T>
+     *            the concrete type.
+     * @return the items found, never {@code null}.
+     */
+    @Override
+    public <T> List<T> getServices(final Class<T> serviceType) {
+        @SuppressWarnings("unchecked")
+        List<T> found = (List<T>) servicesLoaded.get(serviceType);
+        if (found != null) {
+            return found;
+        }
+
+        return loadServices(serviceType);
+    }
+
+    /**
+     * Access the most significant service of the given type. Only this service is instantiated, unless it fails to
+     * load, in which case the next service in order is tried. If {@link #getServices(Class)} is overridden, the first
+     * service it returns is answered.
+     *
+     * @param serviceType
+     *            The service type.
+     * @param <T>
+     *            the concrete type.
+     * @return the service found, or {@code null}.
+     */
+    @Override
+    public <T> T getService(final Class<T> serviceType) {
+        if (servicesOverridden) {
+            List<T> services = getServices(serviceType);
+            return services.isEmpty() ? null : services.get(0);
+        }
+        List<Object> found = servicesLoaded.get(serviceType);
+        if (found != null) {
+            return found.isEmpty() ? null : serviceType.cast(found.get(0));
+        }
+        Optional<Object> service = serviceLoaded.get(serviceType);
+        if (service == null) {
+            service = Optional.ofNullable(loadService(serviceType));
+            Optional<Object> previousService = serviceLoaded.putIfAbsent(serviceType, service);
+            if (previousService != null) {
+                service = previousService;
+            }
+        }
+        return service.map(serviceType::cast).orElse(null);
+    }
+
+    /**
+     * Checks if the given type overrides {@link #getServices(Class)}.
+     *
+     * @param   type  the concrete provider type.
+     *
+     * @return  {@code true}, if the method is declared by a subclass.
+     */
+    private static boolean isServicesOverridden(Class<?> type) {
+        try {
+            return type.getMethod("getServices", Class.class).getDeclaringClass() != DefaultServiceProvider.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Evaluates the {@link ServiceLoader.Provider} instances for the given type, most significant first.
+     *
+     * @param   serviceType  The service type.
+     * @param   <T>          the concrete type.
+     *
+     * @return  the providers found, never {@code null}.
+     */
+    private <T> List<ServiceLoader.Provider<T>> getProviders(final Class<T> serviceType) {
+        return ServiceLoader.load(serviceType).stream()
+                .sorted((p1, p2) -> ServicePriorities.SERVICE_TYPE_COMPARATOR.compare(p1.type(), p2.type()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Instantiates the service of the given provider.
+     *
+     * @param   provider  The provider.
+     * @param   <T>       the concrete type.
+     *
+     * @return  the service, or {@code null}, if it could not be loaded.
+     */
+    private <T> T instantiate(ServiceLoader.Provider<T> provider) {
+        try {
+            return provider.get();
+        } catch (ServiceConfigurationError | RuntimeException e) {
+            Logger.getLogger(DefaultServiceProvider.class.getName()).log(Level.WARNING,
+                                                                         "Error loading service " + provider.type(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Loads the most significant service.
+     *
+     * @param   serviceType  The service type.
+     * @param   <T>          the concrete type.
+     *
+     * @return  the service found, or {@code null}.
+     */
+    private <T> T loadService(final Class<T> serviceType) {
+        try {
+            for (ServiceLoader.Provider<T> provider : getProviders(serviceType)) {
+                T service = instantiate(provider);
+                if (service != null) {
+                    return service;
+                }
+            }
+        } catch (Exception e) {
+            Logger.getLogger(DefaultServiceProvider.class.getName()).log(Level.WARNING,
+                                                                         "Error loading services of type " + serviceType, e);
+        }
+        return null;
+    }
+
+    /**
+     * Loads and registers services. A service instantiated already by {@link #getService(Class)} is reused.
+     *
+     * @param   serviceType  The service type.
+     * @param   <T>          the concrete type.
+     *
+     * @return  the items found, never {@code null}.
+     */
+    private <T> List<T> loadServices(final Class<T> serviceType) {
+        List<T> services = new ArrayList<>();
+        try {
+            Object single = serviceLoaded.getOrDefault(serviceType, Optional.empty()).orElse(null);
+            for (ServiceLoader.Provider<T> provider : getProviders(serviceType)) {
+                T service = single != null && single.getClass() == provider.type() ?
+                        serviceType.cast(single) : instantiate(provider);
+                if (service != null) {
+                    services.add(service);
+                }
+            }
+            services = Collections.unmodifiableList(services);
+            @SuppressWarnings("unchecked")
+            final List<T> previousServices = (List<T>) servicesLoaded.putIfAbsent(serviceType, (List<Object>) services);
+            return previousServices != null ? previousServices : services;
+        } catch (Exception e) {
+            Logger.getLogger(DefaultServiceProvider.class.getName()).log(Level.WARNING,
+                                                                         "Error loading services of type " + serviceType, e);
+            return services;
+        }
+    }
+
+}
@@ -16,9 +16,17 @@ import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.testng.annotations.Test;
@@ -139,6 +147,48 @@ public class AbstractContextTest {
 //        assertEquals(now, ctx.getTimestamp());
 //    }
 
+    @Test
+    public void testHashCodeAndEquals() {
+        TestContext ctx = new TestContext.Builder().set("myKey", "Test").set("MyNum", 2).build();
+        TestContext ctx2 = new TestContext.Builder().set("MyNum", 2).set("myKey", "Test").build();
+        Map<String, Object> map = new HashMap<>();
+        map.put("myKey", "Test");
+        map.put("MyNum", 2);
+        assertEquals(ctx, ctx2);
+        assertEquals(ctx.hashCode(), ctx2.hashCode());
+        assertEquals(ctx.hashCode(), Objects.hash(map));
+        assertEquals(ctx.data, map);
+        assertEquals(map, ctx.data);
+        assertFalse(ctx.equals(new TestContext.Builder().set("myKey", "Test").set("MyNum", 3).build()));
+        assertTrue(new TestContext.Builder().build().isEmpty());
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testDataImmutable() {
+        TestContext ctx = new TestContext.Builder().set("myKey", "Test").build();
+        ctx.data.put("myKey", "Test2");
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        CurrencyContext ctx = CurrencyContextBuilder.of("test").set("myKey", "Test").set("MyNum", 2).build();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(ctx);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            CurrencyContext read = (CurrencyContext) ois.readObject();
+            assertEquals(read, ctx);
+            assertEquals(read.hashCode(), ctx.hashCode());
+            assertEquals(read.getText("myKey"), "Test");
+        }
+    }
+
+    @Test
+    public void testDataFinal() throws Exception {
+        assertTrue(Modifier.isFinal(AbstractContext.class.getDeclaredField("data").getModifiers()));
+    }
+
     private static class TestContext extends AbstractContext {
 
         private static final long serialVersionUID = 1L;
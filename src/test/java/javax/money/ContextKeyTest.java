@@ -0,0 +1,65 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money;
+
+import static org.testng.Assert.*;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link javax.money.ContextKey}.
+ */
+public class ContextKeyTest {
+
+    @Test
+    public void testOf() {
+        ContextKey<String> key = ContextKey.of("myKey", String.class);
+        assertEquals(key.getName(), "myKey");
+        assertEquals(key.getType(), String.class);
+        assertEquals(key.slot, -1);
+        assertEquals(key, ContextKey.of("myKey", String.class));
+        assertNotEquals(key, ContextKey.of("myKey", Integer.class));
+        assertEquals(ContextKey.of(CurrencyUnit.class).getName(), CurrencyUnit.class.getName());
+    }
+
+    @Test
+    public void testWellKnownSlots() {
+        assertTrue(ContextKey.of("provider", String.class).slot >= 0);
+        assertTrue(ContextKey.of("precision", Integer.class).slot >= 0);
+        assertTrue(ContextKey.of(CurrencyUnit.class).slot >= 0);
+    }
+
+    @Test
+    public void testGetAndSet() {
+        ContextKey<String> custom = ContextKey.of("myKey", String.class);
+        ContextKey<Integer> precision = ContextKey.of("precision", Integer.class);
+        MonetaryContext ctx = MonetaryContextBuilder.of().set(custom, "Test").set(precision, 10)
+                .setProviderName("prov").build();
+        assertEquals(ctx.get(custom), "Test");
+        assertEquals(ctx.get(precision), Integer.valueOf(10));
+        assertEquals(ctx.getPrecision(), 10);
+        assertEquals(ctx.getProviderName(), "prov");
+        assertNull(ctx.get(ContextKey.of("myKey", Integer.class)));
+        assertNull(ctx.get(ContextKey.of("maxScale", Integer.class)));
+        assertEquals(ctx.getMaxScale(), -1);
+    }
+
+    @Test
+    public void testGet_ManyAttributes() {
+        MonetaryContextBuilder builder = MonetaryContextBuilder.of();
+        for (int i = 0; i < 40; i++) {
+            builder.set("attr" + i, i);
+        }
+        MonetaryContext ctx = builder.setPrecision(5).setMaxScale(3).setProviderName("prov").build();
+        assertEquals(ctx.getPrecision(), 5);
+        assertEquals(ctx.getMaxScale(), 3);
+        assertEquals(ctx.getProviderName(), "prov");
+        assertEquals(ctx.get(ContextKey.of("attr20", Integer.class)), Integer.valueOf(20));
+    }
+}
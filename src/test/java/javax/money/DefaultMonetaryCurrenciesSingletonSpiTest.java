@@ -0,0 +1,135 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE.
+ *
+ * Specification: JSR-354 Money and Currency API ("Specification")
+ *
+ * Copyright (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money;
+
+import org.testng.annotations.Test;
+
+import javax.money.spi.Bootstrap;
+import javax.money.spi.ServiceProvider;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link DefaultMonetaryCurrenciesSingletonSpi}.
+ */
+public class DefaultMonetaryCurrenciesSingletonSpiTest {
+
+    @Test
+    public void testGetCurrencies_Code() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        Set<CurrencyUnit> units = spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("test1").build());
+        assertEquals(units.size(), 1);
+        assertEquals(units.iterator().next().getCurrencyCode(), "test1");
+        assertEquals(spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("test1").build()), units);
+        assertTrue(spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("foo").build()).isEmpty());
+    }
+
+    @Test
+    public void testGetCurrencies_Modifiable() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        Set<CurrencyUnit> units = spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("test1").build());
+        units.clear();
+        assertEquals(spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("test1").build()).size(), 1);
+        units = spi.getCurrencies(new Locale("", "TEST1L"));
+        units.clear();
+        assertEquals(spi.getCurrencies(new Locale("", "TEST1L")).size(), 1);
+    }
+
+    @Test
+    public void testGetCurrency_Code() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        CurrencyUnit unit = spi.getCurrency("test1");
+        assertEquals(unit.getCurrencyCode(), "test1");
+        assertSame(spi.getCurrency("test1"), unit);
+        assertTrue(spi.isCurrencyAvailable("test1"));
+        assertFalse(spi.isCurrencyAvailable("foo"));
+    }
+
+    @Test(expectedExceptions = UnknownCurrencyException.class)
+    public void testGetCurrency_Code_NA() {
+        new DefaultMonetaryCurrenciesSingletonSpi().getCurrency("foo");
+    }
+
+    @Test
+    public void testGetCurrencies_Country() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        Set<CurrencyUnit> units = spi.getCurrencies(new Locale("", "TEST1L"));
+        assertEquals(units.size(), 1);
+        assertEquals(units.iterator().next().getCurrencyCode(), "TEST1L");
+        assertTrue(spi.getCurrencies(Locale.CHINA).isEmpty());
+    }
+
+    @Test
+    public void testGetCurrencies_Providers() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        assertNotNull(spi.getCurrencies("test"));
+        assertTrue(spi.getCurrencies("foo").isEmpty());
+    }
+
+    @Test
+    public void testRefresh() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        Set<CurrencyUnit> units = spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("test2").build());
+        spi.refresh();
+        Set<CurrencyUnit> refreshed = spi.getCurrencies(CurrencyQueryBuilder.of().setCurrencyCodes("test2").build());
+        assertEquals(refreshed, units);
+        assertTrue(spi.getProviderNames().contains("test"));
+        // the index is rebuilt
+        Set<String> names = spi.getProviderNames();
+        assertSame(spi.getProviderNames(), names);
+        spi.refresh();
+        assertNotSame(spi.getProviderNames(), names);
+        assertEquals(spi.getProviderNames(), names);
+    }
+
+    @Test
+    public void testRefresh_ServiceProviderReplaced() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        Set<String> names = spi.getProviderNames();
+        Bootstrap.init(Bootstrap.init(new ServiceProvider() {
+            @Override
+            public int getPriority() {
+                return 0;
+            }
+
+            @Override
+            public <T> List<T> getServices(Class<T> serviceType) {
+                return Collections.emptyList();
+            }
+        }));
+        assertNotSame(spi.getProviderNames(), names);
+        assertEquals(spi.getProviderNames(), names);
+    }
+
+    @Test
+    public void testGetCurrency_Country() {
+        DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+        Locale country = new Locale("", "TEST1L");
+        CurrencyUnit unit = spi.getCurrency(country);
+        assertEquals(unit.getCurrencyCode(), "TEST1L");
+        assertEquals(spi.getCurrency(country, "test"), unit);
+        assertTrue(spi.isCurrencyAvailable(country));
+        assertFalse(spi.isCurrencyAvailable(Locale.CHINA));
+        try {
+            spi.getCurrency(Locale.CHINA);
+            fail("MonetaryException expected.");
+        } catch (MonetaryException e) {
+            assertTrue(e.getMessage().contains("No currency unit found"));
+        }
+    }
+
+}
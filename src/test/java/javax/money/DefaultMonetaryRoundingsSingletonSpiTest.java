@@ -0,0 +1,90 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE.
+ *
+ * Specification: JSR-354 Money and Currency API ("Specification")
+ *
+ * Copyright (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money;
+
+import org.testng.annotations.Test;
+
+import javax.money.spi.Bootstrap;
+import javax.money.spi.ServiceProvider;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link DefaultMonetaryRoundingsSingletonSpi}.
+ */
+public class DefaultMonetaryRoundingsSingletonSpiTest {
+
+    @Test
+    public void testGetRoundings_Cached() {
+        DefaultMonetaryRoundingsSingletonSpi spi = new DefaultMonetaryRoundingsSingletonSpi();
+        Collection<MonetaryRounding> roundings = spi.getRoundings(
+                RoundingQueryBuilder.of().setRoundingName("custom1").build());
+        assertEquals(roundings.size(), 1);
+        assertEquals(roundings.iterator().next().getRoundingContext().getRoundingName(), "custom1");
+        assertSame(spi.getRoundings(RoundingQueryBuilder.of().setRoundingName("custom1").build()), roundings);
+        assertNotSame(spi.getRoundings(RoundingQueryBuilder.of().setRoundingName("custom2").build()), roundings);
+    }
+
+    @Test
+    public void testGetRoundings_DefaultProviderChainNormalized() {
+        DefaultMonetaryRoundingsSingletonSpi spi = new DefaultMonetaryRoundingsSingletonSpi();
+        Collection<MonetaryRounding> roundings = spi.getRoundings(
+                RoundingQueryBuilder.of().setRoundingName("custom1").build());
+        assertSame(spi.getRoundings(RoundingQueryBuilder.of().setRoundingName("custom1")
+                .setProviderNames(spi.getDefaultProviderChain()).build()), roundings);
+    }
+
+    @Test
+    public void testGetRoundings_NotFound() {
+        DefaultMonetaryRoundingsSingletonSpi spi = new DefaultMonetaryRoundingsSingletonSpi();
+        assertTrue(spi.getRoundings(RoundingQueryBuilder.of().setRoundingName("foo").build()).isEmpty());
+        assertTrue(spi.getRoundings(RoundingQueryBuilder.of().setRoundingName("custom1")
+                .setProviderNames("foo").build()).isEmpty());
+    }
+
+    @Test
+    public void testDefaultRounding_Apply() {
+        MonetaryRounding rounding = new DefaultMonetaryRoundingsSingletonSpi().getDefaultRounding();
+        MonetaryAmount amount = new DummyAmount(1, MonetaryContextBuilder.of().build());
+        assertSame(rounding.apply(amount), amount);
+        assertSame(rounding.apply(amount), amount);
+    }
+
+    @Test
+    public void testRefresh() {
+        DefaultMonetaryRoundingsSingletonSpi spi = new DefaultMonetaryRoundingsSingletonSpi();
+        RoundingQuery query = RoundingQueryBuilder.of().setRoundingName("custom1").build();
+        Collection<MonetaryRounding> roundings = spi.getRoundings(query);
+        spi.refresh();
+        Collection<MonetaryRounding> refreshed = spi.getRoundings(query);
+        assertNotSame(refreshed, roundings);
+        assertEquals(refreshed.size(), roundings.size());
+        // replacing the service provider drops the cache as well
+        Bootstrap.init(Bootstrap.init(new ServiceProvider() {
+            @Override
+            public int getPriority() {
+                return 0;
+            }
+
+            @Override
+            public <T> List<T> getServices(Class<T> serviceType) {
+                return Collections.emptyList();
+            }
+        }));
+        assertNotSame(spi.getRoundings(query), refreshed);
+    }
+
+}
@@ -121,4 +121,12 @@ public class MonetaryTest {
     }
 
 
+    @Test
+    public void testFindCurrency() {
+        assertEquals(Monetary.findCurrency("test1").get(), Monetary.getCurrency("test1"));
+        assertFalse(Monetary.findCurrency("testGetInstanceCurrency_NA").isPresent());
+        assertTrue(Monetary.findCurrency(new Locale("", "TEST1L")).isPresent());
+        assertFalse(Monetary.findCurrency(Locale.CHINA).isPresent());
+    }
+
 }
@@ -43,4 +43,20 @@ public class UnknownCurrencyExceptionTest {
         assertTrue(e.toString().contains("UnknownCurrencyException"));
     }
 
+    @Test
+    public void testStackless() {
+        assertTrue(MonetaryException.isStackTraceEnabled());
+        assertTrue(new UnknownCurrencyException("GGG").getStackTrace().length > 0);
+        MonetaryException.setStackTraceEnabled(false);
+        try {
+            UnknownCurrencyException e = new UnknownCurrencyException("GGG");
+            assertEquals(e.getStackTrace().length, 0);
+            assertEquals(e.getMessage(), "Unknown currency code: GGG");
+            IllegalArgumentException cause = new IllegalArgumentException("test");
+            assertSame(e.initCause(cause).getCause(), cause);
+        } finally {
+            MonetaryException.setStackTraceEnabled(true);
+        }
+    }
+
 }
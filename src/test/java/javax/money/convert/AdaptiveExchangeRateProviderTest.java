@@ -0,0 +1,272 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.TestCurrency;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link AdaptiveExchangeRateProvider}.
+ */
+public class AdaptiveExchangeRateProviderTest {
+
+    private static final ConversionQuery QUERY = ConversionQueryBuilder.of().setBaseCurrency(TestCurrency.of("CHF"))
+            .setTermCurrency(TestCurrency.of("EUR")).build();
+
+    /**
+     * Provider failing with an {@link IllegalStateException}, while failing is set.
+     */
+    private static final class FailingProvider implements ExchangeRateProvider {
+        private final TestRateProvider rates = new TestRateProvider("failing", RateType.DEFERRED)
+                .addRate("CHF", "EUR", "0.8");
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing = true;
+
+        @Override
+        public ProviderContext getContext() {
+            return rates.getContext();
+        }
+
+        @Override
+        public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+            calls.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("Service unavailable.");
+            }
+            return rates.getExchangeRate(conversionQuery);
+        }
+
+        @Override
+        public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+            return new ProviderConversion(this, conversionQuery);
+        }
+    }
+
+    @Test
+    public void testChain() {
+        TestRateProvider missing = new TestRateProvider("missing", RateType.DEFERRED);
+        TestRateProvider found = new TestRateProvider("found", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        AdaptiveExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(missing, found).build();
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "found");
+        assertTrue(provider.isAvailable(QUERY));
+        assertEquals(provider.getProviders(), Arrays.asList(missing, found));
+        List<AdaptiveExchangeRateProvider.ProviderStatistics> stats = provider.getStatistics();
+        assertEquals(stats.get(0).getProviderName(), "missing");
+        assertEquals(stats.get(0).getMissCount(), 1);
+        assertEquals(stats.get(1).getHitCount(), 1);
+        assertEquals(stats.get(1).getState(), AdaptiveExchangeRateProvider.CircuitState.CLOSED);
+        ConversionQuery other = ConversionQueryBuilder.of().setBaseCurrency(TestCurrency.of("USD"))
+                .setTermCurrency(TestCurrency.of("EUR")).build();
+        assertFalse(provider.findExchangeRate(other).isPresent());
+        try {
+            provider.getExchangeRate(other);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            assertEquals(e.getConversionContext().getProviderName(), "adaptive");
+        }
+    }
+
+    @Test
+    public void testReorder() {
+        TestRateProvider missing = new TestRateProvider("missing", RateType.DEFERRED);
+        TestRateProvider found = new TestRateProvider("found", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        AdaptiveExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(missing, found).setMinimumSamples(5).build();
+        for (int i = 0; i < 64; i++) {
+            provider.getExchangeRate(QUERY);
+        }
+        assertEquals(provider.getCurrentOrder(), Arrays.asList(found, missing));
+        int missingCalls = missing.getCallCount();
+        for (int i = 0; i < 10; i++) {
+            provider.getExchangeRate(QUERY);
+        }
+        assertEquals(missing.getCallCount(), missingCalls);
+    }
+
+    @Test
+    public void testPinnedAndNotAdaptive() {
+        TestRateProvider missing = new TestRateProvider("missing", RateType.DEFERRED);
+        TestRateProvider found = new TestRateProvider("found", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        AdaptiveExchangeRateProvider pinned = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(missing, found).setMinimumSamples(5).setPinnedCount(1).build();
+        AdaptiveExchangeRateProvider fixed = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(missing, found).setMinimumSamples(5).setAdaptive(false).build();
+        for (int i = 0; i < 64; i++) {
+            pinned.getExchangeRate(QUERY);
+            fixed.getExchangeRate(QUERY);
+        }
+        assertEquals(pinned.getCurrentOrder(), Arrays.asList(missing, found));
+        assertEquals(fixed.getCurrentOrder(), Arrays.asList(missing, found));
+        assertEquals(missing.getCallCount(), 128);
+    }
+
+    @Test
+    public void testCircuitBreaker() {
+        CachingExchangeRateProviderTest.MutableClock clock = new CachingExchangeRateProviderTest.MutableClock();
+        FailingProvider failing = new FailingProvider();
+        TestRateProvider found = new TestRateProvider("found", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        AdaptiveExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(failing, found).setFailureThreshold(2).setOpenDuration(Duration.ofSeconds(10))
+                .setAdaptive(false).setClock(clock).build();
+        provider.getExchangeRate(QUERY);
+        provider.getExchangeRate(QUERY);
+        assertEquals(failing.calls.get(), 2);
+        AdaptiveExchangeRateProvider.ProviderStatistics stats = provider.getStatistics().get(0);
+        assertEquals(stats.getFailureCount(), 2);
+        assertEquals(stats.getState(), AdaptiveExchangeRateProvider.CircuitState.OPEN);
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "found");
+        assertEquals(failing.calls.get(), 2);
+        assertEquals(provider.getStatistics().get(0).getRejectionCount(), 1);
+
+        clock.advance(Duration.ofSeconds(11));
+        assertEquals(provider.getStatistics().get(0).getState(), AdaptiveExchangeRateProvider.CircuitState.HALF_OPEN);
+        provider.getExchangeRate(QUERY);
+        assertEquals(failing.calls.get(), 3);
+        assertEquals(provider.getStatistics().get(0).getState(), AdaptiveExchangeRateProvider.CircuitState.OPEN);
+
+        clock.advance(Duration.ofSeconds(11));
+        failing.failing = false;
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "failing");
+        assertEquals(provider.getStatistics().get(0).getState(), AdaptiveExchangeRateProvider.CircuitState.CLOSED);
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "failing");
+    }
+
+    @Test
+    public void testWrappedFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        TestRateProvider rates = new TestRateProvider("remote", RateType.DEFERRED);
+        ExchangeRateProvider remote = new ExchangeRateProvider() {
+            @Override
+            public ProviderContext getContext() {
+                return rates.getContext();
+            }
+
+            @Override
+            public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new CurrencyConversionException(conversionQuery.getBaseCurrency(),
+                            conversionQuery.getCurrency(), null, "No rate.");
+                }
+                throw new CurrencyConversionException(conversionQuery.getBaseCurrency(),
+                        conversionQuery.getCurrency(), null, "Read failed.", new IOException("Connection reset."));
+            }
+
+            @Override
+            public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+                return new ProviderConversion(this, conversionQuery);
+            }
+        };
+        TestRateProvider found = new TestRateProvider("found", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        AdaptiveExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(remote, found).setFailureThreshold(2).setAdaptive(false).build();
+        // a conversion exception without cause is a miss
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "found");
+        AdaptiveExchangeRateProvider.ProviderStatistics stats = provider.getStatistics().get(0);
+        assertEquals(stats.getMissCount(), 1);
+        assertEquals(stats.getFailureCount(), 0);
+        // a conversion exception wrapping an I/O error is a failure
+        provider.getExchangeRate(QUERY);
+        provider.getExchangeRate(QUERY);
+        stats = provider.getStatistics().get(0);
+        assertEquals(stats.getMissCount(), 1);
+        assertEquals(stats.getFailureCount(), 2);
+        assertEquals(stats.getState(), AdaptiveExchangeRateProvider.CircuitState.OPEN);
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "found");
+        assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void testProbeTimeout() throws Exception {
+        CachingExchangeRateProviderTest.MutableClock clock = new CachingExchangeRateProviderTest.MutableClock();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestRateProvider rates = new TestRateProvider("hanging", RateType.DEFERRED).addRate("CHF", "EUR", "0.8");
+        ExchangeRateProvider hanging = new ExchangeRateProvider() {
+            @Override
+            public ProviderContext getContext() {
+                return rates.getContext();
+            }
+
+            @Override
+            public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+                int call = calls.incrementAndGet();
+                if (call == 1) {
+                    throw new IllegalStateException("Service unavailable.");
+                }
+                if (call == 2) {
+                    entered.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return rates.getExchangeRate(conversionQuery);
+            }
+
+            @Override
+            public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+                return new ProviderConversion(this, conversionQuery);
+            }
+        };
+        TestRateProvider found = new TestRateProvider("found", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        AdaptiveExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(hanging, found).setFailureThreshold(1).setOpenDuration(Duration.ofSeconds(10))
+                .setAdaptive(false).setClock(clock).build();
+        provider.getExchangeRate(QUERY);
+        clock.advance(Duration.ofSeconds(11));
+        Thread probe = new Thread(() -> provider.getExchangeRate(QUERY));
+        probe.setDaemon(true);
+        probe.start();
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        // the probe in flight blocks further probes
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "found");
+        assertEquals(calls.get(), 2);
+        // until it exceeds the open duration
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals(provider.getExchangeRate(QUERY).getContext().getProviderName(), "hanging");
+        assertEquals(calls.get(), 3);
+        assertEquals(provider.getStatistics().get(0).getState(), AdaptiveExchangeRateProvider.CircuitState.CLOSED);
+        release.countDown();
+        probe.join(10_000);
+    }
+
+    @Test
+    public void testAllFailing() {
+        FailingProvider failing = new FailingProvider();
+        AdaptiveExchangeRateProvider provider = AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive"))
+                .addProviders(failing).build();
+        try {
+            provider.getExchangeRate(QUERY);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(provider.findExchangeRate(QUERY).isPresent());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testNoProviders() {
+        AdaptiveExchangeRateProvider.builder(ProviderContext.of("adaptive")).build();
+    }
+}
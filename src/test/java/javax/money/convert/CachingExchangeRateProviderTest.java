@@ -0,0 +1,227 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.TestCurrency;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link CachingExchangeRateProvider}.
+ */
+public class CachingExchangeRateProviderTest {
+
+    private static ConversionQuery query(String base, String term) {
+        return ConversionQueryBuilder.of().setBaseCurrency(TestCurrency.of(base))
+                .setTermCurrency(TestCurrency.of(term)).build();
+    }
+
+    @Test
+    public void testGetExchangeRate_Cached() {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.of(delegate);
+        ExchangeRate rate = provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(rate.getFactor().doubleValue(), 0.9);
+        assertSame(provider.getExchangeRate(query("CHF", "EUR")), rate);
+        assertSame(provider.getExchangeRate(TestCurrency.of("CHF"), TestCurrency.of("EUR")), rate);
+        assertEquals(delegate.getCallCount(), 1);
+        CachingExchangeRateProvider.Statistics stats = provider.getStatistics();
+        assertEquals(stats.getHitCount(), 2);
+        assertEquals(stats.getMissCount(), 1);
+        assertEquals(stats.getEvictionCount(), 0);
+        assertEquals(stats.getSize(), 1);
+        assertEquals(stats.getHitRatio(), 2.0 / 3.0, 0.0001);
+        assertEquals(provider.getContext(), delegate.getContext());
+    }
+
+    @Test
+    public void testGetExchangeRateAsync_Cached() throws Exception {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.of(delegate);
+        ExchangeRate rate = provider.getExchangeRateAsync(query("CHF", "EUR")).get();
+        assertEquals(rate.getFactor().doubleValue(), 0.9);
+        CompletableFuture<ExchangeRate> cached = provider.getExchangeRateAsync(query("CHF", "EUR"));
+        assertTrue(cached.isDone());
+        assertSame(cached.get(), rate);
+        assertSame(provider.getExchangeRate(query("CHF", "EUR")), rate);
+        assertEquals(delegate.getCallCount(), 1);
+        assertEquals(provider.getStatistics().getHitCount(), 2);
+        assertEquals(provider.getStatistics().getMissCount(), 1);
+    }
+
+    @Test
+    public void testGetExchangeRate_KeyedByQuery() {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9")
+                .addRate("EUR", "CHF", "1.1");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.of(delegate);
+        provider.getExchangeRate(query("CHF", "EUR"));
+        provider.getExchangeRate(query("EUR", "CHF"));
+        provider.getExchangeRate(query("CHF", "EUR").toBuilder().setRateTypes(RateType.HISTORIC).build());
+        provider.getExchangeRate(query("CHF", "EUR").toBuilder().set("Query.timestamp", 1000L).build());
+        assertEquals(delegate.getCallCount(), 4);
+        assertEquals(provider.getStatistics().getSize(), 4);
+    }
+
+    @Test
+    public void testGetExchangeRate_Expiry() {
+        MutableClock clock = new MutableClock();
+        TestRateProvider delegate = new TestRateProvider("test", RateType.REALTIME).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.builder(delegate).setClock(clock).build();
+        provider.getExchangeRate(query("CHF", "EUR"));
+        clock.advance(Duration.ofSeconds(CachingExchangeRateProvider.DEFAULT_REALTIME_TTL_SECONDS - 1));
+        provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(delegate.getCallCount(), 1);
+        clock.advance(Duration.ofSeconds(1));
+        provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(delegate.getCallCount(), 2);
+        assertEquals(provider.getStatistics().getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testGetExchangeRate_HistoricForever() {
+        MutableClock clock = new MutableClock();
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.builder(delegate).setClock(clock).build();
+        ConversionQuery query = query("CHF", "EUR").toBuilder().setTimestamp(LocalDate.of(2015, 1, 2)).build();
+        provider.getExchangeRate(query);
+        clock.advance(Duration.ofDays(10000));
+        provider.getExchangeRate(query);
+        assertEquals(delegate.getCallCount(), 1);
+    }
+
+    @Test
+    public void testGetExchangeRate_HistoricLatest() {
+        MutableClock clock = new MutableClock();
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.builder(delegate).setClock(clock).build();
+        provider.getExchangeRate(query("CHF", "EUR"));
+        clock.advance(Duration.ofSeconds(CachingExchangeRateProvider.DEFAULT_TTL_SECONDS - 1));
+        provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(delegate.getCallCount(), 1);
+        clock.advance(Duration.ofSeconds(1));
+        provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(delegate.getCallCount(), 2);
+    }
+
+    @Test
+    public void testSetTimeToLive() {
+        MutableClock clock = new MutableClock();
+        TestRateProvider delegate = new TestRateProvider("test", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.builder(delegate).setClock(clock)
+                .setTimeToLive(RateType.DEFERRED, ChronoUnit.FOREVER.getDuration()).build();
+        ConversionQuery query = query("CHF", "EUR").toBuilder().setTimestampMillis(1000L).build();
+        provider.getExchangeRate(query);
+        clock.advance(Duration.ofDays(10000));
+        provider.getExchangeRate(query);
+        assertEquals(delegate.getCallCount(), 1);
+        provider = CachingExchangeRateProvider.builder(delegate).setTimeToLive(RateType.DEFERRED, Duration.ZERO)
+                .build();
+        provider.getExchangeRate(query("CHF", "EUR"));
+        provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(delegate.getCallCount(), 3);
+        assertEquals(provider.getStatistics().getSize(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetTimeToLive_Negative() {
+        CachingExchangeRateProvider.builder(new TestRateProvider("test", RateType.DEFERRED))
+                .setTimeToLive(RateType.DEFERRED, Duration.ofSeconds(-1));
+    }
+
+    @Test
+    public void testMaximumSize() {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9")
+                .addRate("EUR", "CHF", "1.1").addRate("CHF", "USD", "1.0");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.builder(delegate).setMaximumSize(2)
+                .build();
+        provider.getExchangeRate(query("CHF", "EUR"));
+        provider.getExchangeRate(query("EUR", "CHF"));
+        provider.getExchangeRate(query("CHF", "USD"));
+        assertEquals(provider.getStatistics().getSize(), 2);
+        assertEquals(provider.getStatistics().getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testGetExchangeRate_FailuresNotCached() {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC);
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.of(delegate);
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.getExchangeRate(query("CHF", "EUR"));
+                fail("CurrencyConversionException expected.");
+            } catch (CurrencyConversionException e) {
+                // expected
+            }
+        }
+        assertEquals(delegate.getCallCount(), 2);
+        assertEquals(provider.getStatistics().getSize(), 0);
+    }
+
+    @Test
+    public void testClear() {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.of(delegate);
+        provider.getExchangeRate(query("CHF", "EUR"));
+        provider.clear();
+        provider.getExchangeRate(query("CHF", "EUR"));
+        assertEquals(delegate.getCallCount(), 2);
+    }
+
+    @Test
+    public void testGetCurrencyConversion() {
+        TestRateProvider delegate = new TestRateProvider("test", RateType.HISTORIC).addRate("CHF", "EUR", "0.9");
+        CachingExchangeRateProvider provider = CachingExchangeRateProvider.of(delegate);
+        CurrencyConversion conversion = provider.getCurrencyConversion(TestCurrency.of("EUR"));
+        assertEquals(conversion.getCurrency(), TestCurrency.of("EUR"));
+        assertSame(conversion.getExchangeRateProvider(), provider);
+        assertEquals(conversion.getContext().getProviderName(), "test");
+        ExchangeRate rate = provider.getExchangeRate(query("CHF", "EUR"));
+        assertSame(provider.getExchangeRate(TestCurrency.of("CHF"), TestCurrency.of("EUR")), rate);
+        assertEquals(delegate.getCallCount(), 1);
+    }
+
+    /**
+     * Clock, that is advanced manually.
+     */
+    static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.ofEpochSecond(1_500_000_000L);
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.TestCurrency;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link CoalescingExchangeRateProvider}.
+ */
+public class CoalescingExchangeRateProviderTest {
+
+    private static final ConversionQuery QUERY = ConversionQueryBuilder.of().setBaseCurrency(TestCurrency.of("CHF"))
+            .setTermCurrency(TestCurrency.of("EUR")).build();
+
+    /**
+     * Provider blocking each lookup until released, failing the first lookups if requested.
+     */
+    private static final class BlockingProvider implements ExchangeRateProvider {
+        private final TestRateProvider rates = new TestRateProvider("test", RateType.DEFERRED)
+                .addRate("CHF", "EUR", "0.9");
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final int failures;
+
+        BlockingProvider(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public ProviderContext getContext() {
+            return rates.getContext();
+        }
+
+        @Override
+        public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+            int call = calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            if (call <= failures) {
+                throw new CurrencyConversionException(conversionQuery.getBaseCurrency(),
+                        conversionQuery.getCurrency(), null, "Failure " + call);
+            }
+            return rates.getExchangeRate(conversionQuery);
+        }
+
+        @Override
+        public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+            return new ProviderConversion(this, conversionQuery);
+        }
+    }
+
+    private static List<CompletableFuture<ExchangeRate>> lookup(ExchangeRateProvider provider, int count) {
+        List<CompletableFuture<ExchangeRate>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<ExchangeRate> result = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    result.complete(provider.getExchangeRate(QUERY));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void awaitCoalesced(CoalescingExchangeRateProvider provider, long count) throws Exception {
+        long end = System.currentTimeMillis() + 10_000;
+        while (provider.getCoalescedCount() < count) {
+            assertTrue(System.currentTimeMillis() < end, "Requests not coalesced.");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        BlockingProvider delegate = new BlockingProvider(0);
+        CoalescingExchangeRateProvider provider = CoalescingExchangeRateProvider.of(delegate);
+        List<CompletableFuture<ExchangeRate>> results = lookup(provider, 8);
+        awaitCoalesced(provider, 7);
+        assertEquals(provider.getInFlightCount(), 1);
+        delegate.release.countDown();
+        ExchangeRate rate = results.get(0).get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<ExchangeRate> result : results) {
+            assertSame(result.get(10, TimeUnit.SECONDS), rate);
+        }
+        assertEquals(delegate.calls.get(), 1);
+        assertEquals(provider.getLookupCount(), 1);
+        assertEquals(provider.getInFlightCount(), 0);
+        assertEquals(provider.getExchangeRate(QUERY).getFactor().doubleValue(), 0.9);
+        assertEquals(delegate.calls.get(), 2);
+        assertEquals(provider.getContext(), delegate.getContext());
+    }
+
+    @Test
+    public void testShareFailures() throws Exception {
+        BlockingProvider delegate = new BlockingProvider(1);
+        CoalescingExchangeRateProvider provider = CoalescingExchangeRateProvider.of(delegate);
+        List<CompletableFuture<ExchangeRate>> results = lookup(provider, 4);
+        awaitCoalesced(provider, 3);
+        delegate.release.countDown();
+        Set<Throwable> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CompletableFuture<ExchangeRate> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail("CurrencyConversionException expected.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof CurrencyConversionException);
+                assertTrue(e.getCause().getMessage().contains("Failure 1"));
+                failures.add(e.getCause());
+            }
+        }
+        // each waiting thread raises an exception of its own, caused by the failure of the lookup
+        assertEquals(failures.size(), 4);
+        Throwable failure = null;
+        for (Throwable e : failures) {
+            if (e.getCause() == null) {
+                assertNull(failure);
+                failure = e;
+            }
+        }
+        assertNotNull(failure);
+        for (Throwable e : failures) {
+            assertTrue(e == failure || e.getCause() == failure);
+        }
+        assertEquals(delegate.calls.get(), 1);
+    }
+
+    @Test
+    public void testRetryFailures() throws Exception {
+        BlockingProvider delegate = new BlockingProvider(1);
+        CoalescingExchangeRateProvider provider = CoalescingExchangeRateProvider.builder(delegate)
+                .setShareFailures(false).build();
+        List<CompletableFuture<ExchangeRate>> results = lookup(provider, 4);
+        awaitCoalesced(provider, 3);
+        delegate.release.countDown();
+        int failed = 0;
+        for (CompletableFuture<ExchangeRate> result : results) {
+            try {
+                assertEquals(result.get(10, TimeUnit.SECONDS).getFactor().doubleValue(), 0.9);
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        assertEquals(failed, 1);
+        assertTrue(delegate.calls.get() >= 2);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        BlockingProvider delegate = new BlockingProvider(0);
+        CoalescingExchangeRateProvider provider = CoalescingExchangeRateProvider.builder(delegate)
+                .setTimeout(Duration.ofMillis(20)).build();
+        List<CompletableFuture<ExchangeRate>> leader = lookup(provider, 1);
+        long end = System.currentTimeMillis() + 10_000;
+        while (delegate.calls.get() == 0) {
+            assertTrue(System.currentTimeMillis() < end, "Lookup not started.");
+            Thread.sleep(1);
+        }
+        try {
+            provider.getExchangeRate(QUERY);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            assertTrue(e.getMessage().contains("Timed out"));
+        }
+        delegate.release.countDown();
+        assertEquals(leader.get(0).get(10, TimeUnit.SECONDS).getFactor().doubleValue(), 0.9);
+    }
+
+    @Test
+    public void testGetExchangeRateAsync() throws Exception {
+        CompletableFuture<ExchangeRate> pending = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        TestRateProvider rates = new TestRateProvider("test", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+        ExchangeRateProvider delegate = new ExchangeRateProvider() {
+            @Override
+            public ProviderContext getContext() {
+                return rates.getContext();
+            }
+
+            @Override
+            public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+                return rates.getExchangeRate(conversionQuery);
+            }
+
+            @Override
+            public CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery conversionQuery) {
+                calls.incrementAndGet();
+                return pending;
+            }
+
+            @Override
+            public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+                return new ProviderConversion(this, conversionQuery);
+            }
+        };
+        CoalescingExchangeRateProvider provider = CoalescingExchangeRateProvider.of(delegate);
+        CompletableFuture<ExchangeRate> first = provider.getExchangeRateAsync(QUERY);
+        CompletableFuture<ExchangeRate> second = provider.getExchangeRateAsync(QUERY);
+        assertFalse(first.isDone());
+        assertEquals(calls.get(), 1);
+        assertEquals(provider.getCoalescedCount(), 1);
+        ExchangeRate rate = rates.getExchangeRate(QUERY);
+        pending.complete(rate);
+        assertSame(first.get(), rate);
+        assertSame(second.get(), rate);
+        assertEquals(provider.getInFlightCount(), 0);
+    }
+
+    @Test
+    public void testGetExchangeRateAsync_Failures() throws Exception {
+        for (boolean shareFailures : new boolean[]{true, false}) {
+            Queue<CompletableFuture<ExchangeRate>> pending = new ConcurrentLinkedQueue<>();
+            TestRateProvider rates = new TestRateProvider("test", RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+            ExchangeRateProvider delegate = new ExchangeRateProvider() {
+                @Override
+                public ProviderContext getContext() {
+                    return rates.getContext();
+                }
+
+                @Override
+                public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+                    return rates.getExchangeRate(conversionQuery);
+                }
+
+                @Override
+                public CompletableFuture<ExchangeRate> getExchangeRateAsync(ConversionQuery conversionQuery) {
+                    CompletableFuture<ExchangeRate> future = new CompletableFuture<>();
+                    pending.add(future);
+                    return future;
+                }
+
+                @Override
+                public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+                    return new ProviderConversion(this, conversionQuery);
+                }
+            };
+            CoalescingExchangeRateProvider provider = CoalescingExchangeRateProvider.builder(delegate)
+                    .setShareFailures(shareFailures).build();
+            CompletableFuture<ExchangeRate> first = provider.getExchangeRateAsync(QUERY);
+            CompletableFuture<ExchangeRate> second = provider.getExchangeRateAsync(QUERY);
+            assertEquals(pending.size(), 1);
+            CurrencyConversionException failure = new CurrencyConversionException(QUERY.getBaseCurrency(),
+                    QUERY.getCurrency(), null, "Failure");
+            pending.poll().completeExceptionally(failure);
+            try {
+                first.get();
+                fail("CurrencyConversionException expected.");
+            } catch (ExecutionException e) {
+                assertSame(e.getCause(), failure);
+            }
+            if (shareFailures) {
+                try {
+                    second.get();
+                    fail("CurrencyConversionException expected.");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof CurrencyConversionException);
+                    assertSame(e.getCause().getCause(), failure);
+                }
+                assertTrue(pending.isEmpty());
+            } else {
+                // the waiting caller retries the lookup
+                assertFalse(second.isDone());
+                assertEquals(pending.size(), 1);
+                ExchangeRate rate = rates.getExchangeRate(QUERY);
+                pending.poll().complete(rate);
+                assertSame(second.get(), rate);
+                assertEquals(provider.getLookupCount(), 2);
+            }
+            assertEquals(provider.getInFlightCount(), 0);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidTimeout() {
+        CoalescingExchangeRateProvider.builder(new TestRateProvider("test", RateType.DEFERRED))
+                .setTimeout(Duration.ZERO);
+    }
+}
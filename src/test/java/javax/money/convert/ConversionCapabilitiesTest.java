@@ -0,0 +1,171 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import javax.money.spi.MonetaryConversionsSingletonSpi;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link ConversionCapabilities} and the availability checks using them.
+ */
+public class ConversionCapabilitiesTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final CurrencyUnit USD = TestCurrency.of("USD");
+    private static final CurrencyUnit GBP = TestCurrency.of("GBP");
+
+    private static ConversionQuery query(CurrencyUnit base, CurrencyUnit term) {
+        ConversionQueryBuilder builder = ConversionQueryBuilder.of();
+        if (base != null) {
+            builder.setBaseCurrency(base);
+        }
+        if (term != null) {
+            builder.setTermCurrency(term);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testCurrencies() {
+        ConversionCapabilities capabilities = ConversionCapabilities.of(Arrays.asList(CHF, EUR));
+        assertEquals(capabilities.getCurrencyCodes(), Arrays.asList("CHF", "EUR"));
+        assertEquals(capabilities.getOrdinal(EUR), 1);
+        assertEquals(capabilities.getOrdinal(USD), -1);
+        assertTrue(capabilities.isSupported(CHF, EUR));
+        assertTrue(capabilities.isSupported(EUR, CHF));
+        assertFalse(capabilities.isSupported(EUR, USD));
+        assertTrue(capabilities.isSupportedBase(CHF));
+        assertTrue(capabilities.isSupportedTerm(CHF));
+        assertFalse(capabilities.isSupportedTerm(USD));
+    }
+
+    @Test
+    public void testPairs() {
+        ConversionCapabilities capabilities = ConversionCapabilities.builder().addPairs(EUR, Arrays.asList(CHF, USD))
+                .addPair(GBP, EUR).build();
+        assertTrue(capabilities.isSupported(EUR, CHF));
+        assertTrue(capabilities.isSupported(EUR, USD));
+        assertTrue(capabilities.isSupported(GBP, EUR));
+        assertFalse(capabilities.isSupported(CHF, EUR));
+        assertFalse(capabilities.isSupported(GBP, CHF));
+        assertTrue(capabilities.isSupportedBase(GBP));
+        assertFalse(capabilities.isSupportedBase(CHF));
+        assertTrue(capabilities.isSupportedTerm(CHF));
+        assertFalse(capabilities.isSupportedTerm(GBP));
+        assertTrue(capabilities.isSupported(query(null, CHF)));
+        assertFalse(capabilities.isSupported(query(CHF, null)));
+        assertFalse(capabilities.isSupported(query(USD, EUR)));
+        assertTrue(capabilities.isSupported(query(null, null)));
+    }
+
+    @Test
+    public void testMixed() {
+        ConversionCapabilities capabilities = ConversionCapabilities.builder().addCurrencies(Arrays.asList(CHF, EUR))
+                .addPair(USD, CHF).build();
+        assertTrue(capabilities.isSupported(EUR, CHF));
+        assertTrue(capabilities.isSupported(USD, CHF));
+        assertFalse(capabilities.isSupported(USD, EUR));
+        assertFalse(capabilities.isSupported(CHF, USD));
+    }
+
+    @Test
+    public void testEqualsAndSerialization() throws Exception {
+        ConversionCapabilities capabilities = ConversionCapabilities.builder().addPair(EUR, CHF).build();
+        assertEquals(capabilities, ConversionCapabilities.builder().addPair(EUR, CHF).build());
+        assertEquals(capabilities.hashCode(), ConversionCapabilities.builder().addPair(EUR, CHF).build().hashCode());
+        assertNotEquals(capabilities, ConversionCapabilities.builder().addPair(CHF, EUR).build());
+        ProviderContext context = ProviderContextBuilder.of("test", RateType.DEFERRED).setCapabilities(capabilities)
+                .build();
+        assertEquals(context.getCapabilities(), capabilities);
+        assertEquals(context.toBuilder().build().getCapabilities(), capabilities);
+        assertNull(ProviderContext.of("test").getCapabilities());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(context);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(((ProviderContext) in.readObject()).getCapabilities(), capabilities);
+        }
+    }
+
+    @Test
+    public void testProviderIsAvailable() {
+        TestRateProvider provider = new TestRateProvider(ProviderContextBuilder.of("test", RateType.DEFERRED)
+                .setCapabilities(ConversionCapabilities.builder().addPair(CHF, EUR).build()).build())
+                .addRate("CHF", "EUR", "0.9");
+        assertTrue(provider.isAvailable(CHF, EUR));
+        assertFalse(provider.isAvailable(EUR, CHF));
+        assertFalse(provider.isAvailable(query(CHF, EUR).toBuilder().setProviderName("other").build()));
+        assertEquals(provider.getCallCount(), 0);
+    }
+
+    @Test
+    public void testDeclaredByProviders() {
+        MatrixExchangeRateProvider matrix = MatrixExchangeRateProvider.of(ProviderContext.of("matrix",
+                RateType.DEFERRED), Arrays.asList(CHF, EUR));
+        assertEquals(matrix.getContext().getCapabilities(), ConversionCapabilities.of(Arrays.asList(CHF, EUR)));
+        ConversionCapabilities declared = ConversionCapabilities.builder().addPair(CHF, EUR).build();
+        assertSame(MatrixExchangeRateProvider.of(ProviderContextBuilder.of("matrix", RateType.DEFERRED)
+                .setCapabilities(declared).build(), Arrays.asList(CHF, EUR)).getContext().getCapabilities(), declared);
+    }
+
+    @Test
+    public void testSpiIsConversionAvailable() {
+        TestRateProvider provider = new TestRateProvider(ProviderContextBuilder.of("test", RateType.DEFERRED)
+                .setCapabilities(ConversionCapabilities.builder().addPair(CHF, EUR).build()).build());
+        MonetaryConversionsSingletonSpi spi = new MonetaryConversionsSingletonSpi() {
+            @Override
+            public Collection<String> getProviderNames() {
+                return Collections.singletonList("test");
+            }
+
+            @Override
+            public List<String> getDefaultProviderChain() {
+                return Collections.singletonList("test");
+            }
+
+            @Override
+            public ExchangeRateProvider getExchangeRateProvider(ConversionQuery conversionQuery) {
+                return provider;
+            }
+
+            @Override
+            public CurrencyConversion getConversion(ConversionQuery conversionQuery) {
+                throw new AssertionError("No conversion expected.");
+            }
+        };
+        // the pair is declared, although no rate is defined yet
+        assertTrue(spi.isConversionAvailable(query(CHF, EUR)));
+        assertTrue(spi.isConversionAvailable(query(null, EUR)));
+        assertFalse(spi.isConversionAvailable(query(null, CHF)));
+        assertFalse(spi.isConversionAvailable(query(EUR, CHF)));
+        assertFalse(spi.isConversionAvailable(query(null, EUR).toBuilder().setProviderName("other").build()));
+        assertFalse(spi.isExchangeRateProviderAvailable(query(null, EUR).toBuilder().setProviderName("other")
+                .build()));
+        assertTrue(spi.isExchangeRateProviderAvailable(query(null, EUR)));
+        assertEquals(provider.getCallCount(), 0);
+        assertFalse(provider.findExchangeRate(query(CHF, EUR)).isPresent());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link ConversionSnapshot}.
+ */
+public class ConversionSnapshotTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+
+    @Test
+    public void testSnapshot_PinsRates() {
+        TestRateProvider provider = new TestRateProvider("test", RateType.REALTIME).addRate("CHF", "EUR", "0.5");
+        ConversionSnapshot snapshot = provider.snapshot();
+        ExchangeRate rate = snapshot.getExchangeRate(CHF, EUR);
+        assertEquals(rate.getFactor().numberValue(BigDecimal.class), new BigDecimal("0.5"));
+        provider.addRate("CHF", "EUR", "0.6");
+        assertSame(snapshot.getExchangeRate(CHF, EUR), rate);
+        assertEquals(provider.getExchangeRate(CHF, EUR).getFactor().numberValue(BigDecimal.class),
+                new BigDecimal("0.6"));
+        assertEquals(provider.getCallCount(), 2);
+        assertEquals(provider.snapshot().getExchangeRate(CHF, EUR).getFactor().numberValue(BigDecimal.class),
+                new BigDecimal("0.6"));
+    }
+
+    @Test
+    public void testSnapshot_Versions() {
+        TestRateProvider provider = new TestRateProvider("test", RateType.REALTIME).addRate("CHF", "EUR", "0.5");
+        ConversionSnapshot first = provider.snapshot();
+        ConversionSnapshot second = provider.snapshot();
+        assertTrue(second.getVersion() > first.getVersion());
+        assertFalse(first.isPointInTime());
+        assertNull(first.getTimestamp());
+        assertSame(first.snapshot(), first);
+    }
+
+    @Test
+    public void testSnapshot_Contexts() {
+        TestRateProvider provider = new TestRateProvider("test", RateType.REALTIME).addRate("CHF", "EUR", "0.5");
+        ConversionSnapshot snapshot = provider.snapshot();
+        assertEquals(snapshot.getContext().getProviderName(), "test");
+        assertEquals(snapshot.getContext().get(ConversionSnapshot.VERSION), Long.valueOf(snapshot.getVersion()));
+        assertNull(snapshot.getContext().get(ConversionSnapshot.TIMESTAMP));
+        ExchangeRate rate = snapshot.getExchangeRate(CHF, EUR);
+        assertEquals(rate.getContext().getProviderName(), "test");
+        assertEquals(rate.getContext().getRateType(), RateType.REALTIME);
+        assertEquals(rate.getContext().get(ConversionSnapshot.VERSION), Long.valueOf(snapshot.getVersion()));
+        CurrencyConversion conversion = snapshot.getCurrencyConversion(EUR);
+        assertSame(conversion.getExchangeRateProvider(), snapshot);
+        assertEquals(conversion.getContext().get(ConversionSnapshot.VERSION), Long.valueOf(snapshot.getVersion()));
+        assertNull(rate.getContext().get(ConversionSnapshot.TIMESTAMP));
+    }
+
+    @Test
+    public void testSnapshot_Conversions() {
+        TestRateProvider provider = new TestRateProvider("test", RateType.REALTIME).addRate("CHF", "EUR", "0.5");
+        ConversionSnapshot snapshot = provider.snapshot();
+        CurrencyConversion conversion = snapshot.getCurrencyConversion(EUR);
+        assertEquals(TestAmount.of("10", CHF).with(conversion), TestAmount.of("5", EUR));
+        provider.addRate("CHF", "EUR", "0.6");
+        assertEquals(TestAmount.of("10", CHF).with(snapshot.getCurrencyConversion(EUR)), TestAmount.of("5", EUR));
+        assertEquals(conversion.convertAll(Arrays.asList(TestAmount.of("2", CHF))),
+                Arrays.asList(TestAmount.of("1", EUR)));
+    }
+
+    @Test
+    public void testSnapshot_Matrix() {
+        MatrixExchangeRateProvider provider = MatrixExchangeRateProvider.of(
+                ProviderContext.of("matrix", RateType.REALTIME), Arrays.asList(CHF, EUR));
+        assertEquals(provider.getVersion(), 0L);
+        provider.newMatrix().setFactor(CHF, EUR, 0.5).publish();
+        assertEquals(provider.getVersion(), 1L);
+        ConversionSnapshot snapshot = provider.snapshot();
+        assertEquals(snapshot.getVersion(), 1L);
+        assertTrue(snapshot.isPointInTime());
+        assertNotNull(snapshot.getTimestamp());
+        assertEquals(snapshot.getExchangeRate(CHF, EUR).getContext().get(ConversionSnapshot.TIMESTAMP),
+                snapshot.getTimestamp());
+        provider.newMatrix().setFactor(CHF, EUR, 0.6).setFactor(EUR, CHF, 2.0).publish();
+        assertEquals(provider.getVersion(), 2L);
+        assertEquals(snapshot.getExchangeRate(CHF, EUR).getFactor().doubleValue(), 0.5);
+        assertFalse(snapshot.isAvailable(ConversionQueryBuilder.of().setBaseCurrency(EUR).setTermCurrency(CHF)
+                .build()));
+        assertEquals(provider.getExchangeRate(CHF, EUR).getFactor().doubleValue(), 0.6);
+        assertEquals(provider.snapshot().getExchangeRate(EUR, CHF).getFactor().doubleValue(), 2.0);
+    }
+}
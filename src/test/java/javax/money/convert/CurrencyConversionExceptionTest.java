@@ -10,6 +10,7 @@
  */
 package javax.money.convert;
 
+import javax.money.MonetaryException;
 import javax.money.CurrencyUnit;
 import javax.money.TestCurrency;
 
@@ -63,4 +64,21 @@ public class CurrencyConversionExceptionTest {
         Assert.assertTrue(toString.contains("blabla"));
     }
 
+    @Test
+    public void testStackless() {
+        CurrencyUnit base = TestCurrency.of("CHF");
+        CurrencyUnit term = TestCurrency.of("EUR");
+        MonetaryException.setStackTraceEnabled(false);
+        try {
+            CurrencyConversionException ex = new CurrencyConversionException(base, term, CONTEXT100, "blabla");
+            Assert.assertEquals(ex.getStackTrace().length, 0);
+            Assert.assertEquals("Cannot convert CHF into EUR: blabla", ex.getMessage());
+            IllegalStateException cause = new IllegalStateException("test");
+            Assert.assertSame(ex.initCause(cause).getCause(), cause);
+        } finally {
+            MonetaryException.setStackTraceEnabled(true);
+        }
+        Assert.assertTrue(new CurrencyConversionException(base, term, CONTEXT100).getStackTrace().length > 0);
+    }
+
 }
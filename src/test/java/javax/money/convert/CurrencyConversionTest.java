@@ -0,0 +1,213 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.money.TestCurrency;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for the bulk conversions of {@link CurrencyConversion}.
+ */
+public class CurrencyConversionTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final CurrencyUnit USD = TestCurrency.of("USD");
+
+    private static TestRateProvider createProvider() {
+        return new TestRateProvider("test", RateType.DEFERRED).addRate("CHF", "EUR", "0.5")
+                .addRate("USD", "EUR", "0.8");
+    }
+
+    private static CurrencyConversion createConversion(ExchangeRateProvider provider) {
+        return new ProviderConversion(provider, ConversionQueryBuilder.of().setTermCurrency(EUR).build());
+    }
+
+    private static List<MonetaryAmount> createAmounts(int count) {
+        List<MonetaryAmount> amounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            amounts.add(TestAmount.of(String.valueOf(i), i % 3 == 0 ? CHF : i % 3 == 1 ? USD : EUR));
+        }
+        return amounts;
+    }
+
+    @Test
+    public void testApply() {
+        CurrencyConversion conversion = createConversion(createProvider());
+        assertEquals(TestAmount.of("10", CHF).with(conversion), TestAmount.of("5", EUR));
+        assertEquals(TestAmount.of("10", EUR).with(conversion), TestAmount.of("10", EUR));
+    }
+
+    @Test
+    public void testTryApply() {
+        CurrencyConversion conversion = createConversion(createProvider());
+        assertEquals(conversion.tryApply(TestAmount.of("10", CHF)).get(), TestAmount.of("5", EUR));
+        assertEquals(conversion.tryApply(TestAmount.of("10", EUR)).get(), TestAmount.of("10", EUR));
+        assertFalse(conversion.tryApply(TestAmount.of("10", TestCurrency.of("GBP"))).isPresent());
+    }
+
+    @Test
+    public void testApplyAsync() throws Exception {
+        CurrencyConversion conversion = createConversion(createProvider());
+        assertEquals(conversion.applyAsync(TestAmount.of("10", CHF)).get(), TestAmount.of("5", EUR));
+        assertTrue(conversion.applyAsync(TestAmount.of("10", EUR)).isDone());
+        try {
+            conversion.applyAsync(TestAmount.of("10", TestCurrency.of("GBP"))).get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CurrencyConversionException);
+        }
+    }
+
+    @Test
+    public void testApplyAsync_Executor() throws Exception {
+        Executor executor = MonetaryConversions.getAsyncExecutor();
+        AtomicInteger tasks = new AtomicInteger();
+        MonetaryConversions.setAsyncExecutor(task -> {
+            tasks.incrementAndGet();
+            task.run();
+        });
+        try {
+            TestRateProvider provider = createProvider();
+            assertEquals(createConversion(provider).applyAsync(TestAmount.of("10", USD)).get(),
+                    TestAmount.of("8", EUR));
+            assertEquals(provider.getExchangeRateAsync(USD, EUR).get().getFactor().doubleValue(), 0.8);
+            assertEquals(tasks.get(), 2);
+        } finally {
+            MonetaryConversions.setAsyncExecutor(executor);
+        }
+    }
+
+    @Test
+    public void testConvertAll() {
+        TestRateProvider provider = createProvider();
+        CurrencyConversion conversion = createConversion(provider);
+        List<MonetaryAmount> result = conversion.convertAll(Arrays.asList(TestAmount.of("10", CHF),
+                TestAmount.of("10", USD), TestAmount.of("7", EUR), TestAmount.of("2", CHF)));
+        assertEquals(result, Arrays.asList(TestAmount.of("5", EUR), TestAmount.of("8", EUR),
+                TestAmount.of("7", EUR), TestAmount.of("1", EUR)));
+        assertEquals(provider.getCallCount(), 2);
+    }
+
+    @Test
+    public void testConvertAll_MatchesApply() {
+        CurrencyConversion conversion = createConversion(createProvider());
+        List<MonetaryAmount> amounts = createAmounts(300);
+        assertEquals(conversion.convertAll(amounts),
+                amounts.stream().map(conversion::apply).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testConvertAll_Default() {
+        CurrencyConversion conversion = new RoundingConversion(createConversion(createProvider()));
+        List<MonetaryAmount> amounts = Arrays.asList(TestAmount.of("10.5", CHF), TestAmount.of("3", USD),
+                TestAmount.of("7", EUR));
+        List<MonetaryAmount> expected = Arrays.asList(TestAmount.of("5", EUR), TestAmount.of("2", EUR),
+                TestAmount.of("7", EUR));
+        assertEquals(conversion.convertAll(amounts), expected);
+        assertEquals(conversion.convert(amounts.parallelStream()).collect(Collectors.toList()), expected);
+    }
+
+    @Test
+    public void testApply_OtherTermCurrency() {
+        TestRateProvider rates = new TestRateProvider("test", RateType.DEFERRED).addRate("CHF", "USD", "2");
+        ExchangeRateProvider provider = new ExchangeRateProvider() {
+            @Override
+            public ProviderContext getContext() {
+                return rates.getContext();
+            }
+
+            @Override
+            public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+                return rates.getExchangeRate(conversionQuery.toBuilder().setTermCurrency(USD).build());
+            }
+
+            @Override
+            public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+                return new ProviderConversion(this, conversionQuery);
+            }
+        };
+        CurrencyConversion conversion = createConversion(provider);
+        assertFalse(conversion.tryApply(TestAmount.of("10", CHF)).isPresent());
+        try {
+            conversion.apply(TestAmount.of("10", CHF));
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            assertEquals(e.getTermCurrency(), EUR);
+        }
+    }
+
+    @Test(expectedExceptions = CurrencyConversionException.class)
+    public void testConvertAll_NotAvailable() {
+        createConversion(createProvider()).convertAll(Arrays.asList(TestAmount.of("10", TestCurrency.of("GBP"))));
+    }
+
+    @Test
+    public void testConvert_ParallelStream() {
+        TestRateProvider provider = createProvider();
+        CurrencyConversion conversion = createConversion(provider);
+        List<MonetaryAmount> amounts = createAmounts(10_000);
+        List<MonetaryAmount> result = conversion.convert(amounts.parallelStream()).collect(Collectors.toList());
+        assertEquals(result, amounts.stream().map(conversion::apply).collect(Collectors.toList()));
+        // two rates for the bulk conversion, 6667 for the single conversions
+        assertEquals(provider.getCallCount(), 2 + 6667);
+    }
+
+    /**
+     * Conversion applying additional logic in {@link #apply(MonetaryAmount)}, truncating the converted amounts,
+     * without overriding the bulk conversions.
+     */
+    private static final class RoundingConversion implements CurrencyConversion {
+        private final CurrencyConversion conversion;
+
+        RoundingConversion(CurrencyConversion conversion) {
+            this.conversion = conversion;
+        }
+
+        @Override
+        public MonetaryAmount apply(MonetaryAmount amount) {
+            MonetaryAmount converted = conversion.apply(amount);
+            return TestAmount.of(String.valueOf(converted.getNumber().longValue()), converted.getCurrency());
+        }
+
+        @Override
+        public CurrencyUnit getCurrency() {
+            return conversion.getCurrency();
+        }
+
+        @Override
+        public ConversionContext getContext() {
+            return conversion.getContext();
+        }
+
+        @Override
+        public ExchangeRate getExchangeRate(MonetaryAmount sourceAmount) {
+            return conversion.getExchangeRate(sourceAmount);
+        }
+
+        @Override
+        public ExchangeRateProvider getExchangeRateProvider() {
+            return conversion.getExchangeRateProvider();
+        }
+    }
+}
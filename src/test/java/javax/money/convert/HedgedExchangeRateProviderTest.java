@@ -0,0 +1,247 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.money.TestCurrency;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link HedgedExchangeRateProvider}.
+ */
+public class HedgedExchangeRateProviderTest {
+
+    private static final ConversionQuery QUERY = ConversionQueryBuilder.of().setBaseCurrency(TestCurrency.of("CHF"))
+            .setTermCurrency(TestCurrency.of("EUR")).build();
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void createExecutor() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Provider evaluating its rates by a function, returning null on a miss.
+     */
+    private static final class FunctionProvider implements ExchangeRateProvider {
+        private final TestRateProvider rates;
+        private final Function<ConversionQuery, Boolean> lookup;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FunctionProvider(String name, Function<ConversionQuery, Boolean> lookup) {
+            this.rates = new TestRateProvider(name, RateType.DEFERRED).addRate("CHF", "EUR", "0.9");
+            this.lookup = lookup;
+        }
+
+        @Override
+        public ProviderContext getContext() {
+            return rates.getContext();
+        }
+
+        @Override
+        public ExchangeRate getExchangeRate(ConversionQuery conversionQuery) {
+            calls.incrementAndGet();
+            return lookup.apply(conversionQuery) ? rates.getExchangeRate(conversionQuery) : null;
+        }
+
+        @Override
+        public CurrencyConversion getCurrencyConversion(ConversionQuery conversionQuery) {
+            return new ProviderConversion(this, conversionQuery);
+        }
+    }
+
+    private static String providerOf(ExchangeRate rate) {
+        return rate.getContext().getProviderName();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Latch not released.");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testPriority() {
+        CountDownLatch secondCalled = new CountDownLatch(1);
+        FunctionProvider first = new FunctionProvider("first", q -> {
+            await(secondCalled);
+            return true;
+        });
+        FunctionProvider second = new FunctionProvider("second", q -> {
+            secondCalled.countDown();
+            return true;
+        });
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(first, second).setExecutor(executor).build();
+        assertEquals(providerOf(provider.getExchangeRate(QUERY)), "first");
+    }
+
+    @Test
+    public void testParallelMiss() {
+        CountDownLatch secondCalled = new CountDownLatch(1);
+        FunctionProvider first = new FunctionProvider("first", q -> {
+            await(secondCalled);
+            return false;
+        });
+        FunctionProvider second = new FunctionProvider("second", q -> {
+            secondCalled.countDown();
+            return true;
+        });
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(first, second).setExecutor(executor).build();
+        assertEquals(providerOf(provider.getExchangeRate(QUERY)), "second");
+        assertTrue(provider.isAvailable(QUERY));
+    }
+
+    @Test
+    public void testCancel() {
+        CountDownLatch secondRunning = new CountDownLatch(1);
+        CountDownLatch secondInterrupted = new CountDownLatch(1);
+        FunctionProvider first = new FunctionProvider("first", q -> {
+            await(secondRunning);
+            return true;
+        });
+        FunctionProvider second = new FunctionProvider("second", q -> {
+            secondRunning.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                secondInterrupted.countDown();
+            }
+            return true;
+        });
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(first, second).setExecutor(executor).build();
+        assertEquals(providerOf(provider.getExchangeRate(QUERY)), "first");
+        await(secondInterrupted);
+    }
+
+    @Test
+    public void testHedgeDelay() {
+        FunctionProvider first = new FunctionProvider("first", q -> q.getRateTypes().isEmpty());
+        FunctionProvider second = new FunctionProvider("second", q -> true);
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(first, second).setHedgeDelay(Duration.ofSeconds(10)).setExecutor(executor).build();
+        assertEquals(provider.getHedgeDelay(), Duration.ofSeconds(10));
+        assertEquals(providerOf(provider.getExchangeRate(QUERY)), "first");
+        assertEquals(second.calls.get(), 0);
+        // the start of the second lookup is cancelled, once the first one returned a rate
+        assertEquals(HedgedExchangeRateProvider.getScheduledCount(), 0);
+        long start = System.nanoTime();
+        assertEquals(providerOf(provider.getExchangeRate(QUERY.toBuilder().setRateTypes(RateType.DEFERRED)
+                .build())), "second");
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testProviderNames() {
+        FunctionProvider first = new FunctionProvider("first", q -> true);
+        FunctionProvider second = new FunctionProvider("second", q -> true);
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(first, second).build();
+        assertEquals(providerOf(provider.getExchangeRate(QUERY.toBuilder().setProviderNames("second", "first")
+                .build())), "second");
+        assertEquals(providerOf(provider.getExchangeRate(QUERY.toBuilder().setProviderName("hedged").build())),
+                "first");
+        int calls = first.calls.get() + second.calls.get();
+        ConversionQuery other = QUERY.toBuilder().setProviderName("other").build();
+        assertFalse(provider.findExchangeRate(other).isPresent());
+        assertFalse(provider.isAvailable(other));
+        assertEquals(first.calls.get() + second.calls.get(), calls);
+    }
+
+    @Test
+    public void testWrappedFailures() {
+        FunctionProvider missing = new FunctionProvider("missing", q -> {
+            throw new CurrencyConversionException(q.getBaseCurrency(), q.getCurrency(), null, "No rate.");
+        });
+        FunctionProvider failing = new FunctionProvider("failing", q -> {
+            throw new CurrencyConversionException(q.getBaseCurrency(), q.getCurrency(), null, "Read failed.",
+                    new IOException("Connection reset."));
+        });
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(missing, failing).setExecutor(executor).build();
+        try {
+            provider.getExchangeRate(QUERY);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            // the wrapped I/O error is a failure, reported as cause
+            assertTrue(e.getCause() instanceof CurrencyConversionException);
+            assertTrue(e.getCause().getCause() instanceof IOException);
+        }
+        provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged")).addProviders(missing)
+                .setExecutor(executor).build();
+        try {
+            provider.getExchangeRate(QUERY);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            assertNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void testNotAvailable() throws Exception {
+        FunctionProvider missing = new FunctionProvider("missing", q -> false);
+        FunctionProvider failing = new FunctionProvider("failing", q -> {
+            throw new IllegalStateException("Service unavailable.");
+        });
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(missing, failing).setExecutor(executor).build();
+        assertFalse(provider.findExchangeRate(QUERY).isPresent());
+        try {
+            provider.getExchangeRate(QUERY);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals(e.getConversionContext().getProviderName(), "hedged");
+        }
+        try {
+            provider.getExchangeRateAsync(QUERY).get(5, TimeUnit.SECONDS);
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CurrencyConversionException);
+        }
+    }
+
+    @Test
+    public void testGetExchangeRateAsync() throws Exception {
+        HedgedExchangeRateProvider provider = HedgedExchangeRateProvider.builder(ProviderContext.of("hedged"))
+                .addProviders(new FunctionProvider("first", q -> false), new FunctionProvider("second", q -> true))
+                .setExecutor(executor).build();
+        assertEquals(providerOf(provider.getExchangeRateAsync(QUERY).get(5, TimeUnit.SECONDS)), "second");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidHedgeDelay() {
+        HedgedExchangeRateProvider.builder(ProviderContext.of("hedged")).setHedgeDelay(Duration.ofMillis(-1));
+    }
+}
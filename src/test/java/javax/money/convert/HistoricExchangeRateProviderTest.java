@@ -0,0 +1,198 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link HistoricExchangeRateProvider}.
+ */
+public class HistoricExchangeRateProviderTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final LocalDate DAY = LocalDate.of(2015, 1, 14);
+
+    private static HistoricExchangeRateProvider provider(HistoricExchangeRateProvider.LookupPolicy policy) {
+        return HistoricExchangeRateProvider.of(ProviderContext.of("hist", RateType.HISTORIC), policy)
+                .addFixing(EUR, CHF, DAY, 1.2)
+                .addFixing(EUR, CHF, DAY.plusDays(4), 1.0)
+                .addFixing(EUR, CHF, DAY.plusDays(1), 1.1);
+    }
+
+    private static ConversionQuery query(Object timestamp) {
+        ConversionQueryBuilder builder = ConversionQueryBuilder.of().setBaseCurrency(EUR).setTermCurrency(CHF);
+        if (timestamp instanceof LocalDate) {
+            builder.setTimestamp((LocalDate) timestamp);
+        } else if (timestamp instanceof Long) {
+            builder.setTimestampMillis((Long) timestamp);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testExact() {
+        HistoricExchangeRateProvider provider = HistoricExchangeRateProvider.of(
+                ProviderContext.of("hist", RateType.HISTORIC)).addFixing(EUR, CHF, DAY, 1.2);
+        assertEquals(provider.getLookupPolicy(), HistoricExchangeRateProvider.LookupPolicy.EXACT);
+        ExchangeRate rate = provider.getExchangeRate(query(DAY));
+        assertEquals(rate.getFactor().doubleValue(), 1.2);
+        assertEquals(rate.getBaseCurrency(), EUR);
+        assertEquals(rate.getCurrency(), CHF);
+        assertEquals(rate.getContext().getRateType(), RateType.HISTORIC);
+        assertEquals(rate.getContext().get(HistoricExchangeRateProvider.FIXING_DATE), DAY);
+        assertTrue(provider.isAvailable(query(DAY)));
+        assertFalse(provider.isAvailable(query(DAY.plusDays(1))));
+        assertFalse(provider.isAvailable(query(DAY.minusDays(1))));
+        assertTrue(Double.isNaN(provider.getFactor(EUR, CHF, DAY.plusDays(1))));
+        assertEquals(provider.findExchangeRate(query(DAY)).get().getFactor().doubleValue(), 1.2);
+        assertFalse(provider.findExchangeRate(query(DAY.plusDays(1))).isPresent());
+        try {
+            provider.getExchangeRate(query(DAY.plusDays(1)));
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPrevious() {
+        HistoricExchangeRateProvider provider = provider(HistoricExchangeRateProvider.LookupPolicy.PREVIOUS);
+        assertEquals(provider.getFixingCount(EUR, CHF), 3);
+        assertEquals(provider.getFactor(EUR, CHF, DAY), 1.2);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(1)), 1.1);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(3)), 1.1);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(100)), 1.0);
+        assertTrue(Double.isNaN(provider.getFactor(EUR, CHF, DAY.minusDays(1))));
+        ExchangeRate rate = provider.getExchangeRate(query(DAY.plusDays(2)));
+        assertEquals(rate.getFactor().doubleValue(), 1.1);
+        assertEquals(rate.getContext().get(HistoricExchangeRateProvider.FIXING_DATE), DAY.plusDays(1));
+        assertFalse(provider.isAvailable(query(DAY.minusDays(1))));
+    }
+
+    @Test
+    public void testInterpolate() {
+        HistoricExchangeRateProvider provider = provider(HistoricExchangeRateProvider.LookupPolicy.INTERPOLATE);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(2)), 1.1 - 0.1 / 3, 1e-12);
+        ExchangeRate rate = provider.getExchangeRate(query(DAY.plusDays(3)));
+        assertEquals(rate.getFactor().doubleValue(), 1.1 - 0.2 / 3, 1e-12);
+        assertEquals(rate.getContext().get(HistoricExchangeRateProvider.FIXING_DATE), DAY.plusDays(3));
+        rate = provider.getExchangeRate(query(DAY.plusDays(10)));
+        assertEquals(rate.getFactor().doubleValue(), 1.0);
+        assertEquals(rate.getContext().get(HistoricExchangeRateProvider.FIXING_DATE), DAY.plusDays(4));
+        assertFalse(provider.isAvailable(query(DAY.minusDays(1))));
+    }
+
+    @Test
+    public void testTimestamps() {
+        HistoricExchangeRateProvider provider = provider(HistoricExchangeRateProvider.LookupPolicy.EXACT);
+        long millis = DAY.plusDays(1).toEpochDay() * 86_400_000L + 3_600_000L;
+        assertEquals(provider.getExchangeRate(query(millis)).getFactor().doubleValue(), 1.1);
+        assertEquals(provider.getExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(EUR).setTermCurrency(CHF)
+                .setTimestamp(Instant.ofEpochMilli(millis)).build()).getFactor().doubleValue(), 1.1);
+        // without timestamp the latest fixing is used
+        ExchangeRate rate = provider.getExchangeRate(query(null));
+        assertEquals(rate.getFactor().doubleValue(), 1.0);
+        assertEquals(rate.getContext().get(HistoricExchangeRateProvider.FIXING_DATE), DAY.plusDays(4));
+    }
+
+    @Test
+    public void testZonedAndUndatedTimestamps() {
+        HistoricExchangeRateProvider provider = provider(HistoricExchangeRateProvider.LookupPolicy.PREVIOUS);
+        // zoned timestamps are evaluated at their local date, not in UTC
+        ZonedDateTime zoned = DAY.plusDays(1).atTime(0, 30).atZone(ZoneOffset.ofHours(2));
+        assertEquals(provider.getExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(EUR).setTermCurrency(CHF)
+                .setTimestamp(zoned).build()).getFactor().doubleValue(), 1.1);
+        // timestamps without date are missed
+        ConversionQuery query = ConversionQueryBuilder.of().setBaseCurrency(EUR).setTermCurrency(CHF)
+                .setTimestamp(YearMonth.of(2015, 1)).build();
+        assertNull(query.getTimestampMillis());
+        assertFalse(provider.isAvailable(query));
+        assertFalse(provider.findExchangeRate(query).isPresent());
+        try {
+            provider.getExchangeRate(query);
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            // expected
+        }
+        query = ConversionQueryBuilder.of().setBaseCurrency(EUR).setTermCurrency(CHF)
+                .setTimestamp(LocalTime.NOON).build();
+        assertFalse(provider.findExchangeRate(query).isPresent());
+    }
+
+    @Test
+    public void testQueryTimestamp() {
+        ConversionQuery query = query(DAY);
+        assertEquals(query.getTimestamp(), DAY);
+        assertEquals(query.getTimestampMillis(), Long.valueOf(DAY.toEpochDay() * 86_400_000L));
+        query = query(1000L);
+        assertEquals(query.getTimestamp(), Instant.ofEpochMilli(1000L));
+        assertEquals(query.getTimestampMillis(), Long.valueOf(1000L));
+        assertNull(query(null).getTimestamp());
+        assertNull(query(null).getTimestampMillis());
+    }
+
+    @Test
+    public void testCorrectionAndBulkLoad() {
+        HistoricExchangeRateProvider provider = provider(HistoricExchangeRateProvider.LookupPolicy.EXACT);
+        provider.addFixing(EUR, CHF, DAY, 1.25);
+        assertEquals(provider.getFixingCount(EUR, CHF), 3);
+        assertEquals(provider.getFactor(EUR, CHF, DAY), 1.25);
+        int start = (int) DAY.plusDays(10).toEpochDay();
+        provider.addFixings(EUR, CHF, new int[]{start, start + 1, start + 2}, new double[]{0.9, 0.91, 0.92});
+        assertEquals(provider.getFixingCount(EUR, CHF), 6);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(12)), 0.92);
+        provider.addFixings(EUR, CHF, new int[]{start - 1, start + 1, start - 20},
+                new double[]{0.8, 0.95, 1.5});
+        assertEquals(provider.getFixingCount(EUR, CHF), 8);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(9)), 0.8);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(11)), 0.95);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.minusDays(10)), 1.5);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(1)), 1.1);
+        assertEquals(provider.getFixingCount(CHF, EUR), 0);
+    }
+
+    @Test
+    public void testAppendMany() {
+        HistoricExchangeRateProvider provider = HistoricExchangeRateProvider.of(
+                ProviderContext.of("hist", RateType.HISTORIC), HistoricExchangeRateProvider.LookupPolicy.PREVIOUS);
+        for (int i = 0; i < 3650; i++) {
+            provider.addFixing(EUR, CHF, DAY.plusDays(i), 1.0 + i / 10_000.0);
+        }
+        assertEquals(provider.getFixingCount(EUR, CHF), 3650);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(1234)), 1.1234, 1e-12);
+    }
+
+    @Test
+    public void testRateTypesAndConversion() {
+        HistoricExchangeRateProvider provider = provider(HistoricExchangeRateProvider.LookupPolicy.EXACT);
+        assertFalse(provider.isAvailable(query(DAY).toBuilder().setRateTypes(RateType.REALTIME).build()));
+        CurrencyConversion conversion = provider.getCurrencyConversion(
+                ConversionQueryBuilder.of().setTermCurrency(CHF).setTimestamp(DAY).build());
+        assertEquals(TestAmount.of("10", EUR).with(conversion), TestAmount.of("12.0", CHF));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidFactor() {
+        provider(HistoricExchangeRateProvider.LookupPolicy.EXACT).addFixing(EUR, CHF, DAY, -1.0);
+    }
+}
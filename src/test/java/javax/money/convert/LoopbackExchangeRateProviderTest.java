@@ -0,0 +1,304 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link LoopbackExchangeRateProvider} and the rate publishers of {@link ExchangeRateProvider}.
+ */
+public class LoopbackExchangeRateProviderTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final CurrencyUnit USD = TestCurrency.of("USD");
+
+    private static ExchangeRate rate(CurrencyUnit base, CurrencyUnit term, String factor) {
+        return new DefaultExchangeRate.Builder("loop", RateType.REALTIME).setBaseCurrency(base)
+                .setTermCurrency(term).setFactor(TestNumberValue.of(new BigDecimal(factor))).build();
+    }
+
+    private static LoopbackExchangeRateProvider provider() {
+        return LoopbackExchangeRateProvider.of(ProviderContext.of("loop", RateType.REALTIME));
+    }
+
+    private static RecordingSubscriber subscribe(ExchangeRateProvider provider, ConversionQuery query) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        provider.getRatePublisher(query).orElseThrow(IllegalStateException::new).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private static String factors(List<ExchangeRate> rates) {
+        StringBuilder b = new StringBuilder();
+        for (ExchangeRate rate : rates) {
+            b.append(rate.getBaseCurrency().getCurrencyCode()).append('/')
+                    .append(rate.getCurrency().getCurrencyCode()).append('=')
+                    .append(rate.getFactor().numberValue(BigDecimal.class).toPlainString()).append(' ');
+        }
+        return b.toString().trim();
+    }
+
+    @Test
+    public void testPull() {
+        LoopbackExchangeRateProvider provider = provider();
+        assertFalse(provider.isAvailable(CHF, EUR));
+        provider.publish(rate(CHF, EUR, "0.9"));
+        provider.publish(rate(CHF, EUR, "0.91"));
+        assertTrue(provider.isAvailable(CHF, EUR));
+        assertEquals(provider.getExchangeRate(CHF, EUR).getFactor().numberValue(BigDecimal.class),
+                new BigDecimal("0.91"));
+        assertEquals(TestAmount.of("100", CHF).with(provider.getCurrencyConversion(EUR)), TestAmount.of("91", EUR));
+    }
+
+    @Test(expectedExceptions = CurrencyConversionException.class)
+    public void testPull_NotAvailable() {
+        provider().getExchangeRate(CHF, EUR);
+    }
+
+    @Test
+    public void testSubscribe_Unbounded() {
+        LoopbackExchangeRateProvider provider = provider();
+        RecordingSubscriber all = subscribe(provider, ConversionQueryBuilder.of().build());
+        RecordingSubscriber pair = subscribe(provider, ConversionQueryBuilder.of().setBaseCurrency(CHF)
+                .setTermCurrency(EUR).build());
+        assertEquals(provider.getSubscriptionCount(), 2);
+        all.subscription.request(Long.MAX_VALUE);
+        pair.subscription.request(Long.MAX_VALUE);
+        provider.publish(rate(CHF, EUR, "0.9"));
+        provider.publish(rate(USD, EUR, "0.8"));
+        provider.publish(rate(CHF, EUR, "0.91"));
+        assertEquals(factors(all.rates), "CHF/EUR=0.9 USD/EUR=0.8 CHF/EUR=0.91");
+        assertEquals(factors(pair.rates), "CHF/EUR=0.9 CHF/EUR=0.91");
+    }
+
+    @Test
+    public void testSubscribe_ConflatesUnrequested() {
+        LoopbackExchangeRateProvider provider = provider();
+        RecordingSubscriber subscriber = subscribe(provider, ConversionQueryBuilder.of().setTermCurrency(EUR).build());
+        provider.publish(rate(CHF, EUR, "0.9"));
+        provider.publish(rate(USD, EUR, "0.8"));
+        provider.publish(rate(CHF, EUR, "0.91"));
+        provider.publish(rate(EUR, CHF, "1.1"));
+        provider.publish(rate(CHF, EUR, "0.92"));
+        assertTrue(subscriber.rates.isEmpty());
+        subscriber.subscription.request(1);
+        assertEquals(factors(subscriber.rates), "CHF/EUR=0.92");
+        provider.publish(rate(USD, EUR, "0.81"));
+        subscriber.subscription.request(5);
+        assertEquals(factors(subscriber.rates), "CHF/EUR=0.92 USD/EUR=0.81");
+        provider.publish(rate(USD, EUR, "0.82"));
+        assertEquals(factors(subscriber.rates), "CHF/EUR=0.92 USD/EUR=0.81 USD/EUR=0.82");
+    }
+
+    @Test
+    public void testSubscribe_ReceivesLatest() {
+        LoopbackExchangeRateProvider provider = provider();
+        provider.publish(rate(CHF, EUR, "0.9"));
+        provider.publish(rate(CHF, EUR, "0.91"));
+        provider.publish(rate(USD, EUR, "0.8"));
+        RecordingSubscriber subscriber = subscribe(provider, ConversionQueryBuilder.of().setBaseCurrency(CHF).build());
+        subscriber.subscription.request(10);
+        assertEquals(factors(subscriber.rates), "CHF/EUR=0.91");
+    }
+
+    @Test
+    public void testSubscribe_ConcurrentPublish() throws Exception {
+        List<CurrencyUnit> terms = new ArrayList<>();
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            if (terms.size() < 100 && !currency.getCurrencyCode().equals("CHF")) {
+                terms.add(TestCurrency.of(currency));
+            }
+        }
+        for (int run = 0; run < 200; run++) {
+            LoopbackExchangeRateProvider provider = provider();
+            for (CurrencyUnit term : terms) {
+                provider.publish(rate(CHF, term, "1"));
+            }
+            CyclicBarrier start = new CyclicBarrier(2);
+            Thread publisher = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (CurrencyUnit term : terms) {
+                    provider.publish(rate(CHF, term, "2"));
+                }
+            });
+            publisher.start();
+            Map<CurrencyUnit, ExchangeRate> received = new ConcurrentHashMap<>();
+            RecordingSubscriber subscriber = new RecordingSubscriber() {
+                @Override
+                public void onNext(ExchangeRate item) {
+                    received.put(item.getCurrency(), item);
+                }
+            };
+            start.await();
+            provider.getRatePublisher(ConversionQueryBuilder.of().build()).get().subscribe(subscriber);
+            publisher.join();
+            subscriber.subscription.request(Long.MAX_VALUE);
+            // a replayed rate never supersedes a newer rate published concurrently
+            for (CurrencyUnit term : terms) {
+                assertEquals(received.get(term).getFactor().numberValue(BigDecimal.class), new BigDecimal("2"),
+                        term.getCurrencyCode());
+            }
+        }
+    }
+
+    @Test
+    public void testSubscribe_RequestFromOnNext() {
+        LoopbackExchangeRateProvider provider = provider();
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(ExchangeRate item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        provider.getRatePublisher(ConversionQueryBuilder.of().build()).get().subscribe(subscriber);
+        provider.publish(rate(CHF, EUR, "0.9"));
+        provider.publish(rate(USD, EUR, "0.8"));
+        subscriber.subscription.request(1);
+        assertEquals(factors(subscriber.rates), "CHF/EUR=0.9 USD/EUR=0.8");
+        provider.publish(rate(USD, EUR, "0.81"));
+        assertEquals(subscriber.rates.size(), 3);
+    }
+
+    @Test
+    public void testCancelAndComplete() {
+        LoopbackExchangeRateProvider provider = provider();
+        RecordingSubscriber cancelled = subscribe(provider, ConversionQueryBuilder.of().build());
+        RecordingSubscriber completed = subscribe(provider, ConversionQueryBuilder.of().build());
+        cancelled.subscription.request(Long.MAX_VALUE);
+        cancelled.subscription.cancel();
+        assertEquals(provider.getSubscriptionCount(), 1);
+        provider.publish(rate(CHF, EUR, "0.9"));
+        assertTrue(cancelled.rates.isEmpty());
+        provider.complete();
+        assertFalse(completed.completed);
+        completed.subscription.request(1);
+        assertEquals(completed.rates.size(), 1);
+        assertTrue(completed.completed);
+        assertEquals(provider.getSubscriptionCount(), 0);
+        RecordingSubscriber late = subscribe(provider, ConversionQueryBuilder.of().setBaseCurrency(USD).build());
+        assertTrue(late.completed);
+        try {
+            provider.publish(rate(CHF, EUR, "0.91"));
+            fail("IllegalStateException expected.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSubscribe_FailingSubscriber() {
+        LoopbackExchangeRateProvider provider = provider();
+        RecordingSubscriber failing = new RecordingSubscriber() {
+            @Override
+            public void onNext(ExchangeRate item) {
+                throw new IllegalStateException("test");
+            }
+        };
+        provider.getRatePublisher(ConversionQueryBuilder.of().build()).get().subscribe(failing);
+        failing.subscription.request(Long.MAX_VALUE);
+        RecordingSubscriber subscriber = subscribe(provider, ConversionQueryBuilder.of().build());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        provider.publish(rate(CHF, EUR, "0.9"));
+        assertEquals(subscriber.rates.size(), 1);
+        assertEquals(provider.getSubscriptionCount(), 1);
+        provider.publish(rate(CHF, EUR, "0.91"));
+        assertEquals(subscriber.rates.size(), 2);
+    }
+
+    @Test
+    public void testSubscribe_NoSignalsBeforeOnSubscribe() {
+        LoopbackExchangeRateProvider provider = provider();
+        List<String> signals = new ArrayList<>();
+        provider.getRatePublisher(ConversionQueryBuilder.of().build()).get().subscribe(new RecordingSubscriber() {
+            @Override
+            public void onSubscribe(RateFlow.Subscription subscription) {
+                signals.add("onSubscribe");
+                subscription.request(1);
+                provider.publish(rate(CHF, EUR, "0.9"));
+                provider.complete();
+                signals.add("onSubscribe returned");
+            }
+
+            @Override
+            public void onNext(ExchangeRate item) {
+                signals.add("onNext");
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("onComplete");
+            }
+        });
+        assertEquals(signals, Arrays.asList("onSubscribe", "onSubscribe returned", "onNext", "onComplete"));
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        RecordingSubscriber subscriber = subscribe(provider(), ConversionQueryBuilder.of().build());
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testDefaultPublisher() {
+        assertFalse(new TestRateProvider("test", RateType.DEFERRED)
+                .getRatePublisher(ConversionQueryBuilder.of().build()).isPresent());
+        LoopbackExchangeRateProvider provider = provider();
+        assertTrue(CachingExchangeRateProvider.of(provider).getRatePublisher(ConversionQueryBuilder.of().build())
+                .isPresent());
+    }
+
+    private static class RecordingSubscriber implements RateFlow.Subscriber<ExchangeRate> {
+
+        final List<ExchangeRate> rates = new ArrayList<>();
+        RateFlow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(RateFlow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ExchangeRate item) {
+            rates.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link MatrixExchangeRateProvider}.
+ */
+public class MatrixExchangeRateProviderTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final CurrencyUnit USD = TestCurrency.of("USD");
+
+    private static MatrixExchangeRateProvider createProvider() {
+        MatrixExchangeRateProvider provider = MatrixExchangeRateProvider.of(
+                ProviderContext.of("matrix", RateType.DEFERRED), Arrays.asList(CHF, EUR, USD));
+        provider.newMatrix().setFactor(CHF, EUR, 0.93).setFactor(EUR, CHF, 1.075).publish();
+        return provider;
+    }
+
+    @Test
+    public void testGetExchangeRate() {
+        MatrixExchangeRateProvider provider = createProvider();
+        ExchangeRate rate = provider.getExchangeRate(CHF, EUR);
+        assertEquals(rate.getBaseCurrency(), CHF);
+        assertEquals(rate.getCurrency(), EUR);
+        assertEquals(rate.getFactor().numberValue(BigDecimal.class), new BigDecimal("0.93"));
+        assertEquals(rate.getContext().getProviderName(), "matrix");
+        assertEquals(rate.getContext().getRateType(), RateType.DEFERRED);
+        assertFalse(rate.isDerived());
+        assertEquals(rate.getExchangeRateChain(), Arrays.asList(rate));
+        assertSame(provider.getExchangeRate(CHF, EUR), rate);
+        assertSame(provider.getExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(CHF).setTermCurrency(EUR)
+                .setRateTypes(RateType.DEFERRED).build()), rate);
+        assertEquals(provider.getExchangeRate(USD, USD).getFactor().doubleValue(), 1.0);
+    }
+
+    @Test(expectedExceptions = CurrencyConversionException.class)
+    public void testGetExchangeRate_NotAvailable() {
+        createProvider().getExchangeRate(CHF, USD);
+    }
+
+    @Test(expectedExceptions = CurrencyConversionException.class)
+    public void testGetExchangeRate_UnknownCurrency() {
+        createProvider().getExchangeRate(CHF, TestCurrency.of("GBP"));
+    }
+
+    @Test(expectedExceptions = CurrencyConversionException.class)
+    public void testGetExchangeRate_OtherRateType() {
+        createProvider().getExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(CHF).setTermCurrency(EUR)
+                .setRateTypes(RateType.REALTIME).build());
+    }
+
+    @Test
+    public void testFindExchangeRate() {
+        MatrixExchangeRateProvider provider = createProvider();
+        assertSame(provider.findExchangeRate(CHF, EUR).get(), provider.getExchangeRate(CHF, EUR));
+        assertFalse(provider.findExchangeRate(CHF, USD).isPresent());
+        assertFalse(provider.findExchangeRate(CHF, TestCurrency.of("GBP")).isPresent());
+        assertFalse(provider.findExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(CHF).setTermCurrency(EUR)
+                .setRateTypes(RateType.REALTIME).build()).isPresent());
+        assertFalse(provider.findExchangeRate(ConversionQueryBuilder.of().setTermCurrency(EUR).build()).isPresent());
+        assertTrue(provider.snapshot().findExchangeRate(ConversionQueryBuilder.of().setBaseCurrency(CHF)
+                .setTermCurrency(EUR).build()).isPresent());
+    }
+
+    @Test
+    public void testIsAvailable() {
+        MatrixExchangeRateProvider provider = createProvider();
+        assertTrue(provider.isAvailable(CHF, EUR));
+        assertTrue(provider.isAvailable(EUR, EUR));
+        assertFalse(provider.isAvailable(CHF, USD));
+        assertFalse(provider.isAvailable(CHF, TestCurrency.of("GBP")));
+        assertTrue(provider.isAvailable(ConversionQueryBuilder.of().setBaseCurrency(CHF).setTermCurrency(EUR)
+                .build()));
+        assertFalse(provider.isAvailable(ConversionQueryBuilder.of().setTermCurrency(EUR).build()));
+    }
+
+    @Test
+    public void testOrdinals() {
+        MatrixExchangeRateProvider provider = createProvider();
+        assertEquals(provider.getCurrencies(), Arrays.asList(CHF, EUR, USD));
+        assertEquals(provider.getOrdinal(CHF), 0);
+        assertEquals(provider.getOrdinal(USD), 2);
+        assertEquals(provider.getOrdinal(TestCurrency.of("GBP")), -1);
+        assertEquals(provider.getFactor(0, 1), 0.93, 0.0);
+        assertTrue(Double.isNaN(provider.getFactor(0, 2)));
+        assertEquals(provider.getFactor(EUR, CHF), 1.075, 0.0);
+    }
+
+    @Test
+    public void testNewMatrix_ReplacesAllFactors() {
+        MatrixExchangeRateProvider provider = createProvider();
+        ExchangeRate rate = provider.getExchangeRate(CHF, EUR);
+        provider.newMatrix().setFactors(new double[]{1, 0.95, Double.NaN, Double.NaN, 1, 1.1, 0.9, Double.NaN, 1})
+                .publish();
+        assertNotSame(provider.getExchangeRate(CHF, EUR), rate);
+        assertEquals(provider.getExchangeRate(CHF, EUR).getFactor().doubleValue(), 0.95);
+        assertEquals(provider.getExchangeRate(EUR, USD).getFactor().doubleValue(), 1.1);
+        assertFalse(provider.isAvailable(EUR, CHF));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testNewMatrix_PublishOnce() {
+        MatrixExchangeRateProvider.MatrixBuilder builder = createProvider().newMatrix();
+        builder.publish();
+        builder.publish();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNewMatrix_InvalidFactor() {
+        createProvider().newMatrix().setFactor(CHF, EUR, -1.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNewMatrix_IdenticalCurrencies() {
+        createProvider().newMatrix().setFactor(CHF, CHF, 1.0).setFactor(CHF, CHF, 2.0);
+    }
+
+    @Test
+    public void testNewMatrix_IdenticalCurrenciesIgnored() {
+        MatrixExchangeRateProvider provider = createProvider();
+        provider.newMatrix().setFactors(new double[]{Double.NaN, 0.95, Double.NaN, Double.NaN, 2, 1.1, 0.9,
+                Double.NaN, -1}).publish();
+        assertEquals(provider.getFactor(CHF, CHF), 1.0, 0.0);
+        assertEquals(provider.getFactor(EUR, EUR), 1.0, 0.0);
+        assertEquals(provider.getFactor(USD, USD), 1.0, 0.0);
+        assertEquals(provider.getFactor(CHF, EUR), 0.95, 0.0);
+    }
+
+    @Test
+    public void testNewMatrix_ConcurrentPublish() throws InterruptedException {
+        MatrixExchangeRateProvider provider = createProvider();
+        long version = provider.getVersion();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    provider.newMatrix().setFactor(CHF, EUR, 0.9).publish();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(provider.getVersion(), version + threads.length * 100);
+        assertEquals(provider.snapshot().getVersion(), provider.getVersion());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNewMatrix_UnknownCurrency() {
+        createProvider().newMatrix().setFactor(CHF, TestCurrency.of("GBP"), 1.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOf_DuplicateCurrency() {
+        MatrixExchangeRateProvider.of(ProviderContext.of("matrix"), Arrays.asList(CHF, TestCurrency.of("CHF")));
+    }
+
+    @Test
+    public void testGetCurrencyConversion() {
+        MatrixExchangeRateProvider provider = createProvider();
+        CurrencyConversion conversion = provider.getCurrencyConversion(EUR);
+        assertEquals(conversion.getCurrency(), EUR);
+        assertSame(conversion.getExchangeRateProvider(), provider);
+        assertEquals(conversion.getContext().getProviderName(), "matrix");
+    }
+}
@@ -99,11 +99,35 @@ public class MonetaryConversionsTest {
         assertNotNull(MonetaryConversions.getExchangeRateProvider("test"));
     }
 
+    @Test
+    public void testGetExchangeRateProviderAsync() throws Exception {
+        ExchangeRateProvider provider = MonetaryConversions.getExchangeRateProviderAsync(
+                ConversionQueryBuilder.of().setProviderName("test").build()).get();
+        assertEquals(provider.getContext().getProviderName(), "test");
+        assertNotNull(MonetaryConversions.getAsyncExecutor());
+    }
+
     @Test(expectedExceptions = MonetaryException.class)
     public void testGetExchangeRateProvider_Invalid() throws Exception {
         MonetaryConversions.getExchangeRateProvider("fooBarAnyBla");
     }
 
+    @Test
+    public void testGetConversion_Cached() throws Exception {
+        CurrencyConversion conversion = MonetaryConversions.getConversion(TestCurrency.of("CHF"));
+        assertSame(MonetaryConversions.getConversion(TestCurrency.of("CHF")), conversion);
+        assertSame(MonetaryConversions.getConversion(TestCurrency.of("CHF"), "test"),
+                MonetaryConversions.getConversion(TestCurrency.of("CHF"), "test"));
+        assertNotSame(MonetaryConversions.getConversion(TestCurrency.of("EUR")), conversion);
+        ConversionQuery query = ConversionQueryBuilder.of().setTermCurrency(TestCurrency.of("CHF"))
+                .setRateTypes(RateType.DEFERRED).build();
+        assertSame(MonetaryConversions.getConversion(query), MonetaryConversions.getConversion(
+                ConversionQueryBuilder.of().setTermCurrency(TestCurrency.of("CHF")).setRateTypes(RateType.DEFERRED)
+                        .build()));
+        MonetaryConversions.refresh();
+        assertNotSame(MonetaryConversions.getConversion(TestCurrency.of("CHF")), conversion);
+    }
+
     @Test
     public void testGetProviderNames() throws Exception {
         assertNotNull(MonetaryConversions.getConversionProviderNames());
@@ -117,4 +141,18 @@ public class MonetaryConversionsTest {
         assertFalse(MonetaryConversions.getDefaultConversionProviderChain().isEmpty());
         assertEquals(1, MonetaryConversions.getDefaultConversionProviderChain().size());
     }
+    @Test
+    public void testFindExchangeRateProvider() {
+        assertTrue(MonetaryConversions.findExchangeRateProvider().isPresent());
+        assertTrue(MonetaryConversions.findExchangeRateProvider("test").isPresent());
+        assertFalse(MonetaryConversions.findExchangeRateProvider("foo").isPresent());
+    }
+
+    @Test
+    public void testFindConversion() {
+        assertTrue(MonetaryConversions.findConversion("test1").isPresent());
+        assertFalse(MonetaryConversions.findConversion("testFindConversion_NA").isPresent());
+        assertFalse(MonetaryConversions.findConversion("test1", "foo").isPresent());
+    }
+
 }
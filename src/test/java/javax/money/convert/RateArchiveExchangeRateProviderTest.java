@@ -0,0 +1,169 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link RateArchiveExchangeRateProvider} and {@link RateArchiveWriter}.
+ */
+public class RateArchiveExchangeRateProviderTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final CurrencyUnit USD = TestCurrency.of("USD");
+    private static final LocalDate DAY = LocalDate.of(2015, 1, 14);
+    private static final ProviderContext CONTEXT = ProviderContext.of("archive", RateType.HISTORIC);
+
+    private Path dir;
+    private Path archive;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("rates");
+        archive = dir.resolve("rates.jmra");
+    }
+
+    @AfterMethod
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static String csv() {
+        return "date,base,term,factor\n"
+                + "# ECB fixings\n"
+                + "2015-01-18,EUR,CHF,1.0\n"
+                + "2015-01-14,EUR,CHF,1.2\n"
+                + "\n"
+                + "2015-01-15,EUR,CHF,1.1\n"
+                + "2015-01-14,EUR,USD,1.18\n";
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        long fixings = RateArchiveWriter.of().readCsv(new StringReader(csv())).write(archive);
+        assertEquals(fixings, 4L);
+        assertEquals(Files.size(archive), 16L + 2 * 32 + 4 * 12);
+        RateArchiveExchangeRateProvider provider = RateArchiveExchangeRateProvider.open(archive, CONTEXT);
+        assertEquals(provider.getPairCount(), 2);
+        assertEquals(provider.getFixingCount(EUR, CHF), 3);
+        assertEquals(provider.getFixingCount(EUR, USD), 1);
+        assertEquals(provider.getFixingCount(CHF, EUR), 0);
+        assertEquals(provider.getLookupPolicy(), HistoricExchangeRateProvider.LookupPolicy.EXACT);
+        ExchangeRate rate = provider.getExchangeRate(query(EUR, CHF, DAY.plusDays(1)));
+        assertEquals(rate.getFactor().doubleValue(), 1.1);
+        assertEquals(rate.getBaseCurrency(), EUR);
+        assertEquals(rate.getCurrency(), CHF);
+        assertEquals(rate.getContext().getProviderName(), "archive");
+        assertEquals(rate.getContext().getRateType(), RateType.HISTORIC);
+        assertEquals(rate.getContext().get(HistoricExchangeRateProvider.FIXING_DATE), DAY.plusDays(1));
+        assertEquals(provider.getExchangeRate(query(EUR, USD, DAY)).getFactor().doubleValue(), 1.18);
+        assertFalse(provider.isAvailable(query(EUR, CHF, DAY.plusDays(2))));
+        assertTrue(provider.isAvailable(query(EUR, CHF, DAY)));
+        try {
+            provider.getExchangeRate(query(EUR, CHF, DAY.plusDays(2)));
+            fail("CurrencyConversionException expected.");
+        } catch (CurrencyConversionException e) {
+            // expected
+        }
+        // latest fixing without timestamp
+        assertEquals(provider.getExchangeRate(query(EUR, CHF, null)).getFactor().doubleValue(), 1.0);
+        assertEquals(TestAmount.of("10", EUR).with(provider.getCurrencyConversion(ConversionQueryBuilder.of()
+                .setTermCurrency(CHF).setTimestamp(DAY).build())), TestAmount.of("12", CHF));
+    }
+
+    @Test
+    public void testLookupPolicies() throws IOException {
+        RateArchiveWriter.of().readCsv(new StringReader(csv())).write(archive);
+        RateArchiveExchangeRateProvider previous = RateArchiveExchangeRateProvider.open(archive, CONTEXT,
+                HistoricExchangeRateProvider.LookupPolicy.PREVIOUS);
+        assertEquals(previous.getFactor(EUR, CHF, DAY.plusDays(2)), 1.1);
+        assertEquals(previous.getFactor(EUR, CHF, DAY.plusDays(20)), 1.0);
+        assertTrue(Double.isNaN(previous.getFactor(EUR, CHF, DAY.minusDays(1))));
+        assertEquals(previous.getExchangeRate(query(EUR, CHF, DAY.plusDays(3))).getContext()
+                .get(HistoricExchangeRateProvider.FIXING_DATE), DAY.plusDays(1));
+        RateArchiveExchangeRateProvider interpolate = RateArchiveExchangeRateProvider.open(archive, CONTEXT,
+                HistoricExchangeRateProvider.LookupPolicy.INTERPOLATE);
+        assertEquals(interpolate.getFactor(EUR, CHF, DAY.plusDays(2)), 1.1 - 0.1 / 3, 1e-12);
+        assertEquals(interpolate.getFactor(EUR, CHF, DAY.plusDays(20)), 1.0);
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        RateArchiveWriter.of().readCsv(new StringReader(csv())).write(archive);
+        Path update = dir.resolve("update.csv");
+        Files.write(update, "2015-01-14,EUR,CHF,1.25\n2015-01-19,EUR,CHF,0.99\n2015-01-14,USD,CHF,0.85\n"
+                .getBytes("UTF-8"));
+        RateArchiveWriter writer = RateArchiveWriter.of().readArchive(archive).readCsv(update);
+        assertEquals(writer.getPairCount(), 3);
+        assertEquals(writer.write(archive), 6L);
+        RateArchiveExchangeRateProvider provider = RateArchiveExchangeRateProvider.open(archive, CONTEXT);
+        assertEquals(provider.getFixingCount(EUR, CHF), 4);
+        assertEquals(provider.getFactor(EUR, CHF, DAY), 1.25);
+        assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(5)), 0.99);
+        assertEquals(provider.getFactor(USD, CHF, DAY), 0.85);
+    }
+
+    @Test
+    public void testManyFixings() throws IOException {
+        RateArchiveWriter writer = RateArchiveWriter.of();
+        for (int i = 0; i < 10_000; i++) {
+            writer.addFixing(EUR, CHF, DAY.plusDays(i), 1.0 + i / 100_000.0);
+        }
+        writer.write(archive);
+        RateArchiveExchangeRateProvider provider = RateArchiveExchangeRateProvider.open(archive, CONTEXT);
+        for (int i = 0; i < 10_000; i += 997) {
+            assertEquals(provider.getFactor(EUR, CHF, DAY.plusDays(i)), 1.0 + i / 100_000.0);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidCsv() throws IOException {
+        RateArchiveWriter.of().readCsv(new StringReader("2015-01-14,EUR,CHF,-1\n"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCode() {
+        RateArchiveWriter.of().addFixing("TOO_LONG_CODE", "CHF", DAY, 1.0);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidArchive() throws IOException {
+        Files.write(archive, "not an archive".getBytes("UTF-8"));
+        RateArchiveExchangeRateProvider.open(archive, CONTEXT);
+    }
+
+    private static ConversionQuery query(CurrencyUnit base, CurrencyUnit term, LocalDate date) {
+        ConversionQueryBuilder builder = ConversionQueryBuilder.of().setBaseCurrency(base).setTermCurrency(term);
+        if (date != null) {
+            builder.setTimestamp(date);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryAmountFactory;
+import javax.money.MonetaryContext;
+import javax.money.MonetaryContextBuilder;
+import javax.money.NumberValue;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * Simple {@link MonetaryAmount} backed by a {@link BigDecimal}, used for testing conversions.
+ */
+public final class TestAmount implements MonetaryAmount {
+
+    private static final MonetaryContext CONTEXT = MonetaryContextBuilder.of(TestAmount.class).build();
+
+    private final BigDecimal number;
+    private final CurrencyUnit currency;
+
+    private TestAmount(BigDecimal number, CurrencyUnit currency) {
+        this.number = Objects.requireNonNull(number);
+        this.currency = Objects.requireNonNull(currency);
+    }
+
+    public static TestAmount of(String number, CurrencyUnit currency) {
+        return new TestAmount(new BigDecimal(number), currency);
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof NumberValue) {
+            return ((NumberValue) number).numberValue(BigDecimal.class);
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    private TestAmount with(BigDecimal value) {
+        return new TestAmount(value, currency);
+    }
+
+    private BigDecimal other(MonetaryAmount amount) {
+        if (!currency.equals(amount.getCurrency())) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " / " + amount.getCurrency());
+        }
+        return toBigDecimal(amount.getNumber());
+    }
+
+    @Override
+    public CurrencyUnit getCurrency() {
+        return currency;
+    }
+
+    @Override
+    public NumberValue getNumber() {
+        return TestNumberValue.of(number);
+    }
+
+    @Override
+    public MonetaryContext getContext() {
+        return CONTEXT;
+    }
+
+    @Override
+    public MonetaryAmountFactory<TestAmount> getFactory() {
+        return new Factory(currency, number);
+    }
+
+    @Override
+    public boolean isGreaterThan(MonetaryAmount amount) {
+        return number.compareTo(other(amount)) > 0;
+    }
+
+    @Override
+    public boolean isGreaterThanOrEqualTo(MonetaryAmount amount) {
+        return number.compareTo(other(amount)) >= 0;
+    }
+
+    @Override
+    public boolean isLessThan(MonetaryAmount amount) {
+        return number.compareTo(other(amount)) < 0;
+    }
+
+    @Override
+    public boolean isLessThanOrEqualTo(MonetaryAmount amount) {
+        return number.compareTo(other(amount)) <= 0;
+    }
+
+    @Override
+    public boolean isEqualTo(MonetaryAmount amount) {
+        return number.compareTo(other(amount)) == 0;
+    }
+
+    @Override
+    public int signum() {
+        return number.signum();
+    }
+
+    @Override
+    public TestAmount add(MonetaryAmount amount) {
+        return with(number.add(other(amount)));
+    }
+
+    @Override
+    public TestAmount subtract(MonetaryAmount amount) {
+        return with(number.subtract(other(amount)));
+    }
+
+    @Override
+    public TestAmount multiply(long multiplicand) {
+        return with(number.multiply(BigDecimal.valueOf(multiplicand)));
+    }
+
+    @Override
+    public TestAmount multiply(double multiplicand) {
+        return with(number.multiply(BigDecimal.valueOf(multiplicand)));
+    }
+
+    @Override
+    public TestAmount multiply(Number multiplicand) {
+        return with(number.multiply(toBigDecimal(multiplicand)));
+    }
+
+    @Override
+    public TestAmount divide(long divisor) {
+        return divide(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount divide(double divisor) {
+        return divide(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount divide(Number divisor) {
+        return with(number.divide(toBigDecimal(divisor), MathContext.DECIMAL64));
+    }
+
+    @Override
+    public TestAmount remainder(long divisor) {
+        return remainder(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount remainder(double divisor) {
+        return remainder(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount remainder(Number divisor) {
+        return with(number.remainder(toBigDecimal(divisor)));
+    }
+
+    @Override
+    public TestAmount[] divideAndRemainder(long divisor) {
+        return divideAndRemainder(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount[] divideAndRemainder(double divisor) {
+        return divideAndRemainder(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount[] divideAndRemainder(Number divisor) {
+        BigDecimal[] result = number.divideAndRemainder(toBigDecimal(divisor));
+        return new TestAmount[]{with(result[0]), with(result[1])};
+    }
+
+    @Override
+    public TestAmount divideToIntegralValue(long divisor) {
+        return divideToIntegralValue(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount divideToIntegralValue(double divisor) {
+        return divideToIntegralValue(BigDecimal.valueOf(divisor));
+    }
+
+    @Override
+    public TestAmount divideToIntegralValue(Number divisor) {
+        return with(number.divideToIntegralValue(toBigDecimal(divisor)));
+    }
+
+    @Override
+    public TestAmount scaleByPowerOfTen(int power) {
+        return with(number.scaleByPowerOfTen(power));
+    }
+
+    @Override
+    public TestAmount abs() {
+        return with(number.abs());
+    }
+
+    @Override
+    public TestAmount negate() {
+        return with(number.negate());
+    }
+
+    @Override
+    public TestAmount plus() {
+        return this;
+    }
+
+    @Override
+    public TestAmount stripTrailingZeros() {
+        return with(number.stripTrailingZeros());
+    }
+
+    @Override
+    public int compareTo(MonetaryAmount o) {
+        int compare = currency.getCurrencyCode().compareTo(o.getCurrency().getCurrencyCode());
+        return compare != 0 ? compare : number.compareTo(toBigDecimal(o.getNumber()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof TestAmount) {
+            TestAmount other = (TestAmount) o;
+            return currency.equals(other.currency) && number.compareTo(other.number) == 0;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(currency, number.stripTrailingZeros());
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + ' ' + number.toPlainString();
+    }
+
+    private static final class Factory implements MonetaryAmountFactory<TestAmount> {
+
+        private CurrencyUnit currency;
+        private BigDecimal number;
+
+        Factory(CurrencyUnit currency, BigDecimal number) {
+            this.currency = currency;
+            this.number = number;
+        }
+
+        @Override
+        public Class<? extends MonetaryAmount> getAmountType() {
+            return TestAmount.class;
+        }
+
+        @Override
+        public Factory setCurrency(CurrencyUnit currency) {
+            this.currency = currency;
+            return this;
+        }
+
+        @Override
+        public Factory setNumber(double number) {
+            this.number = BigDecimal.valueOf(number);
+            return this;
+        }
+
+        @Override
+        public Factory setNumber(long number) {
+            this.number = BigDecimal.valueOf(number);
+            return this;
+        }
+
+        @Override
+        public Factory setNumber(Number number) {
+            this.number = toBigDecimal(number);
+            return this;
+        }
+
+        @Override
+        public NumberValue getMaxNumber() {
+            return null;
+        }
+
+        @Override
+        public NumberValue getMinNumber() {
+            return null;
+        }
+
+        @Override
+        public Factory setContext(MonetaryContext monetaryContext) {
+            return this;
+        }
+
+        @Override
+        public TestAmount create() {
+            return new TestAmount(number, currency);
+        }
+
+        @Override
+        public MonetaryContext getDefaultMonetaryContext() {
+            return CONTEXT;
+        }
+    }
+}
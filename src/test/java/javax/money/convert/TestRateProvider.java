@@ -0,0 +1,70 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import javax.money.CurrencyUnit;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test {@link ExchangeRateProvider} with a fixed table of rates, counting the rates requested.
+ */
+public final class TestRateProvider implements ExchangeRateProvider {
+
+    private final ProviderContext context;
+    private final RateType rateType;
+    private final Map<String, BigDecimal> factors = new ConcurrentHashMap<>();
+    private final AtomicInteger callCount = new AtomicInteger();
+
+    public TestRateProvider(String name, RateType rateType) {
+        this(ProviderContext.of(name, rateType));
+    }
+
+    public TestRateProvider(ProviderContext context) {
+        this.context = context;
+        this.rateType = context.getRateTypes().iterator().next();
+    }
+
+    public TestRateProvider addRate(String base, String term, String factor) {
+        factors.put(base + '/' + term, new BigDecimal(factor));
+        return this;
+    }
+
+    public int getCallCount() {
+        return callCount.get();
+    }
+
+    @Override
+    public ProviderContext getContext() {
+        return context;
+    }
+
+    @Override
+    public ExchangeRate getExchangeRate(ConversionQuery query) {
+        callCount.incrementAndGet();
+        CurrencyUnit base = query.getBaseCurrency();
+        CurrencyUnit term = query.getCurrency();
+        BigDecimal factor = factors.get(base.getCurrencyCode() + '/' + term.getCurrencyCode());
+        if (factor == null) {
+            throw new CurrencyConversionException(base, term, ConversionContext.from(context, rateType));
+        }
+        return new DefaultExchangeRate.Builder(context.getProviderName(), rateType).setBaseCurrency(base)
+                .setTermCurrency(term).setFactor(TestNumberValue.of(factor)).build();
+    }
+
+    @Override
+    public CurrencyConversion getCurrencyConversion(ConversionQuery query) {
+        return new ProviderConversion(this, query);
+    }
+
+}
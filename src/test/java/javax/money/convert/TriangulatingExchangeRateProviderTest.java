@@ -0,0 +1,150 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE
+ * CONDITION THAT YOU ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT.
+ * PLEASE READ THE TERMS AND CONDITIONS OF THIS AGREEMENT CAREFULLY. BY
+ * DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF THE
+ * AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE"
+ * BUTTON AT THE BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency
+ * API ("Specification") Copyright (c) 2012-2014, Credit Suisse All rights
+ * reserved.
+ */
+package javax.money.convert;
+
+import org.testng.annotations.Test;
+
+import javax.money.CurrencyUnit;
+import javax.money.TestCurrency;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link TriangulatingExchangeRateProvider}.
+ */
+public class TriangulatingExchangeRateProviderTest {
+
+    private static final CurrencyUnit CHF = TestCurrency.of("CHF");
+    private static final CurrencyUnit EUR = TestCurrency.of("EUR");
+    private static final CurrencyUnit USD = TestCurrency.of("USD");
+    private static final CurrencyUnit JPY = TestCurrency.of("JPY");
+
+    private static TestRateProvider usdFeed() {
+        return new TestRateProvider("usd", RateType.DEFERRED).addRate("CHF", "USD", "1.1")
+                .addRate("USD", "EUR", "0.9");
+    }
+
+    @Test
+    public void testGetExchangeRate_Direct() {
+        TestRateProvider feed = usdFeed();
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(feed).addPivots(USD).build();
+        ExchangeRate rate = provider.getExchangeRate(CHF, USD);
+        assertFalse(rate.isDerived());
+        assertEquals(rate.getContext().getProviderName(), "usd");
+    }
+
+    @Test
+    public void testGetExchangeRate_ViaPivot() {
+        TestRateProvider feed = usdFeed();
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(feed).addPivots(USD).build();
+        ExchangeRate rate = provider.getExchangeRate(CHF, EUR);
+        assertTrue(rate.isDerived());
+        assertEquals(rate.getBaseCurrency(), CHF);
+        assertEquals(rate.getCurrency(), EUR);
+        assertEquals(rate.getFactor().numberValue(BigDecimal.class).compareTo(new BigDecimal("0.99")), 0);
+        assertEquals(rate.getExchangeRateChain().size(), 2);
+        assertEquals(rate.getExchangeRateChain().get(0).getCurrency(), USD);
+        assertEquals(rate.getExchangeRateChain().get(1).getBaseCurrency(), USD);
+        assertEquals(rate.getContext().getProviderName(), "cross");
+        assertEquals(rate.getContext().getRateType(), RateType.DEFERRED);
+    }
+
+    @Test
+    public void testGetExchangeRate_RouteCached() {
+        TestRateProvider feed = usdFeed();
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(feed).addPivots(USD).build();
+        provider.getExchangeRate(CHF, EUR);
+        // direct and inverse, then CHF/USD and USD/EUR
+        assertEquals(feed.getCallCount(), 4);
+        provider.getExchangeRate(CHF, EUR);
+        assertEquals(feed.getCallCount(), 6);
+        feed.addRate("CHF", "EUR", "0.98");
+        provider.getExchangeRate(CHF, EUR);
+        assertEquals(feed.getCallCount(), 8);
+        provider.clear();
+        assertFalse(provider.getExchangeRate(CHF, EUR).isDerived());
+    }
+
+    @Test
+    public void testGetExchangeRate_Inverse() {
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(usdFeed()).addPivots(USD).build();
+        ExchangeRate rate = provider.getExchangeRate(USD, CHF);
+        assertFalse(rate.isDerived());
+        assertEquals(rate.getBaseCurrency(), USD);
+        assertEquals(rate.getCurrency(), CHF);
+        assertEquals(rate.getContext().getProviderName(), "usd");
+        assertEquals(rate.getFactor().numberValue(BigDecimal.class),
+                BigDecimal.ONE.divide(new BigDecimal("1.1"), MathContext.DECIMAL64));
+        rate = provider.getExchangeRate(EUR, CHF);
+        assertTrue(rate.isDerived());
+        assertEquals(rate.getExchangeRateChain().get(0).getBaseCurrency(), EUR);
+        assertEquals(rate.getExchangeRateChain().get(0).getCurrency(), USD);
+        assertEquals(rate.getFactor().doubleValue(), 1.0 / 0.99, 1e-12);
+    }
+
+    @Test
+    public void testGetExchangeRate_DirectBeforeInverse() {
+        TestRateProvider inverse = new TestRateProvider("inverse", RateType.DEFERRED).addRate("CHF", "USD", "1.1");
+        TestRateProvider direct = new TestRateProvider("direct", RateType.DEFERRED).addRate("USD", "CHF", "0.91");
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(inverse, direct).build();
+        assertEquals(provider.getExchangeRate(USD, CHF).getContext().getProviderName(), "direct");
+    }
+
+    @Test
+    public void testGetExchangeRate_AcrossProviders() {
+        TestRateProvider usd = new TestRateProvider("usd", RateType.DEFERRED).addRate("CHF", "USD", "1.1");
+        TestRateProvider eur = new TestRateProvider("eur", RateType.REALTIME).addRate("USD", "EUR", "0.9");
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(usd, eur).addPivots(EUR, USD).build();
+        ExchangeRate rate = provider.getExchangeRate(CHF, EUR);
+        assertEquals(rate.getExchangeRateChain().get(0).getContext().getProviderName(), "usd");
+        assertEquals(rate.getExchangeRateChain().get(1).getContext().getProviderName(), "eur");
+        assertEquals(rate.getContext().getRateType(), RateType.ANY);
+    }
+
+    @Test
+    public void testGetExchangeRate_TwoPivots() {
+        TestRateProvider feed = usdFeed().addRate("EUR", "JPY", "160");
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(feed).addPivots(USD, EUR).build();
+        assertFalse(provider.isAvailable(CHF, JPY));
+        provider = TriangulatingExchangeRateProvider.builder(ProviderContext.of("cross")).addProviders(feed)
+                .addPivots(USD, EUR).setTwoPivotsEnabled(true).build();
+        ExchangeRate rate = provider.getExchangeRate(CHF, JPY);
+        assertEquals(rate.getExchangeRateChain().size(), 3);
+        assertEquals(rate.getFactor().numberValue(BigDecimal.class).compareTo(new BigDecimal("158.4")), 0);
+    }
+
+    @Test
+    public void testGetExchangeRate_Identity() {
+        TriangulatingExchangeRateProvider provider = TriangulatingExchangeRateProvider
+                .builder(ProviderContext.of("cross")).addProviders(usdFeed()).build();
+        assertEquals(provider.getExchangeRate(JPY, JPY).getFactor().intValue(), 1);
+    }
+
+    @Test(expectedExceptions = CurrencyConversionException.class)
+    public void testGetExchangeRate_NotAvailable() {
+        TriangulatingExchangeRateProvider.builder(ProviderContext.of("cross")).addProviders(usdFeed())
+                .addPivots(USD).build().getExchangeRate(CHF, JPY);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testBuild_NoProviders() {
+        TriangulatingExchangeRateProvider.builder(ProviderContext.of("cross")).build();
+    }
+}
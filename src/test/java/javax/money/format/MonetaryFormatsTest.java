@@ -107,4 +107,13 @@ public class MonetaryFormatsTest {
         assertNotNull(provs);
         assertTrue(provs.contains("TestAmountFormatProvider"));
     }
+    @Test
+    public void testFindAmountFormat() {
+        assertEquals(MonetaryFormats.findAmountFormat(Locale.ENGLISH).get().getClass(),
+                TestAmountFormatProvider.TestFormat.class);
+        assertFalse(MonetaryFormats.findAmountFormat(new Locale("foo", "bar")).isPresent());
+        assertTrue(MonetaryFormats.findAmountFormat(AmountFormatQueryBuilder.of("Test")
+                .setProviderName("TestAmountFormatProvider").build()).isPresent());
+    }
+
 }
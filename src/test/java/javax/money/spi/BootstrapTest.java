@@ -9,6 +9,7 @@
 package javax.money.spi;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.annotations.Test;
 
@@ -28,6 +29,38 @@ public class BootstrapTest {
         assertTrue(testProv == Bootstrap.init(prov));
     }
 
+    @Test
+    public void testAddServiceProviderListener() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Bootstrap.addServiceProviderListener(calls::incrementAndGet);
+        ServiceProvider prov = Bootstrap.getServiceProvider();
+        try {
+            Bootstrap.init(new TestServiceProvider());
+            assertEquals(calls.get(), 1);
+        } finally {
+            Bootstrap.init(prov);
+        }
+        assertEquals(calls.get(), 2);
+        assertSame(Bootstrap.getServiceProvider(), prov);
+    }
+
+    @Test
+    public void testInit_GetServiceDelegates() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Bootstrap.addServiceProviderListener(calls::incrementAndGet);
+        ServiceProvider prov = Bootstrap.getServiceProvider();
+        Bootstrap.init(new OverridingServiceProvider());
+        try {
+            assertEquals(calls.get(), 1);
+            assertEquals(Bootstrap.getService(Integer.class), Integer.valueOf(42));
+            assertEquals(Bootstrap.getService(Long.class), Long.valueOf(111));
+        } finally {
+            Bootstrap.init(prov);
+        }
+        assertEquals(calls.get(), 2);
+        assertSame(Bootstrap.getServiceProvider(), prov);
+    }
+
     @Test
     public void testInit() throws Exception {
         Collection<Object> services = Collection.class.cast(Bootstrap.getServices(String.class));
@@ -70,6 +103,25 @@ public class BootstrapTest {
         assertNull(Bootstrap.getService(Locale.class));
     }
 
+    /**
+     * Provider answering {@link #getService(Class)} differently from {@link #getServices(Class)}.
+     */
+    private static final class OverridingServiceProvider extends DefaultServiceProvider {
+
+        @Override
+        public <T> List<T> getServices(Class<T> serviceType) {
+            if (Long.class.equals(serviceType)) {
+                return List.class.cast(Collections.singletonList((long) 111));
+            }
+            return super.getServices(serviceType);
+        }
+
+        @Override
+        public <T> T getService(Class<T> serviceType) {
+            return Integer.class.equals(serviceType) ? serviceType.cast(42) : super.getService(serviceType);
+        }
+    }
+
     public final static class TestServiceProvider extends DefaultServiceProvider
             implements ServiceProvider {
 
@@ -0,0 +1,97 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.spi;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import javax.money.CurrencyQuery;
+import javax.money.CurrencyUnit;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link javax.money.spi.RegistryServiceProvider}.
+ */
+@Test
+public class RegistryServiceProviderTest {
+
+    private final ServiceProvider provider = new RegistryServiceProvider(new TestServiceRegistry());
+
+    @Test
+    public void testGetServices() {
+        assertEquals(provider.getServices(String.class), Arrays.asList("service1", "service2"));
+        assertTrue(provider.getServices(Integer.class).isEmpty());
+        assertSame(provider.getServices(String.class), provider.getServices(String.class));
+    }
+
+    @Test
+    public void testGetServices_FailingFactory() {
+        assertEquals(provider.getServices(Long.class), Collections.singletonList(1L));
+    }
+
+    @Test
+    public void testGetServices_NotCovered() {
+        List<RoundingProviderSpi> services = provider.getServices(RoundingProviderSpi.class);
+        assertFalse(services.isEmpty());
+        assertEquals(services.size(), new DefaultServiceProvider().getServices(RoundingProviderSpi.class).size());
+    }
+
+    @Test
+    public void testGetServices_RegistryOnly() {
+        List<CurrencyProviderSpi> services = provider.getServices(CurrencyProviderSpi.class);
+        assertEquals(services.size(), 2);
+        assertTrue(services.get(0) instanceof RegistryCurrencyProvider);
+        assertTrue(services.get(1) instanceof javax.money.TestCurrencyProvider);
+    }
+
+    @Test
+    public void testGetService() {
+        assertEquals(provider.getService(String.class), "service1");
+        assertNull(provider.getService(Integer.class));
+    }
+
+    @Test
+    public void testLoadServiceRegistry() {
+        assertTrue(Bootstrap.loadServiceRegistry(TestServiceRegistry.class.getName()) instanceof TestServiceRegistry);
+        assertNull(Bootstrap.loadServiceRegistry("org.javamoney.generated.MissingRegistry"));
+        assertNull(Bootstrap.loadServiceRegistry(RegistryCurrencyProvider.class.getName()));
+    }
+
+    public static final class RegistryCurrencyProvider implements CurrencyProviderSpi {
+        @Override
+        public Set<CurrencyUnit> getCurrencies(CurrencyQuery query) {
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Registry covering {@link CurrencyProviderSpi} with a provider also found by the {@link java.util.ServiceLoader}
+     * and one that is not.
+     */
+    public static final class TestServiceRegistry implements ServiceRegistry {
+        @Override
+        public List<Supplier<?>> getServiceFactories(Class<?> serviceType) {
+            if (CurrencyProviderSpi.class.equals(serviceType)) {
+                return Arrays.<Supplier<?>>asList(RegistryCurrencyProvider::new, javax.money.TestCurrencyProvider::new);
+            } else if (String.class.equals(serviceType)) {
+                return Arrays.<Supplier<?>>asList(() -> "service1", () -> "service2");
+            } else if (Integer.class.equals(serviceType)) {
+                return Collections.emptyList();
+            } else if (Long.class.equals(serviceType)) {
+                return Arrays.<Supplier<?>>asList(() -> {
+                    throw new IllegalStateException("test");
+                }, () -> 1L);
+            }
+            return null;
+        }
+    }
+}
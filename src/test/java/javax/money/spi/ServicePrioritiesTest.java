@@ -0,0 +1,59 @@
+/*
+ * CREDIT SUISSE IS WILLING TO LICENSE THIS SPECIFICATION TO YOU ONLY UPON THE CONDITION THAT YOU
+ * ACCEPT ALL OF THE TERMS CONTAINED IN THIS AGREEMENT. PLEASE READ THE TERMS AND CONDITIONS OF THIS
+ * AGREEMENT CAREFULLY. BY DOWNLOADING THIS SPECIFICATION, YOU ACCEPT THE TERMS AND CONDITIONS OF
+ * THE AGREEMENT. IF YOU ARE NOT WILLING TO BE BOUND BY IT, SELECT THE "DECLINE" BUTTON AT THE
+ * BOTTOM OF THIS PAGE. Specification: JSR-354 Money and Currency API ("Specification") Copyright
+ * (c) 2012-2015, Credit Suisse All rights reserved.
+ */
+package javax.money.spi;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for {@link javax.money.spi.ServicePriorities}.
+ */
+@Test
+public class ServicePrioritiesTest {
+
+    @Test
+    public void testGetPriority() {
+        assertEquals(ServicePriorities.getPriority(HighPriorityService.class), 100);
+        assertEquals(ServicePriorities.getPriority(LowPriorityService.class), -1);
+        assertEquals(ServicePriorities.getPriority(DefaultService.class), 0);
+    }
+
+    @Test
+    public void testServiceTypeComparator() {
+        List<Class<?>> types = new ArrayList<>(Arrays.asList(LowPriorityService.class, DefaultService.class,
+                BService.class, HighPriorityService.class));
+        types.sort(ServicePriorities.SERVICE_TYPE_COMPARATOR);
+        assertEquals(types, Arrays.asList(HighPriorityService.class, BService.class, DefaultService.class,
+                LowPriorityService.class));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Priority {
+        int value();
+    }
+
+    @Priority(100)
+    public static final class HighPriorityService {
+    }
+
+    @Priority(-1)
+    public static final class LowPriorityService {
+    }
+
+    public static final class DefaultService {
+    }
+
+    public static final class BService {
+    }
+}